@@ -16,6 +16,7 @@ package org.eclipse.jkube.kit.build.core;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 
@@ -35,6 +36,7 @@ public class JKubeBuildContext implements BuildContext<JKubeBuildConfiguration>,
     private JKubeProject project;
     private List<JKubeProject> reactorProjects;
     private transient JKubeArchiveService archiveService;
+    private Date reproducibleTimestamp;
 
     private JKubeBuildContext() { }
 
@@ -47,6 +49,16 @@ public class JKubeBuildContext implements BuildContext<JKubeBuildConfiguration>,
     }
 
 
+    /**
+     * Get the timestamp used for reproducible build archives
+     *
+     * @return modification time of all archived files or <code>null</code> if build archives
+     * don't need to be reproducible
+     */
+    public Date getReproducibleTimestamp() {
+        return reproducibleTimestamp;
+    }
+
     public File getBasedir() {
         return project.getBaseDirectory();
     }
@@ -122,6 +134,11 @@ public class JKubeBuildContext implements BuildContext<JKubeBuildConfiguration>,
             return this;
         }
 
+        public Builder reproducibleTimestamp(Date reproducibleTimestamp) {
+            context.reproducibleTimestamp = reproducibleTimestamp;
+            return this;
+        }
+
         // ===============================================================================
         // Maven specific calls
 
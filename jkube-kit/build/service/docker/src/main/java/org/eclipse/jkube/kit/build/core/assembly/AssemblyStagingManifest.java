@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.core.assembly;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jkube.kit.common.util.FileUtil;
+
+/**
+ * Stages the files of an assembly into the output directory of a build and remembers what has been staged.
+ *
+ * For every staged file the manifest records the source it was staged from together with its size, modification
+ * time and (if it has been calculated) its content digest. The manifest is stored in the working directory of the
+ * build, so that the next build only needs to stage files which have been added or changed since and to remove the
+ * staged files which are not part of the assembly anymore. Files within the output directory which have not been
+ * staged via the manifest (like the Dockerfile) are never touched.
+ */
+class AssemblyStagingManifest {
+
+    // File within the working directory holding the manifest of the last staging
+    static final String MANIFEST_FILE = "staging-manifest.properties";
+
+    private final File outputDirectory;
+    private final File manifestFile;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new HashMap<>();
+
+    AssemblyStagingManifest(BuildDirs buildDirs) throws IOException {
+        this(buildDirs.getOutputDirectory(), new File(buildDirs.getWorkingDirectory(), MANIFEST_FILE));
+    }
+
+    AssemblyStagingManifest(File outputDirectory, File manifestFile) throws IOException {
+        this.outputDirectory = outputDirectory;
+        this.manifestFile = manifestFile;
+        this.previous = load(manifestFile);
+    }
+
+    /**
+     * Stage a file or a directory (recursively). Files which are unchanged since the last staging are skipped.
+     *
+     * @param source file or directory to stage
+     * @param target staged file or directory within the output directory
+     * @throws IOException if a file cannot be staged
+     */
+    void stage(File source, File target) throws IOException {
+        if (source.isDirectory()) {
+            FileUtil.createDirectory(target);
+            File[] children = source.listFiles();
+            if (children == null) {
+                throw new IOException("Cannot list directory " + source);
+            }
+            for (File child : children) {
+                stage(child, new File(target, child.getName()));
+            }
+        } else {
+            stageFile(source, target);
+        }
+    }
+
+    /**
+     * Stage an entry of an archive by unpacking it. Entries whose size and checksum are unchanged since the last
+     * staging from the same archive are skipped.
+     *
+     * @param archive archive holding the entry
+     * @param entry entry to stage
+     * @param target staged file within the output directory
+     * @throws IOException if the entry cannot be unpacked
+     */
+    void stage(ZipFile archive, ZipEntry entry, File target) throws IOException {
+        String path = getPath(target);
+        Entry staged = previous.get(path);
+        String source = new File(archive.getName()).getAbsolutePath() + "!/" + entry.getName();
+        // The checksum of the entry takes the place of the content digest
+        String checksum = Long.toHexString(entry.getCrc());
+        if (staged != null && staged.source.equals(source) && staged.size == entry.getSize() &&
+                checksum.equals(staged.digest) && target.isFile() && target.length() == entry.getSize()) {
+            current.put(path, staged);
+            return;
+        }
+        FileUtil.createDirectory(target.getParentFile());
+        try (InputStream in = archive.getInputStream(entry)) {
+            Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        current.put(path, new Entry(source, entry.getSize(), entry.getTime(), checksum));
+    }
+
+    /**
+     * Remove all files which have been staged by the previous run, but not by this one, and store the manifest
+     * for the next run.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    void finish() throws IOException {
+        for (String path : previous.keySet()) {
+            if (!current.containsKey(path)) {
+                remove(new File(outputDirectory, path));
+            }
+        }
+        store();
+        previous.clear();
+        previous.putAll(current);
+        current.clear();
+    }
+
+    private void stageFile(File source, File target) throws IOException {
+        String path = getPath(target);
+        Entry staged = previous.get(path);
+        long size = source.length();
+        long lastModified = source.lastModified();
+        String sourcePath = source.getAbsolutePath();
+        if (staged != null && staged.source.equals(sourcePath) && staged.size == size &&
+                target.isFile() && target.length() == size) {
+            if (staged.lastModified == lastModified) {
+                current.put(path, staged);
+                return;
+            }
+            // Touched, but possibly not changed (e.g. when resources are copied again by the build)
+            String digest = digest(source);
+            if (digest.equals(staged.digest != null ? staged.digest : digest(target))) {
+                current.put(path, new Entry(sourcePath, size, lastModified, digest));
+                return;
+            }
+            FileUtil.linkOrCopy(source, target);
+            current.put(path, new Entry(sourcePath, size, lastModified, digest));
+            return;
+        }
+        // Staged files are only read when creating the archive, so they can be linked instead of copied
+        FileUtil.createDirectory(target.getParentFile());
+        FileUtil.linkOrCopy(source, target);
+        current.put(path, new Entry(sourcePath, size, lastModified, null));
+    }
+
+    private void remove(File file) throws IOException {
+        if (!file.isFile()) {
+            return;
+        }
+        Files.delete(file.toPath());
+        // Remove directories which became empty, but never the output directory itself
+        File dir = file.getParentFile();
+        while (dir != null && !dir.equals(outputDirectory) && isEmptyDirectory(dir)) {
+            Files.delete(dir.toPath());
+            dir = dir.getParentFile();
+        }
+    }
+
+    private String getPath(File target) throws IOException {
+        Path base = outputDirectory.toPath().toAbsolutePath().normalize();
+        Path path = target.toPath().toAbsolutePath().normalize();
+        if (!path.startsWith(base) || path.equals(base)) {
+            throw new IOException("Cannot stage " + target + " outside of " + outputDirectory);
+        }
+        return base.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private void store() throws IOException {
+        Properties properties = new Properties();
+        current.forEach((path, entry) -> properties.setProperty(path, entry.toString()));
+        FileUtil.createDirectory(manifestFile.getParentFile());
+        try (OutputStream out = Files.newOutputStream(manifestFile.toPath())) {
+            properties.store(out, "Files staged for the build of the image");
+        }
+    }
+
+    private static Map<String, Entry> load(File manifestFile) throws IOException {
+        Map<String, Entry> ret = new HashMap<>();
+        if (!manifestFile.isFile()) {
+            return ret;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(manifestFile.toPath())) {
+            properties.load(in);
+        }
+        for (String path : properties.stringPropertyNames()) {
+            Entry entry = Entry.parse(properties.getProperty(path));
+            // Unreadable entries are treated like files which have never been staged
+            if (entry != null) {
+                ret.put(path, entry);
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isEmptyDirectory(File dir) {
+        String[] children = dir.list();
+        return children != null && children.length == 0;
+    }
+
+    // Source and target always have the same name, so that the name included in the digest doesn't matter
+    private static String digest(File file) throws IOException {
+        return new BuildContextDigest().add(file).hex();
+    }
+
+    private static class Entry {
+        private final String source;
+        private final long size;
+        private final long lastModified;
+        private final String digest;
+
+        private Entry(String source, long size, long lastModified, String digest) {
+            this.source = source;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+
+        // Format: <size>,<last modified>,<digest>,<source>, with the source last as it might contain commas
+        private static Entry parse(String value) {
+            String[] parts = value.split(",", 4);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Entry(parts[3], Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                        parts[2].isEmpty() ? null : parts[2]);
+            } catch (NumberFormatException exp) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return size + "," + lastModified + "," + (digest != null ? digest : "") + "," + source;
+        }
+    }
+}
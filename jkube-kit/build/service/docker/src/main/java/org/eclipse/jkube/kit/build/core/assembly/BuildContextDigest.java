@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.core.assembly;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 digest over the inputs of a build context.
+ *
+ * Every value is added together with its length, so that different sequences of values can't result in the
+ * same digest.
+ */
+class BuildContextDigest {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    BuildContextDigest() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    BuildContextDigest add(String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update((byte) 1);
+            addLength(bytes.length);
+            digest.update(bytes);
+        }
+        return this;
+    }
+
+    BuildContextDigest add(Map<String, String> values) {
+        Map<String, String> sorted = values != null ? new TreeMap<>(values) : new TreeMap<>();
+        addLength(sorted.size());
+        sorted.forEach((key, value) -> add(key).add(value));
+        return this;
+    }
+
+    /**
+     * Add the name and content of the given file. Directories are added recursively with the paths of their
+     * entries relative to the given file, in a stable order. Files which don't exist are recorded as missing.
+     *
+     * @param file file or directory to add
+     * @return this digest
+     * @throws IOException if a file cannot be read
+     */
+    BuildContextDigest add(File file) throws IOException {
+        return add(file, file.getName());
+    }
+
+    String hex() {
+        StringBuilder ret = new StringBuilder();
+        for (byte b : digest.digest()) {
+            ret.append(String.format("%02x", b));
+        }
+        return ret.toString();
+    }
+
+    private BuildContextDigest add(File file, String path) throws IOException {
+        add(path);
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                throw new IOException("Cannot list directory " + file);
+            }
+            Arrays.sort(children);
+            add("dir:" + children.length);
+            for (File child : children) {
+                add(child, path + "/" + child.getName());
+            }
+        } else if (file.isFile()) {
+            add("file:" + file.length());
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        } else {
+            add("missing");
+        }
+        return this;
+    }
+
+    private void addLength(long length) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            digest.update((byte) (length >>> shift));
+        }
+    }
+}
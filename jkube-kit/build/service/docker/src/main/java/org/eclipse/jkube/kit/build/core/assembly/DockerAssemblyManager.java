@@ -17,14 +17,21 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.eclipse.jkube.kit.build.core.JKubeBuildContext;
 import org.eclipse.jkube.kit.build.core.config.JKubeAssemblyConfiguration;
@@ -46,6 +53,7 @@ import static org.eclipse.jkube.kit.build.core.assembly.JKubeAssemblyConfigurati
 import static org.eclipse.jkube.kit.build.core.assembly.JKubeAssemblyConfigurationUtils.getJKubeAssemblyFileSets;
 import static org.eclipse.jkube.kit.build.core.assembly.JKubeAssemblyConfigurationUtils.getJKubeAssemblyFileSetsExcludes;
 import static org.eclipse.jkube.kit.build.core.assembly.JKubeAssemblyConfigurationUtils.getJKubeAssemblyFiles;
+import static org.eclipse.jkube.kit.build.core.assembly.JKubeAssemblyConfigurationUtils.getJKubeAssemblyLayers;
 
 /**
  * Tool for creating a docker image tar ball including a Dockerfile for building
@@ -65,6 +73,8 @@ public class DockerAssemblyManager {
     public static final String DOCKER_EXCLUDE = ".maven-dockerexclude";
     public static final String DOCKER_INCLUDE = ".maven-dockerinclude";
     public static final String DOCKERFILE_NAME = "Dockerfile";
+    // File within the temporary build directory holding the digest of the last calculated build context
+    public static final String BUILD_CONTEXT_DIGEST_FILE = "build-context.sha256";
 
     private DockerAssemblyManager() { }
 
@@ -110,6 +120,97 @@ public class DockerAssemblyManager {
             ArchiverCustomizer finalCustomizer) throws IOException {
 
         final BuildDirs buildDirs = createBuildDirs(imageName, params);
+        final JKubeTarArchiver jkubeTarArchiver = createBuildTarArchiver(params, buildDirs, buildConfig, log, finalCustomizer);
+        return jkubeTarArchiver.createArchive(getBuildContextDirectory(params, buildDirs, buildConfig), buildDirs, buildConfig.getCompression());
+    }
+
+    /**
+     * Create the docker tar archive from the given configuration and write it directly to the given stream, without
+     * storing it in the build directory first. This way the archive can be sent to the Docker host while it is created.
+     *
+     * @param imageName Name of the image to create (used for creating build directories)
+     * @param params Mojos parameters (used for finding the directories)
+     * @param buildConfig configuration for how to build the image
+     * @param log KitLogger used to display warning if permissions are to be normalized
+     * @param finalCustomizer finalCustomizer to be applied to the tar archive
+     * @param outputStream stream to write the archive to, closed when the archive has been written
+     * @throws IOException IO exception
+     */
+    public void writeDockerTarArchive(
+            String imageName, final JKubeBuildContext params, final JKubeBuildConfiguration buildConfig, KitLogger log,
+            ArchiverCustomizer finalCustomizer, OutputStream outputStream) throws IOException {
+
+        final BuildDirs buildDirs = createBuildDirs(imageName, params);
+        final JKubeTarArchiver jkubeTarArchiver = createBuildTarArchiver(params, buildDirs, buildConfig, log, finalCustomizer);
+        jkubeTarArchiver.writeArchive(getBuildContextDirectory(params, buildDirs, buildConfig), outputStream, buildConfig.getCompression());
+    }
+
+    /**
+     * Calculate a digest over all inputs which make up the build context of the given image: The assembly file sets
+     * and files, the final artifact, the generated Dockerfile, the build args and the id of the base image. The digest
+     * is stored in the temporary build directory of the image, too.
+     *
+     * Two build contexts with the same digest result in the same image, so that a build can be skipped if an
+     * image built from a build context with this digest already exists.
+     *
+     * @param imageName Name of the image to create (used for creating build directories)
+     * @param params Mojos parameters (used for finding the directories)
+     * @param buildConfig configuration for how to build the image
+     * @param buildArgs build args used for the build
+     * @param baseImageId id of the base image or <code>null</code> if not known
+     * @return the digest or <code>null</code> if the build context cannot be fingerprinted (when using an external Dockerfile)
+     * @throws IOException if the inputs cannot be read or the digest cannot be stored
+     */
+    public String calculateBuildContextDigest(
+            String imageName, JKubeBuildContext params, JKubeBuildConfiguration buildConfig,
+            Map<String, String> buildArgs, String baseImageId) throws IOException {
+
+        if (buildConfig.isDockerFileMode()) {
+            // The Dockerfile can refer to anything in its directory, so we can't tell what belongs to the context
+            return null;
+        }
+        final JKubeProject project = params.getProject();
+        final JKubeAssemblyConfiguration assemblyConfig = getAssemblyConfigurationOrCreateDefault(buildConfig);
+        final BuildContextDigest digest = new BuildContextDigest()
+                .add(createDockerFileBuilder(buildConfig, assemblyConfig).content())
+                .add(buildArgs)
+                .add(baseImageId);
+
+        for (JKubeAssemblyFileSet fileSet : getJKubeAssemblyFileSets(assemblyConfig)) {
+            digest.add(fileSet.getLayer()).add(fileSet.getOutputDirectory()).add(fileSet.getFileMode());
+            for (String exclude : Optional.ofNullable(fileSet.getExludes()).orElse(Collections.emptyList())) {
+                digest.add(exclude);
+            }
+            if (fileSet.getArchive() != null) {
+                digest.add(getFileSetArchive(project, fileSet));
+            }
+            for (String include : Optional.ofNullable(fileSet.getIncludes()).orElse(Collections.emptyList())) {
+                if (fileSet.getArchive() != null) {
+                    digest.add(include);
+                } else {
+                    digest.add(getFileSetSourceFile(project, fileSet, include));
+                }
+            }
+        }
+        for (JKubeAssemblyFile file : getJKubeAssemblyFiles(assemblyConfig)) {
+            digest.add(file.getLayer()).add(file.getOutputDirectory()).add(getAssemblyFileSourceFile(project, file));
+        }
+        final File finalArtifactFile = JKubeProjectUtil.getFinalOutputArtifact(project);
+        if (finalArtifactFile != null) {
+            digest.add(finalArtifactFile);
+        }
+
+        final String ret = digest.hex();
+        final BuildDirs buildDirs = createBuildDirs(imageName, params);
+        Files.write(new File(buildDirs.getTemporaryRootDirectory(), BUILD_CONTEXT_DIGEST_FILE).toPath(),
+                ret.getBytes(StandardCharsets.UTF_8));
+        return ret;
+    }
+
+    // Prepare the build directory and the archiver for creating the final tar-ball to send to the Docker daemon
+    private JKubeTarArchiver createBuildTarArchiver(
+            final JKubeBuildContext params, final BuildDirs buildDirs, final JKubeBuildConfiguration buildConfig, KitLogger log,
+            ArchiverCustomizer finalCustomizer) throws IOException {
 
         Map<File, String> fileToPermissionsMap = copyFilesToFinalTarballDirectory(params.getProject(), buildDirs, buildConfig.getAssemblyConfiguration());
         final JKubeAssemblyConfiguration assemblyConfig = getAssemblyConfigurationOrCreateDefault(buildConfig);
@@ -172,10 +273,11 @@ public class DockerAssemblyManager {
             archiveCustomizers.add(archiver -> {
                 filesToExclude.forEach(archiver::excludeFile);
                 fileToPermissionsMap.forEach(archiver::setFilePermissions);
+                archiver.setReproducibleTimestamp(params.getReproducibleTimestamp());
                 return archiver;
             });
 
-            return createBuildTarBall(params, buildDirs, archiveCustomizers, assemblyConfig, buildConfig.getCompression());
+            return customizeArchiver(archiveCustomizers);
 
         } catch (IOException e) {
             throw new IOException(String.format("Cannot create %s in %s", DOCKERFILE_NAME, buildDirs.getOutputDirectory()), e);
@@ -273,20 +375,21 @@ public class DockerAssemblyManager {
         return new File(archiveDir,relativePath);
     }
 
-    // Create final tar-ball to be used for building the archive to send to the Docker daemon
-    private File createBuildTarBall(JKubeBuildContext params, BuildDirs buildDirs, List<ArchiverCustomizer> archiverCustomizers,
-                                    JKubeAssemblyConfiguration assemblyConfig, ArchiveCompression compression) throws IOException {
-        DockerAssemblyConfigurationSource source = new DockerAssemblyConfigurationSource(params, buildDirs, assemblyConfig);
-
+    private JKubeTarArchiver customizeArchiver(List<ArchiverCustomizer> archiverCustomizers) throws IOException {
         JKubeTarArchiver jkubeTarArchiver = new JKubeTarArchiver();
         for (ArchiverCustomizer customizer : archiverCustomizers) {
             if (customizer != null) {
                 jkubeTarArchiver = customizer.customize(jkubeTarArchiver);
             }
         }
-        return jkubeTarArchiver.createArchive(source.getOutputDirectory(), buildDirs, compression);
+        return jkubeTarArchiver;
     }
 
+    // Directory holding the content of the final tar-ball to be used for building the archive to send to the Docker daemon
+    private File getBuildContextDirectory(JKubeBuildContext params, BuildDirs buildDirs, JKubeBuildConfiguration buildConfig) {
+        JKubeAssemblyConfiguration assemblyConfig = getAssemblyConfigurationOrCreateDefault(buildConfig);
+        return new DockerAssemblyConfigurationSource(params, buildDirs, assemblyConfig).getOutputDirectory();
+    }
 
     private File createArchiveDir(BuildDirs dirs) throws IOException{
         File archiveDir = new File(dirs.getTemporaryRootDirectory(), "changed-files");
@@ -303,7 +406,7 @@ public class DockerAssemblyManager {
 
     // visible for testing
     @SuppressWarnings("deprecation")
-    DockerFileBuilder createDockerFileBuilder(BuildConfiguration buildConfig, AssemblyConfiguration assemblyConfig) {
+    DockerFileBuilder createDockerFileBuilder(BuildConfiguration buildConfig, JKubeAssemblyConfiguration assemblyConfig) {
         DockerFileBuilder builder =
                 new DockerFileBuilder()
                         .env(buildConfig.getEnv())
@@ -319,6 +422,10 @@ public class DockerAssemblyManager {
             builder.workdir(buildConfig.getWorkdir());
         }
         if (assemblyConfig != null) {
+            // Layers are copied first so that they are not invalidated by changes of the application
+            for (String layer : getJKubeAssemblyLayers(assemblyConfig)) {
+                builder.add(getAssemblyDirectoryName(assemblyConfig, layer), "");
+            }
             builder.add(assemblyConfig.getName(), "")
                    .basedir(assemblyConfig.getTargetDir())
                    .assemblyUser(assemblyConfig.getUser())
@@ -352,6 +459,7 @@ public class DockerAssemblyManager {
             throws IOException {
         DockerAssemblyConfigurationSource source = new DockerAssemblyConfigurationSource(params, buildDirs, assemblyConfig);
         JKubeTarArchiver jkubeTarArchiver = new JKubeTarArchiver();
+        jkubeTarArchiver.setReproducibleTimestamp(params.getReproducibleTimestamp());
 
         Map<File, String> fileToPermissionsMap = copyFilesToFinalTarballDirectory(params.getProject(), buildDirs, assemblyConfig);
         AssemblyMode buildMode = assemblyConfig.getMode();
@@ -417,64 +525,116 @@ public class DockerAssemblyManager {
 
         final Map<File, String> filesToPermissionsMap = new HashMap<>();
         FileUtil.createDirectory(new File(buildDirs.getOutputDirectory(), assemblyConfiguration.getName()));
+        for (String layer : getJKubeAssemblyLayers(assemblyConfiguration)) {
+            FileUtil.createDirectory(new File(buildDirs.getOutputDirectory(), getAssemblyDirectoryName(assemblyConfiguration, layer)));
+        }
+        // Only files changed since the last build are staged again, files not part of the assembly anymore are removed
+        final AssemblyStagingManifest stagingManifest = new AssemblyStagingManifest(buildDirs);
         for (JKubeAssemblyFileSet fileSet : getJKubeAssemblyFileSets(assemblyConfiguration)) {
-            filesToPermissionsMap.putAll(processJKubeProjectAssemblyFileSet(project, fileSet, buildDirs, assemblyConfiguration));
+            filesToPermissionsMap.putAll(processJKubeProjectAssemblyFileSet(project, fileSet, buildDirs, assemblyConfiguration, stagingManifest));
         }
         for (JKubeAssemblyFile file : getJKubeAssemblyFiles(assemblyConfiguration)) {
-            processJKubeProjectAssemblyFile(project, file, buildDirs, assemblyConfiguration);
+            processJKubeProjectAssemblyFile(project, file, buildDirs, assemblyConfiguration, stagingManifest);
         }
+        stagingManifest.finish();
         return filesToPermissionsMap;
     }
 
-    private Map<File, String> processJKubeProjectAssemblyFileSet(JKubeProject project, JKubeAssemblyFileSet jkubeProjectAssemblyFileSet, BuildDirs buildDirs, JKubeAssemblyConfiguration jkubeProjectAssemblyConfiguration) throws IOException {
+    private Map<File, String> processJKubeProjectAssemblyFileSet(JKubeProject project, JKubeAssemblyFileSet jkubeProjectAssemblyFileSet, BuildDirs buildDirs, JKubeAssemblyConfiguration jkubeProjectAssemblyConfiguration,
+                                                                 AssemblyStagingManifest stagingManifest) throws IOException {
         Map<File, String> fileToPermissionsMap = new HashMap<>();
 
+        String assemblyDirectoryName = getAssemblyDirectoryName(jkubeProjectAssemblyConfiguration, jkubeProjectAssemblyFileSet.getLayer());
+        File destParentFile = new File(buildDirs.getOutputDirectory() + File.separator + assemblyDirectoryName);
+        if (jkubeProjectAssemblyFileSet.getOutputDirectory() != null && !jkubeProjectAssemblyFileSet.getOutputDirectory().equalsIgnoreCase(".")) {
+            destParentFile = new File(buildDirs.getOutputDirectory() + File.separator + assemblyDirectoryName + File.separator + jkubeProjectAssemblyFileSet.getOutputDirectory());
+        }
+        FileUtil.createDirectory(destParentFile);
+        if (jkubeProjectAssemblyFileSet.getArchive() != null) {
+            return unpackJKubeProjectAssemblyFileSet(project, jkubeProjectAssemblyFileSet, destParentFile, stagingManifest);
+        }
+
         for (String relativePathInclude : jkubeProjectAssemblyFileSet.getIncludes()) {
-            File assemblyFileSetOutputDirectory = new File(jkubeProjectAssemblyFileSet.getDirectory());
-            File sourceFile = new File(assemblyFileSetOutputDirectory.isAbsolute() ?
-                    assemblyFileSetOutputDirectory :
-                    new File(project.getBaseDirectory() + File.separator + jkubeProjectAssemblyFileSet.getDirectory()), FileUtil.trimWildcardCharactersFromPath(relativePathInclude));
-            File destParentFile = new File(buildDirs.getOutputDirectory() + File.separator + jkubeProjectAssemblyConfiguration.getName());
-            if (jkubeProjectAssemblyFileSet.getOutputDirectory() != null && !jkubeProjectAssemblyFileSet.getOutputDirectory().equalsIgnoreCase(".")) {
-                destParentFile = new File(buildDirs.getOutputDirectory() + File.separator + jkubeProjectAssemblyConfiguration.getName() + File.separator + jkubeProjectAssemblyFileSet.getOutputDirectory());
-            }
-            FileUtil.createDirectory(destParentFile);
+            File sourceFile = getFileSetSourceFile(project, jkubeProjectAssemblyFileSet, relativePathInclude);
             File destFile = new File(destParentFile, sourceFile.getName());
 
             if (sourceFile.exists()) {
-                if (sourceFile.isDirectory()) {
-                    FileUtil.copyDirectory(sourceFile, destFile);
-                } else {
-                    FileUtil.copy(sourceFile, destFile);
-                }
+                stagingManifest.stage(sourceFile, destFile);
                 fileToPermissionsMap.put(destFile, jkubeProjectAssemblyFileSet.getFileMode());
             }
         }
         return fileToPermissionsMap;
     }
 
+    // The included entries of the archive are unpacked with their path within the archive
+    private Map<File, String> unpackJKubeProjectAssemblyFileSet(JKubeProject project, JKubeAssemblyFileSet fileSet, File destParentFile,
+                                                                AssemblyStagingManifest stagingManifest) throws IOException {
+        Map<File, String> fileToPermissionsMap = new HashMap<>();
+        File archive = getFileSetArchive(project, fileSet);
+        Path destParentPath = destParentFile.toPath().toAbsolutePath().normalize();
+        try (ZipFile zip = new ZipFile(archive)) {
+            for (String entryName : Optional.ofNullable(fileSet.getIncludes()).orElse(Collections.emptyList())) {
+                ZipEntry entry = zip.getEntry(entryName);
+                if (entry == null || entry.isDirectory()) {
+                    continue;
+                }
+                File destFile = new File(destParentFile, entryName);
+                if (!destFile.toPath().toAbsolutePath().normalize().startsWith(destParentPath)) {
+                    throw new IOException("Entry " + entryName + " of " + archive + " is outside of the target directory " + destParentFile);
+                }
+                stagingManifest.stage(zip, entry, destFile);
+                fileToPermissionsMap.put(destFile, fileSet.getFileMode());
+            }
+        }
+        return fileToPermissionsMap;
+    }
+
     private void processJKubeProjectAssemblyFile(
-      JKubeProject project, JKubeAssemblyFile assemblyFile, BuildDirs buildDirs, JKubeAssemblyConfiguration assemblyConfiguration)
-      throws IOException {
+      JKubeProject project, JKubeAssemblyFile assemblyFile, BuildDirs buildDirs, JKubeAssemblyConfiguration assemblyConfiguration,
+      AssemblyStagingManifest stagingManifest) throws IOException {
 
         final File outputDirectory;
-        if (new File(assemblyFile.getOutputDirectory()).isAbsolute()) {
+        final boolean staged = !new File(assemblyFile.getOutputDirectory()).isAbsolute();
+        if (!staged) {
             outputDirectory = new File(assemblyFile.getOutputDirectory());
         } else {
             outputDirectory = buildDirs.getOutputDirectory().toPath()
-              .resolve(assemblyConfiguration.getName())
+              .resolve(getAssemblyDirectoryName(assemblyConfiguration, assemblyFile.getLayer()))
               .resolve(assemblyFile.getOutputDirectory())
               .toFile();
         }
-        final File sourceFile;
-        if (new File(assemblyFile.getSource()).isAbsolute()) {
-            sourceFile = new File(assemblyFile.getSource());
-        } else {
-            sourceFile = new File(project.getBaseDirectory(), assemblyFile.getSource());
-        }
+        final File sourceFile = getAssemblyFileSourceFile(project, assemblyFile);
         FileUtil.createDirectory(outputDirectory);
         final File destinationFile = new File(outputDirectory, sourceFile.getName());
-        FileUtil.copy(sourceFile, destinationFile);
+        if (staged) {
+            stagingManifest.stage(sourceFile, destinationFile);
+        } else {
+            FileUtil.copy(sourceFile, destinationFile);
+        }
+    }
+
+    // Directory within the build context holding the files of the given layer, or of the application if no layer is given
+    private static String getAssemblyDirectoryName(AssemblyConfiguration assemblyConfig, String layer) {
+        return layer != null ? assemblyConfig.getName() + "-" + layer : assemblyConfig.getName();
+    }
+
+    private static File getFileSetSourceFile(JKubeProject project, JKubeAssemblyFileSet fileSet, String relativePathInclude) {
+        File assemblyFileSetOutputDirectory = new File(fileSet.getDirectory());
+        return new File(assemblyFileSetOutputDirectory.isAbsolute() ?
+                assemblyFileSetOutputDirectory :
+                new File(project.getBaseDirectory() + File.separator + fileSet.getDirectory()), FileUtil.trimWildcardCharactersFromPath(relativePathInclude));
+    }
+
+    private static File getFileSetArchive(JKubeProject project, JKubeAssemblyFileSet fileSet) {
+        File archive = new File(fileSet.getArchive());
+        return archive.isAbsolute() ? archive : new File(project.getBaseDirectory(), fileSet.getArchive());
+    }
+
+    private static File getAssemblyFileSourceFile(JKubeProject project, JKubeAssemblyFile assemblyFile) {
+        if (new File(assemblyFile.getSource()).isAbsolute()) {
+            return new File(assemblyFile.getSource());
+        }
+        return new File(project.getBaseDirectory(), assemblyFile.getSource());
     }
 
     private static BuildDirs createBuildDirs(String imageName, JKubeBuildContext params) {
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class JKubeAssemblyConfigurationUtils {
 
@@ -62,4 +63,13 @@ public class JKubeAssemblyConfigurationUtils {
       .map(JKubeProjectAssembly::getFiles)
       .orElse(Collections.emptyList());
   }
+
+  static List<String> getJKubeAssemblyLayers(JKubeAssemblyConfiguration configuration) {
+    return Stream.concat(
+        getJKubeAssemblyFileSets(configuration).stream().filter(Objects::nonNull).map(JKubeAssemblyFileSet::getLayer),
+        getJKubeAssemblyFiles(configuration).stream().filter(Objects::nonNull).map(JKubeAssemblyFile::getLayer))
+      .filter(Objects::nonNull)
+      .distinct()
+      .collect(Collectors.toList());
+  }
 }
@@ -15,27 +15,30 @@ package org.eclipse.jkube.kit.build.core.assembly;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
-import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
-import org.apache.commons.compress.utils.IOUtils;
-import org.apache.commons.io.FileUtils;
 import org.eclipse.jkube.kit.common.util.FileUtil;
 import org.eclipse.jkube.kit.config.image.build.ArchiveCompression;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class JKubeTarArchiver {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     private Map<File, String> filesToIncludeNameMap = new HashMap<>();
     private Map<File, String> fileToPermissionsMap = new HashMap<>();
     private List<String> filesNamesToExclude = new ArrayList<>();
+    private Date reproducibleTimestamp;
 
     public void includeFile(File inputFile, String destinationFileName) {
         filesToIncludeNameMap.put(inputFile, destinationFileName);
@@ -45,6 +48,19 @@ public class JKubeTarArchiver {
         fileToPermissionsMap.put(file, permissions);
     }
 
+    /**
+     * Create archives which only depend on the content and the configured permissions of the archived files,
+     * so that the same input always results in the same archive. Entries are added in the order of their paths,
+     * the modification time of all entries is set to the given timestamp, the ownership is set to root and
+     * the permissions of a directory apply to all files within it, unless configured otherwise for a file.
+     *
+     * @param reproducibleTimestamp modification time of all archived files. Reproducible archives are
+     *                              disabled if <code>null</code>.
+     */
+    public void setReproducibleTimestamp(Date reproducibleTimestamp) {
+        this.reproducibleTimestamp = reproducibleTimestamp;
+    }
+
     public void excludeFile(String inputFilePath) {
         filesNamesToExclude.add(inputFilePath);
     }
@@ -59,44 +75,44 @@ public class JKubeTarArchiver {
 
     public File createArchive(File inputDirectory, BuildDirs buildDirs, ArchiveCompression compression) throws IOException {
         File outputFile = new File(buildDirs.getTemporaryRootDirectory(), "docker-build." + (compression.equals(ArchiveCompression.none) ? "tar" : compression.getFileSuffix()));
-        List<File> files = FileUtil.listFilesRecursivelyInDirectory(inputDirectory);
-
-        if (!filesToIncludeNameMap.isEmpty()) {
-            for (Map.Entry<File, String> entry : filesToIncludeNameMap.entrySet()) {
-                File srcFile = entry.getKey();
-                String targetFileName = entry.getValue();
-
-                // 1. Check whether nested directory is there, if not create it
-                String[] pathParts = targetFileName.split(File.separator);
-                File parentDirectory = inputDirectory;
-                if (pathParts.length > 0) {
-                    StringBuilder finalPathBuilder = new StringBuilder();
-                    for (int i = 0; i < pathParts.length - 1; i++) {
-                        String pathPart = pathParts[i];
-                        finalPathBuilder.append(pathPart + File.separator);
-                    }
-                    parentDirectory = new File(inputDirectory, finalPathBuilder.toString());
-                    parentDirectory.mkdirs();
-                }
-                File targetFile = new File(parentDirectory, pathParts[pathParts.length - 1]);
-                // Check whether file is not already created.
-                if (!targetFile.exists()) {
-                    FileUtils.copyFile(srcFile, targetFile);
-                    files.add(targetFile);
-                }
+        return createTarBall(outputFile, inputDirectory, collectFilesToArchive(inputDirectory), compression);
+    }
+
+    /**
+     * Write the archive directly to the given stream instead of a file in the build directory.
+     * The stream is closed once the archive has been written.
+     *
+     * @param inputDirectory directory holding the files to archive
+     * @param outputStream stream to write the archive to
+     * @param compression compression to apply
+     * @throws IOException in case of any I/O exception
+     */
+    public void writeArchive(File inputDirectory, OutputStream outputStream, ArchiveCompression compression) throws IOException {
+        writeTarBall(outputStream, inputDirectory, collectFilesToArchive(inputDirectory), compression);
+    }
+
+    // Map the files to archive to their path within the archive. Included files are archived directly from
+    // their source, without copying them into the input directory first.
+    private Map<File, String> collectFilesToArchive(File inputDirectory) {
+        Map<File, String> files = toEntryNames(inputDirectory, FileUtil.listFilesRecursivelyInDirectory(inputDirectory));
+
+        for (Map.Entry<File, String> entry : filesToIncludeNameMap.entrySet()) {
+            String targetFileName = entry.getValue().replace(File.separatorChar, '/');
+            // Files already within the input directory take precedence
+            if (!new File(inputDirectory, targetFileName).exists()) {
+                files.put(entry.getKey(), targetFileName);
             }
         }
 
-        List<File> fileListToAddInTarball = new ArrayList<>();
-        for (int i = 0; i < files.size(); i++) {
-            File currentFile = files.get(i);
-            if (filesNamesToExclude.contains(currentFile.getName())) {
+        Map<File, String> filesToAddInTarball = new LinkedHashMap<>();
+        for (Map.Entry<File, String> entry : files.entrySet()) {
+            String entryName = entry.getValue();
+            if (filesNamesToExclude.contains(entryName.substring(entryName.lastIndexOf('/') + 1))) {
                 continue;
             }
-            fileListToAddInTarball.add(currentFile);
+            filesToAddInTarball.put(entry.getKey(), entryName);
         }
-
-        return createTarBall(outputFile, inputDirectory, fileListToAddInTarball, compression);
+        return filesToAddInTarball;
     }
 
     public File createTarBallOfDirectory(File outputFile, File inputDirectory, ArchiveCompression compression) throws IOException {
@@ -104,39 +120,90 @@ public class JKubeTarArchiver {
     }
 
     public File createTarBall(File outputFile, File inputDirectory, List<File> fileList, ArchiveCompression compression) throws IOException {
-        try (FileOutputStream fileOutputStream = new FileOutputStream(outputFile);
-             BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(fileOutputStream)) {
-
-            TarArchiveOutputStream tarArchiveOutputStream = null;
-            if (compression.equals(ArchiveCompression.gzip)) {
-                tarArchiveOutputStream = new TarArchiveOutputStream(new GzipCompressorOutputStream(bufferedOutputStream));
-            } else if (compression.equals(ArchiveCompression.bzip2)) {
-                tarArchiveOutputStream = new TarArchiveOutputStream(new BZip2CompressorOutputStream(bufferedOutputStream));
-            } else {
-                tarArchiveOutputStream = new TarArchiveOutputStream(bufferedOutputStream);
-            }
+        return createTarBall(outputFile, inputDirectory, toEntryNames(inputDirectory, fileList), compression);
+    }
+
+    private File createTarBall(File outputFile, File inputDirectory, Map<File, String> files, ArchiveCompression compression) throws IOException {
+        writeTarBall(new FileOutputStream(outputFile), inputDirectory, files, compression);
+        return outputFile;
+    }
+
+    private void writeTarBall(OutputStream outputStream, File inputDirectory, Map<File, String> files, ArchiveCompression compression) throws IOException {
+        try (BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(outputStream, COPY_BUFFER_SIZE);
+             TarArchiveOutputStream tarArchiveOutputStream = createTarArchiveOutputStream(bufferedOutputStream, compression)) {
 
             tarArchiveOutputStream.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
             tarArchiveOutputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_GNU);
-            for (File currentFile : fileList) {
+            // Single buffer reused for every entry so that heap usage doesn't depend on the size of the archived files
+            final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            for (Map.Entry<File, String> file : sortIfReproducible(files)) {
+                File currentFile = file.getKey();
 
-                String relativeFilePath = inputDirectory.toURI().relativize(
-                        new File(currentFile.getAbsolutePath()).toURI()).getPath();
-
-                TarArchiveEntry tarEntry = new TarArchiveEntry(currentFile, relativeFilePath);
+                TarArchiveEntry tarEntry = new TarArchiveEntry(currentFile, file.getValue());
                 tarEntry.setSize(currentFile.length());
-                if (fileToPermissionsMap.containsKey(currentFile)) {
-                    tarEntry.setMode(Integer.parseInt(fileToPermissionsMap.get(currentFile), 8));
+                String permissions = getPermissions(inputDirectory, currentFile);
+                if (permissions != null) {
+                    tarEntry.setMode(Integer.parseInt(permissions, 8));
+                }
+                if (reproducibleTimestamp != null) {
+                    normalizeEntry(tarEntry);
                 }
 
                 tarArchiveOutputStream.putArchiveEntry(tarEntry);
                 tarArchiveOutputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
-                tarArchiveOutputStream.write(IOUtils.toByteArray(new FileInputStream(currentFile)));
+                copyFileContent(currentFile, tarArchiveOutputStream, buffer);
                 tarArchiveOutputStream.closeArchiveEntry();
             }
-            tarArchiveOutputStream.close();
+            tarArchiveOutputStream.finish();
         }
+    }
 
-        return outputFile;
+    private List<Map.Entry<File, String>> sortIfReproducible(Map<File, String> files) {
+        List<Map.Entry<File, String>> ret = new ArrayList<>(files.entrySet());
+        if (reproducibleTimestamp != null) {
+            ret.sort(Map.Entry.comparingByValue());
+        }
+        return ret;
+    }
+
+    // Permissions configured for the file. For reproducible archives also the ones configured for the closest
+    // parent directory are taken into account.
+    private String getPermissions(File inputDirectory, File file) {
+        String permissions = fileToPermissionsMap.get(file);
+        if (reproducibleTimestamp != null) {
+            File parent = file.getParentFile();
+            while (permissions == null && parent != null && !parent.equals(inputDirectory)) {
+                permissions = fileToPermissionsMap.get(parent);
+                parent = parent.getParentFile();
+            }
+        }
+        return permissions;
+    }
+
+    private void normalizeEntry(TarArchiveEntry tarEntry) {
+        tarEntry.setModTime(reproducibleTimestamp);
+        tarEntry.setIds(0, 0);
+        tarEntry.setNames("", "");
+    }
+
+    private static Map<File, String> toEntryNames(File inputDirectory, List<File> fileList) {
+        Map<File, String> ret = new LinkedHashMap<>();
+        for (File file : fileList) {
+            ret.put(file, inputDirectory.toURI().relativize(new File(file.getAbsolutePath()).toURI()).getPath());
+        }
+        return ret;
+    }
+
+    private static TarArchiveOutputStream createTarArchiveOutputStream(OutputStream outputStream, ArchiveCompression compression) throws IOException {
+        return new TarArchiveOutputStream(compression.wrapOutputStream(outputStream));
+    }
+
+    private static void copyFileContent(File file, OutputStream outputStream, byte[] buffer) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
     }
 }
@@ -22,7 +22,9 @@ import org.eclipse.jkube.kit.common.KitLogger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author roland
@@ -119,4 +121,14 @@ public class ArchiveService {
             throws IOException {
         return dockerAssemblyManager.createDockerTarArchive(imageName, params, buildConfig, log, customizer);
     }
+
+    void writeArchive(String imageName, JKubeBuildConfiguration buildConfig, JKubeBuildContext params, KitLogger log, OutputStream outputStream)
+            throws IOException {
+        dockerAssemblyManager.writeDockerTarArchive(imageName, params, buildConfig, log, null, outputStream);
+    }
+
+    String calculateBuildContextDigest(String imageName, JKubeBuildConfiguration buildConfig, JKubeBuildContext params,
+                                       Map<String, String> buildArgs, String baseImageId) throws IOException {
+        return dockerAssemblyManager.calculateBuildContextDigest(imageName, params, buildConfig, buildArgs, baseImageId);
+    }
 }
@@ -16,12 +16,22 @@ package org.eclipse.jkube.kit.build.service.docker;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.JsonObject;
 
@@ -32,6 +42,7 @@ import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.helper.DockerFileUtil;
 import org.eclipse.jkube.kit.build.core.assembly.DockerAssemblyManager;
 import org.eclipse.jkube.kit.common.util.EnvUtil;
+import org.eclipse.jkube.kit.build.service.docker.access.ArchiveWriter;
 import org.eclipse.jkube.kit.build.service.docker.access.BuildOptions;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
@@ -45,6 +56,14 @@ public class BuildService {
 
     private final String argPrefix = "docker.buildArg.";
 
+    // Upper limit for the base images pulled at the same time
+    private static final int MAX_CONCURRENT_PULLS = 8;
+
+    /**
+     * Label holding the digest of the build context an image has been built from
+     */
+    public static final String BUILD_CONTEXT_DIGEST_LABEL = "org.eclipse.jkube.build-context-digest";
+
     private final DockerAccess docker;
     private final QueryService queryService;
     private final ArchiveService archiveService;
@@ -69,19 +88,102 @@ public class BuildService {
      */
     public void buildImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext)
             throws Exception {
+        buildImage(imageConfig, imagePullManager, buildContext, log);
+    }
+
+    /**
+     * Pull the base image if needed and run the build, logging the progress with the given logger.
+     *
+     * @param imageConfig the image configuration
+     * @param imagePullManager the image pull manager
+     * @param buildContext the build context
+     * @param imageLog the logger for the build of this image, e.g. one prefixing the messages with the image
+     * @throws Exception in case of any problems
+     */
+    public void buildImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext,
+                           KitLogger imageLog) throws Exception {
 
         if (imagePullManager != null) {
-            autoPullBaseImage(imageConfig, imagePullManager, buildContext);
+            autoPullBaseImage(imageConfig, imagePullManager, buildContext, imageLog);
         }
 
-        buildImage(imageConfig, buildContext.getMavenBuildContext(), checkForNocache(imageConfig), addBuildArgs(buildContext));
+        buildImage(imageConfig, buildContext.getMavenBuildContext(), checkForNocache(imageConfig), buildContext.isStreamBuildArchive(),
+                buildContext.isBuildCache(), addBuildArgs(buildContext), imageLog);
+    }
+
+    /**
+     * Pull the base images of all given images before any of them is built. The base images of all images
+     * (from the build configuration or the Dockerfile) are collected and pulled at the same time, each only once
+     * and according to the pull policy of the pull manager. Base images which are built from the given images
+     * themselves are skipped.
+     *
+     * Pulls done here are recorded in the pull manager, so that {@link #buildImage(ImageConfiguration, ImagePullManager, BuildContext)}
+     * doesn't pull them again.
+     *
+     * @param imageConfigs the images about to be built
+     * @param imagePullManager the image pull manager
+     * @param buildContext the build context
+     * @throws Exception the first failure if a base image cannot be pulled. All other pulls are awaited before.
+     */
+    public void pullBaseImages(List<ImageConfiguration> imageConfigs, ImagePullManager imagePullManager, BuildContext buildContext)
+            throws Exception {
+        Set<String> builtImages = new HashSet<>();
+        for (ImageConfiguration imageConfig : imageConfigs) {
+            builtImages.add(imageConfig.getName());
+            if (imageConfig.getAlias() != null) {
+                builtImages.add(imageConfig.getAlias());
+            }
+        }
+        Set<String> fromImages = new LinkedHashSet<>();
+        for (ImageConfiguration imageConfig : imageConfigs) {
+            BuildConfiguration buildConfig = imageConfig.getBuildConfiguration();
+            if (buildConfig == null || buildConfig.getSkip()) {
+                continue;
+            }
+            for (String fromImage : extractBaseImages(buildConfig, buildContext)) {
+                if (!builtImages.contains(fromImage) && !imagePullManager.hasAlreadyPulled(fromImage)) {
+                    fromImages.add(fromImage);
+                }
+            }
+        }
+        if (fromImages.isEmpty()) {
+            return;
+        }
+
+        // A single lookup for all images instead of one per image
+        Map<String, String> imageIds = queryService.getImageIds(fromImages);
+        if (fromImages.size() == 1) {
+            String fromImage = fromImages.iterator().next();
+            registryService.pullImageWithPolicy(fromImage, imagePullManager, buildContext.getRegistryConfig(), imageIds.get(fromImage) != null);
+            return;
+        }
+
+        long time = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(fromImages.size(), MAX_CONCURRENT_PULLS), createThreadFactory("base-image-pull-"));
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (String fromImage : fromImages) {
+                results.add(executor.submit(() -> {
+                    registryService.pullImageWithPolicy(fromImage, imagePullManager, buildContext.getRegistryConfig(), imageIds.get(fromImage) != null);
+                    return null;
+                }));
+            }
+            awaitAll(results);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.debug("Checked base images %s in %s", fromImages, EnvUtil.formatDurationTill(time));
     }
 
     public void tagImage(String imageName, ImageConfiguration imageConfig) throws DockerAccessException {
+        tagImage(imageName, imageConfig, log);
+    }
+
+    public void tagImage(String imageName, ImageConfiguration imageConfig, KitLogger imageLog) throws DockerAccessException {
 
         List<String> tags = imageConfig.getBuildConfiguration().getTags();
         if (tags.size() > 0) {
-            log.info("%s: Tag with %s", imageConfig.getDescription(), EnvUtil.stringJoin(tags, ","));
+            imageLog.info("%s: Tag with %s", imageConfig.getDescription(), EnvUtil.stringJoin(tags, ","));
 
             for (String tag : tags) {
                 if (tag != null) {
@@ -89,7 +191,7 @@ public class BuildService {
                 }
             }
 
-            log.debug("Tagging image successful!");
+            imageLog.debug("Tagging image successful!");
         }
     }
 
@@ -105,6 +207,30 @@ public class BuildService {
      */
     protected void buildImage(ImageConfiguration imageConfig, JKubeBuildContext params, boolean noCache, Map<String, String> buildArgs)
             throws DockerAccessException, IOException {
+        buildImage(imageConfig, params, noCache, false, false, buildArgs);
+    }
+
+    /**
+     * Build an image
+     *
+     * @param imageConfig the image configuration
+     * @param params mojo params for the project
+     * @param noCache if not null, dictate the caching behaviour. Otherwise its taken from the build configuration
+     * @param streamArchive whether to stream the build archive to the Docker daemon while it is created instead of
+     *                      creating the archive file first
+     * @param buildCache whether to skip the build if the image has already been built from the same build context
+     * @param buildArgs maven build context
+     * @throws DockerAccessException docker access exception
+     * @throws IOException in case of any I/O exception
+     */
+    protected void buildImage(ImageConfiguration imageConfig, JKubeBuildContext params, boolean noCache, boolean streamArchive,
+                              boolean buildCache, Map<String, String> buildArgs) throws DockerAccessException, IOException {
+        buildImage(imageConfig, params, noCache, streamArchive, buildCache, buildArgs, log);
+    }
+
+    private void buildImage(ImageConfiguration imageConfig, JKubeBuildContext params, boolean noCache, boolean streamArchive,
+                            boolean buildCache, Map<String, String> buildArgs, KitLogger imageLog)
+            throws DockerAccessException, IOException {
 
         String imageName = imageConfig.getName();
         ImageName.validate(imageName);
@@ -123,32 +249,59 @@ public class BuildService {
         if (buildConfig.getDockerArchive() != null) {
             docker.loadImage(imageName, buildConfig.getAbsoluteDockerTarPath(params.getSourceDirectory(), params.getProject().getBaseDirectory() != null
                     ? params.getProject().getBaseDirectory().toString() : null));
-            log.info("%s: Loaded tarball in %s", buildConfig.getDockerArchive(), EnvUtil.formatDurationTill(time));
+            imageLog.info("%s: Loaded tarball in %s", buildConfig.getDockerArchive(), EnvUtil.formatDurationTill(time));
             return;
         }
 
-        File dockerArchive = archiveService.createArchive(imageName, buildConfig, params, log);
-        log.info("%s: Created %s in %s", imageConfig.getDescription(), dockerArchive.getName(), EnvUtil.formatDurationTill(time));
-
         Map<String, String> mergedBuildMap = prepareBuildArgs(buildArgs, buildConfig);
 
+        String buildContextDigest = null;
+        if (buildCache && !noCache) {
+            buildContextDigest = archiveService.calculateBuildContextDigest(imageName, buildConfig, params, mergedBuildMap,
+                    getBaseImageId(buildConfig));
+            if (buildContextDigest != null && isBuiltFromBuildContext(imageName, buildConfig.getPlatforms(), buildContextDigest)) {
+                imageLog.info("%s: Build context unchanged, skipping build of image %s", imageConfig.getDescription(),
+                        queryService.getImageId(imageName));
+                return;
+            }
+        }
+
         // auto is now supported by docker, consider switching?
         BuildOptions opts =
                 new BuildOptions(buildConfig.getBuildOptions())
                         .dockerfile(getDockerfileName(buildConfig))
                         .forceRemove(cleanupMode.isRemove())
                         .noCache(noCache)
-                        .buildArgs(mergedBuildMap);
-        String newImageId = doBuildImage(imageName, dockerArchive, opts);
-        log.info("%s: Built image %s", imageConfig.getDescription(), newImageId);
+                        .buildArgs(mergedBuildMap)
+                        .labels(buildContextDigest != null ?
+                                Collections.singletonMap(BUILD_CONTEXT_DIGEST_LABEL, buildContextDigest) : null);
+
+        List<String> platforms = buildConfig.getPlatforms();
+        String newImageId;
+        if (buildConfig.isMultiPlatform()) {
+            newImageId = buildPlatformImages(imageConfig, params, platforms, opts, imageLog);
+            imageLog.info("%s: Built images for %s in %s", imageConfig.getDescription(), String.join(", ", platforms),
+                    EnvUtil.formatDurationTill(time));
+        } else if (streamArchive) {
+            opts.platform(platforms.isEmpty() ? null : platforms.get(0));
+            newImageId = doBuildImage(imageName,
+                    outputStream -> archiveService.writeArchive(imageName, buildConfig, params, imageLog, outputStream), opts);
+            imageLog.info("%s: Streamed build archive in %s", imageConfig.getDescription(), EnvUtil.formatDurationTill(time));
+        } else {
+            opts.platform(platforms.isEmpty() ? null : platforms.get(0));
+            File dockerArchive = archiveService.createArchive(imageName, buildConfig, params, imageLog);
+            imageLog.info("%s: Created %s in %s", imageConfig.getDescription(), dockerArchive.getName(), EnvUtil.formatDurationTill(time));
+            newImageId = doBuildImage(imageName, dockerArchive, opts);
+        }
+        imageLog.info("%s: Built image %s", imageConfig.getDescription(), newImageId);
 
         if (oldImageId != null && !oldImageId.equals(newImageId)) {
             try {
                 docker.removeImage(oldImageId, true);
-                log.info("%s: Removed old image %s", imageConfig.getDescription(), oldImageId);
+                imageLog.info("%s: Removed old image %s", imageConfig.getDescription(), oldImageId);
             } catch (DockerAccessException exp) {
                 if (cleanupMode == CleanupMode.TRY_TO_REMOVE) {
-                    log.warn("%s: %s (old image)%s", imageConfig.getDescription(), exp.getMessage(),
+                    imageLog.warn("%s: %s (old image)%s", imageConfig.getDescription(), exp.getMessage(),
                             (exp.getCause() != null ? " [" + exp.getCause().getMessage() + "]" : ""));
                 } else {
                     throw exp;
@@ -165,6 +318,75 @@ public class BuildService {
         return builder.build();
     }
 
+    private String getBaseImageId(BuildConfiguration buildConfig) throws DockerAccessException {
+        String baseImage = extractBaseFromConfiguration(buildConfig);
+        if (baseImage == null || DockerAssemblyManager.SCRATCH_IMAGE.equals(baseImage)) {
+            return null;
+        }
+        return queryService.getImageId(baseImage);
+    }
+
+    private boolean isBuiltFromBuildContext(String imageName, List<String> platforms, String buildContextDigest)
+            throws DockerAccessException {
+        List<String> imageNames = new ArrayList<>();
+        if (platforms.size() > 1) {
+            for (String platform : platforms) {
+                imageNames.add(getPlatformImageName(imageName, platform));
+            }
+        } else {
+            imageNames.add(imageName);
+        }
+        for (String name : imageNames) {
+            Map<String, String> labels = queryService.getImageLabels(name);
+            if (labels == null || !buildContextDigest.equals(labels.get(BUILD_CONTEXT_DIGEST_LABEL))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The build archive is created once and used for the builds of all platforms, which run at the same time.
+    // The image name itself refers to the image of the first platform, so that it can be used locally.
+    private String buildPlatformImages(ImageConfiguration imageConfig, JKubeBuildContext params, List<String> platforms,
+                                       BuildOptions opts, KitLogger imageLog) throws IOException {
+        String imageName = imageConfig.getName();
+        long time = System.currentTimeMillis();
+        File dockerArchive = archiveService.createArchive(imageName, imageConfig.getBuildConfiguration(), params, imageLog);
+        imageLog.info("%s: Created %s in %s", imageConfig.getDescription(), dockerArchive.getName(), EnvUtil.formatDurationTill(time));
+
+        ExecutorService executor = Executors.newFixedThreadPool(platforms.size(), createThreadFactory("platform-build-"));
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (String platform : platforms) {
+                BuildOptions platformOpts = new BuildOptions(opts.getOptions()).platform(platform);
+                String platformImageName = getPlatformImageName(imageName, platform);
+                results.add(executor.submit(() -> doBuildImage(platformImageName, dockerArchive, platformOpts)));
+            }
+            List<String> imageIds = awaitAll(results);
+            docker.tag(getPlatformImageName(imageName, platforms.get(0)), imageName, true);
+            return imageIds.get(0);
+        } catch (IOException | RuntimeException exp) {
+            throw exp;
+        } catch (Exception exp) {
+            throw new IOException(exp);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the name of the image built for a single platform of a multi-platform image. The platform is appended to
+     * the tag, e.g. <code>app:1.0-linux-arm64</code> for the platform <code>linux/arm64</code> of <code>app:1.0</code>.
+     *
+     * @param imageName name of the multi-platform image
+     * @param platform the platform
+     * @return name of the image for this platform
+     */
+    public static String getPlatformImageName(String imageName, String platform) {
+        ImageName name = new ImageName(imageName);
+        return new ImageName(imageName, name.getTag() + "-" + platform.replace('/', '-')).getFullName();
+    }
+
     private String getDockerfileName(BuildConfiguration buildConfig) {
         if (buildConfig.isDockerFileMode()) {
             return buildConfig.getDockerFile().getName();
@@ -179,6 +401,12 @@ public class BuildService {
         return queryService.getImageId(imageName);
     }
 
+    private String doBuildImage(String imageName, ArchiveWriter archiveWriter, BuildOptions options)
+            throws DockerAccessException {
+        docker.buildImage(imageName, archiveWriter, options);
+        return queryService.getImageId(imageName);
+    }
+
     private Map<String, String> addBuildArgs(BuildContext buildContext) {
         Map<String, String> buildArgsFromProject = addBuildArgsFromProperties(buildContext.getMavenBuildContext().getProject().getProperties());
         Map<String, String> buildArgsFromSystem = addBuildArgsFromProperties(System.getProperties());
@@ -238,13 +466,22 @@ public class BuildService {
         return buildArgs;
     }
 
-    private void autoPullBaseImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext)
-            throws Exception {
-        BuildConfiguration buildConfig = imageConfig.getBuildConfiguration();
+    private void autoPullBaseImage(ImageConfiguration imageConfig, ImagePullManager imagePullManager, BuildContext buildContext,
+                                   KitLogger imageLog) throws Exception {
+        for (String fromImage : extractBaseImages(imageConfig.getBuildConfiguration(), buildContext)) {
+            // Images already pulled during this build don't need to be looked up in the daemon again
+            if (!imagePullManager.hasAlreadyPulled(fromImage)) {
+                registryService.pullImageWithPolicy(fromImage, imagePullManager, buildContext.getRegistryConfig(), queryService.hasImage(fromImage),
+                        imageLog);
+            }
+        }
+    }
 
+    // Base images which might need to be pulled, without "scratch"
+    private List<String> extractBaseImages(BuildConfiguration buildConfig, BuildContext buildContext) {
         if (buildConfig.getDockerArchive() != null) {
             // No auto pull needed in archive mode
-            return;
+            return Collections.emptyList();
         }
 
         List<String> fromImages;
@@ -254,14 +491,16 @@ public class BuildService {
             fromImages = new LinkedList<>();
             String baseImage = extractBaseFromConfiguration(buildConfig);
             if (baseImage!=null) {
-                fromImages.add(extractBaseFromConfiguration(buildConfig));
+                fromImages.add(baseImage);
             }
         }
+        List<String> ret = new ArrayList<>();
         for (String fromImage : fromImages) {
             if (fromImage != null && !DockerAssemblyManager.SCRATCH_IMAGE.equals(fromImage)) {
-                registryService.pullImageWithPolicy(fromImage, imagePullManager, buildContext.getRegistryConfig(), queryService.hasImage(fromImage));
+                ret.add(fromImage);
             }
         }
+        return ret;
     }
 
     private String extractBaseFromConfiguration(BuildConfiguration buildConfig) {
@@ -305,6 +544,45 @@ public class BuildService {
         return str == null || str.isEmpty();
     }
 
+    // Wait for all tasks and throw the first failure, if any
+    private static <T> List<T> awaitAll(List<Future<T>> results) throws Exception {
+        List<T> ret = new ArrayList<>();
+        Exception failure = null;
+        for (Future<T> result : results) {
+            try {
+                ret.add(result.get());
+            } catch (ExecutionException exp) {
+                if (failure == null) {
+                    failure = unwrap(exp);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return ret;
+    }
+
+    private static Exception unwrap(ExecutionException exp) {
+        Throwable cause = exp.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return exp;
+    }
+
+    private static ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
 
     // ===========================================
 
@@ -317,6 +595,10 @@ public class BuildService {
 
         private RegistryService.RegistryConfig registryConfig;
 
+        private boolean streamBuildArchive;
+
+        private boolean buildCache;
+
         public BuildContext() {
         }
 
@@ -332,6 +614,14 @@ public class BuildService {
             return registryConfig;
         }
 
+        public boolean isStreamBuildArchive() {
+            return streamBuildArchive;
+        }
+
+        public boolean isBuildCache() {
+            return buildCache;
+        }
+
         public static class Builder {
 
             private BuildContext context;
@@ -359,6 +649,16 @@ public class BuildService {
                 return this;
             }
 
+            public Builder streamBuildArchive(boolean streamBuildArchive) {
+                context.streamBuildArchive = streamBuildArchive;
+                return this;
+            }
+
+            public Builder buildCache(boolean buildCache) {
+                context.buildCache = buildCache;
+                return this;
+            }
+
             public BuildContext build() {
                 return context;
             }
@@ -19,7 +19,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerConnectionDetector;
@@ -30,16 +32,37 @@ import org.eclipse.jkube.kit.common.KitLogger;
 
 public class DockerAccessFactory {
 
+    // Detected connections and negotiated API versions. The factory is a singleton component, so these are
+    // shared by all executions (and modules) of a Maven session.
+    private final Map<String, CachedConnection> connections = new ConcurrentHashMap<>();
+
     public DockerAccess createDockerAccess(DockerAccessContext dockerAccessContext) {
 
         try {
-            DockerConnectionDetector dockerConnectionDetector = createDockerConnectionDetector(dockerAccessContext, dockerAccessContext.getLog());
-            DockerConnectionDetector.ConnectionParameter connectionParam =
-                    dockerConnectionDetector.detectConnectionParameter(dockerAccessContext.getDockerHost(), dockerAccessContext.getCertPath());
-            DockerAccess access = new DockerAccessWithHcClient(connectionParam.getUrl(),
-                    connectionParam.getCertPath(),
-                    dockerAccessContext.getMaxConnections(),
-                    dockerAccessContext.getLog());
+            String key = getConnectionKey(dockerAccessContext);
+            CachedConnection cached = key != null ? connections.get(key) : null;
+            DockerConnectionDetector.ConnectionParameter connectionParam;
+            DockerAccessWithHcClient access;
+            if (cached != null) {
+                connectionParam = cached.connectionParameter;
+                access = new DockerAccessWithHcClient(connectionParam.getUrl(),
+                        connectionParam.getCertPath(),
+                        dockerAccessContext.getMaxConnections(),
+                        cached.apiVersion,
+                        dockerAccessContext.getLog());
+                dockerAccessContext.getLog().debug("Reusing Docker connection %s (API version %s)", connectionParam.getUrl(), cached.apiVersion);
+            } else {
+                DockerConnectionDetector dockerConnectionDetector = createDockerConnectionDetector(dockerAccessContext, dockerAccessContext.getLog());
+                connectionParam =
+                        dockerConnectionDetector.detectConnectionParameter(dockerAccessContext.getDockerHost(), dockerAccessContext.getCertPath());
+                access = new DockerAccessWithHcClient(connectionParam.getUrl(),
+                        connectionParam.getCertPath(),
+                        dockerAccessContext.getMaxConnections(),
+                        dockerAccessContext.getLog());
+                if (key != null) {
+                    connections.put(key, new CachedConnection(connectionParam, access.getApiVersion()));
+                }
+            }
             access.start();
             setDockerHostAddressProperty(dockerAccessContext, connectionParam.getUrl());
             return access;
@@ -49,6 +72,34 @@ public class DockerAccessFactory {
 
     }
 
+    /**
+     * Forget all detected connections, so that the next access detects its connection again
+     */
+    public void clearConnectionCache() {
+        connections.clear();
+    }
+
+    // Key of all input to the connection detection, null if it can't be cached
+    private static String getConnectionKey(DockerAccessContext context) {
+        if (context.getDockerHostProviders() != null) {
+            // Custom providers may detect something else with each call
+            return null;
+        }
+        String machine = null;
+        if (!context.isSkipMachine()) {
+            Properties projectProps = context.getProjectProperties();
+            machine = context.getMachine() != null ? context.getMachine().toString() :
+                projectProps != null ? projectProps.getProperty(DockerMachineConfiguration.DOCKER_MACHINE_NAME_PROP) : null;
+        }
+        return String.join("|",
+            String.valueOf(context.getDockerHost()),
+            String.valueOf(context.getCertPath()),
+            String.valueOf(machine),
+            String.valueOf(System.getenv("DOCKER_HOST")),
+            String.valueOf(System.getenv("DOCKER_CERT_PATH")),
+            String.valueOf(System.getenv("DOCKER_TLS_VERIFY")));
+    }
+
     private DockerConnectionDetector createDockerConnectionDetector(DockerAccessContext dockerAccessContext, KitLogger log) {
         return new DockerConnectionDetector(getDockerHostProviders(dockerAccessContext, log));
     }
@@ -109,6 +160,16 @@ public class DockerAccessFactory {
 
     // ===========================================
 
+    private static class CachedConnection {
+        private final DockerConnectionDetector.ConnectionParameter connectionParameter;
+        private final String apiVersion;
+
+        private CachedConnection(DockerConnectionDetector.ConnectionParameter connectionParameter, String apiVersion) {
+            this.connectionParameter = connectionParameter;
+            this.apiVersion = apiVersion;
+        }
+    }
+
     public static class DockerAccessContext implements Serializable {
 
         private Properties projectProperties;
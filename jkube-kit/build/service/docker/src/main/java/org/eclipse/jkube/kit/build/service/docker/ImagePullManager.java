@@ -13,6 +13,9 @@
  */
 package org.eclipse.jkube.kit.build.service.docker;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.google.gson.JsonObject;
 
 import org.eclipse.jkube.kit.build.service.docker.helper.AutoPullMode;
@@ -32,9 +35,21 @@ public class ImagePullManager {
 
     private CacheStore cacheStore;
 
+    // Cache shared with other builds, null if pulls are only remembered for the session
+    private final PersistentImagePullCache persistentCache;
+
+    // Images known to be pulled, so that the cache store needs to be consulted only once per image
+    private final Set<String> pulledImages = ConcurrentHashMap.newKeySet();
+
     public ImagePullManager(CacheStore cacheStore, String imagePullPolicy, String autoPull) {
+        this(cacheStore, imagePullPolicy, autoPull, null);
+    }
+
+    public ImagePullManager(CacheStore cacheStore, String imagePullPolicy, String autoPull,
+                            PersistentImagePullCache persistentCache) {
         this.cacheStore = cacheStore;
         this.imagePullPolicy = createPullPolicy(imagePullPolicy, autoPull);
+        this.persistentCache = persistentCache;
     }
 
     ImagePullPolicy getImagePullPolicy() {
@@ -60,12 +75,30 @@ public class ImagePullManager {
         return ImagePullPolicy.IfNotPresent;
     }
 
+    public PersistentImagePullCache getPersistentCache() {
+        return persistentCache;
+    }
+
+    // Images are built concurrently, and all managers of a session share the same store
     public boolean hasAlreadyPulled(String image) {
-        return load().has(image);
+        if (pulledImages.contains(image)) {
+            return true;
+        }
+        // Might have been pulled by another build of the session in the meantime
+        synchronized (cacheStore) {
+            if (!load().has(image)) {
+                return false;
+            }
+        }
+        pulledImages.add(image);
+        return true;
     }
 
     public void pulled(String image) {
-        save(load().add(image));
+        pulledImages.add(image);
+        synchronized (cacheStore) {
+            save(load().add(image));
+        }
     }
 
 
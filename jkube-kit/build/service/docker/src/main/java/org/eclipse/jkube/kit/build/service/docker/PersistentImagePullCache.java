@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.eclipse.jkube.kit.common.JsonFactory;
+
+/**
+ * Cache of pulled images stored in a file, so that it is shared by all builds using the same file. Every entry holds
+ * the id the image had in the Docker daemon after the pull. The entry is only valid as long as the daemon still has
+ * the image with this id and the entry is not expired.
+ *
+ * Entries expire after the configured time to live, also the ones of images referenced by a digest, so that the
+ * file doesn't grow without bounds. The file is locked while it is read or updated, so that builds running at
+ * the same time (in separate JVMs as well as within the same JVM) can share it.
+ */
+public class PersistentImagePullCache {
+
+    // Monitors per cache file, since file locks are held per JVM and can't be used between threads
+    private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private static final String KEY_IMAGE_ID = "id";
+    private static final String KEY_PULLED = "pulled";
+    private static final String KEY_EXPIRES = "expires";
+
+    private final Path file;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Create a cache
+     *
+     * @param file file to store the cache in, created when needed
+     * @param ttlMinutes how long a pulled image is regarded as up to date
+     */
+    public PersistentImagePullCache(File file, long ttlMinutes) {
+        this(file, ttlMinutes, System::currentTimeMillis);
+    }
+
+    PersistentImagePullCache(File file, long ttlMinutes, LongSupplier clock) {
+        this.file = file.toPath().toAbsolutePath().normalize();
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.clock = clock;
+    }
+
+    /**
+     * Get the id of an image recently pulled
+     *
+     * @param image name of the image
+     * @return id of the image after its last pull or null if the image hasn't been pulled or the entry is expired
+     * @throws IOException if the cache file cannot be read
+     */
+    public String getImageId(String image) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        JsonObject entry;
+        synchronized (getMonitor()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+                JsonElement element = read(channel).get(image);
+                entry = element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+            }
+        }
+        if (entry == null || !entry.has(KEY_IMAGE_ID) || isExpired(entry, clock.getAsLong())) {
+            return null;
+        }
+        return entry.get(KEY_IMAGE_ID).getAsString();
+    }
+
+    /**
+     * Record a pull of an image. Expired entries of other images are removed on the way.
+     *
+     * @param image name of the image
+     * @param imageId id of the image in the Docker daemon after the pull
+     * @throws IOException if the cache file cannot be updated
+     */
+    public void pulled(String image, String imageId) throws IOException {
+        long now = clock.getAsLong();
+        JsonObject entry = new JsonObject();
+        entry.addProperty(KEY_IMAGE_ID, imageId);
+        entry.addProperty(KEY_PULLED, now);
+        entry.addProperty(KEY_EXPIRES, now + ttlMillis);
+        Files.createDirectories(file.getParent());
+        synchronized (getMonitor()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+                 FileLock ignored = channel.lock()) {
+                JsonObject cache = read(channel);
+                for (Iterator<Map.Entry<String, JsonElement>> it = cache.entrySet().iterator(); it.hasNext(); ) {
+                    JsonElement element = it.next().getValue();
+                    if (!element.isJsonObject() || isExpired(element.getAsJsonObject(), now)) {
+                        it.remove();
+                    }
+                }
+                cache.add(image, entry);
+                byte[] content = cache.toString().getBytes(StandardCharsets.UTF_8);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(content), 0);
+                channel.force(false);
+            }
+        }
+    }
+
+    // ==========================================================================================
+
+    private Object getMonitor() {
+        return MONITORS.computeIfAbsent(file, key -> new Object());
+    }
+
+    // Entries without an expiry are treated as expired
+    private static boolean isExpired(JsonObject entry, long now) {
+        return !entry.has(KEY_EXPIRES) || entry.get(KEY_EXPIRES).getAsLong() < now;
+    }
+
+    // A corrupt cache is treated like an empty one, it is rewritten with the next pull
+    private static JsonObject read(FileChannel channel) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = 0;
+        int read;
+        while ((read = channel.read(buffer, position)) > 0) {
+            content.write(buffer.array(), 0, read);
+            position += read;
+            buffer.clear();
+        }
+        if (content.size() == 0) {
+            return new JsonObject();
+        }
+        try {
+            JsonObject ret = JsonFactory.newJsonObject(new String(content.toByteArray(), StandardCharsets.UTF_8));
+            return ret != null ? ret : new JsonObject();
+        } catch (JsonParseException exp) {
+            return new JsonObject();
+        }
+    }
+}
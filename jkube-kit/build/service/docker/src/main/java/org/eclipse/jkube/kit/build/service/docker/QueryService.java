@@ -13,8 +13,10 @@
  */
 package org.eclipse.jkube.kit.build.service.docker;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jkube.kit.build.api.model.Container;
@@ -112,6 +114,17 @@ public class QueryService {
         return docker.getContainersForImage(image, all);
     }
 
+    /**
+     * Finds the ids of several images, with a single request to the Docker daemon.
+     *
+     * @param imageNames names of the images.
+     * @return map from each name to the id of the image, or to <code>null</code> if the image doesn't exist
+     * @throws DockerAccessException if the request fails
+     */
+    public Map<String, String> getImageIds(Collection<String> imageNames) throws DockerAccessException {
+        return docker.getImageIds(imageNames);
+    }
+
     /**
      * Finds the id of an image.
      *
@@ -123,6 +136,17 @@ public class QueryService {
         return docker.getImageId(imageName);
     }
 
+    /**
+     * Get the labels of an image.
+     *
+     * @param imageName name of the image.
+     * @return the labels of the image or <code>null</code> if the image doesn't exist
+     * @throws DockerAccessException if the request fails
+     */
+    public Map<String, String> getImageLabels(String imageName) throws DockerAccessException {
+        return docker.getImageLabels(imageName);
+    }
+
     /**
      * Get the id of the latest container started for an image
      *
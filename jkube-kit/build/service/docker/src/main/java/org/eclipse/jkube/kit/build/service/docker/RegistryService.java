@@ -15,14 +15,23 @@ package org.eclipse.jkube.kit.build.service.docker;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.UnaryOperator;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
 import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
+import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
 import org.eclipse.jkube.kit.build.service.docker.auth.AuthConfigFactory;
+import org.eclipse.jkube.kit.build.service.docker.helper.ImageTaskScheduler;
+import org.eclipse.jkube.kit.build.service.oci.OciRegistryClient;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.util.EnvUtil;
 import org.eclipse.jkube.kit.config.image.ImageName;
@@ -55,32 +64,27 @@ public class RegistryService {
     public void pushImages(Collection<ImageConfiguration> imageConfigs,
                            int retries, RegistryConfig registryConfig, boolean skipTag) throws Exception {
         for (ImageConfiguration imageConfig : imageConfigs) {
-            BuildConfiguration buildConfig = imageConfig.getBuildConfiguration();
-            String name = imageConfig.getName();
-            if (buildConfig != null) {
-                String configuredRegistry = EnvUtil.firstRegistryOf(
-                    new ImageName(imageConfig.getName()).getRegistry(),
-                    imageConfig.getRegistry(),
-                    registryConfig.getRegistry());
-
-
-                AuthConfig authConfig = createAuthConfig(true, new ImageName(name).getUser(), configuredRegistry, registryConfig);
-
-                long start = System.currentTimeMillis();
-                docker.pushImage(name, authConfig, configuredRegistry, retries);
-                log.info("Pushed %s in %s", name, EnvUtil.formatDurationTill(start));
-
-                if (!skipTag) {
-                    for (String tag : imageConfig.getBuildConfiguration().getTags()) {
-                        if (tag != null) {
-                            docker.pushImage(new ImageName(name, tag).getFullName(), authConfig, configuredRegistry, retries);
-                        }
-                    }
-                }
-            }
+            pushImage(imageConfig, retries, registryConfig, skipTag, log);
         }
     }
 
+    /**
+     * Push a set of images to a registry, with several images pushed at the same time. Images which depend on each
+     * other are pushed one after the other.
+     *
+     * @param imageConfigs images to push (but only if they have a build configuration)
+     * @param retries how often to retry
+     * @param registryConfig a global registry configuration
+     * @param skipTag flag to skip pushing tagged images
+     * @param parallelism maximum number of images pushed at the same time
+     * @throws Exception exception
+     * @see ImageTaskScheduler
+     */
+    public void pushImages(List<ImageConfiguration> imageConfigs,
+                           int retries, RegistryConfig registryConfig, boolean skipTag, int parallelism) throws Exception {
+        new ImageTaskScheduler(log, parallelism).run(imageConfigs,
+            (imageConfig, imageLog) -> pushImage(imageConfig, retries, registryConfig, skipTag, imageLog));
+    }
 
     /**
      * Check an image, and, if <code>autoPull</code> is set to true, fetch it. Otherwise if the image
@@ -94,6 +98,22 @@ public class RegistryService {
      */
     public void pullImageWithPolicy(String image, ImagePullManager pullManager, RegistryConfig registryConfig, boolean hasImage)
         throws Exception {
+        pullImageWithPolicy(image, pullManager, registryConfig, hasImage, log);
+    }
+
+    /**
+     * Same as {@link #pullImageWithPolicy(String, ImagePullManager, RegistryConfig, boolean)}, logging with the given
+     * logger, e.g. the one of the image build which needs the image
+     *
+     * @param image image
+     * @param pullManager image pull manager
+     * @param registryConfig registry configuration
+     * @param hasImage boolean variable indicating it has image or not
+     * @param imageLog logger to use
+     * @throws Exception exception
+     */
+    public void pullImageWithPolicy(String image, ImagePullManager pullManager, RegistryConfig registryConfig, boolean hasImage,
+                                    KitLogger imageLog) throws Exception {
 
         // Already pulled, so we don't need to take care
         if (pullManager.hasAlreadyPulled(image)) {
@@ -105,6 +125,13 @@ public class RegistryService {
             return;
         }
 
+        // Pulled recently by this or another build, and unchanged since then
+        if (hasImage && isPulledRecently(image, pullManager.getPersistentCache(), imageLog)) {
+            imageLog.debug("Skipping pull of %s, pulled recently", image);
+            pullManager.pulled(image);
+            return;
+        }
+
         ImageName imageName = new ImageName(image);
         long time = System.currentTimeMillis();
         String actualRegistry = EnvUtil.firstRegistryOf(
@@ -112,7 +139,7 @@ public class RegistryService {
             registryConfig.getRegistry());
         docker.pullImage(imageName.getFullName(),
                          createAuthConfig(false, null, actualRegistry, registryConfig), actualRegistry);
-        log.info("Pulled %s in %s", imageName.getFullName(), EnvUtil.formatDurationTill(time));
+        imageLog.info("Pulled %s in %s", imageName.getFullName(), EnvUtil.formatDurationTill(time));
         pullManager.pulled(image);
 
         if (actualRegistry != null && !imageName.hasRegistry()) {
@@ -120,12 +147,167 @@ public class RegistryService {
             // full name with the registry to the short name with no-registry.
             docker.tag(imageName.getFullName(actualRegistry), image, false);
         }
+        recordPull(image, pullManager.getPersistentCache(), imageLog);
     }
 
 
     // ============================================================================================================
 
 
+    private void pushImage(ImageConfiguration imageConfig, int retries, RegistryConfig registryConfig, boolean skipTag,
+                           KitLogger imageLog) throws Exception {
+        BuildConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        String name = imageConfig.getName();
+        if (buildConfig != null) {
+            String configuredRegistry = EnvUtil.firstRegistryOf(
+                new ImageName(imageConfig.getName()).getRegistry(),
+                imageConfig.getRegistry(),
+                registryConfig.getRegistry());
+
+
+            AuthConfig authConfig = createAuthConfig(true, new ImageName(name).getUser(), configuredRegistry, registryConfig);
+
+            long start = System.currentTimeMillis();
+            if (buildConfig.isMultiPlatform()) {
+                pushPlatformImages(name, buildConfig.getPlatforms(), skipTag ? Collections.emptyList() : buildConfig.getTags(),
+                    authConfig, configuredRegistry, retries, imageLog);
+                imageLog.info("Pushed %s for %s in %s", name, String.join(", ", buildConfig.getPlatforms()),
+                    EnvUtil.formatDurationTill(start));
+                return;
+            }
+            docker.pushImage(name, authConfig, configuredRegistry, retries);
+            imageLog.info("Pushed %s in %s", name, EnvUtil.formatDurationTill(start));
+
+            if (!skipTag) {
+                pushTags(name, buildConfig.getTags(), authConfig, configuredRegistry, retries, imageLog);
+            }
+        }
+    }
+
+    // All blobs are in the registry once the image has been pushed, so additional tags only need their manifest
+    // uploaded. Only if the registry cannot be accessed directly, the tags are pushed via the Docker daemon.
+    private void pushTags(String name, List<String> tags, AuthConfig authConfig, String registry, int retries,
+                          KitLogger imageLog) throws DockerAccessException {
+        ImageName imageName = new ImageName(name);
+        Set<String> additionalTags = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.equals(imageName.getTag())) {
+                additionalTags.add(tag);
+            }
+        }
+        if (additionalTags.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        String registryHost = OciRegistryClient.getRegistryHost(EnvUtil.firstRegistryOf(imageName.getRegistry(), registry));
+        try (OciRegistryClient client = new OciRegistryClient(registryHost, authConfig, retries)) {
+            String repository = OciRegistryClient.getRepository(imageName, registryHost);
+            for (String tag : additionalTags) {
+                client.tag(repository, imageName.getTag(), tag);
+            }
+            imageLog.info("Tagged %s with %s in %s", name, String.join(", ", additionalTags), EnvUtil.formatDurationTill(start));
+            return;
+        } catch (IOException exp) {
+            imageLog.debug("Cannot tag %s in registry %s directly, pushing tags via Docker daemon: %s",
+                name, registryHost, exp.getMessage());
+        }
+        for (String tag : additionalTags) {
+            docker.pushImage(new ImageName(name, tag).getFullName(), authConfig, registry, retries);
+        }
+    }
+
+    // The images of all platforms are pushed under their own tags, then a manifest list referring to them is
+    // uploaded with the tag of the image and all additional tags. The Docker daemon cannot push a manifest list,
+    // so the registry is checked to be accessible before anything is pushed, leaving no orphaned platform tags.
+    private void pushPlatformImages(String name, List<String> platforms, List<String> tags, AuthConfig authConfig,
+                                    String registry, int retries, KitLogger imageLog) throws IOException {
+        ImageName imageName = new ImageName(name);
+        String registryHost = OciRegistryClient.getRegistryHost(EnvUtil.firstRegistryOf(imageName.getRegistry(), registry));
+        try (OciRegistryClient client = new OciRegistryClient(registryHost, authConfig, retries)) {
+            String repository = OciRegistryClient.getRepository(imageName, registryHost);
+            try {
+                client.checkAccess(repository);
+            } catch (IOException exp) {
+                throw new IOException(String.format("Cannot push %s for %s: registry %s cannot be accessed directly: %s",
+                    name, String.join(", ", platforms), registryHost, exp.getMessage()), exp);
+            }
+            for (String platform : platforms) {
+                docker.pushImage(BuildService.getPlatformImageName(name, platform), authConfig, registry, retries);
+            }
+            JsonArray manifests = new JsonArray();
+            boolean oci = false;
+            for (String platform : platforms) {
+                OciRegistryClient.Manifest manifest = client.getManifest(repository,
+                    new ImageName(BuildService.getPlatformImageName(name, platform)).getTag());
+                oci |= OciRegistryClient.OCI_MANIFEST_V1.equals(manifest.getMediaType());
+                JsonObject entry = new JsonObject();
+                entry.addProperty("mediaType", manifest.getMediaType());
+                entry.addProperty("size", manifest.getContent().length);
+                entry.addProperty("digest", manifest.getDigest());
+                entry.add("platform", createPlatform(platform));
+                manifests.add(entry);
+            }
+            String mediaType = oci ? OciRegistryClient.OCI_INDEX_V1 : OciRegistryClient.DOCKER_MANIFEST_LIST_V2;
+            JsonObject index = new JsonObject();
+            index.addProperty("schemaVersion", 2);
+            index.addProperty("mediaType", mediaType);
+            index.add("manifests", manifests);
+            byte[] content = index.toString().getBytes(StandardCharsets.UTF_8);
+
+            Set<String> references = new LinkedHashSet<>();
+            references.add(imageName.getTag());
+            for (String tag : tags) {
+                if (tag != null) {
+                    references.add(tag);
+                }
+            }
+            for (String reference : references) {
+                client.putManifest(repository, reference, mediaType, content);
+            }
+            imageLog.debug("Pushed manifest list of %s with tags %s", name, String.join(", ", references));
+        }
+    }
+
+    // Platform as used in a manifest list, from a platform like "linux/arm64/v8"
+    static JsonObject createPlatform(String platform) {
+        String[] parts = platform.split("/");
+        JsonObject ret = new JsonObject();
+        ret.addProperty("architecture", parts.length > 1 ? parts[1] : "");
+        ret.addProperty("os", parts[0]);
+        if (parts.length > 2) {
+            ret.addProperty("variant", parts[2]);
+        }
+        return ret;
+    }
+
+    // The cached id is compared with the one of the daemon, so that images removed or replaced meanwhile are pulled
+    private boolean isPulledRecently(String image, PersistentImagePullCache persistentCache, KitLogger imageLog) throws DockerAccessException {
+        if (persistentCache == null) {
+            return false;
+        }
+        try {
+            String imageId = persistentCache.getImageId(image);
+            return imageId != null && imageId.equals(docker.getImageId(image));
+        } catch (IOException exp) {
+            imageLog.warn("Cannot read image pull cache: %s", exp.getMessage());
+            return false;
+        }
+    }
+
+    private void recordPull(String image, PersistentImagePullCache persistentCache, KitLogger imageLog) throws DockerAccessException {
+        if (persistentCache == null) {
+            return;
+        }
+        String imageId = docker.getImageId(image);
+        if (imageId != null) {
+            try {
+                persistentCache.pulled(image, imageId);
+            } catch (IOException exp) {
+                imageLog.warn("Cannot update image pull cache: %s", exp.getMessage());
+            }
+        }
+    }
+
     private boolean imageRequiresPull(boolean hasImage, ImagePullPolicy pullPolicy, String imageName)
         throws IOException {
 
@@ -19,6 +19,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -69,10 +70,17 @@ public class WatchService {
         try {
             executor = Executors.newSingleThreadScheduledExecutor();
 
-            for (StartOrderResolver.Resolvable resolvable : runService.getImagesConfigsInOrder(queryService, images)) {
+            List<StartOrderResolver.Resolvable> resolvables = runService.getImagesConfigsInOrder(queryService, images);
+            List<String> imageNames = new ArrayList<>();
+            for (StartOrderResolver.Resolvable resolvable : resolvables) {
+                imageNames.add(((ImageConfiguration) resolvable).getName());
+            }
+            Map<String, String> imageIds = queryService.getImageIds(imageNames);
+
+            for (StartOrderResolver.Resolvable resolvable : resolvables) {
                 final ImageConfiguration imageConfig = (ImageConfiguration) resolvable;
 
-                String imageId = queryService.getImageId(imageConfig.getName());
+                String imageId = imageIds.get(imageConfig.getName());
                 String containerId = runService.lookupContainer(imageConfig.getName());
 
                 ImageWatcher watcher = new ImageWatcher(imageConfig, context, imageId, containerId);
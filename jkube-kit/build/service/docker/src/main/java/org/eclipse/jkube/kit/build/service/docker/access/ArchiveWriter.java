@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Producer of a (tar) archive which is written to a stream instead of a file, so that it can be sent to the
+ * Docker daemon while it is still being created.
+ */
+@FunctionalInterface
+public interface ArchiveWriter {
+
+    /**
+     * Write the archive to the given stream. The stream must be closed when the archive is complete.
+     *
+     * @param outputStream stream to write to
+     * @throws IOException if the archive could not be created
+     */
+    void write(OutputStream outputStream) throws IOException;
+}
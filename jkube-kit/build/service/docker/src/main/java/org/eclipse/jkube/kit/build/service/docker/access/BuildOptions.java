@@ -58,6 +58,13 @@ public class BuildOptions {
         return this;
     }
 
+    public BuildOptions platform(String platform) {
+        if (platform != null) {
+            options.put("platform", platform);
+        }
+        return this;
+    }
+
     public BuildOptions buildArgs(Map<String, String> buildArgs) {
         if (buildArgs != null && buildArgs.size() > 0) {
             options.put("buildargs", JsonFactory.newJsonObject(buildArgs).toString());
@@ -65,6 +72,13 @@ public class BuildOptions {
         return this;
     }
 
+    public BuildOptions labels(Map<String, String> labels) {
+        if (labels != null && labels.size() > 0) {
+            options.put("labels", JsonFactory.newJsonObject(labels).toString());
+        }
+        return this;
+    }
+
     public Map<String, String> getOptions() {
         return options;
     }
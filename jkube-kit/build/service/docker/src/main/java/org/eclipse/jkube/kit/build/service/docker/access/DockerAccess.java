@@ -27,7 +27,9 @@ import org.eclipse.jkube.kit.config.image.build.ArchiveCompression;
 import org.eclipse.jkube.kit.config.image.build.Arguments;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Access to the <a href="http://docs.docker.io/en/latest/reference/api/docker_remote_api/">Docker API</a> which
@@ -82,6 +84,15 @@ public interface DockerAccess {
      */
     String getImageId(String name) throws DockerAccessException;
 
+    /**
+     * Get the labels of a given image or <code>null</code> if no such image exists
+     *
+     * @param name name to lookup
+     * @return the labels of the image (which might be empty) or <code>null</code>
+     * @throws DockerAccessException docker access exception
+     */
+    Map<String, String> getImageLabels(String name) throws DockerAccessException;
+
     /**
      * Get all containers which are build from an image. By default only the last containers are considered but this
      * can be tuned with a global parameters.
@@ -93,6 +104,16 @@ public interface DockerAccess {
      */
     List<Container> getContainersForImage(String image, boolean all) throws DockerAccessException;
 
+    /**
+     * Get the image ids of several images with a single request
+     *
+     * @param names names to lookup
+     * @return map from each name to the image id (in the same format as {@link #getImageId(String)}), or to
+     *         <code>null</code> if no such image exists
+     * @throws DockerAccessException docker access exception
+     */
+    Map<String, String> getImageIds(Collection<String> names) throws DockerAccessException;
+
     /**
      * Starts a previously set up exec instance (via {@link #createExecContainer(String, Arguments)} container
      * this API sets up a session with the exec command. Output is streamed to the log. This methods
@@ -226,6 +247,18 @@ public interface DockerAccess {
      */
     void buildImage(String image, File dockerArchive, BuildOptions options) throws DockerAccessException;
 
+    /**
+     * Create an docker image from an archive which is streamed to the Docker daemon while it is written
+     * by the given writer. No intermediate archive file is created.
+     *
+     * @param image name of the image to build or <code>null</code> if none should be used
+     * @param archiveWriter writer producing the archive from which the docker image should be build
+     * @param options additional query arguments to add when building the image. Can be null.
+     * @throws DockerAccessException if docker host reports an error during building of an image or
+     *                               if the archive could not be written
+     */
+    void buildImage(String image, ArchiveWriter archiveWriter, BuildOptions options) throws DockerAccessException;
+
     /**
      * Alias an image in the repository with a complete new name. (Note that this maps to a Docker Remote API 'tag'
      * operation, which IMO is badly named since it also can generate a complete alias to a given image)
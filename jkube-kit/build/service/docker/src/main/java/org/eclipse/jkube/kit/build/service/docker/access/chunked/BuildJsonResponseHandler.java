@@ -13,12 +13,15 @@
  */
 package org.eclipse.jkube.kit.build.service.docker.access.chunked;
 
-import com.google.gson.JsonObject;
+import java.util.regex.Pattern;
+
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
 import org.eclipse.jkube.kit.common.KitLogger;
 
 public class BuildJsonResponseHandler implements EntityStreamReaderUtil.JsonEntityResponseHandler {
 
+    private static final Pattern DOWNLOAD_STATUS = Pattern.compile("^.*(Download|Pulling).*");
+
     private final KitLogger log;
 
     public BuildJsonResponseHandler(KitLogger log) {
@@ -26,23 +29,18 @@ public class BuildJsonResponseHandler implements EntityStreamReaderUtil.JsonEnti
     }
 
     @Override
-    public void process(JsonObject json) throws DockerAccessException {
-        if (json.has("error")) {
-            String msg = json.get("error").getAsString();
-            String detailMsg = "";
-            if (json.has("errorDetail")) {
-                JsonObject details = json.getAsJsonObject("errorDetail");
-                detailMsg = details.get("message").getAsString();
-            }
-            throw new DockerAccessException("%s %s", json.get("error"),
+    public void process(JsonMessage json) throws DockerAccessException {
+        if (json.getError() != null) {
+            String msg = json.getError();
+            String detailMsg = json.getErrorDetail() != null ? json.getErrorDetail() : "";
+            throw new DockerAccessException("%s %s", msg,
                     (msg.equals(detailMsg) || "".equals(detailMsg) ? "" : "(" + detailMsg + ")"));
-        } else if (json.has("stream")) {
-            String message = json.get("stream").getAsString();
-            log.verbose("%s", message.trim());
-        } else if (json.has("status")) {
-            String status = json.get("status").getAsString().trim();
-            String id = json.has("id") ? json.get("id").getAsString() : null;
-            if (status.matches("^.*(Download|Pulling).*")) {
+        } else if (json.getStream() != null) {
+            log.verbose("%s", json.getStream().trim());
+        } else if (json.getStatus() != null) {
+            String status = json.getStatus().trim();
+            String id = json.getId();
+            if (DOWNLOAD_STATUS.matcher(status).matches()) {
                 log.info("  %s%s",id != null ? id + " " : "",status);
             }
         }
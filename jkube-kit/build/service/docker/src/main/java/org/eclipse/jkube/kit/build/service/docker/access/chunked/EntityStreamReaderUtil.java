@@ -16,10 +16,8 @@ package org.eclipse.jkube.kit.build.service.docker.access.chunked;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
@@ -30,13 +28,10 @@ public class EntityStreamReaderUtil {
 
     public static void processJsonStream(JsonEntityResponseHandler handler, InputStream stream) throws IOException {
         handler.start();
-        try(JsonReader json = new JsonReader(new InputStreamReader(stream))) {
-            JsonParser parser = new JsonParser();
-
+        try(JsonReader json = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
             json.setLenient(true);
             while (json.peek() != JsonToken.END_DOCUMENT) {
-                JsonElement element = parser.parse(json);
-                handler.process(element.getAsJsonObject());
+                handler.process(JsonMessage.read(json));
             }
         } finally {
             handler.stop();
@@ -44,7 +39,7 @@ public class EntityStreamReaderUtil {
     }
 
     public interface JsonEntityResponseHandler {
-        void process(JsonObject toProcess) throws DockerAccessException;
+        void process(JsonMessage toProcess) throws DockerAccessException;
         void start();
         void stop();
     }
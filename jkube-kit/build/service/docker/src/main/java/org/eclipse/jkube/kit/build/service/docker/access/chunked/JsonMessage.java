@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access.chunked;
+
+import java.io.IOException;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * A single message of the progress stream sent by the Docker daemon while building, pulling or pushing an image.
+ *
+ * Only the fields used for logging are extracted, directly from the tokens of the stream. Unlike a parsed
+ * {@link JsonObject} no tree is built for the message, which matters for large pulls with tens of thousands
+ * of progress updates. Unknown fields are skipped, unless the message consists of unknown fields only.
+ */
+public class JsonMessage {
+
+    private String stream;
+    private String status;
+    private String id;
+    private String progress;
+    private boolean progressDetail;
+    private String error;
+    private String errorDetail;
+
+    // Fields not read into one of the above, null if there are none
+    private JsonObject other;
+
+    private JsonMessage() { }
+
+    /**
+     * Read the next message from a stream
+     *
+     * @param reader reader positioned at the start of a message
+     * @return the message
+     * @throws IOException if the message cannot be read or is not a JSON object
+     */
+    public static JsonMessage read(JsonReader reader) throws IOException {
+        JsonMessage ret = new JsonMessage();
+        boolean known = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "stream":
+                    ret.stream = readString(reader);
+                    break;
+                case "status":
+                    ret.status = readString(reader);
+                    break;
+                case "id":
+                    ret.id = readString(reader);
+                    break;
+                case "progress":
+                    ret.progress = readString(reader);
+                    break;
+                case "progressDetail":
+                    ret.progressDetail = true;
+                    reader.skipValue();
+                    break;
+                case "error":
+                    ret.error = readString(reader);
+                    break;
+                case "errorDetail":
+                    ret.errorDetail = readErrorDetail(reader);
+                    break;
+                default:
+                    if (known) {
+                        reader.skipValue();
+                    } else {
+                        if (ret.other == null) {
+                            ret.other = new JsonObject();
+                        }
+                        ret.other.add(name, new JsonParser().parse(reader));
+                    }
+                    continue;
+            }
+            known = true;
+            ret.other = null;
+        }
+        reader.endObject();
+        return ret;
+    }
+
+    public String getStream() {
+        return stream;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProgress() {
+        return progress;
+    }
+
+    public boolean hasProgressDetail() {
+        return progressDetail;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return the message of the error details, null if not given
+     */
+    public String getErrorDetail() {
+        return errorDetail;
+    }
+
+    // Fields of a message without any known field, null otherwise
+    JsonObject getOther() {
+        return other;
+    }
+
+    /**
+     * @return the message as JSON, for logging messages of an unknown format
+     */
+    @Override
+    public String toString() {
+        JsonObject ret = other != null ? other.deepCopy() : new JsonObject();
+        addIfNotNull(ret, "stream", stream);
+        addIfNotNull(ret, "status", status);
+        addIfNotNull(ret, "id", id);
+        addIfNotNull(ret, "progress", progress);
+        addIfNotNull(ret, "error", error);
+        if (errorDetail != null) {
+            JsonObject details = new JsonObject();
+            details.addProperty("message", errorDetail);
+            ret.add("errorDetail", details);
+        }
+        return ret.toString();
+    }
+
+    private static void addIfNotNull(JsonObject json, String name, String value) {
+        if (value != null) {
+            json.addProperty(name, value);
+        }
+    }
+
+    private static String readErrorDetail(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String ret = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("message".equals(reader.nextName())) {
+                ret = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return ret;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+}
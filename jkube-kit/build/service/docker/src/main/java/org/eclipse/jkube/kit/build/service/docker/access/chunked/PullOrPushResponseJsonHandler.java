@@ -13,7 +13,6 @@
  */
 package org.eclipse.jkube.kit.build.service.docker.access.chunked;
 
-import com.google.gson.JsonObject;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
 import org.eclipse.jkube.kit.common.KitLogger;
 
@@ -26,12 +25,12 @@ public class PullOrPushResponseJsonHandler implements EntityStreamReaderUtil.Jso
     }
 
     @Override
-    public void process(JsonObject json) throws DockerAccessException {
-        if (json.has("progressDetail")) {
-            log.progressUpdate(getStringOrEmpty(json, "id"),
-                               getStringOrEmpty(json, "status"),
-                               getStringOrEmpty(json, "progress"));
-        } else if (json.has("error")) {
+    public void process(JsonMessage json) throws DockerAccessException {
+        if (json.hasProgressDetail()) {
+            log.progressUpdate(emptyIfNull(json.getId()),
+                               emptyIfNull(json.getStatus()),
+                               emptyIfNull(json.getProgress()));
+        } else if (json.getError() != null) {
             throwDockerAccessException(json);
         } else {
             log.progressFinished();
@@ -40,26 +39,26 @@ public class PullOrPushResponseJsonHandler implements EntityStreamReaderUtil.Jso
         }
     }
 
-    private void logInfoMessage(JsonObject json) {
+    private void logInfoMessage(JsonMessage json) {
         String value;
-        if (json.has("stream")) {
-            value = json.get("stream").getAsString().replaceFirst("\n$", "");
-        } else if (json.has("status")) {
-            value = json.get("status").getAsString();
+        if (json.getStream() != null) {
+            value = json.getStream().replaceFirst("\n$", "");
+        } else if (json.getStatus() != null) {
+            value = json.getStatus();
         } else {
             value = json.toString();
         }
         log.info("%s", value);
     }
 
-    private void throwDockerAccessException(JsonObject json) throws DockerAccessException {
-        String msg = json.get("error").getAsString().trim();
-        String details = json.getAsJsonObject("errorDetail").get("message").getAsString().trim();
+    private void throwDockerAccessException(JsonMessage json) throws DockerAccessException {
+        String msg = json.getError().trim();
+        String details = json.getErrorDetail() != null ? json.getErrorDetail().trim() : msg;
         throw new DockerAccessException("%s %s", msg, (msg.equals(details) ? "" : "(" + details + ")"));
     }
 
-    private String getStringOrEmpty(JsonObject json, String what) {
-        return json.has(what) ? json.get(what).getAsString() : "";
+    private static String emptyIfNull(String value) {
+        return value != null ? value : "";
     }
 
     @Override
@@ -15,12 +15,14 @@ package org.eclipse.jkube.kit.build.service.docker.access.hc;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import org.eclipse.jkube.kit.build.service.docker.access.hc.http.HttpRequestException;
 import org.eclipse.jkube.kit.build.service.docker.access.hc.util.ClientBuilder;
+import org.eclipse.jkube.kit.build.service.docker.access.hc.util.ConnectionPoolMetrics;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.StatusLine;
@@ -32,6 +34,7 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.entity.FileEntity;
+import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.util.EntityUtils;
@@ -40,10 +43,12 @@ public class ApacheHttpClientDelegate {
 
     private final ClientBuilder clientBuilder;
     private final CloseableHttpClient httpClient;
+    private final ConnectionPoolMetrics metrics;
 
     public ApacheHttpClientDelegate(ClientBuilder clientBuilder, boolean pooled) throws IOException {
         this.clientBuilder = clientBuilder;
-        this.httpClient = pooled ? clientBuilder.buildPooledClient() : clientBuilder.buildBasicClient();
+        this.metrics = new ConnectionPoolMetrics();
+        this.httpClient = pooled ? clientBuilder.buildPooledClient(metrics) : clientBuilder.buildBasicClient();
     }
 
     public CloseableHttpClient createBasicClient()  {
@@ -58,6 +63,13 @@ public class ApacheHttpClientDelegate {
         return httpClient;
     }
 
+    /**
+     * @return usage of the connection pool, only updated for pooled clients
+     */
+    public ConnectionPoolMetrics getMetrics() {
+        return metrics;
+    }
+
     public void close() throws IOException {
         httpClient.close();
     }
@@ -166,6 +178,9 @@ public class ApacheHttpClientDelegate {
         if (entity != null) {
             if (entity instanceof File) {
                 request.setEntity(new FileEntity((File) entity));
+            } else if (entity instanceof InputStream) {
+                // Unknown length, sent with chunked transfer encoding
+                request.setEntity(new InputStreamEntity((InputStream) entity));
             } else {
                 request.setEntity(new StringEntity((String) entity, Charset.defaultCharset()));
             }
@@ -16,16 +16,28 @@ package org.eclipse.jkube.kit.build.service.docker.access.hc;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.LineNumberReader;
 import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -39,6 +51,7 @@ import org.eclipse.jkube.kit.build.api.model.NetworkCreateConfig;
 import org.eclipse.jkube.kit.build.api.model.NetworksListElement;
 import org.eclipse.jkube.kit.build.api.model.VolumeCreateConfig;
 import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.build.service.docker.access.ArchiveWriter;
 import org.eclipse.jkube.kit.build.service.docker.access.BuildOptions;
 import org.eclipse.jkube.kit.build.service.docker.access.ContainerCreateConfig;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
@@ -101,14 +114,45 @@ public class DockerAccessWithHcClient implements DockerAccess {
     // Base URL which is given through when using NamedPipe communication but is not really used
     private static final String NPIPE_URL = "npipe://127.0.0.1:1/";
 
+    // Registries which the daemon leaves out when listing image names
+    private static final List<String> DOCKER_HUB_REGISTRIES = Arrays.asList("docker.io", "index.docker.io");
+
     // Minimal API version, independent of any feature used
     public static final String API_VERSION = "1.18";
 
+    // Buffer between the archive producer thread and the HTTP request when streaming a build archive
+    private static final int ARCHIVE_PIPE_SIZE = 1024 * 1024;
+
     // Logging
     private final KitLogger log;
 
+    // Short requests like inspecting images or containers
     private final ApacheHttpClientDelegate delegate;
+    // Long running requests streaming their content (build, pull, push, logs, ...), using their own
+    // connection pool so that they don't hold up the short requests
+    private final ApacheHttpClientDelegate streamingDelegate;
     private final UrlBuilder urlBuilder;
+    private final String apiVersion;
+
+    // API version reported by the server, fetched once
+    private volatile String serverApiVersion;
+
+    /**
+     * Create a new access for the given URL
+     *
+     * @param baseUrl  base URL for accessing the docker Daemon
+     * @param certPath used to build up a keystore with the given keys and certificates found in this
+     *                 directory
+     * @param maxConnections maximum parallel connections allowed to docker daemon (if a pool is used)
+     * @param log      a log handler for printing out logging information
+     * @throws IOException in case of I/O exception
+     */
+    public DockerAccessWithHcClient(String baseUrl,
+                                    String certPath,
+                                    int maxConnections,
+                                    KitLogger log) throws IOException {
+        this(baseUrl, certPath, maxConnections, null, log);
+    }
 
     /**
      * Create a new access for the given URL
@@ -117,43 +161,64 @@ public class DockerAccessWithHcClient implements DockerAccess {
      * @param certPath used to build up a keystore with the given keys and certificates found in this
      *                 directory
      * @param maxConnections maximum parallel connections allowed to docker daemon (if a pool is used)
+     * @param apiVersion API version to use, as negotiated by an earlier access to the same daemon. If
+     *                   <code>null</code> it is fetched from the daemon.
      * @param log      a log handler for printing out logging information
      * @throws IOException in case of I/O exception
      */
     public DockerAccessWithHcClient(String baseUrl,
                                     String certPath,
                                     int maxConnections,
+                                    String apiVersion,
                                     KitLogger log) throws IOException {
         URI uri = URI.create(baseUrl);
         if (uri.getScheme() == null) {
             throw new IllegalArgumentException("The docker access url '" + baseUrl + "' must contain a schema tcp://, unix:// or npipe://");
         }
         if (uri.getScheme().equalsIgnoreCase("unix")) {
-            this.delegate = createHttpClient(new UnixSocketClientBuilder(uri.getPath(), maxConnections, log));
+            ClientBuilder builder = new UnixSocketClientBuilder(uri.getPath(), maxConnections, log);
+            this.delegate = createHttpClient(builder);
+            this.streamingDelegate = createHttpClient(builder);
             baseUrl = UNIX_URL;
         } else if (uri.getScheme().equalsIgnoreCase("npipe")) {
-            this.delegate = createHttpClient(new NamedPipeClientBuilder(uri.getPath(), maxConnections, log), false);
+            ClientBuilder builder = new NamedPipeClientBuilder(uri.getPath(), maxConnections, log);
+            this.delegate = createHttpClient(builder, false);
+            this.streamingDelegate = createHttpClient(builder, false);
             baseUrl = NPIPE_URL;
         } else {
-            this.delegate = createHttpClient(new HttpClientBuilder(isSSL(baseUrl) ? certPath : null, maxConnections));
+            ClientBuilder builder = new HttpClientBuilder(isSSL(baseUrl) ? certPath : null, maxConnections);
+            this.delegate = createHttpClient(builder);
+            this.streamingDelegate = createHttpClient(builder);
         }
 
         // Strip trailing slashes if any
         while(baseUrl.endsWith("/")) {
             baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
         }
-        this.urlBuilder = new UrlBuilder(baseUrl, "v" + fetchApiVersionFromServer(baseUrl, this.delegate));
+        this.apiVersion = apiVersion != null ? apiVersion : fetchApiVersionFromServer(baseUrl, this.delegate);
+        this.urlBuilder = new UrlBuilder(baseUrl, "v" + this.apiVersion);
         this.log = log;
     }
 
+    /**
+     * @return the API version used for all requests
+     */
+    public String getApiVersion() {
+        return apiVersion;
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getServerApiVersion() throws DockerAccessException {
+        if (serverApiVersion != null) {
+            return serverApiVersion;
+        }
         try {
             String url = urlBuilder.version();
             String response = delegate.get(url, 200);
             JsonObject info = JsonFactory.newJsonObject(response);
-            return info.get("ApiVersion").getAsString();
+            serverApiVersion = info.get("ApiVersion").getAsString();
+            return serverApiVersion;
         } catch (Exception e) {
             throw new DockerAccessException(e, "Cannot extract API version from server %s", urlBuilder.getBaseUrl());
         }
@@ -167,7 +232,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
             request.addProperty("Detach", false);
             request.addProperty("Tty", true);
 
-            delegate.post(url, request.toString(), createExecResponseHandler(outputSpec), HTTP_OK);
+            streamingDelegate.post(url, request.toString(), createExecResponseHandler(outputSpec), HTTP_OK);
         } catch (Exception e) {
             throw new DockerAccessException(e, "Unable to start container id [%s]", containerId);
         }
@@ -268,18 +333,42 @@ public class DockerAccessWithHcClient implements DockerAccess {
     public void buildImage(String image, File dockerArchive, BuildOptions options) throws DockerAccessException {
         try {
             String url = urlBuilder.buildImage(image, options);
-            delegate.post(url, dockerArchive, createBuildResponseHandler(), HTTP_OK);
+            streamingDelegate.post(url, dockerArchive, createBuildResponseHandler(), HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to build image [%s]", image);
         }
     }
 
+    @Override
+    public void buildImage(String image, ArchiveWriter archiveWriter, BuildOptions options) throws DockerAccessException {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "docker-build-archive-" + image);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (PipedInputStream archiveInputStream = new PipedInputStream(ARCHIVE_PIPE_SIZE)) {
+            final PipedOutputStream archiveOutputStream = new PipedOutputStream(archiveInputStream);
+            final Future<Void> archiveProducer = executor.submit(() -> {
+                try (OutputStream outputStream = archiveOutputStream) {
+                    archiveWriter.write(outputStream);
+                }
+                return null;
+            });
+            String url = urlBuilder.buildImage(image, options);
+            streamingDelegate.post(url, new ArchiveProducerInputStream(archiveInputStream, archiveProducer), createBuildResponseHandler(), HTTP_OK);
+        } catch (IOException e) {
+            throw new DockerAccessException(e, "Unable to build image [%s]", image);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Override
     public void copyArchive(String containerId, File archive, String targetPath)
             throws DockerAccessException {
         try {
             String url = urlBuilder.copyArchive(containerId, targetPath);
-            delegate.put(url, archive, HTTP_OK);
+            streamingDelegate.put(url, archive, HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to copy archive %s to container [%s] with path %s",
                     archive.toPath(), containerId, targetPath);
@@ -288,13 +377,13 @@ public class DockerAccessWithHcClient implements DockerAccess {
 
     @Override
     public void getLogSync(String containerId, LogCallback callback) {
-        LogRequestor extractor = new LogRequestor(delegate.getHttpClient(), urlBuilder, containerId, callback);
+        LogRequestor extractor = new LogRequestor(streamingDelegate.getHttpClient(), urlBuilder, containerId, callback);
         extractor.fetchLogs();
     }
 
     @Override
     public LogGetHandle getLogAsync(String containerId, LogCallback callback) {
-        LogRequestor extractor = new LogRequestor(delegate.createBasicClient(), urlBuilder, containerId, callback);
+        LogRequestor extractor = new LogRequestor(streamingDelegate.createBasicClient(), urlBuilder, containerId, callback);
         extractor.start();
         return extractor;
     }
@@ -386,6 +475,94 @@ public class DockerAccessWithHcClient implements DockerAccess {
         return imageDetails.get("Id").getAsString().substring(0, 12);
     }
 
+    @Override
+    public Map<String, String> getImageIds(Collection<String> names) throws DockerAccessException {
+        Map<String, String> ret = new LinkedHashMap<>();
+        if (names.isEmpty()) {
+            return ret;
+        }
+        // Names as listed by the daemon, mapped to the names asked for
+        Map<String, List<String>> lookup = new HashMap<>();
+        for (String name : names) {
+            ret.put(name, null);
+            lookup.computeIfAbsent(getListedImageName(name), k -> new ArrayList<>()).add(name);
+        }
+        String url;
+        if (EnvUtil.greaterOrEqualsVersion(getServerApiVersion(), "1.25")) {
+            url = urlBuilder.listImages(toFilters("reference", lookup.keySet()));
+        } else {
+            url = urlBuilder.listImages();
+        }
+
+        try {
+            JsonArray array = JsonFactory.newJsonArray(delegate.get(url, HTTP_OK));
+            for (int i = 0; i < array.size(); i++) {
+                JsonObject image = array.get(i).getAsJsonObject();
+                String id = image.get("Id").getAsString().substring(0, 12);
+                for (String field : new String[] { "RepoTags", "RepoDigests" }) {
+                    if (image.has(field) && image.get(field).isJsonArray()) {
+                        for (JsonElement listedName : image.getAsJsonArray(field)) {
+                            for (String name : lookup.getOrDefault(listedName.getAsString(), Collections.emptyList())) {
+                                ret.put(name, id);
+                            }
+                        }
+                    }
+                }
+            }
+            return ret;
+        } catch (IOException e) {
+            throw new DockerAccessException(e, "Unable to list images %s", names);
+        }
+    }
+
+    // Name in the form listed by the daemon, i.e. without Docker Hub as registry and with the tag always given
+    static String getListedImageName(String name) {
+        ImageName imageName = new ImageName(name);
+        String registry = imageName.getRegistry();
+        String repository = imageName.getRepository();
+        StringBuilder ret = new StringBuilder();
+        if (registry != null && !DOCKER_HUB_REGISTRIES.contains(registry)) {
+            ret.append(registry).append('/');
+        } else if (repository.startsWith("library/")) {
+            repository = repository.substring("library/".length());
+        }
+        ret.append(repository);
+        if (imageName.getDigest() != null) {
+            ret.append('@').append(imageName.getDigest());
+        } else {
+            ret.append(':').append(imageName.getTag());
+        }
+        return ret.toString();
+    }
+
+    private static String[] toFilters(String key, Collection<String> values) {
+        List<String> ret = new ArrayList<>();
+        for (String value : values) {
+            ret.add(key);
+            ret.add(value);
+        }
+        return ret.toArray(new String[0]);
+    }
+
+    @Override
+    public Map<String, String> getImageLabels(String name) throws DockerAccessException {
+        ApacheHttpClientDelegate.HttpBodyAndStatus response = inspectImage(name);
+        if (response.getStatusCode() == HTTP_NOT_FOUND) {
+            return null;
+        }
+        JsonObject imageDetails = JsonFactory.newJsonObject(response.getBody());
+        Map<String, String> labels = new HashMap<>();
+        if (imageDetails.has("Config") && imageDetails.get("Config").isJsonObject()) {
+            JsonObject config = imageDetails.getAsJsonObject("Config");
+            if (config.has("Labels") && config.get("Labels").isJsonObject()) {
+                for (Map.Entry<String, JsonElement> label : config.getAsJsonObject("Labels").entrySet()) {
+                    labels.put(label.getKey(), label.getValue().getAsString());
+                }
+            }
+        }
+        return labels;
+    }
+
     private ApacheHttpClientDelegate.HttpBodyAndStatus inspectImage(String name) throws DockerAccessException {
         String url = urlBuilder.inspectImage(name);
         try {
@@ -411,7 +588,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String url = urlBuilder.loadImage();
 
         try {
-            delegate.post(url, tarArchive, new ApacheHttpClientDelegate.BodyAndStatusResponseHandler(), HTTP_OK);
+            streamingDelegate.post(url, tarArchive, new ApacheHttpClientDelegate.BodyAndStatusResponseHandler(), HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to load %s", tarArchive);
         }
@@ -424,7 +601,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         String pullUrl = urlBuilder.pullImage(name, registry);
 
         try {
-            delegate.post(pullUrl, null, createAuthHeader(authConfig),
+            streamingDelegate.post(pullUrl, null, createAuthHeader(authConfig),
                     createPullOrPushResponseHandler(), HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to pull '%s'%s", image, (registry != null) ? " from registry '" + registry + "'" : "");
@@ -461,7 +638,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         ImageName name = new ImageName(image);
         String url = urlBuilder.getImage(name);
         try {
-            delegate.get(url, getImageResponseHandler(filename, compression), HTTP_OK);
+            streamingDelegate.get(url, getImageResponseHandler(filename, compression), HTTP_OK);
         } catch (IOException e) {
             throw new DockerAccessException(e, "Unable to save '%s' to '%s'", image, filename);
         }
@@ -611,10 +788,13 @@ public class DockerAccessWithHcClient implements DockerAccess {
 
     @Override
     public void shutdown() {
-        try {
-            delegate.close();
-        } catch (IOException exp) {
-            log.error("Error while closing HTTP client: " + exp,exp);
+        log.debug("Docker daemon connections: %s; streaming: %s", delegate.getMetrics(), streamingDelegate.getMetrics());
+        for (ApacheHttpClientDelegate toClose : new ApacheHttpClientDelegate[] { delegate, streamingDelegate }) {
+            try {
+                toClose.close();
+            } catch (IOException exp) {
+                log.error("Error while closing HTTP client: " + exp, exp);
+            }
         }
     }
 
@@ -653,7 +833,7 @@ public class DockerAccessWithHcClient implements DockerAccess {
         // 0: The original attemp, 1..retry: possible retries.
         for (int i = 0; i <= retries; i++) {
             try {
-                delegate.post(url, null, header, handler, HTTP_OK);
+                streamingDelegate.post(url, null, header, handler, HTTP_OK);
                 return;
             } catch (HttpResponseException e) {
                 if (isRetryableErrorCode(e.getStatusCode()) && i != retries) {
@@ -727,6 +907,42 @@ public class DockerAccessWithHcClient implements DockerAccess {
         }
     }
 
+    // Stream fed by an archive writer running in another thread. Failures of the writer are rethrown
+    // to the reading side, so that the request is aborted instead of sending a truncated archive.
+    private static class ArchiveProducerInputStream extends FilterInputStream {
+
+        private final Future<Void> producer;
+
+        ArchiveProducerInputStream(InputStream in, Future<Void> producer) {
+            super(in);
+            this.producer = producer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return checkProducer(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return checkProducer(super.read(b, off, len));
+        }
+
+        private int checkProducer(int read) throws IOException {
+            if (read == -1) {
+                try {
+                    producer.get();
+                } catch (ExecutionException e) {
+                    throw new IOException("Cannot create archive: " + e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while creating archive");
+                }
+            }
+            return read;
+        }
+    }
+
     public String fetchApiVersionFromServer(String baseUrl, ApacheHttpClientDelegate delegate) throws IOException {
         HttpGet get = new HttpGet(baseUrl + (baseUrl.endsWith("/") ? "" : "/") + "version");
         get.addHeader(HttpHeaders.ACCEPT, "*/*");
@@ -13,24 +13,29 @@
  */
 package org.eclipse.jkube.kit.build.service.docker.access.hc.http;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.SSLContext;
 
 import org.eclipse.jkube.kit.build.service.docker.access.KeyStoreUtil;
 import org.eclipse.jkube.kit.build.service.docker.access.hc.util.ClientBuilder;
+import org.eclipse.jkube.kit.build.service.docker.access.hc.util.ConnectionPoolMetrics;
+import org.eclipse.jkube.kit.build.service.docker.access.hc.util.PooledClients;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.ssl.SSLContexts;
 
 /**
@@ -39,6 +44,10 @@ import org.apache.http.ssl.SSLContexts;
  */
 public class HttpClientBuilder implements ClientBuilder {
 
+    // Socket factories per certificate directory, so that keys and certificates are loaded only once.
+    // A factory is replaced when the modification times of the files change, so regenerated certificates are picked up.
+    private static final Map<String, CachedSocketFactory> SSL_SOCKET_FACTORIES = new ConcurrentHashMap<>();
+
     private final String certPath;
     private final int maxConnections;
 
@@ -47,35 +56,26 @@ public class HttpClientBuilder implements ClientBuilder {
         this.maxConnections = maxConnections;
     }
 
-    public CloseableHttpClient buildPooledClient() throws IOException {
-        org.apache.http.impl.client.HttpClientBuilder builder = HttpClients.custom();
-        HttpClientConnectionManager manager = getPooledConnectionFactory(certPath, maxConnections);
-        builder.setConnectionManager(manager);
+    public CloseableHttpClient buildPooledClient(ConnectionPoolMetrics metrics) throws IOException {
+        Registry<ConnectionSocketFactory> registry = certPath != null ?
+                getSslFactoryRegistry(certPath) :
+                RegistryBuilder.<ConnectionSocketFactory> create()
+                        .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                        .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                        .build();
         // TODO: For push-redirects working for 301, the redirect strategy should be relaxed (see #351)
         // However not sure whether we should do it right now and whether this is correct, since normally
         // a 301 should only occur when the image name is invalid (e.g. containing "//" in which case a redirect
         // happens to the URL with a single "/")
         // builder.setRedirectStrategy(new LaxRedirectStrategy());
 
-        // TODO: Tune client if needed (e.g. add pooling factoring .....
-        // But I think, that's not really required.
-
-        return builder.build();
+        return PooledClients.build(registry, null, maxConnections, metrics);
     }
 
     public CloseableHttpClient buildBasicClient() throws IOException {
         return HttpClients.custom().setConnectionManager(getBasicConnectionFactory(certPath)).build();
     }
 
-    private static HttpClientConnectionManager getPooledConnectionFactory(String certPath, int maxConnections) throws IOException {
-        PoolingHttpClientConnectionManager ret = certPath != null ?
-                new PoolingHttpClientConnectionManager(getSslFactoryRegistry(certPath)) :
-                new PoolingHttpClientConnectionManager();
-        ret.setDefaultMaxPerRoute(maxConnections);
-        ret.setMaxTotal(maxConnections);
-        return ret;
-    }
-
     private static HttpClientConnectionManager getBasicConnectionFactory(String certPath) throws IOException {
         return certPath != null ?
             new BasicHttpClientConnectionManager(getSslFactoryRegistry(certPath)) :
@@ -83,6 +83,20 @@ public class HttpClientBuilder implements ClientBuilder {
     }
 
     private static Registry<ConnectionSocketFactory> getSslFactoryRegistry(String certPath) throws IOException {
+        String tlsVerify = System.getenv("DOCKER_TLS_VERIFY");
+        StringBuilder state = new StringBuilder(String.valueOf(tlsVerify));
+        for (String file : new String[] { "key.pem", "cert.pem", "ca.pem" }) {
+            state.append('|').append(new File(certPath, file).lastModified());
+        }
+        CachedSocketFactory cached = SSL_SOCKET_FACTORIES.get(certPath);
+        if (cached == null || !cached.state.equals(state.toString())) {
+            cached = new CachedSocketFactory(state.toString(), createSslSocketFactory(certPath, tlsVerify));
+            SSL_SOCKET_FACTORIES.put(certPath, cached);
+        }
+        return RegistryBuilder.<ConnectionSocketFactory> create().register("https", cached.factory).build();
+    }
+
+    private static SSLConnectionSocketFactory createSslSocketFactory(String certPath, String tlsVerify) throws IOException {
         try
         {
             KeyStore keyStore = KeyStoreUtil.createDockerKeyStore(certPath);
@@ -93,17 +107,24 @@ public class HttpClientBuilder implements ClientBuilder {
                                .loadKeyMaterial(keyStore, "docker".toCharArray())
                                .loadTrustMaterial(keyStore, null)
                                .build();
-            String tlsVerify = System.getenv("DOCKER_TLS_VERIFY");
-            SSLConnectionSocketFactory sslsf =
-                    tlsVerify != null && !tlsVerify.equals("0") && !tlsVerify.equals("false") ?
-                            new SSLConnectionSocketFactory(sslContext) :
-                            new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
-
-            return RegistryBuilder.<ConnectionSocketFactory> create().register("https", sslsf).build();
+            return tlsVerify != null && !tlsVerify.equals("0") && !tlsVerify.equals("false") ?
+                    new SSLConnectionSocketFactory(sslContext) :
+                    new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
         }
         catch (GeneralSecurityException e) {
             // this isn't ideal but the net effect is the same
             throw new IOException(e);
         }
     }
+
+    // Socket factory along with the state of the certificate files it has been created from
+    private static class CachedSocketFactory {
+        private final String state;
+        private final SSLConnectionSocketFactory factory;
+
+        private CachedSocketFactory(String state, SSLConnectionSocketFactory factory) {
+            this.state = state;
+            this.factory = factory;
+        }
+    }
 }
@@ -23,10 +23,8 @@ import org.apache.http.config.RegistryBuilder;
 import org.apache.http.conn.DnsResolver;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
 /**
  * Base class for all clients which access Docker natively
@@ -55,12 +53,8 @@ abstract public class AbstractNativeClientBuilder implements ClientBuilder {
     protected abstract String getProtocol();
 
     @Override
-    public CloseableHttpClient buildPooledClient() {
-        final HttpClientBuilder httpBuilder = HttpClients.custom();
-        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry, dnsResolver);
-        manager.setDefaultMaxPerRoute(maxConnections);
-        httpBuilder.setConnectionManager(manager);
-        return httpBuilder.build();
+    public CloseableHttpClient buildPooledClient(ConnectionPoolMetrics metrics) {
+        return PooledClients.build(registry, dnsResolver, maxConnections, metrics);
     }
 
     @Override
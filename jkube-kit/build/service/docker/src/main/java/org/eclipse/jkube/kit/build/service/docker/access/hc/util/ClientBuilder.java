@@ -31,7 +31,18 @@ public interface ClientBuilder {
      * @return an HTTP client
      * @throws IOException IO Exception
      */
-    CloseableHttpClient buildPooledClient() throws IOException;
+    default CloseableHttpClient buildPooledClient() throws IOException {
+        return buildPooledClient(null);
+    }
+
+    /**
+     * Create a pooled client which records its usage
+     *
+     * @param metrics metrics to update with every request, can be null
+     * @return an HTTP client
+     * @throws IOException IO Exception
+     */
+    CloseableHttpClient buildPooledClient(ConnectionPoolMetrics metrics) throws IOException;
 
     /**
      * Create a basic client with a single connection. This is the client which should be used
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access.hc.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Usage statistics of an HTTP client, updated with every response received. The number of requests compared to the number of connections
+ * opened shows how well connections are kept alive and reused.
+ */
+public class ConnectionPoolMetrics implements HttpResponseInterceptor {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+    private final AtomicInteger openedConnections = new AtomicInteger();
+
+    private volatile PoolingHttpClientConnectionManager manager;
+
+    /**
+     * Set the pool whose usage should be sampled with each response
+     *
+     * @param manager connection manager of the client
+     */
+    void setConnectionManager(PoolingHttpClientConnectionManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Wrap a connection factory so that the connections it creates are counted
+     *
+     * @param factory factory to wrap
+     * @return factory counting its connections
+     */
+    HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> countConnections(
+            HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> factory) {
+        return (route, config) -> {
+            openedConnections.incrementAndGet();
+            return factory.create(route, config);
+        };
+    }
+
+    @Override
+    public void process(HttpResponse response, HttpContext context) {
+        // The connection itself may already be released here, e.g. for responses without content
+        requests.incrementAndGet();
+        PoolStats stats = getPoolStats();
+        if (stats != null) {
+            peakLeased.accumulateAndGet(stats.getLeased(), Math::max);
+        }
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return number of connections opened for all requests
+     */
+    public int getOpenedConnections() {
+        return openedConnections.get();
+    }
+
+    /**
+     * @return maximum number of connections used at the same time
+     */
+    public int getPeakLeased() {
+        return peakLeased.get();
+    }
+
+    /**
+     * @return current state of the pool or null if the client is not pooled
+     */
+    public PoolStats getPoolStats() {
+        PoolingHttpClientConnectionManager current = manager;
+        return current != null ? current.getTotalStats() : null;
+    }
+
+    @Override
+    public String toString() {
+        PoolStats stats = getPoolStats();
+        return String.format("%d requests on %d connections, at most %d in use%s",
+                             getRequests(), getOpenedConnections(), getPeakLeased(),
+                             stats != null ? String.format(" (pool: %d leased, %d idle, %d pending, max %d)",
+                                                           stats.getLeased(), stats.getAvailable(),
+                                                           stats.getPending(), stats.getMax()) : "");
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access.hc.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.config.Registry;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * Pooled HTTP clients tuned for many short requests to the same Docker daemon: connections are
+ * kept alive between requests, checked before they are reused after a pause and closed when idle.
+ */
+public class PooledClients {
+
+    // The Docker daemon doesn't announce how long it keeps connections open
+    static final long KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+    private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return duration > 0 ? duration : KEEP_ALIVE_MILLIS;
+    };
+
+    private PooledClients() { }
+
+    /**
+     * Build a pooled client
+     *
+     * @param registry socket factories for the connection type
+     * @param dnsResolver resolver for host names, null for the system's resolver
+     * @param maxConnections maximum number of connections at the same time
+     * @param metrics to record the usage of the client, can be null
+     * @return the client
+     */
+    public static CloseableHttpClient build(Registry<ConnectionSocketFactory> registry, DnsResolver dnsResolver,
+                                            int maxConnections, ConnectionPoolMetrics metrics) {
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> connectionFactory =
+                ManagedHttpClientConnectionFactory.INSTANCE;
+        if (metrics != null) {
+            connectionFactory = metrics.countConnections(connectionFactory);
+        }
+        PoolingHttpClientConnectionManager manager =
+                new PoolingHttpClientConnectionManager(registry, connectionFactory, dnsResolver);
+        manager.setMaxTotal(maxConnections);
+        manager.setDefaultMaxPerRoute(maxConnections);
+        manager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+                .evictExpiredConnections()
+                .evictIdleConnections(KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS);
+        if (metrics != null) {
+            metrics.setConnectionManager(manager);
+            builder.addInterceptorFirst(metrics);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.JsonObject;
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.common.JsonFactory;
+
+/**
+ * In-memory cache for resolved registry credentials, so that credential helpers, the Docker and Kubernetes
+ * configuration files or the AWS APIs are consulted only once for all images of a build. A cache is meant to
+ * live as long as a single build, it must not be shared between builds.
+ *
+ * Entries expire after a fixed time or, if earlier, shortly before the token they hold expires. Expiry times
+ * are known for ECR tokens and EC2 instance credentials, and for every token which is a JWT (like the service
+ * account tokens of OpenShift). Failed lookups (i.e. no credentials found) are not cached, so that credentials
+ * added in the meantime are found.
+ *
+ * Concurrent lookups of the same key wait for each other, so credentials are resolved only once even when
+ * several images are pushed at the same time.
+ */
+public class AuthConfigCache {
+
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // Credentials are dropped this long before they expire, so that they can't expire while being used
+    private static final long EXPIRY_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public AuthConfigCache() {
+        this(DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * @param ttlMillis maximum time credentials are kept
+     */
+    public AuthConfigCache(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Get credentials from the cache or resolve them
+     *
+     * @param key key identifying all input of the lookup
+     * @param resolver lookup to use if the cache has no valid entry
+     * @return the credentials, can be null if the resolver found none
+     * @throws Exception if the resolver fails. Failures and missing credentials are not cached.
+     */
+    public AuthConfig get(String key, Resolver resolver) throws Exception {
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            long now = System.currentTimeMillis();
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.authConfig;
+            }
+            Expiry expiry = new Expiry(now + ttlMillis);
+            AuthConfig ret = resolver.resolve(expiry);
+            if (ret == null) {
+                entries.remove(key);
+                return null;
+            }
+            expiry.limit(getJwtExpiry(ret.getPassword()));
+            entries.put(key, new Entry(ret, expiry.expiresAt));
+            return ret;
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Expiry (claim "exp") of a token in the JWT format, null for other tokens
+    static Date getJwtExpiry(String token) {
+        if (token == null) {
+            return null;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            JsonObject claims = JsonFactory.newJsonObject(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+            if (claims == null || !claims.has("exp")) {
+                return null;
+            }
+            return new Date(TimeUnit.SECONDS.toMillis(claims.get("exp").getAsLong()));
+        } catch (RuntimeException exp) {
+            // Not a JWT after all
+            return null;
+        }
+    }
+
+    /**
+     * Lookup of credentials
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        /**
+         * @param expiry to be limited if the credentials found expire
+         * @return the credentials or null if none are found
+         * @throws Exception if the lookup fails
+         */
+        AuthConfig resolve(Expiry expiry) throws Exception;
+    }
+
+    /**
+     * Time until which resolved credentials can be used
+     */
+    public static class Expiry {
+        private long expiresAt;
+
+        Expiry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Limit the expiry
+         *
+         * @param expiration expiration of the credentials, ignored if null
+         */
+        public void limit(Date expiration) {
+            if (expiration != null) {
+                expiresAt = Math.min(expiresAt, expiration.getTime() - EXPIRY_MARGIN_MILLIS);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final AuthConfig authConfig;
+        private final long expiresAt;
+
+        private Entry(AuthConfig authConfig, long expiresAt) {
+            this.authConfig = authConfig;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
 import org.eclipse.jkube.kit.build.service.docker.auth.ecr.EcrExtendedAuth;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.util.EnvUtil;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.config.RequestConfig;
@@ -30,15 +31,19 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -62,12 +67,23 @@ public class AuthConfigFactory {
     static final String DOCKER_LOGIN_DEFAULT_REGISTRY = "https://index.docker.io/v1/";
 
     private final KitLogger log;
+    private final AuthConfigCache cache;
     private static final String[] DEFAULT_REGISTRIES = new String[]{
             "docker.io", "index.docker.io", "registry.hub.docker.com"
     };
 
     public AuthConfigFactory(KitLogger log) {
+        this(log, new AuthConfigCache());
+    }
+
+    /**
+     * @param log logger
+     * @param cache cache for resolved credentials, e.g. one shared by all goals of a build. Null to resolve them
+     *              on every call.
+     */
+    public AuthConfigFactory(KitLogger log, AuthConfigCache cache) {
         this.log = log;
+        this.cache = cache;
     }
 
     /**
@@ -95,6 +111,8 @@ public class AuthConfigFactory {
      *  credentials are not from docker settings, they will be interpreted as iam credentials
      *  and exchanged for ecr credentials.
      *
+     *  Resolved credentials are cached until they expire, see {@link AuthConfigCache}.
+     *
      * @param isPush if true this AuthConfig is created for a push, if false it's for a pull
      * @param skipExtendedAuth if false, do not execute extended authentication methods
      * @param authConfig String-String Map holding configuration info from the plugin's configuration. Can be <code>null</code> in
@@ -108,14 +126,24 @@ public class AuthConfigFactory {
      */
     public AuthConfig createAuthConfig(boolean isPush, boolean skipExtendedAuth, Map authConfig, List<RegistryServerConfiguration> settings, String user, String registry, UnaryOperator<String> passwordDecryptionMethod)
             throws Exception {
+        if (cache == null) {
+            return resolveAuthConfig(isPush, skipExtendedAuth, authConfig, settings, user, registry, passwordDecryptionMethod,
+                new AuthConfigCache.Expiry(Long.MAX_VALUE));
+        }
+        return cache.get(getCacheKey(isPush, skipExtendedAuth, authConfig, settings, user, registry),
+            expiry -> resolveAuthConfig(isPush, skipExtendedAuth, authConfig, settings, user, registry, passwordDecryptionMethod, expiry));
+    }
 
-        AuthConfig ret = createStandardAuthConfig(isPush, authConfig, settings, user, registry, passwordDecryptionMethod);
+    private AuthConfig resolveAuthConfig(boolean isPush, boolean skipExtendedAuth, Map authConfig, List<RegistryServerConfiguration> settings,
+                                         String user, String registry, UnaryOperator<String> passwordDecryptionMethod,
+                                         AuthConfigCache.Expiry expiry) throws Exception {
+        AuthConfig ret = createStandardAuthConfig(isPush, authConfig, settings, user, registry, passwordDecryptionMethod, expiry);
         if (ret != null) {
             if (registry == null || skipExtendedAuth) {
                 return ret;
             }
             try {
-                return extendedAuthentication(ret, registry);
+                return extendedAuthentication(ret, registry, expiry);
             } catch (IOException e) {
                 throw new IOException(e.getMessage(), e);
             }
@@ -142,14 +170,49 @@ public class AuthConfigFactory {
      * else, the credentials after authentication.
      * @throws IOException
      */
-    private AuthConfig extendedAuthentication(AuthConfig standardAuthConfig, String registry) throws IOException {
+    private AuthConfig extendedAuthentication(AuthConfig standardAuthConfig, String registry, AuthConfigCache.Expiry expiry) throws IOException {
         EcrExtendedAuth ecr = new EcrExtendedAuth(log, registry);
         if (ecr.isAwsRegistry()) {
-            return ecr.extendedAuth(standardAuthConfig);
+            AuthConfig ret = ecr.extendedAuth(standardAuthConfig);
+            expiry.limit(ecr.getExpiresAt());
+            return ret;
         }
         return standardAuthConfig;
     }
 
+    // Key covering everything the lookup depends on. It's hashed, since it contains credentials.
+    private static String getCacheKey(boolean isPush, boolean skipExtendedAuth, Map authConfig,
+                                      List<RegistryServerConfiguration> settings, String user, String registry) {
+        StringBuilder key = new StringBuilder()
+            .append(isPush).append('|').append(skipExtendedAuth).append('|')
+            .append(registry).append('|').append(user).append('|').append(authConfig);
+        if (settings != null) {
+            for (RegistryServerConfiguration server : settings) {
+                key.append('|').append(server.getId()).append(':').append(server.getUsername()).append(':')
+                    .append(server.getPassword()).append(':').append(server.getConfiguration());
+            }
+        }
+        // System properties like docker.username take precedence over everything else
+        new TreeMap<>(System.getProperties()).forEach((name, value) -> {
+            if (name.toString().startsWith("docker.")) {
+                key.append('|').append(name).append('=').append(value);
+            }
+        });
+        new TreeMap<>(System.getenv()).forEach((name, value) -> {
+            if (name.startsWith("AWS_") || name.equals("DOCKER_CONFIG") || name.equals("KUBECONFIG")) {
+                key.append('|').append(name).append('=').append(value);
+            }
+        });
+        // The configuration files (including the credential helpers configured there) might change between lookups
+        appendFileState(key, DockerFileUtil.getDockerConfigFile());
+        appendFileState(key, DockerFileUtil.getKubeConfigFile());
+        return DigestUtils.sha256Hex(key.toString());
+    }
+
+    private static void appendFileState(StringBuilder key, File file) {
+        key.append('|').append(file.getAbsolutePath()).append('@').append(file.isFile() ? file.lastModified() + ":" + file.length() : "-");
+    }
+
     /**
      * Create an authentication config object which can be used for communication with a Docker registry
      *
@@ -181,7 +244,8 @@ public class AuthConfigFactory {
      *
      * @throws Exception
      */
-    private AuthConfig createStandardAuthConfig(boolean isPush, Map authConfigMap, List<RegistryServerConfiguration> settings, String user, String registry, UnaryOperator<String> passwordDecryptionMethod)
+    private AuthConfig createStandardAuthConfig(boolean isPush, Map authConfigMap, List<RegistryServerConfiguration> settings, String user, String registry, UnaryOperator<String> passwordDecryptionMethod,
+                                                AuthConfigCache.Expiry expiry)
             throws Exception {
         AuthConfig ret;
 
@@ -222,7 +286,7 @@ public class AuthConfigFactory {
         // check EC2 instance role if registry is ECR
         if (EcrExtendedAuth.isAwsRegistry(registry)) {
             try {
-                ret = getAuthConfigFromEC2InstanceRole();
+                ret = getAuthConfigFromEC2InstanceRole(expiry);
             } catch (ConnectTimeoutException ex) {
                 log.debug("Connection timeout while retrieving instance meta-data, likely not an EC2 instance (%s)",
                         ex.getMessage());
@@ -245,7 +309,7 @@ public class AuthConfigFactory {
 
     // if the local credentials don't contain user and password, use EC2 instance
     // role credentials
-    private AuthConfig getAuthConfigFromEC2InstanceRole() throws IOException {
+    private AuthConfig getAuthConfigFromEC2InstanceRole(AuthConfigCache.Expiry expiry) throws IOException {
         log.debug("No user and password set for ECR, checking EC2 instance role");
         try (CloseableHttpClient client = HttpClients.custom().useSystemProperties().build()) {
             // we can set very low timeouts because the request returns almost instantly on
@@ -291,6 +355,9 @@ public class AuthConfigFactory {
                     String user = securityCredentials.getAsJsonPrimitive("AccessKeyId").getAsString();
                     String password = securityCredentials.getAsJsonPrimitive("SecretAccessKey").getAsString();
                     String token = securityCredentials.getAsJsonPrimitive("Token").getAsString();
+                    if (securityCredentials.has("Expiration")) {
+                        expiry.limit(Date.from(Instant.parse(securityCredentials.get("Expiration").getAsString())));
+                    }
 
                     log.debug("Received temporary access key %s...", user.substring(0, 8));
                     return new AuthConfig(user, password, "none", token);
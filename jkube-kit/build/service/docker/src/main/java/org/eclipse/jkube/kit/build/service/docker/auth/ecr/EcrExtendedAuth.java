@@ -49,6 +49,7 @@ public class EcrExtendedAuth {
     private final boolean isAwsRegistry;
     private final String accountId;
     private final String region;
+    private Date expiresAt;
 
     /**
      * Is given the registry an ecr registry?
@@ -102,10 +103,21 @@ public class EcrExtendedAuth {
         JsonArray authorizationDatas = jo.getAsJsonArray("authorizationData");
         JsonObject authorizationData = authorizationDatas.get(0).getAsJsonObject();
         String authorizationToken = authorizationData.get("authorizationToken").getAsString();
+        if (authorizationData.has("expiresAt")) {
+            // Seconds since the epoch, with fractions
+            expiresAt = new Date((long) (authorizationData.get("expiresAt").getAsDouble() * 1000));
+        }
 
         return new AuthConfig(authorizationToken, "none");
     }
 
+    /**
+     * @return expiration of the ECR token returned by the last {@link #extendedAuth(AuthConfig)}, null if unknown
+     */
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
     private JsonObject getAuthorizationToken(AuthConfig localCredentials) throws IOException {
         HttpPost request = createSignedRequest(localCredentials, new Date());
         return executeRequest(createClient(), request);
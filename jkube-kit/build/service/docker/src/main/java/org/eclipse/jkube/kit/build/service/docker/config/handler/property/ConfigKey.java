@@ -92,6 +92,7 @@ public enum ConfigKey {
     NETWORK_MODE("network.mode"),
     NETWORK_NAME("network.name"),
     NETWORK_ALIAS("network.alias"),
+    PLATFORMS,
     PORT_PROPERTY_FILE,
     PORTS(ValueCombinePolicy.Merge),
     PRIVILEGED,
@@ -112,6 +112,7 @@ import static org.eclipse.jkube.kit.build.service.docker.config.handler.property
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.NETWORK_NAME;
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.NOCACHE;
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.OPTIMISE;
+import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.PLATFORMS;
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.PORTS;
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.PORT_PROPERTY_FILE;
 import static org.eclipse.jkube.kit.build.service.docker.config.handler.property.ConfigKey.PRIVILEGED;
@@ -259,6 +260,7 @@ public class PropertyConfigHandler implements ExternalConfigHandler {
                 .registry(valueProvider.getString(REGISTRY, config == null ? null : config.getRegistry()))
                 .volumes(valueProvider.getList(VOLUMES, config == null ? null : config.getVolumes()))
                 .tags(valueProvider.getList(TAGS, config == null ? null : config.getTags()))
+                .platforms(valueProvider.getList(PLATFORMS, config == null ? null : config.getPlatforms()))
                 .maintainer(valueProvider.getString(MAINTAINER, config == null ? null : config.getMaintainer()))
                 .workdir(valueProvider.getString(WORKDIR, config == null ? null : config.getWorkdir()))
                 .skip(valueProvider.getBoolean(SKIP_BUILD, config == null ? null : config.getSkip()))
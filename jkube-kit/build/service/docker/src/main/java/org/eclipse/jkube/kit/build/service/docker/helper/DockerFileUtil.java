@@ -125,14 +125,20 @@ public class DockerFileUtil {
     }
 
     public static JsonObject readDockerConfig() {
-        String dockerConfig = System.getenv("DOCKER_CONFIG");
-
-        Reader reader = dockerConfig == null
-                ? getFileReaderFromDir(new File(getHomeDir(),".docker/config.json"))
-                : getFileReaderFromDir(new File(dockerConfig,"config.json"));
+        Reader reader = getFileReaderFromDir(getDockerConfigFile());
         return reader != null ? new Gson().fromJson(reader, JsonObject.class) : null;
     }
 
+    /**
+     * Get the Docker configuration file, which might not exist
+     *
+     * @return config.json in $DOCKER_CONFIG if set, in ~/.docker otherwise
+     */
+    public static File getDockerConfigFile() {
+        String dockerConfig = System.getenv("DOCKER_CONFIG");
+        return dockerConfig == null ? new File(getHomeDir(), ".docker/config.json") : new File(dockerConfig, "config.json");
+    }
+
     public static String[] extractDelimiters(String filter) {
         if (filter == null ||
                 filter.equalsIgnoreCase("false") ||
@@ -149,11 +155,7 @@ public class DockerFileUtil {
     }
 
     public static Map<String,?> readKubeConfig() {
-        String kubeConfig = System.getenv("KUBECONFIG");
-
-        Reader reader = kubeConfig == null
-                ? getFileReaderFromDir(new File(getHomeDir(),".kube/config"))
-                : getFileReaderFromDir(new File(kubeConfig));
+        Reader reader = getFileReaderFromDir(getKubeConfigFile());
         if (reader != null) {
             Yaml ret = new Yaml();
             return (Map<String, ?>) ret.load(reader);
@@ -161,6 +163,16 @@ public class DockerFileUtil {
         return null;
     }
 
+    /**
+     * Get the Kubernetes configuration file, which might not exist
+     *
+     * @return the file $KUBECONFIG if set, ~/.kube/config otherwise
+     */
+    public static File getKubeConfigFile() {
+        String kubeConfig = System.getenv("KUBECONFIG");
+        return kubeConfig == null ? new File(getHomeDir(), ".kube/config") : new File(kubeConfig);
+    }
+
     private static File getHomeDir() {
         String homeDir = System.getProperty("user.home");
         if (homeDir == null) {
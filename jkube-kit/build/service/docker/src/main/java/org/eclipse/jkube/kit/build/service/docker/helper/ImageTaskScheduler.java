@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.helper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.config.image.build.BuildConfiguration;
+
+/**
+ * Runs a task (like a build or a push) for a set of images, with several images processed at the same time.
+ *
+ * An image is only processed when all images it depends on have been processed. Dependencies are the
+ * ones used by the {@link StartOrderResolver} (volumes, links, container network and <code>dependsOn</code>)
+ * plus the base image of the build if it refers to another image of the set. Dependencies on images outside
+ * of the set are ignored.
+ */
+public class ImageTaskScheduler {
+
+    private final KitLogger log;
+    private final int parallelism;
+
+    /**
+     * Create a scheduler
+     *
+     * @param log logger passed to the tasks. Their messages already name the image they are about.
+     * @param parallelism maximum number of images processed at the same time. With a value of 1 (or less)
+     *                    the images are processed one after the other in the given order.
+     */
+    public ImageTaskScheduler(KitLogger log, int parallelism) {
+        this.log = log;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Run the task for all given images. If a task fails no further tasks are started, the tasks already running
+     * are awaited and the first failure is thrown.
+     *
+     * @param images images to process
+     * @param task task to run for every image
+     * @throws Exception the exception of the first failed task
+     * @throws IllegalStateException if the dependencies between the images contain a cycle
+     */
+    public void run(List<ImageConfiguration> images, ImageTask task) throws Exception {
+        if (parallelism == 1 || images.size() < 2) {
+            for (ImageConfiguration image : images) {
+                task.execute(image, log);
+            }
+            return;
+        }
+
+        Map<ImageConfiguration, Set<ImageConfiguration>> pending = resolveDependencies(images);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, images.size()), createThreadFactory());
+        CompletionService<ImageConfiguration> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            Set<ImageConfiguration> completed = new HashSet<>();
+            Exception failure = null;
+            int running = submitReady(pending, completed, completionService, task);
+            while (running > 0) {
+                Future<ImageConfiguration> result = completionService.take();
+                running--;
+                try {
+                    completed.add(result.get());
+                } catch (ExecutionException exp) {
+                    if (failure == null) {
+                        failure = unwrap(exp);
+                    }
+                }
+                if (failure == null) {
+                    running += submitReady(pending, completed, completionService, task);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Start all images whose dependencies are completed and return the number of images started
+    private int submitReady(Map<ImageConfiguration, Set<ImageConfiguration>> pending, Set<ImageConfiguration> completed,
+                            CompletionService<ImageConfiguration> completionService, ImageTask task) {
+        List<ImageConfiguration> ready = new ArrayList<>();
+        for (Map.Entry<ImageConfiguration, Set<ImageConfiguration>> entry : pending.entrySet()) {
+            if (completed.containsAll(entry.getValue())) {
+                ready.add(entry.getKey());
+            }
+        }
+        for (ImageConfiguration image : ready) {
+            pending.remove(image);
+            completionService.submit(() -> {
+                task.execute(image, log);
+                return image;
+            });
+        }
+        return ready.size();
+    }
+
+    // Map every image to the images of the given list it depends on. Checks also for cycles.
+    private Map<ImageConfiguration, Set<ImageConfiguration>> resolveDependencies(List<ImageConfiguration> images) {
+        Map<String, ImageConfiguration> imagesByName = new HashMap<>();
+        for (ImageConfiguration image : images) {
+            imagesByName.put(image.getName(), image);
+            if (image.getAlias() != null) {
+                imagesByName.put(image.getAlias(), image);
+            }
+        }
+
+        Map<ImageConfiguration, Set<ImageConfiguration>> ret = new LinkedHashMap<>();
+        for (ImageConfiguration image : images) {
+            Set<ImageConfiguration> dependencies = new HashSet<>();
+            List<String> names = new ArrayList<>(image.getDependencies());
+            BuildConfiguration buildConfig = image.getBuildConfiguration();
+            if (buildConfig != null && buildConfig.getFrom() != null) {
+                names.add(buildConfig.getFrom());
+            }
+            for (String name : names) {
+                ImageConfiguration dependency = imagesByName.get(name);
+                if (dependency != null && dependency != image) {
+                    dependencies.add(dependency);
+                }
+            }
+            ret.put(image, dependencies);
+        }
+        verifyNoCycles(ret);
+        return ret;
+    }
+
+    private void verifyNoCycles(Map<ImageConfiguration, Set<ImageConfiguration>> dependencies) {
+        Set<ImageConfiguration> resolved = new HashSet<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<ImageConfiguration, Set<ImageConfiguration>> entry : dependencies.entrySet()) {
+                if (!resolved.contains(entry.getKey()) && resolved.containsAll(entry.getValue())) {
+                    resolved.add(entry.getKey());
+                    changed = true;
+                }
+            }
+        }
+        if (resolved.size() < dependencies.size()) {
+            StringBuilder error = new StringBuilder("Cannot resolve image dependencies\nUnresolved images:\n");
+            for (ImageConfiguration image : dependencies.keySet()) {
+                if (!resolved.contains(image)) {
+                    error.append("* ").append(image.getDescription()).append("\n");
+                }
+            }
+            throw new IllegalStateException(error.toString());
+        }
+    }
+
+    private static Exception unwrap(ExecutionException exp) {
+        Throwable cause = exp.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return exp;
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "image-task-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Task to run for a single image
+     */
+    @FunctionalInterface
+    public interface ImageTask {
+        /**
+         * Process an image
+         *
+         * @param image the image to process
+         * @param log logger to use for messages about this image
+         * @throws Exception if processing fails
+         */
+        void execute(ImageConfiguration image, KitLogger log) throws Exception;
+    }
+}
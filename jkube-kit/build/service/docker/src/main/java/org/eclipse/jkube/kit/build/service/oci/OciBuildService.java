@@ -0,0 +1,701 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.eclipse.jkube.kit.build.api.BuildContext;
+import org.eclipse.jkube.kit.build.api.BuildService;
+import org.eclipse.jkube.kit.build.api.RegistryContext;
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.build.api.auth.RegistryAuthConfig;
+import org.eclipse.jkube.kit.common.JsonFactory;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.common.util.EnvUtil;
+import org.eclipse.jkube.kit.config.image.ImageConfiguration;
+import org.eclipse.jkube.kit.config.image.ImageName;
+import org.eclipse.jkube.kit.config.image.build.BuildConfiguration;
+
+/**
+ * Build service creating images without a Docker daemon.
+ *
+ * The Dockerfile of the build archive is applied directly to the manifest and configuration of the base image,
+ * which are fetched from the registry: every <code>COPY</code> becomes a layer created from the files of the
+ * archive, all other instructions only change the image configuration. The resulting image is pushed straight
+ * to the registry. Base image layers already present in the target registry are neither downloaded nor uploaded,
+ * layers of a base image within the same registry are mounted. All blobs are pushed concurrently, failed uploads
+ * are retried blob by blob, and additional tags only cost a manifest upload each.
+ *
+ * Only Dockerfiles without <code>RUN</code> instructions can be built this way, like the ones created for images
+ * which don't specify any <code>runCmds</code>.
+ */
+public class OciBuildService implements BuildService {
+
+    public static final int DEFAULT_PUSH_PARALLELISM = 4;
+
+    private static final String DOCKERFILE_NAME = "Dockerfile";
+    private static final String SCRATCH_IMAGE = "scratch";
+    private static final Pattern DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ns|us|ms|s|m|h)");
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+
+    private final RegistryContext registryContext;
+    private final KitLogger log;
+
+    private Date reproducibleTimestamp;
+    private int retries;
+    private int parallelism = DEFAULT_PUSH_PARALLELISM;
+    private String platform;
+
+    public OciBuildService(RegistryContext registryContext, KitLogger log) {
+        this.registryContext = registryContext;
+        this.log = log;
+    }
+
+    /**
+     * Use a fixed creation time for the image configuration, so that the same build archive always results
+     * in the same image
+     *
+     * @param reproducibleTimestamp creation time, or null to use the current time
+     */
+    public void setReproducibleTimestamp(Date reproducibleTimestamp) {
+        this.reproducibleTimestamp = reproducibleTimestamp;
+    }
+
+    /**
+     * @param retries how often a failed registry request (like a single blob upload) is retried
+     */
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    /**
+     * @param parallelism maximum number of blobs pushed at the same time
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param platform platform (like <code>linux/arm64</code>) to build the image for, selecting the image of a multi
+     *                 platform base image. If null, the platform of this machine is used.
+     */
+    public void setPlatform(String platform) {
+        this.platform = platform;
+    }
+
+    @Override
+    public void buildImage(ImageConfiguration imageConfig, BuildContext buildContext, Map<String, String> buildArgs)
+            throws IOException {
+        BuildConfiguration<?> buildConfig = imageConfig.getBuildConfiguration();
+        @SuppressWarnings("unchecked")
+        File archive = buildContext.createImageContentArchive(imageConfig.getName(), buildConfig, log);
+        Map<String, String> args = new HashMap<>();
+        if (buildConfig.getArgs() != null) {
+            args.putAll(buildConfig.getArgs());
+        }
+        if (buildArgs != null) {
+            args.putAll(buildArgs);
+        }
+        String dockerfile = buildConfig.isDockerFileMode() ? buildConfig.getDockerFile().getName() : DOCKERFILE_NAME;
+        buildImage(imageConfig.getName(), imageConfig.getRegistry(), buildConfig.getTags(), getPlatform(buildConfig),
+                archive, dockerfile, args);
+    }
+
+    /**
+     * Get the platform to build an image for
+     *
+     * @param buildConfig build configuration of the image
+     * @return the platform configured for the image, or null if none is configured
+     * @throws IOException if several platforms are configured
+     */
+    public static String getPlatform(BuildConfiguration<?> buildConfig) throws IOException {
+        List<String> platforms = buildConfig.getPlatforms();
+        if (platforms.size() > 1) {
+            throw new IOException("Images for several platforms (" + String.join(", ", platforms) +
+                    ") cannot be built without a Docker daemon");
+        }
+        return platforms.isEmpty() ? null : platforms.get(0);
+    }
+
+    /**
+     * Build an image from a build archive and push it to its registry
+     *
+     * @param imageName name of the image
+     * @param registry registry to push to if the image name doesn't contain one, can be null
+     * @param tags additional tags to push the image with
+     * @param archive the build archive holding the Dockerfile and the files it refers to
+     * @param dockerfile name of the Dockerfile within the archive
+     * @param buildArgs values for the <code>ARG</code>s of the Dockerfile
+     * @return digest of the pushed manifest
+     * @throws IOException if the Dockerfile cannot be applied without a daemon or the registries cannot be accessed
+     */
+    public String buildImage(String imageName, String registry, List<String> tags, File archive, String dockerfile,
+                             Map<String, String> buildArgs) throws IOException {
+        return buildImage(imageName, registry, tags, platform, archive, dockerfile, buildArgs);
+    }
+
+    private String buildImage(String imageName, String registry, List<String> tags, String imagePlatform, File archive,
+                              String dockerfile, Map<String, String> buildArgs) throws IOException {
+        long time = System.currentTimeMillis();
+        String targetPlatform = imagePlatform != null ? imagePlatform : getDefaultPlatform();
+        byte[] dockerfileContent = OciLayer.readFile(archive, dockerfile);
+        if (dockerfileContent == null) {
+            throw new IOException("No " + dockerfile + " found in build archive " + archive);
+        }
+        OciDockerfile parsed = OciDockerfile.parse(new String(dockerfileContent, StandardCharsets.UTF_8),
+                buildArgs != null ? buildArgs : new HashMap<>());
+
+        ImageName target = new ImageName(imageName);
+        String targetRegistry = getRegistry(target, registry, RegistryAuthConfig.Kind.PUSH);
+        String targetRepository = OciRegistryClient.getRepository(target, targetRegistry);
+        try (OciRegistryClient targetClient = createClient(targetRegistry, target.getUser(), RegistryAuthConfig.Kind.PUSH)) {
+            BaseImage base = fetchBaseImage(parsed.getBaseImage(), targetPlatform, targetClient);
+            try {
+                List<OciLayer> layers = new ArrayList<>();
+                JsonObject config = applyInstructions(parsed, base.config, archive, layers);
+                byte[] configContent = GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+                String configDigest = OciRegistryClient.digest(configContent);
+
+                // Keyed by digest, so that a blob occurring several times is pushed only once
+                Map<String, Callable<Boolean>> pushes = new LinkedHashMap<>();
+                for (JsonObject layer : base.layers) {
+                    String layerDigest = layer.get("digest").getAsString();
+                    pushes.putIfAbsent(layerDigest, () -> pushBaseLayer(base, layerDigest, targetClient, targetRepository));
+                }
+                for (OciLayer layer : layers) {
+                    pushes.putIfAbsent(layer.getDigest(), () -> {
+                        if (targetClient.hasBlob(targetRepository, layer.getDigest())) {
+                            return true;
+                        }
+                        targetClient.putBlob(targetRepository, layer.getDigest(), layer.getFile());
+                        return false;
+                    });
+                }
+                pushes.putIfAbsent(configDigest, () -> {
+                    if (targetClient.hasBlob(targetRepository, configDigest)) {
+                        return true;
+                    }
+                    targetClient.putBlob(targetRepository, configDigest, configContent);
+                    return false;
+                });
+                Set<String> presentBlobs = pushBlobs(pushes);
+                presentBlobs.remove(configDigest);
+
+                // The manifest (and so every tag) is only pushed when all blobs are uploaded
+                byte[] manifest = createManifest(base, configDigest, configContent.length, layers);
+                String manifestType = base.isOci() ? OciRegistryClient.OCI_MANIFEST_V1 : OciRegistryClient.DOCKER_MANIFEST_V2;
+                String digest = targetClient.putManifest(targetRepository, target.getTag(), manifestType, manifest);
+                for (String tag : getAdditionalTags(target, tags)) {
+                    targetClient.putManifest(targetRepository, tag, manifestType, manifest);
+                }
+                log.info("%s: Built and pushed without Docker daemon in %s (%d layers, %d already present in %s)",
+                        imageName, EnvUtil.formatDurationTill(time), pushes.size() - 1, presentBlobs.size(), targetRegistry);
+                return digest;
+            } finally {
+                base.close();
+            }
+        }
+    }
+
+    // ==========================================================================================
+
+    private BaseImage fetchBaseImage(String baseImage, String targetPlatform, OciRegistryClient targetClient) throws IOException {
+        if (SCRATCH_IMAGE.equals(baseImage)) {
+            return new BaseImage(null, false, null, null, createScratchConfig(targetPlatform));
+        }
+        ImageName name = new ImageName(baseImage);
+        String registry = getRegistry(name, null, RegistryAuthConfig.Kind.PULL);
+        boolean sameRegistry = registry.equals(targetClient.getRegistry());
+        OciRegistryClient baseClient = sameRegistry ?
+                targetClient : createClient(registry, name.getUser(), RegistryAuthConfig.Kind.PULL);
+        try {
+            String repository = OciRegistryClient.getRepository(name, registry);
+            OciRegistryClient.Manifest manifest = baseClient.getManifest(repository,
+                    name.getDigest() != null ? name.getDigest() : name.getTag());
+            if (manifest.isIndex()) {
+                manifest = baseClient.getManifest(repository, selectPlatform(manifest, baseImage, targetPlatform));
+            }
+            JsonObject json = manifest.toJson();
+            String configDigest = json.getAsJsonObject("config").get("digest").getAsString();
+            JsonObject config = JsonFactory.newJsonObject(
+                    new String(baseClient.getBlob(repository, configDigest), StandardCharsets.UTF_8));
+            return new BaseImage(baseClient, !sameRegistry, repository, manifest, config);
+        } catch (IOException | RuntimeException exp) {
+            if (!sameRegistry) {
+                baseClient.close();
+            }
+            throw exp;
+        }
+    }
+
+    private String selectPlatform(OciRegistryClient.Manifest index, String baseImage, String platform) throws IOException {
+        String[] parts = platform.split("/");
+        for (JsonElement element : index.toJson().getAsJsonArray("manifests")) {
+            JsonObject entry = element.getAsJsonObject();
+            JsonObject entryPlatform = entry.getAsJsonObject("platform");
+            if (entryPlatform != null && parts[0].equals(getString(entryPlatform, "os")) &&
+                    parts[1].equals(getString(entryPlatform, "architecture")) &&
+                    (parts.length < 3 || parts[2].equals(getString(entryPlatform, "variant")))) {
+                return entry.get("digest").getAsString();
+            }
+        }
+        throw new IOException("Base image " + baseImage + " is not available for platform " + platform);
+    }
+
+    // Make a base layer available in the target repository and return whether it has been present already
+    private static boolean pushBaseLayer(BaseImage base, String digest, OciRegistryClient targetClient, String targetRepository)
+            throws IOException {
+        if (targetClient.hasBlob(targetRepository, digest)) {
+            return true;
+        }
+        if (base.client == targetClient && !base.repository.equals(targetRepository) &&
+                targetClient.mountBlob(targetRepository, digest, base.repository)) {
+            return true;
+        }
+        File blob = File.createTempFile("jkube-layer", ".tar.gz");
+        try {
+            base.client.getBlob(base.repository, digest, blob);
+            targetClient.putBlob(targetRepository, digest, blob);
+            return false;
+        } finally {
+            Files.deleteIfExists(blob.toPath());
+        }
+    }
+
+    // Run the pushes concurrently and return the digests of the blobs which have been present already.
+    // The first failure cancels all pushes still running.
+    private Set<String> pushBlobs(Map<String, Callable<Boolean>> pushes) throws IOException {
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, pushes.size())), runnable -> {
+            Thread thread = new Thread(runnable, "oci-push-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Future<Boolean>> results = new LinkedHashMap<>();
+            pushes.forEach((digest, push) -> results.put(digest, executor.submit(push)));
+            Set<String> ret = new HashSet<>();
+            for (Map.Entry<String, Future<Boolean>> result : results.entrySet()) {
+                if (getResult(result.getValue())) {
+                    ret.add(result.getKey());
+                }
+            }
+            return ret;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean getResult(Future<Boolean> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while pushing blobs");
+        } catch (ExecutionException exp) {
+            Throwable cause = exp.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private JsonObject applyInstructions(OciDockerfile dockerfile, JsonObject baseConfig, File archive, List<OciLayer> layers)
+            throws IOException {
+        JsonObject ret = baseConfig.deepCopy();
+        JsonObject config = getOrCreateObject(ret, "config");
+        JsonObject rootfs = getOrCreateObject(ret, "rootfs");
+        rootfs.addProperty("type", "layers");
+        JsonArray diffIds = getOrCreateArray(rootfs, "diff_ids");
+        JsonArray history = getOrCreateArray(ret, "history");
+        String created = formatTimestamp(reproducibleTimestamp != null ? reproducibleTimestamp : new Date());
+        boolean cmdSet = false;
+
+        for (OciDockerfile.Instruction instruction : dockerfile.getInstructions()) {
+            boolean emptyLayer = true;
+            switch (instruction.getKeyword()) {
+                case "ENV":
+                    setEnv(config, instruction.getKeyValues());
+                    break;
+                case "LABEL":
+                    JsonObject labels = getOrCreateObject(config, "Labels");
+                    instruction.getKeyValues().forEach(labels::addProperty);
+                    break;
+                case "EXPOSE":
+                    JsonObject ports = getOrCreateObject(config, "ExposedPorts");
+                    for (String port : OciDockerfile.split(instruction.getArguments())) {
+                        ports.add(port.contains("/") ? port.toLowerCase() : port + "/tcp", new JsonObject());
+                    }
+                    break;
+                case "VOLUME":
+                    JsonObject volumes = getOrCreateObject(config, "Volumes");
+                    for (String volume : getArguments(instruction)) {
+                        volumes.add(volume, new JsonObject());
+                    }
+                    break;
+                case "WORKDIR":
+                    String workdir = OciDockerfile.split(instruction.getArguments()).get(0);
+                    String current = getString(config, "WorkingDir");
+                    config.addProperty("WorkingDir", workdir.startsWith("/") || current == null || current.isEmpty() ?
+                            workdir : current.replaceAll("/$", "") + "/" + workdir);
+                    break;
+                case "USER":
+                    config.addProperty("User", instruction.getArguments());
+                    break;
+                case "STOPSIGNAL":
+                    config.addProperty("StopSignal", instruction.getArguments());
+                    break;
+                case "MAINTAINER":
+                    ret.addProperty("author", instruction.getArguments());
+                    break;
+                case "CMD":
+                    config.add("Cmd", toCommand(instruction));
+                    cmdSet = true;
+                    break;
+                case "ENTRYPOINT":
+                    config.add("Entrypoint", toCommand(instruction));
+                    // Like Docker, a CMD of the base image is reset by an ENTRYPOINT
+                    if (!cmdSet) {
+                        config.remove("Cmd");
+                    }
+                    break;
+                case "HEALTHCHECK":
+                    config.add("Healthcheck", toHealthcheck(instruction));
+                    break;
+                case "COPY":
+                case "ADD":
+                    OciLayer layer = createLayer(instruction, archive, layers.size());
+                    layers.add(layer);
+                    diffIds.add(layer.getDiffId());
+                    emptyLayer = false;
+                    break;
+                default:
+                    throw new IOException("Dockerfile instruction " + instruction.getKeyword() +
+                            " is not supported without a Docker daemon");
+            }
+            JsonObject historyEntry = new JsonObject();
+            historyEntry.addProperty("created", created);
+            historyEntry.addProperty("created_by", "/bin/sh -c #(nop) " + instruction);
+            if (emptyLayer) {
+                historyEntry.addProperty("empty_layer", true);
+            }
+            history.add(historyEntry);
+        }
+        ret.addProperty("created", created);
+        return ret;
+    }
+
+    private OciLayer createLayer(OciDockerfile.Instruction instruction, File archive, int index) throws IOException {
+        List<String> words = getArguments(instruction);
+        int uid = 0;
+        int gid = 0;
+        while (!words.isEmpty() && words.get(0).startsWith("--")) {
+            String flag = words.remove(0);
+            if (flag.startsWith("--chown=")) {
+                String[] owner = flag.substring("--chown=".length()).split(":", 2);
+                try {
+                    uid = Integer.parseInt(owner[0]);
+                    gid = owner.length > 1 ? Integer.parseInt(owner[1]) : uid;
+                } catch (NumberFormatException exp) {
+                    throw new IOException("Only numeric user and group ids can be used with --chown without a Docker daemon: " + instruction);
+                }
+            } else {
+                throw new IOException("Option " + flag + " is not supported without a Docker daemon: " + instruction);
+            }
+        }
+        if (words.size() < 2) {
+            throw new IOException("Missing source or destination: " + instruction);
+        }
+        List<String> sources = words.subList(0, words.size() - 1);
+        for (String source : sources) {
+            if (instruction.getKeyword().equals("ADD") && (source.contains("://") || source.matches(".*\\.(tar|tgz|tar\\.\\w+)$"))) {
+                throw new IOException("ADD of URLs or archives is not supported without a Docker daemon: " + instruction);
+            }
+        }
+        File layerFile = new File(archive.getParentFile(), archive.getName() + "-layer-" + index + ".tar.gz");
+        return OciLayer.create(archive, sources, words.get(words.size() - 1), uid, gid, layerFile);
+    }
+
+    private byte[] createManifest(BaseImage base, String configDigest, long configSize, List<OciLayer> layers) {
+        boolean oci = base.isOci();
+        JsonObject manifest = new JsonObject();
+        manifest.addProperty("schemaVersion", 2);
+        manifest.addProperty("mediaType", oci ? OciRegistryClient.OCI_MANIFEST_V1 : OciRegistryClient.DOCKER_MANIFEST_V2);
+        JsonObject config = new JsonObject();
+        config.addProperty("mediaType", oci ? OciRegistryClient.OCI_CONFIG_V1 : OciRegistryClient.DOCKER_CONFIG_V1);
+        config.addProperty("size", configSize);
+        config.addProperty("digest", configDigest);
+        manifest.add("config", config);
+        JsonArray manifestLayers = new JsonArray();
+        base.layers.forEach(manifestLayers::add);
+        for (OciLayer layer : layers) {
+            JsonObject entry = new JsonObject();
+            entry.addProperty("mediaType", oci ? OciRegistryClient.OCI_LAYER_GZIP : OciRegistryClient.DOCKER_LAYER_GZIP);
+            entry.addProperty("size", layer.getSize());
+            entry.addProperty("digest", layer.getDigest());
+            manifestLayers.add(entry);
+        }
+        manifest.add("layers", manifestLayers);
+        return GSON.toJson(manifest).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private OciRegistryClient createClient(String registry, String user, RegistryAuthConfig.Kind kind) throws IOException {
+        AuthConfig authConfig = registryContext != null ? registryContext.getAuthConfig(kind, user, registry) : null;
+        return new OciRegistryClient(registry, authConfig, retries);
+    }
+
+    private String getRegistry(ImageName name, String registry, RegistryAuthConfig.Kind kind) {
+        return OciRegistryClient.getRegistryHost(EnvUtil.firstRegistryOf(name.getRegistry(), registry,
+                registryContext != null ? registryContext.getRegistry(kind) : null));
+    }
+
+    private static Set<String> getAdditionalTags(ImageName name, List<String> tags) {
+        Set<String> ret = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.equals(name.getTag())) {
+                    ret.add(tag);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static JsonObject createScratchConfig(String platform) {
+        String[] parts = platform.split("/");
+        JsonObject ret = new JsonObject();
+        ret.addProperty("architecture", parts[1]);
+        ret.addProperty("os", parts[0]);
+        if (parts.length > 2) {
+            ret.addProperty("variant", parts[2]);
+        }
+        ret.add("config", new JsonObject());
+        return ret;
+    }
+
+    // Platform of this machine, as a Docker daemon running here would use it
+    static String getDefaultPlatform() {
+        String arch = System.getProperty("os.arch");
+        switch (arch) {
+            case "x86_64":
+                return "linux/amd64";
+            case "aarch64":
+                return "linux/arm64";
+            default:
+                return "linux/" + arch;
+        }
+    }
+
+    private static void setEnv(JsonObject config, Map<String, String> values) {
+        JsonArray env = getOrCreateArray(config, "Env");
+        JsonArray updated = new JsonArray();
+        for (JsonElement element : env) {
+            String name = element.getAsString().split("=", 2)[0];
+            if (!values.containsKey(name)) {
+                updated.add(element);
+            }
+        }
+        values.forEach((key, value) -> updated.add(key + "=" + value));
+        config.add("Env", updated);
+    }
+
+    private static JsonArray toCommand(OciDockerfile.Instruction instruction) {
+        if (instruction.isExecForm()) {
+            return JsonFactory.newJsonArray(instruction.getArguments());
+        }
+        JsonArray ret = new JsonArray();
+        ret.add("/bin/sh");
+        ret.add("-c");
+        ret.add(instruction.getArguments());
+        return ret;
+    }
+
+    private static JsonObject toHealthcheck(OciDockerfile.Instruction instruction) throws IOException {
+        JsonObject ret = new JsonObject();
+        JsonArray test = new JsonArray();
+        String arguments = instruction.getArguments();
+        if (arguments.equalsIgnoreCase("NONE")) {
+            test.add("NONE");
+            ret.add("Test", test);
+            return ret;
+        }
+        while (arguments.startsWith("--")) {
+            String[] parts = arguments.split("\\s+", 2);
+            String[] option = parts[0].substring(2).split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "interval":
+                    ret.addProperty("Interval", parseDuration(value));
+                    break;
+                case "timeout":
+                    ret.addProperty("Timeout", parseDuration(value));
+                    break;
+                case "start-period":
+                    ret.addProperty("StartPeriod", parseDuration(value));
+                    break;
+                case "retries":
+                    ret.addProperty("Retries", Integer.parseInt(value));
+                    break;
+                default:
+                    throw new IOException("Unknown HEALTHCHECK option --" + option[0]);
+            }
+            arguments = parts.length > 1 ? parts[1].trim() : "";
+        }
+        if (!arguments.toUpperCase().startsWith("CMD")) {
+            throw new IOException("HEALTHCHECK must be either NONE or CMD: " + instruction);
+        }
+        OciDockerfile.Instruction cmd = new OciDockerfile.Instruction("CMD", arguments.substring(3).trim());
+        if (cmd.isExecForm()) {
+            test.add("CMD");
+            JsonFactory.newJsonArray(cmd.getArguments()).forEach(test::add);
+        } else {
+            test.add("CMD-SHELL");
+            test.add(cmd.getArguments());
+        }
+        ret.add("Test", test);
+        return ret;
+    }
+
+    // Duration in Go notation (like "1m30s") as nanoseconds
+    static long parseDuration(String duration) throws IOException {
+        Matcher matcher = DURATION.matcher(duration);
+        double nanos = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double value = Double.parseDouble(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "h": nanos += value * 3600e9; break;
+                case "m": nanos += value * 60e9; break;
+                case "s": nanos += value * 1e9; break;
+                case "ms": nanos += value * 1e6; break;
+                case "us": nanos += value * 1e3; break;
+                default: nanos += value;
+            }
+            end = matcher.end();
+        }
+        if (end == 0 || end != duration.length()) {
+            throw new IOException("Invalid duration " + duration);
+        }
+        return (long) nanos;
+    }
+
+    private static List<String> getArguments(OciDockerfile.Instruction instruction) {
+        List<String> ret = new ArrayList<>();
+        if (instruction.isExecForm()) {
+            JsonFactory.newJsonArray(instruction.getArguments()).forEach(element -> ret.add(element.getAsString()));
+        } else {
+            ret.addAll(OciDockerfile.split(instruction.getArguments()));
+        }
+        return ret;
+    }
+
+    private static JsonObject getOrCreateObject(JsonObject parent, String name) {
+        JsonElement element = parent.get(name);
+        if (element == null || !element.isJsonObject()) {
+            JsonObject ret = new JsonObject();
+            parent.add(name, ret);
+            return ret;
+        }
+        return element.getAsJsonObject();
+    }
+
+    private static JsonArray getOrCreateArray(JsonObject parent, String name) {
+        JsonElement element = parent.get(name);
+        if (element == null || !element.isJsonArray()) {
+            JsonArray ret = new JsonArray();
+            parent.add(name, ret);
+            return ret;
+        }
+        return element.getAsJsonArray();
+    }
+
+    private static String getString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element != null && !element.isJsonNull() ? element.getAsString() : null;
+    }
+
+    private static String formatTimestamp(Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(date);
+    }
+
+    // Manifest and configuration of the base image together with the client to fetch its layers
+    private static class BaseImage {
+        private final OciRegistryClient client;
+        private final boolean ownClient;
+        private final String repository;
+        private final OciRegistryClient.Manifest manifest;
+        private final JsonObject config;
+        private final List<JsonObject> layers = new ArrayList<>();
+
+        BaseImage(OciRegistryClient client, boolean ownClient, String repository, OciRegistryClient.Manifest manifest,
+                  JsonObject config) {
+            this.client = client;
+            this.ownClient = ownClient;
+            this.repository = repository;
+            this.manifest = manifest;
+            this.config = config;
+            if (manifest != null) {
+                manifest.toJson().getAsJsonArray("layers").forEach(layer -> layers.add(layer.getAsJsonObject()));
+            }
+        }
+
+        // Images are created in the format of their base image, images from scratch as OCI images
+        boolean isOci() {
+            return manifest == null || !OciRegistryClient.DOCKER_MANIFEST_V2.equals(manifest.getMediaType());
+        }
+
+        void close() throws IOException {
+            if (ownClient) {
+                client.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The instructions of a Dockerfile which can be applied without running anything within the image, i.e. a
+ * Dockerfile as created by the {@link org.eclipse.jkube.kit.config.image.build.DockerFileBuilder} for an image
+ * without <code>runCmds</code>.
+ *
+ * Line continuations, comments, <code>ARG</code>s and variable substitution are handled, so that the instructions
+ * returned carry their final arguments.
+ */
+class OciDockerfile {
+
+    // Instructions which only change the image configuration or add files
+    private static final Set<String> SUPPORTED = new HashSet<>(Arrays.asList(
+            "FROM", "ARG", "ENV", "LABEL", "EXPOSE", "COPY", "ADD", "WORKDIR", "USER", "VOLUME",
+            "CMD", "ENTRYPOINT", "HEALTHCHECK", "MAINTAINER", "STOPSIGNAL"));
+
+    // Instructions whose arguments are subject to variable substitution
+    private static final Set<String> SUBSTITUTED = new HashSet<>(Arrays.asList(
+            "FROM", "ENV", "LABEL", "EXPOSE", "COPY", "ADD", "WORKDIR", "USER", "VOLUME", "STOPSIGNAL"));
+
+    private final String baseImage;
+    private final List<Instruction> instructions;
+
+    private OciDockerfile(String baseImage, List<Instruction> instructions) {
+        this.baseImage = baseImage;
+        this.instructions = instructions;
+    }
+
+    String getBaseImage() {
+        return baseImage;
+    }
+
+    /**
+     * @return all instructions after the <code>FROM</code>, with <code>ARG</code>s already applied
+     */
+    List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Parse a Dockerfile
+     *
+     * @param content content of the Dockerfile
+     * @param buildArgs values for the <code>ARG</code>s of the Dockerfile
+     * @return the parsed Dockerfile
+     * @throws IOException if the Dockerfile contains instructions which need a container to run, or more than one stage
+     */
+    static OciDockerfile parse(String content, Map<String, String> buildArgs) throws IOException {
+        Map<String, String> args = new HashMap<>();
+        Map<String, String> variables = new HashMap<>();
+        String baseImage = null;
+        List<Instruction> instructions = new ArrayList<>();
+        for (String line : joinLines(content)) {
+            String[] parts = line.split("\\s+", 2);
+            String keyword = parts[0].toUpperCase();
+            String arguments = parts.length > 1 ? parts[1].trim() : "";
+            if (!SUPPORTED.contains(keyword)) {
+                throw new IOException("Dockerfile instruction " + keyword + " is not supported without a Docker daemon" +
+                        " (only " + String.join(", ", SUPPORTED) + " can be used)");
+            }
+            if (SUBSTITUTED.contains(keyword)) {
+                arguments = substitute(arguments, variables);
+            }
+            if (keyword.equals("ARG")) {
+                String[] arg = arguments.split("=", 2);
+                String value = buildArgs.containsKey(arg[0]) ? buildArgs.get(arg[0]) :
+                        arg.length > 1 ? unquote(arg[1]) : args.get(arg[0]);
+                if (value != null) {
+                    args.put(arg[0], value);
+                    variables.putIfAbsent(arg[0], value);
+                }
+            } else if (keyword.equals("FROM")) {
+                if (baseImage != null) {
+                    throw new IOException("Multi-stage Dockerfiles are not supported without a Docker daemon");
+                }
+                baseImage = arguments.split("\\s+")[0];
+                // ARGs declared before FROM are only visible when redeclared afterwards
+                variables.clear();
+            } else {
+                if (baseImage == null) {
+                    throw new IOException("Dockerfile must start with a FROM instruction, not with " + keyword);
+                }
+                Instruction instruction = new Instruction(keyword, arguments);
+                if (keyword.equals("ENV")) {
+                    variables.putAll(instruction.getKeyValues());
+                }
+                instructions.add(instruction);
+            }
+        }
+        if (baseImage == null) {
+            throw new IOException("No FROM instruction found in Dockerfile");
+        }
+        return new OciDockerfile(baseImage, Collections.unmodifiableList(instructions));
+    }
+
+    // Lines of the Dockerfile with continuations joined and comments and empty lines removed
+    private static List<String> joinLines(String content) {
+        List<String> ret = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : content.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("#") || (trimmed.isEmpty() && current.length() == 0)) {
+                continue;
+            }
+            if (trimmed.endsWith("\\")) {
+                current.append(trimmed, 0, trimmed.length() - 1).append(' ');
+            } else {
+                current.append(trimmed);
+                if (current.toString().trim().length() > 0) {
+                    ret.add(current.toString().trim());
+                }
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            ret.add(current.toString().trim());
+        }
+        return ret;
+    }
+
+    // Replace $VAR, ${VAR}, ${VAR:-default} and ${VAR:+alternative}. Escaped dollars (\$) are kept.
+    static String substitute(String value, Map<String, String> variables) {
+        StringBuilder ret = new StringBuilder();
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() && value.charAt(i + 1) == '$') {
+                ret.append("\\$");
+                i += 2;
+            } else if (c == '$' && i + 1 < value.length() && value.charAt(i + 1) == '{') {
+                int end = value.indexOf('}', i);
+                if (end < 0) {
+                    ret.append(value.substring(i));
+                    break;
+                }
+                ret.append(expand(value.substring(i + 2, end), variables));
+                i = end + 1;
+            } else if (c == '$' && i + 1 < value.length() && isNameCharacter(value.charAt(i + 1))) {
+                int end = i + 1;
+                while (end < value.length() && isNameCharacter(value.charAt(end))) {
+                    end++;
+                }
+                String name = value.substring(i + 1, end);
+                ret.append(variables.getOrDefault(name, ""));
+                i = end;
+            } else {
+                ret.append(c);
+                i++;
+            }
+        }
+        return ret.toString();
+    }
+
+    private static String expand(String expression, Map<String, String> variables) {
+        int modifier = expression.indexOf(':');
+        if (modifier < 0 || modifier + 1 >= expression.length()) {
+            return variables.getOrDefault(expression, "");
+        }
+        String name = expression.substring(0, modifier);
+        String word = expression.substring(modifier + 2);
+        String value = variables.get(name);
+        boolean set = value != null && !value.isEmpty();
+        switch (expression.charAt(modifier + 1)) {
+            case '-':
+                return set ? value : word;
+            case '+':
+                return set ? word : "";
+            default:
+                return value != null ? value : "";
+        }
+    }
+
+    private static boolean isNameCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    // Split arguments into words, honoring quotes and backslash escapes (which are removed)
+    static List<String> split(String arguments) {
+        List<String> ret = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        boolean inWord = false;
+        char quote = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '\\' && i + 1 < arguments.length() && quote != '\'') {
+                word.append(arguments.charAt(++i));
+                inWord = true;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    word.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inWord = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inWord) {
+                    ret.add(word.toString());
+                    word.setLength(0);
+                    inWord = false;
+                }
+            } else {
+                word.append(c);
+                inWord = true;
+            }
+        }
+        if (inWord) {
+            ret.add(word.toString());
+        }
+        return ret;
+    }
+
+    private static String unquote(String value) {
+        List<String> words = split(value);
+        return words.isEmpty() ? "" : String.join(" ", words);
+    }
+
+    /**
+     * A single instruction
+     */
+    static class Instruction {
+        private final String keyword;
+        private final String arguments;
+
+        Instruction(String keyword, String arguments) {
+            this.keyword = keyword;
+            this.arguments = arguments;
+        }
+
+        String getKeyword() {
+            return keyword;
+        }
+
+        String getArguments() {
+            return arguments;
+        }
+
+        /**
+         * @return true if the arguments are given in exec (JSON array) form
+         */
+        boolean isExecForm() {
+            return arguments.startsWith("[");
+        }
+
+        /**
+         * Arguments in the <code>key=value</code> form used by <code>ENV</code> and <code>LABEL</code>. The legacy
+         * <code>ENV key value</code> form is supported, too.
+         *
+         * @return keys and values in the given order
+         */
+        Map<String, String> getKeyValues() {
+            Map<String, String> ret = new LinkedHashMap<>();
+            List<String> words = split(arguments);
+            if (!words.isEmpty() && !words.get(0).contains("=")) {
+                String[] legacy = arguments.split("\\s+", 2);
+                ret.put(legacy[0], legacy.length > 1 ? unquote(legacy[1]) : "");
+                return ret;
+            }
+            for (String word : words) {
+                String[] keyValue = word.split("=", 2);
+                ret.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+            }
+            return ret;
+        }
+
+        @Override
+        public String toString() {
+            return keyword + " " + arguments;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.eclipse.jkube.kit.config.image.build.ArchiveCompression;
+
+/**
+ * A gzipped layer blob, created from the files a <code>COPY</code> instruction takes from a Docker build archive.
+ */
+class OciLayer {
+
+    private final File file;
+    private final String digest;
+    private final String diffId;
+    private final long size;
+
+    private OciLayer(File file, String digest, String diffId) {
+        this.file = file;
+        this.digest = digest;
+        this.diffId = diffId;
+        this.size = file.length();
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @return digest of the compressed layer, identifying the blob in the registry
+     */
+    String getDigest() {
+        return digest;
+    }
+
+    /**
+     * @return digest of the uncompressed layer as referenced from the image configuration
+     */
+    String getDiffId() {
+        return diffId;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Read a single file from a build archive
+     *
+     * @param archive build archive, optionally compressed
+     * @param name name of the file within the archive
+     * @return content of the file or null if not contained in the archive
+     * @throws IOException if the archive cannot be read
+     */
+    static byte[] readFile(File archive, String name) throws IOException {
+        try (TarArchiveInputStream tar = openArchive(archive)) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                if (entry.isFile() && normalize(entry.getName()).equals(normalize(name))) {
+                    return IOUtils.toByteArray(tar);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a layer holding the given sources of the build archive, placed at the destination like
+     * a <code>COPY</code> instruction of a Dockerfile does. The files keep their permissions and modification
+     * times, owner and group are set as given.
+     *
+     * Like with <code>docker build</code>, only directories contained in the copied sources become part of
+     * the layer. The destination and its parents are not, so that directories already present in the base image
+     * keep their owner and permissions. Missing ones are created when the layer is extracted.
+     *
+     * @param archive build archive, optionally compressed
+     * @param sources paths within the archive, directories are copied with their content
+     * @param destination absolute path within the image. A destination ending with <code>/</code> (or one used
+     *                    for several sources) is a directory in which files are placed by their name.
+     * @param uid owner of the files
+     * @param gid group of the files
+     * @param layerFile file to write the layer to
+     * @return the layer
+     * @throws IOException if a source doesn't exist or the archive cannot be read
+     */
+    static OciLayer create(File archive, List<String> sources, String destination, int uid, int gid, File layerFile)
+            throws IOException {
+        String target = normalize(destination);
+        boolean targetIsDirectory = destination.endsWith("/") || sources.size() > 1;
+        DigestOutputStream compressedDigest;
+        DigestOutputStream uncompressedDigest;
+        try (OutputStream out = Files.newOutputStream(layerFile.toPath())) {
+            compressedDigest = new DigestOutputStream(out, DigestUtils.getSha256Digest());
+            uncompressedDigest = new DigestOutputStream(ArchiveCompression.gzip.wrapOutputStream(compressedDigest),
+                    DigestUtils.getSha256Digest());
+            try (TarArchiveOutputStream layer = new TarArchiveOutputStream(uncompressedDigest)) {
+                layer.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                layer.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+                Set<String> written = new LinkedHashSet<>();
+                for (String source : sources) {
+                    if (!copyEntries(archive, normalize(source), target, targetIsDirectory, uid, gid, layer, written)) {
+                        throw new IOException("COPY source " + source + " not found in build archive " + archive);
+                    }
+                }
+            }
+        }
+        return new OciLayer(layerFile,
+                "sha256:" + Hex.encodeHexString(compressedDigest.getMessageDigest().digest()),
+                "sha256:" + Hex.encodeHexString(uncompressedDigest.getMessageDigest().digest()));
+    }
+
+    private static boolean copyEntries(File archive, String source, String target, boolean targetIsDirectory,
+                                       int uid, int gid, TarArchiveOutputStream layer, Set<String> written) throws IOException {
+        boolean found = false;
+        try (TarArchiveInputStream tar = openArchive(archive)) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                String name = normalize(entry.getName());
+                String path;
+                if (source.isEmpty() || name.startsWith(source + "/")) {
+                    // Content of a directory
+                    path = join(target, source.isEmpty() ? name : name.substring(source.length() + 1));
+                } else if (name.equals(source)) {
+                    if (entry.isDirectory()) {
+                        // Only the content of the directory is copied
+                        found = true;
+                        continue;
+                    }
+                    path = targetIsDirectory ? join(target, name.substring(name.lastIndexOf('/') + 1)) : target;
+                } else {
+                    continue;
+                }
+                found = true;
+                if (entry.isDirectory()) {
+                    addDirectory(path, entry, uid, gid, layer, written);
+                    continue;
+                }
+                TarArchiveEntry copy = entry.isSymbolicLink() ?
+                        new TarArchiveEntry(path, TarArchiveEntry.LF_SYMLINK) : new TarArchiveEntry(path);
+                copy.setMode(entry.getMode());
+                copy.setModTime(entry.getModTime());
+                copy.setIds(uid, gid);
+                copy.setNames("", "");
+                if (entry.isSymbolicLink()) {
+                    copy.setLinkName(entry.getLinkName());
+                } else {
+                    copy.setSize(entry.getSize());
+                }
+                layer.putArchiveEntry(copy);
+                if (!entry.isSymbolicLink()) {
+                    IOUtils.copy(tar, layer);
+                }
+                layer.closeArchiveEntry();
+                written.add(path);
+            }
+        }
+        return found;
+    }
+
+    private static void addDirectory(String path, TarArchiveEntry entry, int uid, int gid, TarArchiveOutputStream layer,
+                                     Set<String> written) throws IOException {
+        if (written.add(path)) {
+            TarArchiveEntry directory = new TarArchiveEntry(path + "/");
+            directory.setMode(TarArchiveEntry.DEFAULT_DIR_MODE & ~0777 | (entry.getMode() & 07777));
+            directory.setModTime(entry.getModTime());
+            directory.setIds(uid, gid);
+            directory.setNames("", "");
+            layer.putArchiveEntry(directory);
+            layer.closeArchiveEntry();
+        }
+    }
+
+    private static TarArchiveInputStream openArchive(File archive) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(archive.toPath()));
+        try {
+            switch (ArchiveCompression.fromFileName(archive.getName())) {
+                case gzip:
+                    return new TarArchiveInputStream(new GzipCompressorInputStream(in, true));
+                case bzip2:
+                    return new TarArchiveInputStream(new BZip2CompressorInputStream(in, true));
+                default:
+                    return new TarArchiveInputStream(in);
+            }
+        } catch (IOException exp) {
+            in.close();
+            throw exp;
+        }
+    }
+
+    // Path without leading "./" or "/" and without trailing "/"
+    static String normalize(String path) {
+        String ret = path;
+        while (ret.startsWith("./") || ret.startsWith("/")) {
+            ret = ret.substring(ret.startsWith("/") ? 1 : 2);
+        }
+        while (ret.endsWith("/")) {
+            ret = ret.substring(0, ret.length() - 1);
+        }
+        return ret.equals(".") ? "" : ret;
+    }
+
+    private static String join(String directory, String name) {
+        return directory.isEmpty() ? name : directory + "/" + name;
+    }
+}
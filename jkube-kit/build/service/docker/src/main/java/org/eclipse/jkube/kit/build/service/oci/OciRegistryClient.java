@@ -0,0 +1,629 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonObject;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.common.JsonFactory;
+import org.eclipse.jkube.kit.common.util.EnvUtil;
+import org.eclipse.jkube.kit.config.image.ImageName;
+
+/**
+ * Client for the <a href="https://github.com/opencontainers/distribution-spec">OCI distribution API</a>
+ * (aka Docker Registry HTTP API V2) of a single registry.
+ *
+ * Supports basic authentication as well as the bearer token authentication used by Docker Hub and most
+ * other registries. Tokens are requested when the registry asks for them and are reused for further
+ * requests on the same repository.
+ *
+ * Requests failing because of a connection problem or a server side error (5xx) are retried individually, so that
+ * a failure in the middle of a push only repeats the failed blob and not the whole image.
+ * A client can be used from several threads at the same time.
+ */
+public class OciRegistryClient implements Closeable {
+
+    public static final String DOCKER_HUB_REGISTRY = "registry-1.docker.io";
+
+    public static final String DOCKER_MANIFEST_V2 = "application/vnd.docker.distribution.manifest.v2+json";
+    public static final String DOCKER_MANIFEST_LIST_V2 = "application/vnd.docker.distribution.manifest.list.v2+json";
+    public static final String DOCKER_CONFIG_V1 = "application/vnd.docker.container.image.v1+json";
+    public static final String DOCKER_LAYER_GZIP = "application/vnd.docker.image.rootfs.diff.tar.gzip";
+    public static final String OCI_MANIFEST_V1 = "application/vnd.oci.image.manifest.v1+json";
+    public static final String OCI_INDEX_V1 = "application/vnd.oci.image.index.v1+json";
+    public static final String OCI_CONFIG_V1 = "application/vnd.oci.image.config.v1+json";
+    public static final String OCI_LAYER_GZIP = "application/vnd.oci.image.layer.v1.tar+gzip";
+
+    private static final String ACCEPTED_MANIFESTS =
+            String.join(",", OCI_MANIFEST_V1, OCI_INDEX_V1, DOCKER_MANIFEST_V2, DOCKER_MANIFEST_LIST_V2);
+    private static final Pattern CHALLENGE_PARAMETER = Pattern.compile("(\\w+)=\"([^\"]*)\"");
+    private static final int MAX_CONNECTIONS = 10;
+    private static final long RETRY_DELAY_MILLIS = 200;
+
+    private final String registry;
+    private final String baseUrl;
+    private final AuthConfig authConfig;
+    private final int retries;
+    private final CloseableHttpClient client;
+
+    // Authorization header values per token scope
+    private final Map<String, String> authorizations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a client
+     *
+     * @param registry registry host (with an optional port). Registries on <code>localhost</code> are accessed via
+     *                 plain HTTP, all others via HTTPS unless an explicit scheme is given.
+     * @param authConfig credentials to use, can be null for anonymous access
+     */
+    public OciRegistryClient(String registry, AuthConfig authConfig) {
+        this(registry, authConfig, 0);
+    }
+
+    /**
+     * Create a client retrying failed requests
+     *
+     * @param registry registry host (with an optional port), see {@link #OciRegistryClient(String, AuthConfig)}
+     * @param authConfig credentials to use, can be null for anonymous access
+     * @param retries how often a request failing with a connection problem or a server error is retried
+     */
+    public OciRegistryClient(String registry, AuthConfig authConfig, int retries) {
+        this.registry = registry;
+        this.baseUrl = getBaseUrl(registry);
+        this.authConfig = authConfig;
+        this.retries = Math.max(0, retries);
+        // Redirects are followed manually, since blob downloads are often redirected to storage which must not
+        // receive the registry credentials
+        this.client = HttpClients.custom().useSystemProperties().disableRedirectHandling()
+                .setMaxConnPerRoute(MAX_CONNECTIONS).setMaxConnTotal(MAX_CONNECTIONS).build();
+    }
+
+    public String getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Check that the registry can be accessed with the configured credentials, requesting the permission to push
+     * to the given repository
+     *
+     * @param repository repository to push to
+     * @throws IOException if the registry cannot be reached or rejects the credentials
+     */
+    public void checkAccess(String repository) throws IOException {
+        withRetries(() -> doCheckAccess(repository));
+    }
+
+    private boolean doCheckAccess(String repository) throws IOException {
+        HttpGet request = new HttpGet(url("/v2/"));
+        try (CloseableHttpResponse response = execute(request, repository, "pull,push")) {
+            return checkStatus(response, request, HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * Get a manifest or an index (manifest list)
+     *
+     * @param repository repository of the image
+     * @param reference tag or digest
+     * @return the manifest
+     * @throws IOException if the manifest doesn't exist or cannot be fetched
+     */
+    public Manifest getManifest(String repository, String reference) throws IOException {
+        return withRetries(() -> doGetManifest(repository, reference));
+    }
+
+    private Manifest doGetManifest(String repository, String reference) throws IOException {
+        HttpGet request = new HttpGet(url("/v2/%s/manifests/%s", repository, reference));
+        request.setHeader(HttpHeaders.ACCEPT, ACCEPTED_MANIFESTS);
+        try (CloseableHttpResponse response = execute(request, repository, "pull")) {
+            checkStatus(response, request, HttpStatus.SC_OK);
+            byte[] content = EntityUtils.toByteArray(response.getEntity());
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            String mediaType = contentType != null ? ContentType.parse(contentType.getValue()).getMimeType() : null;
+            JsonObject json = JsonFactory.newJsonObject(new String(content, StandardCharsets.UTF_8));
+            if (json.has("mediaType")) {
+                mediaType = json.get("mediaType").getAsString();
+            }
+            return new Manifest(mediaType, digest(content), content);
+        }
+    }
+
+    /**
+     * Upload a manifest
+     *
+     * @param repository repository of the image
+     * @param reference tag under which the manifest is stored
+     * @param mediaType media type of the manifest
+     * @param content the manifest
+     * @return digest of the manifest
+     * @throws IOException if the upload fails
+     */
+    public String putManifest(String repository, String reference, String mediaType, byte[] content) throws IOException {
+        return withRetries(() -> doPutManifest(repository, reference, mediaType, content));
+    }
+
+    /**
+     * Add a tag to an image already stored in the repository. Only the manifest is uploaded again, the registry
+     * doesn't need to check any layer for this.
+     *
+     * @param repository repository of the image
+     * @param reference tag or digest of the image
+     * @param tag tag to add
+     * @return digest of the manifest
+     * @throws IOException if the image doesn't exist or the manifest cannot be uploaded
+     */
+    public String tag(String repository, String reference, String tag) throws IOException {
+        Manifest manifest = getManifest(repository, reference);
+        return putManifest(repository, tag, manifest.getMediaType(), manifest.getContent());
+    }
+
+    private String doPutManifest(String repository, String reference, String mediaType, byte[] content) throws IOException {
+        HttpPut request = new HttpPut(url("/v2/%s/manifests/%s", repository, reference));
+        request.setEntity(new ByteArrayEntity(content, ContentType.create(mediaType)));
+        try (CloseableHttpResponse response = execute(request, repository, "pull,push")) {
+            checkStatus(response, request, HttpStatus.SC_CREATED);
+            return digest(content);
+        }
+    }
+
+    /**
+     * Check whether the registry has a blob within the given repository
+     *
+     * @param repository repository to check
+     * @param digest digest of the blob
+     * @return true if the blob exists
+     * @throws IOException if the registry cannot be queried
+     */
+    public boolean hasBlob(String repository, String digest) throws IOException {
+        return withRetries(() -> doHasBlob(repository, digest));
+    }
+
+    private boolean doHasBlob(String repository, String digest) throws IOException {
+        HttpHead request = new HttpHead(url("/v2/%s/blobs/%s", repository, digest));
+        try (CloseableHttpResponse response = execute(request, repository, "pull")) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_NOT_FOUND) {
+                return false;
+            }
+            // A redirect means that the blob is served from some other storage
+            return status == HttpStatus.SC_OK || isRedirect(status) || checkStatus(response, request, HttpStatus.SC_OK);
+        }
+    }
+
+    /**
+     * Download a small blob (like an image configuration) into memory
+     *
+     * @param repository repository of the blob
+     * @param digest digest of the blob
+     * @return content of the blob
+     * @throws IOException if the blob cannot be downloaded or doesn't match its digest
+     */
+    public byte[] getBlob(String repository, String digest) throws IOException {
+        return withRetries(() -> {
+            try (CloseableHttpResponse response = getBlobResponse(repository, digest)) {
+                byte[] content = EntityUtils.toByteArray(response.getEntity());
+                verifyDigest(digest, digest(content));
+                return content;
+            }
+        });
+    }
+
+    /**
+     * Download a blob into a file
+     *
+     * @param repository repository of the blob
+     * @param digest digest of the blob
+     * @param target file to write to
+     * @throws IOException if the blob cannot be downloaded or doesn't match its digest
+     */
+    public void getBlob(String repository, String digest, File target) throws IOException {
+        withRetries(() -> {
+            try (CloseableHttpResponse response = getBlobResponse(repository, digest);
+                 DigestInputStream in = new DigestInputStream(response.getEntity().getContent(), DigestUtils.getSha256Digest())) {
+                Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                verifyDigest(digest, "sha256:" + Hex.encodeHexString(in.getMessageDigest().digest()));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Mount a blob from another repository of the same registry, without uploading it again
+     *
+     * @param repository repository to mount the blob into
+     * @param digest digest of the blob
+     * @param fromRepository repository holding the blob
+     * @return true if the blob has been mounted, false if the registry refused to mount it
+     * @throws IOException if the registry cannot be accessed
+     */
+    public boolean mountBlob(String repository, String digest, String fromRepository) throws IOException {
+        return withRetries(() -> doMountBlob(repository, digest, fromRepository));
+    }
+
+    private boolean doMountBlob(String repository, String digest, String fromRepository) throws IOException {
+        HttpPost request = new HttpPost(uri(url("/v2/%s/blobs/uploads/", repository), "mount", digest, "from", fromRepository));
+        try (CloseableHttpResponse response = execute(request, repository, "pull,push", fromRepository)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_CREATED) {
+                return true;
+            }
+            // The upload started instead is simply abandoned
+            checkStatus(response, request, HttpStatus.SC_ACCEPTED);
+            return false;
+        }
+    }
+
+    /**
+     * Upload a blob from a file
+     *
+     * @param repository repository to upload to
+     * @param digest digest of the blob
+     * @param blob file holding the blob
+     * @throws IOException if the upload fails
+     */
+    public void putBlob(String repository, String digest, File blob) throws IOException {
+        putBlob(repository, digest, new FileEntity(blob, ContentType.APPLICATION_OCTET_STREAM));
+    }
+
+    /**
+     * Upload a blob from memory
+     *
+     * @param repository repository to upload to
+     * @param digest digest of the blob
+     * @param blob the blob
+     * @throws IOException if the upload fails
+     */
+    public void putBlob(String repository, String digest, byte[] blob) throws IOException {
+        putBlob(repository, digest, new ByteArrayEntity(blob, ContentType.APPLICATION_OCTET_STREAM));
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    /**
+     * Calculate the digest of some content as used by the registry
+     *
+     * @param content content to digest
+     * @return digest in the form <code>sha256:&lt;hex&gt;</code>
+     */
+    public static String digest(byte[] content) {
+        return "sha256:" + DigestUtils.sha256Hex(content);
+    }
+
+    /**
+     * Get the host to access for a registry as used in image names
+     *
+     * @param registry registry of an image name, null for the default registry
+     * @return the registry itself, or the host of the Docker Hub registry API for the default registry
+     */
+    public static String getRegistryHost(String registry) {
+        if (registry == null || registry.equals("docker.io") || registry.equals("index.docker.io")) {
+            return DOCKER_HUB_REGISTRY;
+        }
+        return registry;
+    }
+
+    /**
+     * Get the repository of an image within a registry
+     *
+     * @param name image name
+     * @param registryHost registry host as returned by {@link #getRegistryHost(String)}
+     * @return the repository, which is prefixed with <code>library/</code> for official Docker Hub images
+     */
+    public static String getRepository(ImageName name, String registryHost) {
+        String repository = name.getRepository();
+        // Official images on Docker Hub live in the "library" namespace
+        if (DOCKER_HUB_REGISTRY.equals(registryHost) && !repository.contains("/")) {
+            return "library/" + repository;
+        }
+        return repository;
+    }
+
+    // ==========================================================================================
+
+    private void putBlob(String repository, String digest, HttpEntity entity) throws IOException {
+        // A failed upload is restarted with a new session
+        withRetries(() -> {
+            doPutBlob(repository, digest, entity);
+            return null;
+        });
+    }
+
+    private void doPutBlob(String repository, String digest, HttpEntity entity) throws IOException {
+        // Monolithic upload: start an upload session and send the whole blob with the closing PUT
+        HttpPost start = new HttpPost(url("/v2/%s/blobs/uploads/", repository));
+        String location;
+        try (CloseableHttpResponse response = execute(start, repository, "pull,push")) {
+            checkStatus(response, start, HttpStatus.SC_ACCEPTED);
+            location = getLocation(start, response);
+        }
+        HttpPut upload = new HttpPut(uri(location, "digest", digest));
+        upload.setEntity(entity);
+        try (CloseableHttpResponse response = execute(upload, repository, "pull,push")) {
+            checkStatus(response, upload, HttpStatus.SC_CREATED);
+        }
+    }
+
+    private CloseableHttpResponse getBlobResponse(String repository, String digest) throws IOException {
+        HttpGet request = new HttpGet(url("/v2/%s/blobs/%s", repository, digest));
+        CloseableHttpResponse response = execute(request, repository, "pull");
+        try {
+            if (isRedirect(response.getStatusLine().getStatusCode())) {
+                String location = getLocation(request, response);
+                response.close();
+                HttpGet redirected = new HttpGet(location);
+                response = client.execute(redirected);
+                checkStatus(response, redirected, HttpStatus.SC_OK);
+            } else {
+                checkStatus(response, request, HttpStatus.SC_OK);
+            }
+            return response;
+        } catch (IOException exp) {
+            response.close();
+            throw exp;
+        }
+    }
+
+    private <T> T withRetries(RegistryCall<T> call) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return call.call();
+            } catch (IOException exp) {
+                if (attempt >= retries || !isRetryable(exp)) {
+                    throw exp;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS << attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw exp;
+                }
+            }
+        }
+    }
+
+    // Client errors like a missing permission or an invalid digest won't go away when trying again
+    private static boolean isRetryable(IOException exp) {
+        if (exp instanceof RegistryException) {
+            int status = ((RegistryException) exp).getStatus();
+            return status >= HttpStatus.SC_INTERNAL_SERVER_ERROR || status == 429;
+        }
+        return true;
+    }
+
+    // Execute a request, authenticating as requested by the registry
+    private CloseableHttpResponse execute(HttpRequestBase request, String repository, String actions, String... pullRepositories)
+            throws IOException {
+        StringBuilder scope = new StringBuilder("repository:" + repository + ":" + actions);
+        for (String pullRepository : pullRepositories) {
+            scope.append(" repository:").append(pullRepository).append(":pull");
+        }
+        String authorization = authorizations.get(scope.toString());
+        if (authorization != null) {
+            request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        }
+        CloseableHttpResponse response = client.execute(request);
+        Header challenge = response.getFirstHeader(HttpHeaders.WWW_AUTHENTICATE);
+        if (response.getStatusLine().getStatusCode() != HttpStatus.SC_UNAUTHORIZED || challenge == null) {
+            return response;
+        }
+        response.close();
+        authorization = authorize(challenge.getValue(), scope.toString());
+        authorizations.put(scope.toString(), authorization);
+        request.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        return client.execute(request);
+    }
+
+    private String authorize(String challenge, String scope) throws IOException {
+        String basic = getBasicAuthorization();
+        if (challenge.regionMatches(true, 0, "Basic", 0, 5)) {
+            if (basic == null) {
+                throw new IOException("Registry " + registry + " requires authentication, but no credentials are configured");
+            }
+            return basic;
+        }
+        if (!challenge.regionMatches(true, 0, "Bearer", 0, 6)) {
+            throw new IOException("Unsupported authentication challenge from registry " + registry + ": " + challenge);
+        }
+        Map<String, String> parameters = new HashMap<>();
+        Matcher matcher = CHALLENGE_PARAMETER.matcher(challenge);
+        while (matcher.find()) {
+            parameters.put(matcher.group(1), matcher.group(2));
+        }
+        String realm = parameters.get("realm");
+        if (realm == null) {
+            throw new IOException("No realm given in authentication challenge from registry " + registry + ": " + challenge);
+        }
+        try {
+            URIBuilder tokenUri = new URIBuilder(realm);
+            if (parameters.containsKey("service")) {
+                tokenUri.addParameter("service", parameters.get("service"));
+            }
+            for (String singleScope : scope.split(" ")) {
+                tokenUri.addParameter("scope", singleScope);
+            }
+            HttpGet request = new HttpGet(tokenUri.build());
+            if (basic != null) {
+                request.setHeader(HttpHeaders.AUTHORIZATION, basic);
+            }
+            try (CloseableHttpResponse response = client.execute(request)) {
+                checkStatus(response, request, HttpStatus.SC_OK);
+                JsonObject json = JsonFactory.newJsonObject(EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8));
+                String token = json.has("token") ? json.get("token").getAsString() :
+                        json.has("access_token") ? json.get("access_token").getAsString() : null;
+                if (token == null) {
+                    throw new IOException("No token returned by " + realm + " for registry " + registry);
+                }
+                return "Bearer " + token;
+            }
+        } catch (URISyntaxException exp) {
+            throw new IOException("Invalid authentication realm " + realm + " of registry " + registry, exp);
+        }
+    }
+
+    private String getBasicAuthorization() {
+        if (authConfig == null || authConfig.getUsername() == null || authConfig.getUsername().isEmpty()) {
+            return null;
+        }
+        String credentials = authConfig.getUsername() + ":" + (authConfig.getPassword() != null ? authConfig.getPassword() : "");
+        return "Basic " + Base64.encodeBase64String(credentials.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String url(String format, Object... args) {
+        return baseUrl + String.format(format, args);
+    }
+
+    private static URI uri(String url, String... parameters) throws IOException {
+        try {
+            URIBuilder builder = new URIBuilder(url);
+            for (int i = 0; i < parameters.length; i += 2) {
+                builder.addParameter(parameters[i], parameters[i + 1]);
+            }
+            return builder.build();
+        } catch (URISyntaxException exp) {
+            throw new IOException("Invalid URL " + url, exp);
+        }
+    }
+
+    // Locations can be relative to the request
+    private static String getLocation(HttpRequestBase request, CloseableHttpResponse response) throws IOException {
+        Header location = response.getFirstHeader(HttpHeaders.LOCATION);
+        if (location == null) {
+            throw new IOException("No location returned for " + request.getMethod() + " " + request.getURI());
+        }
+        return request.getURI().resolve(location.getValue()).toString();
+    }
+
+    private static boolean checkStatus(CloseableHttpResponse response, HttpRequestBase request, int expected) throws IOException {
+        int status = response.getStatusLine().getStatusCode();
+        if (status != expected) {
+            HttpEntity entity = response.getEntity();
+            String body = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+            throw new RegistryException(status, String.format("%s %s failed with status %d (%s)%s", request.getMethod(),
+                    request.getURI(), status, response.getStatusLine().getReasonPhrase(), body.isEmpty() ? "" : ": " + body.trim()));
+        }
+        return true;
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == HttpStatus.SC_MOVED_PERMANENTLY || status == HttpStatus.SC_MOVED_TEMPORARILY ||
+                status == HttpStatus.SC_SEE_OTHER || status == HttpStatus.SC_TEMPORARY_REDIRECT || status == 308;
+    }
+
+    private static void verifyDigest(String expected, String actual) throws IOException {
+        if (!expected.equals(actual)) {
+            throw new IOException("Digest mismatch: expected " + expected + ", but got " + actual);
+        }
+    }
+
+    private static String getBaseUrl(String registry) {
+        String host = registry.replaceFirst(":.*$", "");
+        if (host.equals("localhost") || host.equals("127.0.0.1")) {
+            return "http://" + registry;
+        }
+        return EnvUtil.ensureRegistryHttpUrl(registry);
+    }
+
+    @FunctionalInterface
+    private interface RegistryCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * A request answered by the registry with an unexpected status
+     */
+    public static class RegistryException extends IOException {
+        private final int status;
+
+        public RegistryException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    /**
+     * A manifest (or index) as stored in the registry
+     */
+    public static class Manifest {
+        private final String mediaType;
+        private final String digest;
+        private final byte[] content;
+
+        public Manifest(String mediaType, String digest, byte[] content) {
+            this.mediaType = mediaType;
+            this.digest = digest;
+            this.content = content;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public JsonObject toJson() {
+            return JsonFactory.newJsonObject(new String(content, StandardCharsets.UTF_8));
+        }
+
+        public boolean isIndex() {
+            return OCI_INDEX_V1.equals(mediaType) || DOCKER_MANIFEST_LIST_V2.equals(mediaType);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.core.assembly;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AssemblyStagingManifestTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File sourceDir;
+    private File outputDir;
+    private File manifestFile;
+
+    @Before
+    public void setUp() throws IOException {
+        sourceDir = temporaryFolder.newFolder("source");
+        outputDir = temporaryFolder.newFolder("build");
+        manifestFile = new File(temporaryFolder.getRoot(), "work/" + AssemblyStagingManifest.MANIFEST_FILE);
+    }
+
+    @Test
+    public void testUnchangedFilesAreNotStagedAgain() throws IOException {
+        // Given
+        File source = write("index.html", "<html/>");
+        File target = new File(outputDir, "maven/index.html");
+        stage(source, target);
+        // A file not staged via the manifest must not be replaced
+        Files.delete(target.toPath());
+        write(target, "<html/>");
+
+        // When
+        stage(source, target);
+
+        // Then
+        assertEquals(1, Files.getAttribute(target.toPath(), "unix:nlink"));
+        assertTrue(manifestFile.isFile());
+    }
+
+    @Test
+    public void testTouchedFilesWithSameContentAreNotStagedAgain() throws IOException {
+        // Given
+        File source = write("index.html", "<html/>");
+        File target = new File(outputDir, "maven/index.html");
+        stage(source, target);
+        Files.delete(target.toPath());
+        write(target, "<html/>");
+        Files.delete(source.toPath());
+        write(source, "<html/>");
+        assertTrue(source.setLastModified(source.lastModified() + 10000));
+
+        // When
+        stage(source, target);
+
+        // Then
+        assertEquals(1, Files.getAttribute(target.toPath(), "unix:nlink"));
+    }
+
+    @Test
+    public void testChangedFilesAreStagedAgain() throws IOException {
+        // Given
+        File source = write("index.html", "<html/>");
+        File target = new File(outputDir, "maven/index.html");
+        stage(source, target);
+        Files.delete(source.toPath());
+        write(source, "<html>changed</html>");
+
+        // When
+        stage(source, target);
+
+        // Then
+        assertEquals("<html>changed</html>", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRemovedFilesAreDeleted() throws IOException {
+        // Given
+        write("webapp/index.html", "<html/>");
+        write("webapp/css/style.css", "body {}");
+        File dockerfile = new File(outputDir, "Dockerfile");
+        write(dockerfile, "FROM busybox");
+        File webapp = new File(sourceDir, "webapp");
+        File target = new File(outputDir, "maven/webapp");
+        stage(webapp, target);
+        assertTrue(new File(target, "css/style.css").isFile());
+        Files.delete(new File(webapp, "css/style.css").toPath());
+
+        // When
+        stage(webapp, target);
+
+        // Then
+        assertTrue(new File(target, "index.html").isFile());
+        assertFalse(new File(target, "css").exists());
+        assertTrue(dockerfile.isFile());
+    }
+
+    @Test
+    public void testArchiveEntriesAreUnpackedWhenChanged() throws IOException {
+        // Given
+        File jar = createJar("BOOT-INF/classes/application.properties", "port=8080");
+        File target = new File(outputDir, "maven/BOOT-INF/classes/application.properties");
+        stage(jar, "BOOT-INF/classes/application.properties", target);
+        assertEquals("port=8080", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        // Marks the staged file, so that we can tell whether it has been unpacked again
+        write(target, "port=0000");
+
+        // When
+        stage(jar, "BOOT-INF/classes/application.properties", target);
+
+        // Then
+        assertEquals("port=0000", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+
+        // When
+        createJar("BOOT-INF/classes/application.properties", "port=8081");
+        stage(jar, "BOOT-INF/classes/application.properties", target);
+
+        // Then
+        assertEquals("port=8081", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private void stage(File archive, String entryName, File target) throws IOException {
+        AssemblyStagingManifest manifest = new AssemblyStagingManifest(outputDir, manifestFile);
+        try (ZipFile zip = new ZipFile(archive)) {
+            manifest.stage(zip, zip.getEntry(entryName), target);
+        }
+        manifest.finish();
+    }
+
+    private File createJar(String entryName, String content) throws IOException {
+        File jar = new File(sourceDir, "app.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry(entryName));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return jar;
+    }
+
+    private void stage(File source, File target) throws IOException {
+        AssemblyStagingManifest manifest = new AssemblyStagingManifest(outputDir, manifestFile);
+        manifest.stage(source, target);
+        manifest.finish();
+    }
+
+    private File write(String path, String content) throws IOException {
+        return write(new File(sourceDir, path), content);
+    }
+
+    private static File write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
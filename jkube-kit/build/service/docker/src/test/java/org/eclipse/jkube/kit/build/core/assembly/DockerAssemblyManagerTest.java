@@ -14,13 +14,23 @@
 package org.eclipse.jkube.kit.build.core.assembly;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.jkube.kit.build.core.JKubeBuildContext;
 import org.eclipse.jkube.kit.build.core.config.JKubeAssemblyConfiguration;
 import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.common.JKubeAssemblyFile;
+import org.eclipse.jkube.kit.common.JKubeAssemblyFileSet;
 import org.eclipse.jkube.kit.common.JKubeProject;
+import org.eclipse.jkube.kit.common.JKubeProjectAssembly;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.PrefixedLogger;
 import org.eclipse.jkube.kit.config.image.build.DockerFileBuilder;
@@ -30,10 +40,16 @@ import mockit.Injectable;
 import mockit.Mocked;
 import mockit.Tested;
 import mockit.Verifications;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class DockerAssemblyManagerTest {
 
@@ -43,6 +59,9 @@ public class DockerAssemblyManagerTest {
     @Tested
     private DockerAssemblyManager assemblyManager;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testNoAssembly() {
         JKubeBuildConfiguration buildConfig = new JKubeBuildConfiguration.Builder().build();
@@ -55,6 +74,39 @@ public class DockerAssemblyManagerTest {
         assertFalse(content.contains("VOLUME"));
     }
 
+    @Test
+    public void testLayeredAssembly() {
+        // Given
+        JKubeAssemblyFile snapshotDependency = new JKubeAssemblyFile();
+        snapshotDependency.setSource("lib/common-1.0-SNAPSHOT.jar");
+        snapshotDependency.setOutputDirectory(".");
+        snapshotDependency.setLayer("snapshot-dependencies");
+        JKubeBuildConfiguration buildConfig = new JKubeBuildConfiguration.Builder()
+                .assembly(new JKubeAssemblyConfiguration.Builder()
+                        .assemblyDef(new JKubeProjectAssembly.Builder()
+                                .fileSet(new JKubeAssemblyFileSet.Builder()
+                                        .directory("lib")
+                                        .addInclude("guava-28.0.jar")
+                                        .layer("dependencies")
+                                        .build())
+                                .files(Collections.singletonList(snapshotDependency))
+                                .build())
+                        .targetDir("/deployments")
+                        .build())
+                .build();
+
+        // When
+        String content = assemblyManager.createDockerFileBuilder(buildConfig, buildConfig.getAssemblyConfiguration()).content();
+
+        // Then
+        int dependencies = content.indexOf("COPY maven-dependencies /deployments/\n");
+        int snapshotDependencies = content.indexOf("COPY maven-snapshot-dependencies /deployments/\n");
+        int application = content.indexOf("COPY maven /deployments/\n");
+        assertTrue(dependencies >= 0);
+        assertTrue(dependencies < snapshotDependencies);
+        assertTrue(snapshotDependencies < application);
+    }
+
     @Test
     public void assemblyFiles(@Injectable final JKubeBuildContext mojoParams,
                               @Injectable final JKubeProject project,
@@ -123,6 +175,146 @@ public class DockerAssemblyManagerTest {
         }};
     }
 
+    @Test
+    public void testCalculateBuildContextDigest() throws IOException {
+        // Given
+        File baseDirectory = temporaryFolder.getRoot();
+        File staticFile = new File(temporaryFolder.newFolder("src", "main", "static"), "index.html");
+        Files.write(staticFile.toPath(), "<html/>".getBytes(StandardCharsets.UTF_8));
+        temporaryFolder.newFolder("target");
+        Files.write(temporaryFolder.getRoot().toPath().resolve("target").resolve("app-1.0.jar"), new byte[] { 1, 2, 3 });
+        JKubeBuildContext params = createBuildContext(baseDirectory);
+        JKubeBuildConfiguration buildConfig = createBuildConfigWithFileSet();
+
+        // When
+        String digest = assemblyManager.calculateBuildContextDigest("test/image:latest", params, buildConfig,
+                Collections.singletonMap("foo", "bar"), "0123456789ab");
+
+        // Then
+        assertNotNull(digest);
+        assertEquals(64, digest.length());
+        assertEquals(digest, new String(Files.readAllBytes(new File(baseDirectory,
+                "target/docker/test/image/latest/tmp/" + DockerAssemblyManager.BUILD_CONTEXT_DIGEST_FILE).toPath()), StandardCharsets.UTF_8));
+        assertEquals(digest, assemblyManager.calculateBuildContextDigest("test/image:latest", params, buildConfig,
+                Collections.singletonMap("foo", "bar"), "0123456789ab"));
+        assertNotEquals(digest, assemblyManager.calculateBuildContextDigest("test/image:latest", params, buildConfig,
+                Collections.singletonMap("foo", "baz"), "0123456789ab"));
+        assertNotEquals(digest, assemblyManager.calculateBuildContextDigest("test/image:latest", params, buildConfig,
+                Collections.singletonMap("foo", "bar"), "ba9876543210"));
+        Files.write(staticFile.toPath(), "<html></html>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(digest, assemblyManager.calculateBuildContextDigest("test/image:latest", params, buildConfig,
+                Collections.singletonMap("foo", "bar"), "0123456789ab"));
+    }
+
+    @Test
+    public void testCalculateBuildContextDigestInDockerFileMode() throws IOException {
+        // Given
+        JKubeBuildConfiguration buildConfig = new JKubeBuildConfiguration.Builder()
+                .dockerFile("src/main/docker/Dockerfile")
+                .build();
+
+        // When
+        String digest = assemblyManager.calculateBuildContextDigest("test/image:latest",
+                createBuildContext(temporaryFolder.getRoot()), buildConfig, Collections.emptyMap(), null);
+
+        // Then
+        assertNull(digest);
+    }
+
+    @Test
+    public void testCreateDockerTarArchiveUnpacksArchiveFileSets(@Injectable final KitLogger logger) throws IOException {
+        // Given
+        File jar = createJar("BOOT-INF/lib/common-1.0.jar", "BOOT-INF/classes/application.properties");
+        JKubeBuildConfiguration buildConfig = createBuildConfigWithArchiveFileSets(jar,
+                Collections.singletonList("BOOT-INF/lib/common-1.0.jar"),
+                Collections.singletonList("BOOT-INF/classes/application.properties"));
+
+        // When
+        File archive = assemblyManager.createDockerTarArchive("test/image:latest", createBuildContext(temporaryFolder.getRoot()),
+                buildConfig, logger);
+
+        // Then
+        assertTrue(archive.isFile());
+        File buildDir = new File(temporaryFolder.getRoot(), "target/docker/test/image/latest/build");
+        assertTrue(new File(buildDir, "maven-dependencies/BOOT-INF/lib/common-1.0.jar").isFile());
+        assertTrue(new File(buildDir, "maven/BOOT-INF/classes/application.properties").isFile());
+        assertFalse(new File(buildDir, "maven/BOOT-INF/lib/common-1.0.jar").exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void testCreateDockerTarArchiveWithArchiveEntryOutsideOfTarget(@Injectable final KitLogger logger) throws IOException {
+        File jar = createJar("../evil.sh");
+        JKubeBuildConfiguration buildConfig = createBuildConfigWithArchiveFileSets(jar,
+                Collections.emptyList(), Collections.singletonList("../evil.sh"));
+
+        assemblyManager.createDockerTarArchive("test/image:latest", createBuildContext(temporaryFolder.getRoot()),
+                buildConfig, logger);
+    }
+
+    private File createJar(String... entries) throws IOException {
+        File jar = new File(temporaryFolder.newFolder("target"), "app-1.0.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (String entry : entries) {
+                out.putNextEntry(new ZipEntry(entry));
+                out.write(entry.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private JKubeBuildConfiguration createBuildConfigWithArchiveFileSets(File archive, List<String> dependencies,
+                                                                         List<String> application) {
+        return new JKubeBuildConfiguration.Builder()
+                .from("openjdk:11")
+                .assembly(new JKubeAssemblyConfiguration.Builder()
+                        .assemblyDef(new JKubeProjectAssembly.Builder()
+                                .fileSet(new JKubeAssemblyFileSet.Builder()
+                                        .archive(archive.getAbsolutePath())
+                                        .includes(dependencies)
+                                        .outputDirectory(".")
+                                        .layer("dependencies")
+                                        .build())
+                                .fileSet(new JKubeAssemblyFileSet.Builder()
+                                        .archive(archive.getAbsolutePath())
+                                        .includes(application)
+                                        .outputDirectory(".")
+                                        .build())
+                                .build())
+                        .targetDir("/deployments")
+                        .build())
+                .build();
+    }
+
+    private JKubeBuildContext createBuildContext(File baseDirectory) {
+        return new JKubeBuildContext.Builder()
+                .project(new JKubeProject.Builder()
+                        .baseDirectory(baseDirectory)
+                        .buildDirectory(new File(baseDirectory, "target").getAbsolutePath())
+                        .artifactId("app")
+                        .version("1.0")
+                        .packaging("jar")
+                        .build())
+                .outputDirectory("target/docker")
+                .sourceDirectory("src/main/docker")
+                .build();
+    }
+
+    private JKubeBuildConfiguration createBuildConfigWithFileSet() {
+        return new JKubeBuildConfiguration.Builder()
+                .from("openjdk:11")
+                .assembly(new JKubeAssemblyConfiguration.Builder()
+                        .assemblyDef(new JKubeProjectAssembly.Builder()
+                                .fileSet(new JKubeAssemblyFileSet.Builder()
+                                        .directory("src/main/static")
+                                        .addInclude("index.html")
+                                        .build())
+                                .build())
+                        .targetDir("/maven")
+                        .build())
+                .build();
+    }
+
     private JKubeBuildConfiguration createBuildConfig() {
         return new JKubeBuildConfiguration.Builder()
                 .assembly(new JKubeAssemblyConfiguration.Builder()
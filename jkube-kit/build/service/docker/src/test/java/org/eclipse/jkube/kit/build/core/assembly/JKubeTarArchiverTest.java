@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.core.assembly;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.utils.IOUtils;
+import org.eclipse.jkube.kit.config.image.build.ArchiveCompression;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class JKubeTarArchiverTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testCreateTarBallOfDirectory() throws IOException {
+        // Given
+        File inputDirectory = temporaryFolder.newFolder("input");
+        byte[] largeContent = new byte[3 * 64 * 1024 + 17];
+        for (int i = 0; i < largeContent.length; i++) {
+            largeContent[i] = (byte) (i % 251);
+        }
+        writeFile(new File(inputDirectory, "maven/app.jar"), largeContent);
+        writeFile(new File(inputDirectory, "Dockerfile"), "FROM busybox".getBytes(StandardCharsets.UTF_8));
+        File outputFile = new File(temporaryFolder.getRoot(), "docker-build.tar");
+
+        // When
+        File result = new JKubeTarArchiver().createTarBallOfDirectory(outputFile, inputDirectory, ArchiveCompression.none);
+
+        // Then
+        Map<String, byte[]> entries = readTarEntries(Files.newInputStream(result.toPath()));
+        assertEquals(2, entries.size());
+        assertArrayEquals(largeContent, entries.get("maven/app.jar"));
+        assertArrayEquals("FROM busybox".getBytes(StandardCharsets.UTF_8), entries.get("Dockerfile"));
+    }
+
+    @Test
+    public void testCreateCompressedTarBallOfDirectory() throws IOException {
+        // Given
+        File inputDirectory = temporaryFolder.newFolder("input");
+        writeFile(new File(inputDirectory, "maven/app.jar"), "content".getBytes(StandardCharsets.UTF_8));
+        File outputFile = new File(temporaryFolder.getRoot(), "docker-build.tar.gz");
+
+        // When
+        File result = new JKubeTarArchiver().createTarBallOfDirectory(outputFile, inputDirectory, ArchiveCompression.gzip);
+
+        // Then
+        Map<String, byte[]> entries = readTarEntries(new GzipCompressorInputStream(Files.newInputStream(result.toPath()), true));
+        assertEquals(1, entries.size());
+        assertArrayEquals("content".getBytes(StandardCharsets.UTF_8), entries.get("maven/app.jar"));
+    }
+
+    @Test
+    public void testIncludedFilesAreArchivedFromTheirSource() throws IOException {
+        // Given
+        File inputDirectory = temporaryFolder.newFolder("input");
+        writeFile(new File(inputDirectory, "Dockerfile"), "FROM busybox".getBytes(StandardCharsets.UTF_8));
+        writeFile(new File(inputDirectory, "maven/existing.jar"), "staged".getBytes(StandardCharsets.UTF_8));
+        File artifact = new File(temporaryFolder.getRoot(), "target/app.jar");
+        writeFile(artifact, "artifact".getBytes(StandardCharsets.UTF_8));
+        File other = new File(temporaryFolder.getRoot(), "target/existing.jar");
+        writeFile(other, "other".getBytes(StandardCharsets.UTF_8));
+        JKubeTarArchiver archiver = new JKubeTarArchiver();
+        archiver.includeFile(artifact, "maven/app.jar");
+        archiver.includeFile(other, "maven/existing.jar");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        archiver.writeArchive(inputDirectory, out, ArchiveCompression.none);
+
+        // Then
+        Map<String, byte[]> entries = readTarEntries(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(3, entries.size());
+        assertArrayEquals("artifact".getBytes(StandardCharsets.UTF_8), entries.get("maven/app.jar"));
+        assertArrayEquals("staged".getBytes(StandardCharsets.UTF_8), entries.get("maven/existing.jar"));
+        assertFalse(new File(inputDirectory, "maven/app.jar").exists());
+    }
+
+    @Test
+    public void testReproducibleArchive() throws IOException {
+        // Given
+        Date timestamp = new Date(1580472000000L);
+        File firstInput = createReproducibleInput("first", "app.jar", "bin/run.sh");
+        File secondInput = createReproducibleInput("second", "bin/run.sh", "app.jar");
+        // Modification times before the timestamp are replaced as well
+        Files.setLastModifiedTime(new File(firstInput, "maven/app.jar").toPath(), FileTime.fromMillis(1000L));
+        Files.setLastModifiedTime(new File(secondInput, "maven/app.jar").toPath(), FileTime.fromMillis(2000L));
+
+        // When
+        byte[] first = createReproducibleArchive(firstInput, timestamp);
+        byte[] second = createReproducibleArchive(secondInput, timestamp);
+
+        // Then
+        assertArrayEquals(first, second);
+        List<TarArchiveEntry> entries = new ArrayList<>();
+        try (TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(
+                new GzipCompressorInputStream(new ByteArrayInputStream(second), true))) {
+            TarArchiveEntry entry;
+            while ((entry = tarArchiveInputStream.getNextTarEntry()) != null) {
+                entries.add(entry);
+            }
+        }
+        assertEquals(Arrays.asList("maven/app.jar", "maven/bin/run.sh"),
+                entries.stream().map(TarArchiveEntry::getName).collect(Collectors.toList()));
+        assertEquals(timestamp, entries.get(0).getModTime());
+        assertEquals(timestamp, entries.get(1).getModTime());
+        assertEquals(0640, entries.get(0).getMode() & 0777);
+        assertEquals(0755, entries.get(1).getMode() & 0777);
+        for (TarArchiveEntry entry : entries) {
+            assertEquals(0L, entry.getLongUserId());
+            assertEquals(0L, entry.getLongGroupId());
+            assertEquals("", entry.getUserName());
+            assertEquals("", entry.getGroupName());
+        }
+    }
+
+    private File createReproducibleInput(String name, String... files) throws IOException {
+        File inputDirectory = temporaryFolder.newFolder(name);
+        for (String file : files) {
+            writeFile(new File(inputDirectory, "maven/" + file), file.getBytes(StandardCharsets.UTF_8));
+        }
+        return inputDirectory;
+    }
+
+    private byte[] createReproducibleArchive(File inputDirectory, Date timestamp) throws IOException {
+        JKubeTarArchiver archiver = new JKubeTarArchiver();
+        archiver.setReproducibleTimestamp(timestamp);
+        archiver.setFilePermissions(new File(inputDirectory, "maven/app.jar"), "0640");
+        archiver.setFilePermissions(new File(inputDirectory, "maven/bin"), "0755");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        archiver.writeArchive(inputDirectory, out, ArchiveCompression.gzip);
+        return out.toByteArray();
+    }
+
+    private static void writeFile(File file, byte[] content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content);
+    }
+
+    private static Map<String, byte[]> readTarEntries(InputStream inputStream) throws IOException {
+        Map<String, byte[]> entries = new HashMap<>();
+        try (TarArchiveInputStream tarArchiveInputStream = new TarArchiveInputStream(inputStream)) {
+            TarArchiveEntry entry;
+            while ((entry = tarArchiveInputStream.getNextTarEntry()) != null) {
+                entries.put(entry.getName(), IOUtils.toByteArray(tarArchiveInputStream));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jkube.kit.build.core.JKubeBuildContext;
+import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.access.BuildOptions;
+import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
+import org.eclipse.jkube.kit.common.KitLogger;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuildServiceTest {
+
+    @Mocked
+    private DockerAccess docker;
+
+    @Mocked
+    private QueryService queryService;
+
+    @Mocked
+    private RegistryService registryService;
+
+    @Mocked
+    private ArchiveService archiveService;
+
+    @Mocked
+    private JKubeBuildContext params;
+
+    @Mocked
+    private KitLogger log;
+
+    @Test
+    public void testMultiPlatformBuildUsesSingleArchive() throws Exception {
+        File archive = new File("docker-build.tar");
+        ImageConfiguration imageConfig = new ImageConfiguration.Builder()
+                .name("jkube/app:1.0")
+                .buildConfig(new JKubeBuildConfiguration.Builder()
+                        .from("openjdk:11")
+                        .platforms(Arrays.asList("linux/amd64", "linux/arm64/v8"))
+                        .build())
+                .build();
+        new Expectations() {{
+            archiveService.createArchive(anyString, (JKubeBuildConfiguration) any, params, log);
+            result = archive;
+        }};
+
+        new BuildService(docker, queryService, registryService, archiveService, log)
+                .buildImage(imageConfig, params, false, true, false, Collections.emptyMap());
+
+        new Verifications() {{
+            archiveService.createArchive("jkube/app:1.0", (JKubeBuildConfiguration) any, params, log);
+            times = 1;
+            BuildOptions amd64;
+            docker.buildImage("jkube/app:1.0-linux-amd64", archive, amd64 = withCapture());
+            BuildOptions arm64;
+            docker.buildImage("jkube/app:1.0-linux-arm64-v8", archive, arm64 = withCapture());
+            assertEquals("linux/amd64", amd64.getOptions().get("platform"));
+            assertEquals("linux/arm64/v8", arm64.getOptions().get("platform"));
+            docker.tag("jkube/app:1.0-linux-amd64", "jkube/app:1.0", true);
+        }};
+    }
+
+    @Test
+    public void testPlatformImageName() {
+        assertEquals("jkube/app:1.0-linux-arm64", BuildService.getPlatformImageName("jkube/app:1.0", "linux/arm64"));
+        assertEquals("quay.io/jkube/app:latest-linux-amd64", BuildService.getPlatformImageName("quay.io/jkube/app", "linux/amd64"));
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DockerAccessFactoryTest {
+
+    private HttpServer server;
+    private AtomicInteger versionRequests;
+
+    @Before
+    public void setUp() throws IOException {
+        versionRequests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/version", exchange -> {
+            versionRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Api-Version", "1.40");
+            exchange.getResponseHeaders().add("Connection", "close");
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsDetectedOnce() {
+        DockerAccessFactory factory = new DockerAccessFactory();
+
+        createAndShutdown(factory, getDockerHost());
+        createAndShutdown(factory, getDockerHost());
+        assertEquals(1, versionRequests.get());
+
+        // A different host is detected on its own
+        createAndShutdown(factory, getDockerHost() + "/");
+        assertEquals(2, versionRequests.get());
+
+        factory.clearConnectionCache();
+        createAndShutdown(factory, getDockerHost());
+        assertEquals(3, versionRequests.get());
+    }
+
+    private String getDockerHost() {
+        return "tcp://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void createAndShutdown(DockerAccessFactory factory, String dockerHost) {
+        DockerAccess access = factory.createDockerAccess(new DockerAccessFactory.DockerAccessContext.Builder()
+            .dockerHost(dockerHost)
+            .skipMachine(true)
+            .projectProperties(new Properties())
+            .maxConnections(2)
+            .log(new KitLogger.StdoutLogger())
+            .build());
+        access.shutdown();
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentImagePullCacheTest {
+
+    private static final String DIGEST = "sha256:1234567890123456789012345678901234567890123456789012345678901234";
+
+    private static final long TWO_HOURS_AGO = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSharedBetweenInstances() throws IOException {
+        File file = new File(temporaryFolder.getRoot(), "cache/pull-cache.json");
+        new PersistentImagePullCache(file, 60).pulled("openjdk:11", "sha256:abc");
+
+        PersistentImagePullCache cache = new PersistentImagePullCache(file, 60);
+        assertEquals("sha256:abc", cache.getImageId("openjdk:11"));
+        assertNull(cache.getImageId("openjdk:8"));
+    }
+
+    @Test
+    public void testExpiredEntry() throws IOException {
+        File file = new File(temporaryFolder.getRoot(), "pull-cache.json");
+        PersistentImagePullCache cache = new PersistentImagePullCache(file, 60, () -> TWO_HOURS_AGO);
+        cache.pulled("openjdk:11", "sha256:abc");
+        cache.pulled("openjdk@" + DIGEST, "sha256:def");
+        assertEquals("sha256:abc", cache.getImageId("openjdk:11"));
+
+        cache = new PersistentImagePullCache(file, 60);
+
+        assertNull(cache.getImageId("openjdk:11"));
+        // Images referenced by digest expire as well
+        assertNull(cache.getImageId("openjdk@" + DIGEST));
+    }
+
+    @Test
+    public void testExpiredEntriesAreRemoved() throws IOException {
+        File file = new File(temporaryFolder.getRoot(), "pull-cache.json");
+        PersistentImagePullCache expiredCache = new PersistentImagePullCache(file, 60, () -> TWO_HOURS_AGO);
+        expiredCache.pulled("openjdk:8", "sha256:abc");
+        expiredCache.pulled("openjdk@" + DIGEST, "sha256:def");
+
+        new PersistentImagePullCache(file, 60).pulled("openjdk:11", "sha256:ghi");
+
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertFalse(content.contains("openjdk:8"));
+        assertFalse(content.contains(DIGEST));
+        assertTrue(content.contains("openjdk:11"));
+    }
+
+    @Test
+    public void testCorruptFileIsIgnored() throws IOException {
+        File file = temporaryFolder.newFile("pull-cache.json");
+        Files.write(file.toPath(), "{not json".getBytes(StandardCharsets.UTF_8));
+        PersistentImagePullCache cache = new PersistentImagePullCache(file, 60);
+
+        assertNull(cache.getImageId("openjdk:11"));
+        cache.pulled("openjdk:11", "sha256:abc");
+        assertEquals("sha256:abc", cache.getImageId("openjdk:11"));
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "pull-cache.json");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String image = "image-" + i + ":latest";
+                results.add(executor.submit(() -> {
+                    new PersistentImagePullCache(file, 60).pulled(image, "sha256:" + image.hashCode());
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PersistentImagePullCache cache = new PersistentImagePullCache(file, 60);
+        for (int i = 0; i < 20; i++) {
+            String image = "image-" + i + ":latest";
+            assertEquals("sha256:" + image.hashCode(), cache.getImageId(image));
+        }
+    }
+}
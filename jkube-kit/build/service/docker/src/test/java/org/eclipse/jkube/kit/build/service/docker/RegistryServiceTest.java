@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
+import org.eclipse.jkube.kit.build.service.docker.auth.AuthConfigFactory;
+import org.eclipse.jkube.kit.common.KitLogger;
+
+import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RegistryServiceTest {
+
+    @Mocked
+    private DockerAccess docker;
+
+    @Mocked
+    private AuthConfigFactory authConfigFactory;
+
+    @Mocked
+    private KitLogger log;
+
+    @Test
+    public void testPlatformImagesAreNotPushedWhenRegistryIsNotAccessible() throws Exception {
+        // Given
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ImageConfiguration imageConfig = new ImageConfiguration.Builder()
+                .name("localhost:" + port + "/jkube/app:1.0")
+                .buildConfig(new JKubeBuildConfiguration.Builder()
+                        .from("openjdk:11")
+                        .platforms(Arrays.asList("linux/amd64", "linux/arm64"))
+                        .build())
+                .build();
+        RegistryService.RegistryConfig registryConfig = new RegistryService.RegistryConfig.Builder()
+                .authConfigFactory(authConfigFactory)
+                .build();
+
+        // When
+        try {
+            new RegistryService(docker, log).pushImages(Collections.singletonList(imageConfig), 0, registryConfig, false);
+            fail("Exception expected");
+        } catch (IOException exp) {
+            // Then
+            assertTrue(exp.getMessage().startsWith("Cannot push localhost:" + port + "/jkube/app:1.0"));
+        }
+        new Verifications() {{
+            docker.pushImage(anyString, null, anyString, anyInt);
+            times = 0;
+        }};
+    }
+}
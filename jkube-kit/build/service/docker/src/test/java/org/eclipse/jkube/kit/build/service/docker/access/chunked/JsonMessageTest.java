@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access.chunked;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonMessageTest {
+
+    @Test
+    public void testProgressStream() throws IOException {
+        List<JsonMessage> messages = process(
+            "{\"status\":\"Pulling from library/openjdk\",\"id\":\"11\"}\r\n" +
+            "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":1024,\"total\":4096},\"progress\":\"[=>  ]\",\"id\":\"a1b2c3\"}\r\n" +
+            "{\"stream\":\"Step 1/2 : FROM openjdk:11\\n\"}");
+
+        assertEquals(3, messages.size());
+        assertEquals("11", messages.get(0).getId());
+        assertFalse(messages.get(0).hasProgressDetail());
+        assertTrue(messages.get(1).hasProgressDetail());
+        assertEquals("Downloading", messages.get(1).getStatus());
+        assertEquals("[=>  ]", messages.get(1).getProgress());
+        assertEquals("Step 1/2 : FROM openjdk:11\n", messages.get(2).getStream());
+        assertNull(messages.get(2).getStatus());
+    }
+
+    @Test
+    public void testError() throws IOException {
+        JsonMessage message = process("{\"errorDetail\":{\"code\":1,\"message\":\"manifest unknown\"},\"error\":\"pull failed\"}").get(0);
+
+        assertEquals("pull failed", message.getError());
+        assertEquals("manifest unknown", message.getErrorDetail());
+    }
+
+    @Test
+    public void testUnknownFieldsAreKept() throws IOException {
+        JsonMessage message = process("{\"aux\":{\"ID\":\"sha256:1234\"}}").get(0);
+
+        assertNull(message.getStatus());
+        assertEquals("{\"aux\":{\"ID\":\"sha256:1234\"}}", message.toString());
+    }
+
+    @Test
+    public void testUnknownFieldsOfKnownMessagesAreSkipped() throws IOException {
+        List<JsonMessage> messages = process(
+            "{\"status\":\"Extracting\",\"id\":\"a1b2c3\",\"aux\":{\"Size\":1024},\"extra\":[1,2]}\r\n" +
+            "{\"aux\":{\"ID\":\"sha256:1234\"},\"status\":\"Pushed\"}");
+
+        assertEquals("Extracting", messages.get(0).getStatus());
+        assertNull(messages.get(0).getOther());
+        assertEquals("Pushed", messages.get(1).getStatus());
+        assertNull(messages.get(1).getOther());
+    }
+
+    private static List<JsonMessage> process(String stream) throws IOException {
+        List<JsonMessage> ret = new ArrayList<>();
+        EntityStreamReaderUtil.processJsonStream(new EntityStreamReaderUtil.JsonEntityResponseHandler() {
+            @Override
+            public void process(JsonMessage toProcess) {
+                ret.add(toProcess);
+            }
+
+            @Override
+            public void start() { }
+
+            @Override
+            public void stop() { }
+        }, new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)));
+        return ret;
+    }
+}
@@ -15,22 +15,32 @@ package org.eclipse.jkube.kit.build.service.docker.access.hc;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.build.service.docker.access.ArchiveWriter;
 import org.eclipse.jkube.kit.build.service.docker.access.hc.util.ClientBuilder;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.config.image.build.ArchiveCompression;
+import mockit.Delegate;
 import mockit.Expectations;
 import mockit.Mocked;
+import org.apache.commons.io.IOUtils;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
 import org.junit.Before;
 import org.junit.Test;
 
 import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class DockerAccessWithHcClientTest {
 
@@ -55,6 +65,7 @@ public class DockerAccessWithHcClientTest {
     private String archiveFile;
     private String filename;
     private ArchiveCompression compression;
+    private String uploadedArchive;
 
 
     @Before
@@ -93,6 +104,39 @@ public class DockerAccessWithHcClientTest {
         thenImageWasNotPushed();
     }
 
+    @Test
+    public void testGetImageIdsWithSingleRequest() throws IOException {
+        List<String> urls = new ArrayList<>();
+        new Expectations() {{
+            mockDelegate.get(anyString, 200);
+            result = new Delegate<String>() {
+                String get(String url, int... statusCodes) {
+                    urls.add(url);
+                    return url.contains("/version") ? "{\"ApiVersion\":\"1.40\"}" :
+                        "[{\"Id\":\"sha256:1111111111\",\"RepoTags\":[\"openjdk:11\",\"openjdk:latest\"]}," +
+                        "{\"Id\":\"sha256:2222222222\",\"RepoTags\":[\"quay.io/jkube/app:1.0\"],\"RepoDigests\":null}]";
+                }
+            };
+        }};
+
+        Map<String, String> imageIds = client.getImageIds(Arrays.asList("docker.io/library/openjdk:11", "openjdk", "quay.io/jkube/app:1.0", "missing"));
+
+        assertEquals("sha256:11111", imageIds.get("docker.io/library/openjdk:11"));
+        assertEquals("sha256:11111", imageIds.get("openjdk"));
+        assertEquals("sha256:22222", imageIds.get("quay.io/jkube/app:1.0"));
+        assertTrue(imageIds.containsKey("missing"));
+        assertNull(imageIds.get("missing"));
+        assertEquals(1, urls.stream().filter(url -> url.contains("/images/json")).count());
+    }
+
+    @Test
+    public void testListedImageName() {
+        assertEquals("openjdk:latest", DockerAccessWithHcClient.getListedImageName("openjdk"));
+        assertEquals("openjdk:11", DockerAccessWithHcClient.getListedImageName("index.docker.io/library/openjdk:11"));
+        assertEquals("jkube/app:1.0", DockerAccessWithHcClient.getListedImageName("docker.io/jkube/app:1.0"));
+        assertEquals("localhost:5000/app:latest", DockerAccessWithHcClient.getListedImageName("localhost:5000/app"));
+    }
+
     @Test
     public void testLoadImage() {
         givenAnImageName("test");
@@ -128,6 +172,26 @@ public class DockerAccessWithHcClientTest {
         thenImageWasNotSaved();
     }
 
+    @Test
+    public void testBuildImageWithArchiveWriter() throws IOException {
+        givenAnImageName("test");
+        givenThePostReadsTheArchive();
+        whenBuildImage(outputStream -> outputStream.write("docker-build".getBytes(StandardCharsets.UTF_8)));
+        thenNoException();
+        assertEquals("docker-build", uploadedArchive);
+    }
+
+    @Test
+    public void testBuildImageWithFailingArchiveWriter() throws IOException {
+        givenAnImageName("test");
+        givenThePostReadsTheArchive();
+        whenBuildImage(outputStream -> {
+            outputStream.write("docker-".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Cannot read file");
+        });
+        thenImageWasNotBuilt();
+    }
+
     private void givenAnImageName(String imageName) {
         this.imageName = imageName;
     }
@@ -183,6 +247,19 @@ public class DockerAccessWithHcClientTest {
         }};
     }
 
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void givenThePostReadsTheArchive() throws IOException {
+        new Expectations() {{
+            mockDelegate.post(anyString, any, (ResponseHandler) any, 200);
+            result = new Delegate<Object>() {
+                Object post(String url, Object body, ResponseHandler handler, int... statusCodes) throws IOException {
+                    uploadedArchive = IOUtils.toString((InputStream) body, StandardCharsets.UTF_8);
+                    return null;
+                }
+            };
+        }};
+    }
+
     private void thenImageWasNotPushed() {
         assertNotNull(thrownException);
     }
@@ -206,6 +283,14 @@ public class DockerAccessWithHcClientTest {
         }
     }
 
+    private void whenBuildImage(ArchiveWriter archiveWriter) {
+        try {
+            client.buildImage(imageName, archiveWriter, null);
+        } catch (Exception e) {
+            thrownException = e;
+        }
+    }
+
     private void whenSaveImage() {
         try {
             client.saveImage(imageName, filename, compression);
@@ -226,5 +311,9 @@ public class DockerAccessWithHcClientTest {
         assertNotNull(thrownException);
     }
 
+    private void thenImageWasNotBuilt() {
+        assertNotNull(thrownException);
+    }
+
 
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.access.hc.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.eclipse.jkube.kit.build.service.docker.access.hc.http.HttpClientBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConnectionPoolMetricsTest {
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionIsKeptAlive() throws IOException {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+        try (CloseableHttpClient client = new HttpClientBuilder(null, 5).buildPooledClient(metrics)) {
+            for (int i = 0; i < 3; i++) {
+                EntityUtils.consume(client.execute(new HttpGet(getUrl())).getEntity());
+            }
+
+            assertEquals(3, metrics.getRequests());
+            assertEquals(1, metrics.getOpenedConnections());
+            assertEquals(1, metrics.getPeakLeased());
+            PoolStats stats = metrics.getPoolStats();
+            assertEquals(0, stats.getLeased());
+            assertEquals(1, stats.getAvailable());
+            assertEquals(5, stats.getMax());
+        }
+    }
+
+    @Test
+    public void testUnpooledClient() {
+        ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+        assertNull(metrics.getPoolStats());
+        assertEquals("0 requests on 0 connections, at most 0 in use", metrics.toString());
+    }
+
+    private String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/info";
+    }
+}
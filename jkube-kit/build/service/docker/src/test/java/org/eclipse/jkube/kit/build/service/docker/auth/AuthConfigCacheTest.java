@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AuthConfigCacheTest {
+
+    @Test
+    public void testResolvedOnlyOnce() throws Exception {
+        AuthConfigCache cache = new AuthConfigCache();
+        AtomicInteger calls = new AtomicInteger();
+        AuthConfigCache.Resolver resolver = expiry -> {
+            calls.incrementAndGet();
+            return new AuthConfig("user", "secret", null, null);
+        };
+
+        AuthConfig first = cache.get("key", resolver);
+        assertSame(first, cache.get("key", resolver));
+        assertEquals(1, calls.get());
+
+        cache.get("other", resolver);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testMissingCredentialsAreNotCached() throws Exception {
+        AuthConfigCache cache = new AuthConfigCache();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertNull(cache.get("key", expiry -> { calls.incrementAndGet(); return null; }));
+        AuthConfig found = cache.get("key", expiry -> { calls.incrementAndGet(); return new AuthConfig("user", "secret", null, null); });
+        assertEquals("user", found.getUsername());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testExpiredCredentialsAreResolvedAgain() throws Exception {
+        AuthConfigCache cache = new AuthConfigCache();
+        AtomicInteger calls = new AtomicInteger();
+        AuthConfigCache.Resolver resolver = expiry -> {
+            calls.incrementAndGet();
+            expiry.limit(new Date());
+            return new AuthConfig("AWS", "token", null, null);
+        };
+
+        cache.get("key", resolver);
+        cache.get("key", resolver);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testJwtExpiry() throws Exception {
+        long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 30;
+        String token = "eyJhbGciOiJSUzI1NiJ9." +
+            Base64.getUrlEncoder().withoutPadding().encodeToString(("{\"exp\":" + exp + "}").getBytes(StandardCharsets.UTF_8)) +
+            ".c2lnbmF0dXJl";
+        assertEquals(new Date(TimeUnit.SECONDS.toMillis(exp)), AuthConfigCache.getJwtExpiry(token));
+        assertNull(AuthConfigCache.getJwtExpiry("secret"));
+
+        // Expires within the safety margin, so it's not kept
+        AuthConfigCache cache = new AuthConfigCache();
+        AtomicInteger calls = new AtomicInteger();
+        AuthConfigCache.Resolver resolver = expiry -> {
+            calls.incrementAndGet();
+            return new AuthConfig("serviceaccount", token, null, null);
+        };
+        cache.get("key", resolver);
+        cache.get("key", resolver);
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.auth;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Collections;
+
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.common.KitLogger;
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class AuthConfigFactoryTest {
+
+    private static final String REGISTRY = "registry.example.com";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mocked
+    private KitLogger log;
+
+    private String userHome;
+
+    @Before
+    public void setUp() {
+        // The Docker configuration is looked up in the home directory only if DOCKER_CONFIG is not set
+        assumeTrue(System.getenv("DOCKER_CONFIG") == null);
+        userHome = System.getProperty("user.home");
+        System.setProperty("user.home", temporaryFolder.getRoot().getAbsolutePath());
+    }
+
+    @After
+    public void tearDown() {
+        if (userHome != null) {
+            System.setProperty("user.home", userHome);
+        }
+    }
+
+    @Test
+    public void testCachedCredentialsFollowDockerConfigChanges() throws Exception {
+        AuthConfigFactory factory = new AuthConfigFactory(log, new AuthConfigCache());
+
+        // Missing credentials are looked up again
+        assertNull(createAuthConfig(factory));
+        File dockerConfig = writeDockerConfig("first");
+        assertEquals("first", createAuthConfig(factory).getUsername());
+
+        writeDockerConfig("second");
+        assertTrue(dockerConfig.setLastModified(dockerConfig.lastModified() + 2000));
+        assertEquals("second", createAuthConfig(factory).getUsername());
+    }
+
+    private static AuthConfig createAuthConfig(AuthConfigFactory factory) throws Exception {
+        return factory.createAuthConfig(false, true, null, Collections.emptyList(), null, REGISTRY, password -> password);
+    }
+
+    private File writeDockerConfig(String user) throws IOException {
+        File dockerConfig = new File(temporaryFolder.getRoot(), ".docker/config.json");
+        Files.createDirectories(dockerConfig.getParentFile().toPath());
+        String auth = Base64.getEncoder().encodeToString((user + ":secret").getBytes(StandardCharsets.UTF_8));
+        Files.write(dockerConfig.toPath(),
+                ("{\"auths\":{\"" + REGISTRY + "\":{\"auth\":\"" + auth + "\"}}}").getBytes(StandardCharsets.UTF_8));
+        return dockerConfig;
+    }
+}
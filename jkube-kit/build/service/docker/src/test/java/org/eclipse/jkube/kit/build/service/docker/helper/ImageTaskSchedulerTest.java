@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.docker.helper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
+import org.eclipse.jkube.kit.common.KitLogger;
+
+import mockit.Mocked;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ImageTaskSchedulerTest {
+
+    @Mocked
+    private KitLogger log;
+
+    @Test
+    public void testSequentialInGivenOrder() throws Exception {
+        // Given
+        List<String> processed = new ArrayList<>();
+
+        // When
+        new ImageTaskScheduler(log, 1).run(Arrays.asList(image("app", "busybox"), image("sidecar", null)),
+                (image, imageLog) -> processed.add(image.getName()));
+
+        // Then
+        assertEquals(Arrays.asList("app", "sidecar"), processed);
+    }
+
+    @Test
+    public void testIndependentImagesRunAtTheSameTime() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(3);
+
+        // When
+        new ImageTaskScheduler(log, 3).run(Arrays.asList(image("app", null), image("sidecar", null), image("init", null)),
+                (image, imageLog) -> {
+                    started.countDown();
+                    // Only returns in time if all images are processed concurrently
+                    assertTrue(started.await(10, TimeUnit.SECONDS));
+                });
+
+        // Then
+        assertEquals(0, started.getCount());
+    }
+
+    @Test
+    public void testDependentImageWaitsForBaseImage() throws Exception {
+        // Given
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        new ImageTaskScheduler(log, 4).run(
+                Arrays.asList(image("app", "base"), image("base", "busybox"), image("other", "app")),
+                (image, imageLog) -> processed.add(image.getName()));
+
+        // Then
+        assertEquals(Arrays.asList("base", "app", "other"), processed);
+    }
+
+    @Test
+    public void testFailureStopsDependentImages() {
+        // Given
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        try {
+            new ImageTaskScheduler(log, 2).run(Arrays.asList(image("base", null), image("app", "base")),
+                    (image, imageLog) -> {
+                        processed.add(image.getName());
+                        throw new IOException("Build of " + image.getName() + " failed");
+                    });
+            fail("Exception expected");
+        } catch (Exception exp) {
+            // Then
+            assertTrue(exp instanceof IOException);
+            assertEquals("Build of base failed", exp.getMessage());
+            assertEquals(Collections.singletonList("base"), processed);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCyclicDependencies() throws Exception {
+        new ImageTaskScheduler(log, 2).run(Arrays.asList(image("a", "b"), image("b", "a")),
+                (image, imageLog) -> fail("No image should be processed"));
+    }
+
+    private static ImageConfiguration image(String name, String from) {
+        return new ImageConfiguration.Builder()
+                .name(name)
+                .buildConfig(new JKubeBuildConfiguration.Builder().from(from).build())
+                .build();
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.eclipse.jkube.kit.config.image.build.BuildConfiguration;
+import org.eclipse.jkube.kit.common.JsonFactory;
+import org.eclipse.jkube.kit.common.KitLogger;
+
+import mockit.Mocked;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OciBuildServiceTest {
+
+    @Mocked
+    private KitLogger log;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestRegistry registry;
+    private String baseLayerDigest;
+
+    @Before
+    public void setUp() throws IOException {
+        registry = new TestRegistry();
+        baseLayerDigest = pushBaseImage();
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void testBuildAndPush() throws IOException {
+        // Given
+        File archive = createBuildArchive(
+                "FROM " + registry.getRegistry() + "/base:1\n" +
+                "ENV JAVA_APP_DIR=/deployments GREETING=\"hello world\"\n" +
+                "LABEL org.label-schema.name=app\n" +
+                "EXPOSE 8080\n" +
+                "COPY maven-dependencies /deployments/\n" +
+                "COPY maven /deployments/\n" +
+                "ENTRYPOINT [\"java\",\"-jar\",\"/deployments/app.jar\"]\n");
+
+        // When
+        new OciBuildService(null, log).buildImage(registry.getRegistry() + "/app:1.0", null,
+                Collections.singletonList("latest"), archive, "Dockerfile", Collections.emptyMap());
+
+        // Then
+        TestRegistry.Manifest manifest = registry.getManifest("app", "1.0");
+        assertEquals(OciRegistryClient.DOCKER_MANIFEST_V2, manifest.mediaType);
+        assertArrayEquals(manifest.content, registry.getManifest("app", "latest").content);
+        JsonArray layers = toJson(manifest.content).getAsJsonArray("layers");
+        assertEquals(3, layers.size());
+        assertEquals(baseLayerDigest, layers.get(0).getAsJsonObject().get("digest").getAsString());
+        assertEquals(1, registry.getBlobMounts());
+
+        JsonObject config = toJson(registry.getBlob(toJson(manifest.content).getAsJsonObject("config").get("digest").getAsString()));
+        JsonObject containerConfig = config.getAsJsonObject("config");
+        assertEquals("[\"PATH=/bin\",\"JAVA_APP_DIR=/deployments\",\"GREETING=hello world\"]", containerConfig.get("Env").toString());
+        assertEquals("app", containerConfig.getAsJsonObject("Labels").get("org.label-schema.name").getAsString());
+        assertTrue(containerConfig.getAsJsonObject("ExposedPorts").has("8080/tcp"));
+        assertEquals("[\"java\",\"-jar\",\"/deployments/app.jar\"]", containerConfig.get("Entrypoint").toString());
+        assertFalse(containerConfig.has("Cmd"));
+        assertEquals(3, config.getAsJsonObject("rootfs").getAsJsonArray("diff_ids").size());
+
+        assertEquals(Collections.singletonList("deployments/lib.jar"), getEntryNames(layers.get(1)));
+        assertEquals(Collections.singletonList("deployments/app.jar"), getEntryNames(layers.get(2)));
+    }
+
+    @Test
+    public void testDirectoriesOfBaseImageAreKept() throws IOException {
+        // Given
+        File archive = createBuildArchive("FROM " + registry.getRegistry() + "/base:1\n" +
+                "COPY --chown=1000 maven /usr/local/bin/\n" +
+                "COPY --chown=1000:0 maven-dependencies /deployments/\n");
+
+        // When
+        new OciBuildService(null, log).buildImage(registry.getRegistry() + "/app:1.0", null, null, archive, "Dockerfile", null);
+
+        // Then
+        Map<String, TarArchiveEntry> files = new LinkedHashMap<>();
+        for (com.google.gson.JsonElement layer : toJson(registry.getManifest("app", "1.0").content).getAsJsonArray("layers")) {
+            for (TarArchiveEntry entry : getEntries(layer)) {
+                files.put(entry.getName(), entry);
+            }
+        }
+        assertEquals(0775, files.get("deployments/").getMode() & 07777);
+        assertEquals(0, files.get("deployments/").getLongUserId());
+        assertEquals(0, files.get("usr/").getLongUserId());
+        assertEquals(0, files.get("usr/local/bin/").getLongUserId());
+        assertEquals(1000, files.get("usr/local/bin/app.jar").getLongUserId());
+        assertEquals(1000, files.get("deployments/lib.jar").getLongUserId());
+    }
+
+    @Test
+    public void testBaseImageOfConfiguredPlatformIsUsed() throws IOException {
+        // Given
+        pushBaseImageIndex();
+        File archive = createBuildArchive("FROM " + registry.getRegistry() + "/base:multi\nCOPY maven /deployments/\n");
+        OciBuildService buildService = new OciBuildService(null, log);
+        buildService.setPlatform("linux/arm64");
+
+        // When
+        buildService.buildImage(registry.getRegistry() + "/app:1.0", null, null, archive, "Dockerfile", null);
+
+        // Then
+        JsonObject manifest = toJson(registry.getManifest("app", "1.0").content);
+        JsonObject config = toJson(registry.getBlob(manifest.getAsJsonObject("config").get("digest").getAsString()));
+        assertEquals("arm64", config.get("architecture").getAsString());
+    }
+
+    @Test
+    public void testSeveralPlatformsAreRejected() {
+        try {
+            // When
+            OciBuildService.getPlatform(new BuildConfiguration.Builder()
+                    .platforms(Arrays.asList("linux/amd64", "linux/arm64"))
+                    .build());
+            fail("Exception expected");
+        } catch (IOException exp) {
+            // Then
+            assertThat(exp.getMessage(), containsString("cannot be built without a Docker daemon"));
+        }
+    }
+
+    @Test
+    public void testUnchangedImageIsNotUploadedAgain() throws IOException {
+        // Given
+        File archive = createBuildArchive("FROM " + registry.getRegistry() + "/base:1\nCOPY maven /deployments/\n");
+        OciBuildService buildService = new OciBuildService(null, log);
+        buildService.setReproducibleTimestamp(new Date(0));
+        String digest = buildService.buildImage(registry.getRegistry() + "/app:1.0", null, null, archive, "Dockerfile", null);
+        int uploads = registry.getBlobUploads();
+
+        // When
+        String rebuiltDigest = buildService.buildImage(registry.getRegistry() + "/app:1.1", null, null, archive, "Dockerfile", null);
+
+        // Then
+        assertEquals(digest, rebuiltDigest);
+        assertEquals(uploads, registry.getBlobUploads());
+    }
+
+    @Test
+    public void testEqualLayersArePushedOnce() throws IOException {
+        // Given
+        File archive = createBuildArchive("FROM " + registry.getRegistry() + "/base:1\n" +
+                "COPY maven /deployments/\nCOPY maven /deployments/\n");
+        int uploads = registry.getBlobUploads();
+        OciBuildService buildService = new OciBuildService(null, log);
+        buildService.setRetries(1);
+        registry.failUploads(1);
+
+        // When
+        buildService.buildImage(registry.getRegistry() + "/app:1.0", null, null, archive, "Dockerfile", null);
+
+        // Then
+        JsonArray layers = toJson(registry.getManifest("app", "1.0").content).getAsJsonArray("layers");
+        assertEquals(3, layers.size());
+        assertEquals(layers.get(1), layers.get(2));
+        // Layer and config, the base layer is mounted
+        assertEquals(uploads + 2, registry.getBlobUploads());
+    }
+
+    @Test
+    public void testRunInstructionIsRejected() throws IOException {
+        // Given
+        File archive = createBuildArchive("FROM " + registry.getRegistry() + "/base:1\nRUN yum install -y java\n");
+
+        try {
+            // When
+            new OciBuildService(null, log).buildImage(registry.getRegistry() + "/app:1.0", null, null, archive, "Dockerfile", null);
+            fail("Exception expected");
+        } catch (IOException exp) {
+            // Then
+            assertThat(exp.getMessage(), containsString("RUN is not supported without a Docker daemon"));
+            assertEquals(null, registry.getManifest("app", "1.0"));
+        }
+    }
+
+    // Base image with the directories /deployments (group writable) and /usr/local/bin
+    private String pushBaseImage() throws IOException {
+        byte[] layer = createBaseLayer();
+        String layerDigest = OciRegistryClient.digest(layer);
+        pushBaseImage("1", "amd64", layer);
+        return layerDigest;
+    }
+
+    private String pushBaseImage(String tag, String architecture, byte[] layer) throws IOException {
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null)) {
+            String layerDigest = OciRegistryClient.digest(layer);
+            client.putBlob("base", layerDigest, layer);
+            byte[] config = ("{\"architecture\":\"" + architecture + "\",\"os\":\"linux\",\"config\":{\"Env\":[\"PATH=/bin\"],\"Cmd\":[\"sh\"]}," +
+                    "\"rootfs\":{\"type\":\"layers\",\"diff_ids\":[\"" + layerDigest + "\"]}}").getBytes(StandardCharsets.UTF_8);
+            String configDigest = OciRegistryClient.digest(config);
+            client.putBlob("base", configDigest, config);
+            String manifest = "{\"schemaVersion\":2,\"mediaType\":\"" + OciRegistryClient.DOCKER_MANIFEST_V2 + "\"," +
+                    "\"config\":{\"mediaType\":\"" + OciRegistryClient.DOCKER_CONFIG_V1 + "\",\"size\":" + config.length +
+                    ",\"digest\":\"" + configDigest + "\"},\"layers\":[{\"mediaType\":\"" + OciRegistryClient.DOCKER_LAYER_GZIP +
+                    "\",\"size\":" + layer.length + ",\"digest\":\"" + layerDigest + "\"}]}";
+            return client.putManifest("base", tag, OciRegistryClient.DOCKER_MANIFEST_V2, manifest.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void pushBaseImageIndex() throws IOException {
+        byte[] layer = createBaseLayer();
+        JsonArray manifests = new JsonArray();
+        for (String architecture : Arrays.asList("amd64", "arm64")) {
+            String digest = pushBaseImage(architecture, architecture, layer);
+            JsonObject entry = new JsonObject();
+            entry.addProperty("mediaType", OciRegistryClient.DOCKER_MANIFEST_V2);
+            entry.addProperty("digest", digest);
+            JsonObject platform = new JsonObject();
+            platform.addProperty("os", "linux");
+            platform.addProperty("architecture", architecture);
+            entry.add("platform", platform);
+            manifests.add(entry);
+        }
+        JsonObject index = new JsonObject();
+        index.addProperty("schemaVersion", 2);
+        index.addProperty("mediaType", OciRegistryClient.DOCKER_MANIFEST_LIST_V2);
+        index.add("manifests", manifests);
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null)) {
+            client.putManifest("base", "multi", OciRegistryClient.DOCKER_MANIFEST_LIST_V2,
+                    index.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] createBaseLayer() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(out))) {
+            for (String directory : Arrays.asList("deployments/", "usr/", "usr/local/", "usr/local/bin/")) {
+                TarArchiveEntry entry = new TarArchiveEntry(directory);
+                entry.setMode(TarArchiveEntry.DEFAULT_DIR_MODE & ~0777 | (directory.equals("deployments/") ? 0775 : 0755));
+                entry.setModTime(0);
+                entry.setIds(0, 0);
+                tar.putArchiveEntry(entry);
+                tar.closeArchiveEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private File createBuildArchive(String dockerfile) throws IOException {
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("Dockerfile", dockerfile);
+        files.put("maven/app.jar", "application");
+        files.put("maven-dependencies/lib.jar", "library");
+        File archive = temporaryFolder.newFile("docker-build.tar");
+        try (OutputStream out = Files.newOutputStream(archive.toPath());
+             TarArchiveOutputStream tar = new TarArchiveOutputStream(out)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                byte[] content = file.getValue().getBytes(StandardCharsets.UTF_8);
+                TarArchiveEntry entry = new TarArchiveEntry(file.getKey());
+                entry.setSize(content.length);
+                entry.setModTime(0);
+                tar.putArchiveEntry(entry);
+                tar.write(content);
+                tar.closeArchiveEntry();
+            }
+        }
+        return archive;
+    }
+
+    private List<String> getEntryNames(com.google.gson.JsonElement layer) throws IOException {
+        List<String> ret = new ArrayList<>();
+        for (TarArchiveEntry entry : getEntries(layer)) {
+            ret.add(entry.getName());
+        }
+        return ret;
+    }
+
+    private List<TarArchiveEntry> getEntries(com.google.gson.JsonElement layer) throws IOException {
+        byte[] blob = registry.getBlob(layer.getAsJsonObject().get("digest").getAsString());
+        List<TarArchiveEntry> ret = new ArrayList<>();
+        try (TarArchiveInputStream tar = new TarArchiveInputStream(new GzipCompressorInputStream(new ByteArrayInputStream(blob), true))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                ret.add(entry);
+            }
+        }
+        return ret;
+    }
+
+    private static JsonObject toJson(byte[] content) {
+        return JsonFactory.newJsonObject(new String(content, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OciDockerfileTest {
+
+    @Test
+    public void testParse() throws IOException {
+        OciDockerfile dockerfile = OciDockerfile.parse(
+                "ARG VERSION=1.0\n" +
+                "FROM base:$VERSION\n" +
+                "# Comment\n" +
+                "ARG VERSION\n" +
+                "ARG DIR\n" +
+                "ENV APP_DIR=${DIR:-/deployments} \\\n" +
+                "    GREETING=\"hello world\"\n" +
+                "WORKDIR $APP_DIR\n" +
+                "CMD [\"run\", \"$VERSION\"]\n",
+                Collections.singletonMap("VERSION", "2.0"));
+
+        assertEquals("base:2.0", dockerfile.getBaseImage());
+        List<OciDockerfile.Instruction> instructions = dockerfile.getInstructions();
+        assertEquals(3, instructions.size());
+        assertEquals("/deployments", instructions.get(0).getKeyValues().get("APP_DIR"));
+        assertEquals("hello world", instructions.get(0).getKeyValues().get("GREETING"));
+        assertEquals("/deployments", instructions.get(1).getArguments());
+        // CMD is interpreted within the container, no substitution
+        assertTrue(instructions.get(2).isExecForm());
+        assertEquals("[\"run\", \"$VERSION\"]", instructions.get(2).getArguments());
+    }
+
+    @Test
+    public void testLegacyEnv() throws IOException {
+        OciDockerfile dockerfile = OciDockerfile.parse("FROM base\nENV JAVA_OPTIONS -Xmx256m -Xms128m\n", Collections.emptyMap());
+
+        assertEquals(Collections.singletonMap("JAVA_OPTIONS", "-Xmx256m -Xms128m"),
+                dockerfile.getInstructions().get(0).getKeyValues());
+    }
+
+    @Test
+    public void testSplit() {
+        assertEquals(Arrays.asList("a b", "c'd", "e f"), OciDockerfile.split("\"a b\" c\\'d 'e f'"));
+    }
+
+    @Test
+    public void testMultiStageIsRejected() {
+        try {
+            OciDockerfile.parse("FROM builder AS build\nFROM base\n", Collections.emptyMap());
+            fail("Exception expected");
+        } catch (IOException exp) {
+            assertThat(exp.getMessage(), containsString("Multi-stage"));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jkube.kit.config.image.ImageName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OciRegistryClientTest {
+
+    private static final byte[] BLOB = "blob".getBytes(StandardCharsets.UTF_8);
+
+    private TestRegistry registry;
+
+    @Before
+    public void setUp() throws IOException {
+        registry = new TestRegistry();
+    }
+
+    @After
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    public void testFailedUploadIsRetried() throws IOException {
+        registry.failUploads(2);
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null, 2)) {
+            client.putBlob("app", OciRegistryClient.digest(BLOB), BLOB);
+
+            assertTrue(client.hasBlob("app", OciRegistryClient.digest(BLOB)));
+            assertEquals(1, registry.getBlobUploads());
+        }
+    }
+
+    @Test
+    public void testUploadFailsWhenRetriesAreExhausted() throws IOException {
+        registry.failUploads(2);
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null, 1)) {
+            client.putBlob("app", OciRegistryClient.digest(BLOB), BLOB);
+            fail("Exception expected");
+        } catch (OciRegistryClient.RegistryException exp) {
+            assertEquals(503, exp.getStatus());
+        }
+    }
+
+    @Test
+    public void testClientErrorIsNotRetried() throws IOException {
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null, 3)) {
+            client.putBlob("app", "sha256:0000", BLOB);
+            fail("Exception expected");
+        } catch (OciRegistryClient.RegistryException exp) {
+            assertEquals(400, exp.getStatus());
+            // Start and upload of a single attempt
+            assertEquals(2, registry.getRequests());
+        }
+    }
+
+    @Test
+    public void testTagUploadsManifestOnly() throws IOException {
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null)) {
+            byte[] manifest = "{\"schemaVersion\":2}".getBytes(StandardCharsets.UTF_8);
+            client.putManifest("app", "1.0", OciRegistryClient.OCI_MANIFEST_V1, manifest);
+            int requests = registry.getRequests();
+
+            client.tag("app", "1.0", "latest");
+
+            assertArrayEquals(manifest, registry.getManifest("app", "latest").content);
+            assertEquals(OciRegistryClient.OCI_MANIFEST_V1, registry.getManifest("app", "latest").mediaType);
+            assertEquals(requests + 2, registry.getRequests());
+        }
+    }
+
+    @Test
+    public void testCheckAccess() throws IOException {
+        try (OciRegistryClient client = new OciRegistryClient(registry.getRegistry(), null)) {
+            client.checkAccess("app");
+
+            assertEquals(1, registry.getRequests());
+        }
+    }
+
+    @Test
+    public void testCheckAccessFailsWhenRegistryIsDown() throws IOException {
+        String registryHost = registry.getRegistry();
+        registry.close();
+        try (OciRegistryClient client = new OciRegistryClient(registryHost, null)) {
+            client.checkAccess("app");
+            fail("Exception expected");
+        } catch (IOException exp) {
+            assertFalse(exp instanceof OciRegistryClient.RegistryException);
+        }
+    }
+
+    @Test
+    public void testRepositoryOfDockerHub() {
+        assertEquals(OciRegistryClient.DOCKER_HUB_REGISTRY, OciRegistryClient.getRegistryHost(null));
+        assertEquals(OciRegistryClient.DOCKER_HUB_REGISTRY, OciRegistryClient.getRegistryHost("docker.io"));
+        assertEquals("quay.io", OciRegistryClient.getRegistryHost("quay.io"));
+        assertEquals("library/openjdk", OciRegistryClient.getRepository(new ImageName("openjdk:11"), OciRegistryClient.DOCKER_HUB_REGISTRY));
+        assertEquals("jkube/app", OciRegistryClient.getRepository(new ImageName("jkube/app"), OciRegistryClient.DOCKER_HUB_REGISTRY));
+        assertEquals("openjdk", OciRegistryClient.getRepository(new ImageName("quay.io/openjdk"), "quay.io"));
+    }
+}
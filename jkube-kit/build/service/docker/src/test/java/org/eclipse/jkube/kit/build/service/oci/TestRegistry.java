@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.build.service.oci;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.compress.utils.IOUtils;
+
+/**
+ * Minimal in-memory registry implementing the parts of the distribution API used for pushing images, including
+ * the bearer token authentication flow.
+ */
+class TestRegistry implements AutoCloseable {
+
+    private static final String TOKEN = "test-token";
+
+    private final HttpServer server;
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> repositoryBlobs = new ConcurrentHashMap<>();
+    private final Map<String, Manifest> manifests = new ConcurrentHashMap<>();
+    private final AtomicInteger blobUploads = new AtomicInteger();
+    private final AtomicInteger blobMounts = new AtomicInteger();
+    private final AtomicInteger failingUploads = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    TestRegistry() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange -> respond(exchange, 200, "{\"token\":\"" + TOKEN + "\"}"));
+        server.createContext("/v2/", this::handle);
+        server.start();
+    }
+
+    String getRegistry() {
+        return "localhost:" + server.getAddress().getPort();
+    }
+
+    byte[] getBlob(String digest) {
+        return blobs.get(digest);
+    }
+
+    Manifest getManifest(String repository, String reference) {
+        return manifests.get(repository + ":" + reference);
+    }
+
+    int getBlobUploads() {
+        return blobUploads.get();
+    }
+
+    int getBlobMounts() {
+        return blobMounts.get();
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Let the next blob uploads fail with a server error
+     *
+     * @param count number of uploads to fail
+     */
+    void failUploads(int count) {
+        failingUploads.set(count);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (!("Bearer " + TOKEN).equals(authorization)) {
+                exchange.getResponseHeaders().add("WWW-Authenticate",
+                        "Bearer realm=\"http://" + getRegistry() + "/token\",service=\"test-registry\"");
+                respond(exchange, 401, "");
+                return;
+            }
+            requests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath().substring("/v2/".length());
+            String method = exchange.getRequestMethod();
+            int blobsIndex = path.lastIndexOf("/blobs/");
+            int manifestsIndex = path.lastIndexOf("/manifests/");
+            if (blobsIndex > 0) {
+                String repository = path.substring(0, blobsIndex);
+                String rest = path.substring(blobsIndex + "/blobs/".length());
+                if (rest.startsWith("uploads/")) {
+                    handleUpload(exchange, method, repository, rest.substring("uploads/".length()));
+                } else {
+                    handleBlob(exchange, method, repository, rest);
+                }
+            } else if (manifestsIndex > 0) {
+                handleManifest(exchange, method, path.substring(0, manifestsIndex),
+                        path.substring(manifestsIndex + "/manifests/".length()));
+            } else if (path.isEmpty() && method.equals("GET")) {
+                respond(exchange, 200, "{}");
+            } else {
+                respond(exchange, 404, "");
+            }
+        } catch (RuntimeException exp) {
+            respond(exchange, 500, exp.toString());
+        }
+    }
+
+    private void handleBlob(HttpExchange exchange, String method, String repository, String digest) throws IOException {
+        if (!repositoryBlobs.getOrDefault(repository, ConcurrentHashMap.newKeySet()).contains(digest)) {
+            respond(exchange, 404, "");
+        } else if (method.equals("HEAD")) {
+            respond(exchange, 200, "");
+        } else {
+            respond(exchange, 200, blobs.get(digest));
+        }
+    }
+
+    private void handleUpload(HttpExchange exchange, String method, String repository, String session) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        Map<String, String> parameters = new ConcurrentHashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                String[] keyValue = parameter.split("=", 2);
+                parameters.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+            }
+        }
+        if (method.equals("POST")) {
+            String mount = parameters.get("mount");
+            if (mount != null && repositoryBlobs.getOrDefault(parameters.get("from"), ConcurrentHashMap.newKeySet()).contains(mount)) {
+                addBlob(repository, mount);
+                blobMounts.incrementAndGet();
+                respond(exchange, 201, "");
+                return;
+            }
+            exchange.getResponseHeaders().add("Location", "/v2/" + repository + "/blobs/uploads/" + UUID.randomUUID());
+            respond(exchange, 202, "");
+        } else if (method.equals("PUT") && !session.isEmpty()) {
+            byte[] content = IOUtils.toByteArray(exchange.getRequestBody());
+            if (failingUploads.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                respond(exchange, 503, "");
+                return;
+            }
+            String digest = parameters.get("digest");
+            if (!OciRegistryClient.digest(content).equals(digest)) {
+                respond(exchange, 400, "{\"errors\":[{\"code\":\"DIGEST_INVALID\"}]}");
+                return;
+            }
+            blobs.put(digest, content);
+            addBlob(repository, digest);
+            blobUploads.incrementAndGet();
+            respond(exchange, 201, "");
+        } else {
+            respond(exchange, 405, "");
+        }
+    }
+
+    private void handleManifest(HttpExchange exchange, String method, String repository, String reference) throws IOException {
+        if (method.equals("PUT")) {
+            byte[] content = IOUtils.toByteArray(exchange.getRequestBody());
+            Manifest manifest = new Manifest(exchange.getRequestHeaders().getFirst("Content-Type"), content);
+            manifests.put(repository + ":" + reference, manifest);
+            manifests.put(repository + ":" + OciRegistryClient.digest(content), manifest);
+            respond(exchange, 201, "");
+        } else {
+            Manifest manifest = manifests.get(repository + ":" + reference);
+            if (manifest == null) {
+                respond(exchange, 404, "");
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", manifest.mediaType);
+            respond(exchange, 200, manifest.content);
+        }
+    }
+
+    private void addBlob(String repository, String digest) {
+        repositoryBlobs.computeIfAbsent(repository, key -> ConcurrentHashMap.newKeySet()).add(digest);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        // The JDK server doesn't reliably keep connections alive, so tell the client not to reuse them
+        exchange.getResponseHeaders().add("Connection", "close");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    static class Manifest {
+        final String mediaType;
+        final byte[] content;
+
+        Manifest(String mediaType, byte[] content) {
+            this.mediaType = mediaType;
+            this.content = content;
+        }
+    }
+}
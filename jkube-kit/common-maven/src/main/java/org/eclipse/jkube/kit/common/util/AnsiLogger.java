@@ -19,7 +19,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.apache.maven.plugin.logging.Log;
@@ -40,6 +42,8 @@ public class AnsiLogger implements KitLogger {
     // prefix used for console output
     public static final String DEFAULT_LOG_PREFIX = "DOCKER> ";
     private static final int NON_ANSI_UPDATE_PERIOD = 80;
+    // Minimal time between two renderings of the progress of a layer, as long as its status doesn't change
+    private static final long PROGRESS_RENDER_INTERVAL_MILLIS = 100;
 
     private final Log log;
     private final String prefix;
@@ -60,6 +64,10 @@ public class AnsiLogger implements KitLogger {
     // Map remembering lines
     private ThreadLocal<Map<String, Integer>> imageLines = new ThreadLocal<>();
     private ThreadLocal<AtomicInteger> updateCount = new ThreadLocal<>();
+    private ThreadLocal<Map<String, RenderedProgress>> renderedProgress = new ThreadLocal<>();
+    // Thread currently showing a progress bar. Progress of other threads is not shown at the same time,
+    // since their cursor movements would mix up the lines.
+    private final AtomicReference<Thread> progressThread = new AtomicReference<>();
 
     // Whether to use ANSI codes
     private boolean useAnsi;
@@ -128,21 +136,28 @@ public class AnsiLogger implements KitLogger {
     @Override
     public void progressStart() {
         // A progress indicator is always written out to standard out if a tty is enabled.
-        if (!batchMode && log.isInfoEnabled()) {
+        Thread current = Thread.currentThread();
+        if (!batchMode && log.isInfoEnabled() &&
+            (progressThread.compareAndSet(null, current) || progressThread.get() == current)) {
             imageLines.remove();
             updateCount.remove();
             imageLines.set(new HashMap<String, Integer>());
             updateCount.set(new AtomicInteger());
+            renderedProgress.set(new HashMap<>());
         }
     }
 
     /**
-     * Update the progress
+     * Update the progress. Updates of a layer coming in faster than the terminal can usefully show them are
+     * skipped, unless they change the status of the layer.
      */
     @Override
     public void progressUpdate(String layerId, String status, String progressMessage) {
-        if (!batchMode && log.isInfoEnabled() && StringUtils.isNotEmpty(layerId)) {
+        if (!batchMode && log.isInfoEnabled() && StringUtils.isNotEmpty(layerId) && imageLines.get() != null) {
             if (useAnsi) {
+                if (!shouldRenderProgress(layerId, status)) {
+                    return;
+                }
                 updateAnsiProgress(layerId, status, progressMessage);
             } else {
                 updateNonAnsiProgress();
@@ -151,6 +166,20 @@ public class AnsiLogger implements KitLogger {
         }
     }
 
+    private boolean shouldRenderProgress(String layerId, String status) {
+        Map<String, RenderedProgress> rendered = renderedProgress.get();
+        if (rendered == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        RenderedProgress last = rendered.get(layerId);
+        if (last != null && Objects.equals(last.status, status) && now - last.time < PROGRESS_RENDER_INTERVAL_MILLIS) {
+            return false;
+        }
+        rendered.put(layerId, new RenderedProgress(status, now));
+        return true;
+    }
+
     private void updateAnsiProgress(String imageId, String status, String progressMessage) {
         Map<String,Integer> imgLineMap = imageLines.get();
         Integer line = imgLineMap.get(imageId);
@@ -200,8 +229,9 @@ public class AnsiLogger implements KitLogger {
      */
     @Override
     public void progressFinished() {
-        if (!batchMode && log.isInfoEnabled()) {
+        if (!batchMode && log.isInfoEnabled() && progressThread.compareAndSet(Thread.currentThread(), null)) {
             imageLines.remove();
+            renderedProgress.remove();
             print(ansi().reset().toString());
             if (!useAnsi) {
                 println("");
@@ -343,4 +373,14 @@ public class AnsiLogger implements KitLogger {
         }
         return ret;
     }
+
+    private static class RenderedProgress {
+        private final String status;
+        private final long time;
+
+        private RenderedProgress(String status, long time) {
+            this.status = status;
+            this.time = time;
+        }
+    }
 }
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.common.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Fingerprint (SHA-256) of the input of a resource generation, so that the generated resources can be reused
+ * as long as the input doesn't change.
+ *
+ * Files can be added either with their content or, where this would be too expensive (like compiled classes or
+ * artifacts), with their path, size and modification time only.
+ */
+public class ResourceFingerprint {
+
+    private static final String KEY_FINGERPRINT = "fingerprint";
+    private static final String KEY_FILE = "file";
+
+    private final MessageDigest digest;
+
+    public ResourceFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exp) {
+            throw new IllegalStateException("SHA-256 not available", exp);
+        }
+    }
+
+    /**
+     * Add a single value
+     *
+     * @param name name of the value, to distinguish it from other values
+     * @param value the value, can be null
+     * @return this fingerprint
+     */
+    public ResourceFingerprint add(String name, Object value) {
+        update(name);
+        update(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Add all entries of a map, independent of their order
+     *
+     * @param name name of the map
+     * @param values entries to add, can be null
+     * @return this fingerprint
+     */
+    public ResourceFingerprint addAll(String name, Map<?, ?> values) {
+        update(name);
+        if (values != null) {
+            Map<String, String> sorted = new TreeMap<>();
+            values.forEach((key, value) -> sorted.put(String.valueOf(key), String.valueOf(value)));
+            sorted.forEach(this::add);
+        }
+        return this;
+    }
+
+    /**
+     * Add the content of a file or of all files within a directory
+     *
+     * @param file file or directory, which might not exist
+     * @return this fingerprint
+     * @throws IOException if a file cannot be read
+     */
+    public ResourceFingerprint addContent(File file) throws IOException {
+        update(file.getPath());
+        if (file.isDirectory()) {
+            for (File child : listSorted(file)) {
+                addContent(child);
+            }
+        } else if (file.isFile()) {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = new FileInputStream(file)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add path, size and modification time of a file
+     *
+     * @param file the file, which might not exist
+     * @return this fingerprint
+     */
+    public ResourceFingerprint addState(File file) {
+        update(file.getPath());
+        if (file.isFile()) {
+            update(file.length() + ":" + file.lastModified());
+        }
+        return this;
+    }
+
+    /**
+     * Add all files of an output directory. Class files are added with their size and modification time only,
+     * since they are many and only rewritten when they change. All other files (like configuration files, which
+     * are rewritten by resource filtering in every build) are added with their content.
+     *
+     * @param dir the directory, which might not exist
+     * @param excluded files or directories to skip
+     * @return this fingerprint
+     * @throws IOException if a file cannot be read
+     */
+    public ResourceFingerprint addOutputDirectory(File dir, File... excluded) throws IOException {
+        Set<Path> excludedPaths = new HashSet<>();
+        for (File file : excluded) {
+            excludedPaths.add(file.getAbsoluteFile().toPath().normalize());
+        }
+        addOutputFile(dir, excludedPaths);
+        return this;
+    }
+
+    /**
+     * Add the coordinates, properties, dependencies and plugin configurations of a project as well as the
+     * user properties of the session
+     *
+     * @param project the project
+     * @param session the session, can be null
+     * @return this fingerprint
+     */
+    public ResourceFingerprint addProject(MavenProject project, MavenSession session) {
+        add("project", project.getGroupId() + ":" + project.getArtifactId() + ":" + project.getVersion() + ":" + project.getPackaging());
+        addAll("properties", project.getProperties());
+        if (session != null) {
+            addAll("userProperties", session.getUserProperties());
+        }
+        if (project.getArtifacts() != null) {
+            for (Artifact artifact : project.getArtifacts()) {
+                add("artifact", artifact.getId());
+                // Snapshots can change without changing their version
+                if (artifact.isSnapshot() && artifact.getFile() != null) {
+                    addState(artifact.getFile());
+                }
+            }
+        }
+        if (project.getBuildPlugins() != null) {
+            for (Plugin plugin : project.getBuildPlugins()) {
+                add("plugin", plugin.getKey() + ":" + plugin.getVersion() + ":" + getConfiguration(plugin));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Get the configuration of a plugin along with the configuration of all its executions
+     *
+     * @param plugin the plugin
+     * @return the configuration as string
+     */
+    public static String getConfiguration(Plugin plugin) {
+        StringBuilder ret = new StringBuilder(String.valueOf(plugin.getConfiguration()));
+        for (PluginExecution execution : plugin.getExecutions()) {
+            ret.append("\nexecution ").append(execution.getId()).append(':').append(execution.getPhase())
+                    .append(':').append(execution.getGoals()).append(':').append(execution.getConfiguration());
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Add the commit checked out in the git repository containing the given directory, if any
+     *
+     * @param basedir directory within the repository
+     * @return this fingerprint
+     * @throws IOException if the repository cannot be read
+     */
+    public ResourceFingerprint addGitHead(File basedir) throws IOException {
+        File gitFolder = GitUtil.findGitFolder(basedir);
+        if (gitFolder == null) {
+            return this;
+        }
+        File head = new File(gitFolder, "HEAD");
+        addContent(head);
+        if (head.isFile()) {
+            String content = new String(Files.readAllBytes(head.toPath()), StandardCharsets.UTF_8).trim();
+            if (content.startsWith("ref: ")) {
+                addContent(new File(gitFolder, content.substring("ref: ".length())));
+            }
+        }
+        addContent(new File(gitFolder, "packed-refs"));
+        return addContent(new File(gitFolder, "config"));
+    }
+
+    /**
+     * @return the fingerprint as hex string
+     */
+    public String get() {
+        StringBuilder ret = new StringBuilder();
+        for (byte b : digest.digest()) {
+            ret.append(String.format("%02x", b));
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Get the file created for a fingerprint earlier
+     *
+     * @param fingerprintFile file the fingerprint has been stored in
+     * @param fingerprint the current fingerprint
+     * @return the file stored along with the fingerprint, or null if the fingerprint differs or the file
+     * doesn't exist anymore
+     */
+    public static File getStoredFile(File fingerprintFile, String fingerprint) {
+        if (!fingerprintFile.isFile()) {
+            return null;
+        }
+        Properties stored = new Properties();
+        try (InputStream in = new FileInputStream(fingerprintFile)) {
+            stored.load(in);
+        } catch (IOException exp) {
+            return null;
+        }
+        String file = stored.getProperty(KEY_FILE);
+        if (!fingerprint.equals(stored.getProperty(KEY_FINGERPRINT)) || file == null || !new File(file).isFile()) {
+            return null;
+        }
+        return new File(file);
+    }
+
+    /**
+     * Store a fingerprint along with the file created for it
+     *
+     * @param fingerprintFile file to store the fingerprint in
+     * @param fingerprint the fingerprint
+     * @param file the file created
+     * @throws IOException if the fingerprint cannot be written
+     */
+    public static void store(File fingerprintFile, String fingerprint, File file) throws IOException {
+        Files.createDirectories(fingerprintFile.getAbsoluteFile().getParentFile().toPath());
+        Properties stored = new Properties();
+        stored.setProperty(KEY_FINGERPRINT, fingerprint);
+        stored.setProperty(KEY_FILE, file.getAbsolutePath());
+        try (OutputStream out = new FileOutputStream(fingerprintFile)) {
+            stored.store(out, null);
+        }
+    }
+
+    /**
+     * Remove a stored fingerprint, so that it doesn't match anymore
+     *
+     * @param fingerprintFile file the fingerprint is stored in
+     * @throws IOException if the file cannot be deleted
+     */
+    public static void clear(File fingerprintFile) throws IOException {
+        Files.deleteIfExists(fingerprintFile.toPath());
+    }
+
+    // ==========================================================================================
+
+    private void addOutputFile(File file, Set<Path> excluded) throws IOException {
+        if (excluded.contains(file.getAbsoluteFile().toPath().normalize())) {
+            return;
+        }
+        // Only files count, so that the parents of excluded directories don't change the fingerprint
+        if (file.isDirectory()) {
+            for (File child : listSorted(file)) {
+                addOutputFile(child, excluded);
+            }
+        } else if (file.getName().endsWith(".class")) {
+            addState(file);
+        } else {
+            addContent(file);
+        }
+    }
+
+    // Values are separated by a character which can't be part of them
+    private void update(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static File[] listSorted(File dir) {
+        File[] ret = dir.listFiles();
+        if (ret == null) {
+            return new File[0];
+        }
+        Arrays.sort(ret);
+        return ret;
+    }
+}
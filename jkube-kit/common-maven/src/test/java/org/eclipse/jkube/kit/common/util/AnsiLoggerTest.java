@@ -14,6 +14,11 @@
 package org.eclipse.jkube.kit.common.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.apache.maven.monitor.logging.DefaultLog;
@@ -219,6 +224,53 @@ public class AnsiLoggerTest {
                 testLog.getMessage());
     }
 
+    @Test
+    public void progressUpdatesAreThrottled() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            AnsiLogger logger = new AnsiLogger(new TestLog(), true, null, false, "T>");
+            logger.progressStart();
+            logger.progressUpdate("layer", "Downloading", "[=>   ]");
+            logger.progressUpdate("layer", "Downloading", "[==>  ]");
+            logger.progressUpdate("layer", "Download complete", "");
+            logger.progressFinished();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String printed = out.toString();
+        assertTrue(printed.contains("[=>   ]"));
+        assertFalse(printed.contains("[==>  ]"));
+        assertTrue(printed.contains("Download complete"));
+    }
+
+    @Test
+    public void progressOfOtherThreadsIsNotShownAtTheSameTime() throws InterruptedException {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            AnsiLogger logger = new AnsiLogger(new TestLog(), true, null, false, "T>");
+            logger.progressStart();
+            Thread other = new Thread(() -> {
+                logger.progressStart();
+                logger.progressUpdate("other", "Downloading", "[=>   ]");
+                logger.progressFinished();
+            });
+            other.start();
+            other.join();
+            logger.progressUpdate("layer", "Downloading", "[==>  ]");
+            logger.progressFinished();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String printed = out.toString();
+        assertFalse(printed.contains("other"));
+        assertTrue(printed.contains("[==>  ]"));
+    }
 
     private class TestLog extends DefaultLog {
         private String message;
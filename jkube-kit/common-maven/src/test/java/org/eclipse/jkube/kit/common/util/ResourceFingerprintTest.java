@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.common.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResourceFingerprintTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testContentChangesFingerprint() throws IOException {
+        File dir = temporaryFolder.newFolder("fragments");
+        File fragment = write(new File(dir, "deployment.yml"), "replicas: 1");
+        String before = new ResourceFingerprint().add("mode", "kubernetes").addContent(dir).get();
+
+        assertEquals(before, new ResourceFingerprint().add("mode", "kubernetes").addContent(dir).get());
+        write(fragment, "replicas: 2");
+        assertNotEquals(before, new ResourceFingerprint().add("mode", "kubernetes").addContent(dir).get());
+    }
+
+    @Test
+    public void testExcludedDirectoryIsIgnored() throws IOException {
+        File outputDir = temporaryFolder.newFolder("classes");
+        File targetDir = new File(outputDir, "META-INF/jkube");
+        write(new File(outputDir, "application.properties"), "server.port=8080");
+        String before = new ResourceFingerprint().addOutputDirectory(outputDir, targetDir).get();
+
+        write(new File(targetDir, "kubernetes.yml"), "kind: List");
+
+        assertEquals(before, new ResourceFingerprint().addOutputDirectory(outputDir, targetDir).get());
+    }
+
+    @Test
+    public void testExecutionConfigurationChangesFingerprint() {
+        Plugin plugin = new Plugin();
+        plugin.setArtifactId("kubernetes-maven-plugin");
+        PluginExecution execution = new PluginExecution();
+        execution.setId("resource");
+        execution.setGoals(Collections.singletonList("resource"));
+        execution.setConfiguration(configuration("replicas", "1"));
+        plugin.addExecution(execution);
+        String before = ResourceFingerprint.getConfiguration(plugin);
+
+        execution.setConfiguration(configuration("replicas", "2"));
+
+        assertNotEquals(before, ResourceFingerprint.getConfiguration(plugin));
+        assertTrue(ResourceFingerprint.getConfiguration(plugin).contains("<replicas>2</replicas>"));
+    }
+
+    @Test
+    public void testStoredFile() throws IOException {
+        File fingerprintFile = new File(temporaryFolder.getRoot(), "jkube/resource.fingerprint");
+        File resources = write(temporaryFolder.newFile("kubernetes.yml"), "kind: List");
+
+        ResourceFingerprint.store(fingerprintFile, "1234", resources);
+
+        assertEquals(resources, ResourceFingerprint.getStoredFile(fingerprintFile, "1234"));
+        assertNull(ResourceFingerprint.getStoredFile(fingerprintFile, "5678"));
+        ResourceFingerprint.clear(fingerprintFile);
+        assertNull(ResourceFingerprint.getStoredFile(fingerprintFile, "1234"));
+    }
+
+    private static Xpp3Dom configuration(String name, String value) {
+        Xpp3Dom child = new Xpp3Dom(name);
+        child.setValue(value);
+        Xpp3Dom ret = new Xpp3Dom("configuration");
+        ret.addChild(child);
+        return ret;
+    }
+
+    private static File write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -19,6 +19,7 @@ public class JKubeAssemblyFile implements Serializable {
     private String source;
     private String outputDirectory;
     private Boolean filtered;
+    private String layer;
 
     public String getSource() {
         return source;
@@ -43,4 +44,12 @@ public class JKubeAssemblyFile implements Serializable {
     public void setFiltered(Boolean filtered) {
         this.filtered = filtered;
     }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public void setLayer(String layer) {
+        this.layer = layer;
+    }
 }
@@ -24,6 +24,9 @@ public class JKubeAssemblyFileSet implements Serializable {
     private List<String> includes;
     private List<String> exludes;
     private String fileMode;
+    private String layer;
+    // Archive (like a jar) to unpack the included entries from, instead of copying them from the directory
+    private String archive;
 
     public String getDirectory() {
         return directory;
@@ -65,6 +68,22 @@ public class JKubeAssemblyFileSet implements Serializable {
         this.fileMode = fileMode;
     }
 
+    public String getLayer() {
+        return layer;
+    }
+
+    public void setLayer(String layer) {
+        this.layer = layer;
+    }
+
+    public String getArchive() {
+        return archive;
+    }
+
+    public void setArchive(String archive) {
+        this.archive = archive;
+    }
+
     public void setExludes(List<String> items) {
         this.exludes = items;
     }
@@ -146,6 +165,16 @@ public class JKubeAssemblyFileSet implements Serializable {
             return this;
         }
 
+        public Builder layer(String layer) {
+            this.jkubeAssemblyFileSet.layer = layer;
+            return this;
+        }
+
+        public Builder archive(String archive) {
+            this.jkubeAssemblyFileSet.archive = archive;
+            return this;
+        }
+
         public JKubeAssemblyFileSet build() {
             return jkubeAssemblyFileSet;
         }
@@ -20,6 +20,8 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -27,6 +29,8 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -441,6 +445,46 @@ public class EnvUtil {
         }
     }
 
+    /**
+     * Get the timestamp to use for reproducible archives. This is the given output timestamp if set, otherwise
+     * the time of the latest git commit of the given directory or, if not within a git repository, the start of
+     * the epoch.
+     *
+     * @param outputTimestamp timestamp in the format of Maven's <code>project.build.outputTimestamp</code>,
+     *                        i.e. either seconds since the epoch or an ISO-8601 date time with offset. Can be null.
+     * @param baseDir directory to look up the git repository for
+     * @return the timestamp to use
+     * @throws IOException if the git repository cannot be read
+     */
+    public static Date getReproducibleTimestamp(String outputTimestamp, File baseDir) throws IOException {
+        Date ret = parseOutputTimestamp(outputTimestamp);
+        if (ret == null) {
+            try (Repository repository = GitUtil.getGitRepository(baseDir)) {
+                ret = GitUtil.getGitCommitTime(repository);
+            } catch (GitAPIException e) {
+                throw new IOException("Cannot read the time of the latest git commit: " + e.getMessage(), e);
+            }
+        }
+        return ret != null ? ret : new Date(0);
+    }
+
+    static Date parseOutputTimestamp(String outputTimestamp) {
+        // Like Maven, a single character (as when the property is used to disable reproducible builds) is ignored
+        if (outputTimestamp == null || outputTimestamp.trim().length() < 2) {
+            return null;
+        }
+        String timestamp = outputTimestamp.trim();
+        try {
+            if (StringUtils.isNumeric(timestamp)) {
+                return new Date(SECONDS.toMillis(Long.parseLong(timestamp)));
+            }
+            return Date.from(OffsetDateTime.parse(timestamp).toInstant());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid output timestamp '" + outputTimestamp +
+                    "': Must be either seconds since the epoch or an ISO-8601 date time like 2020-01-31T12:00:00Z", e);
+        }
+    }
+
     public static boolean isWindows() {
         return System.getProperty("os.name").toLowerCase().contains("windows");
     }
@@ -325,6 +325,31 @@ public class FileUtil {
         });
     }
 
+    /**
+     * Make the content of a file available at another location without copying it if possible. A hard link is
+     * created if the file system supports it, otherwise the file is copied. An existing target is replaced.
+     *
+     * As the target may share its content with the source, the target must not be modified in place. It can be
+     * deleted or replaced though.
+     *
+     * @param sourceFile file to link
+     * @param targetFile link to create
+     * @throws IOException if neither a link nor a copy can be created
+     */
+    public static void linkOrCopy(File sourceFile, File targetFile) throws IOException {
+        linkOrCopy(Paths.get(sourceFile.getAbsolutePath()), Paths.get(targetFile.getAbsolutePath()));
+    }
+
+    public static void linkOrCopy(Path sourcePath, Path targetPath) throws IOException {
+        Files.deleteIfExists(targetPath);
+        try {
+            Files.createLink(targetPath, sourcePath);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            // E.g. different file stores or file systems without hard links
+            Files.copy(sourcePath, targetPath, REPLACE_EXISTING);
+        }
+    }
+
     private static boolean isDirEmpty(final Path directory) throws IOException {
         try(DirectoryStream<Path> dirStream = Files.newDirectoryStream(directory)) {
             return !dirStream.iterator().hasNext();
@@ -15,9 +15,12 @@ package org.eclipse.jkube.kit.common.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.NoHeadException;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
@@ -73,4 +76,24 @@ public class GitUtil {
         }
         return null;
     }
+
+    /**
+     * Get the commit time of the HEAD commit
+     *
+     * @param repository repository to read from. Can be null.
+     * @return time of the HEAD commit or null if there is no repository or no commit yet
+     * @throws GitAPIException if the log of the repository cannot be read
+     */
+    public static Date getGitCommitTime(Repository repository) throws GitAPIException {
+        if (repository != null) {
+            try (Git git = new Git(repository)) {
+                for (RevCommit rev : git.log().setMaxCount(1).call()) {
+                    return new Date(TimeUnit.SECONDS.toMillis(rev.getCommitTime()));
+                }
+            } catch (NoHeadException e) {
+                // Repository without any commit
+            }
+        }
+        return null;
+    }
 }
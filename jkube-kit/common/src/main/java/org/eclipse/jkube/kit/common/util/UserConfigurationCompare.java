@@ -22,8 +22,12 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,6 +43,18 @@ public class UserConfigurationCompare {
 
     protected static final Set<String> ignoredProperties = new HashSet<>(Collections.singletonList("status"));
 
+    // Marks classes whose properties can't be read
+    private static final PropertyReader[] UNREADABLE = new PropertyReader[0];
+
+    // Readers of the properties to compare (i.e. without the ignored ones) per class. Introspection and the lookup
+    // of the read methods happen only once per class, not for every comparison.
+    private static final ClassValue<PropertyReader[]> PROPERTY_READERS = new ClassValue<PropertyReader[]>() {
+        @Override
+        protected PropertyReader[] computeValue(Class<?> type) {
+            return createPropertyReaders(type);
+        }
+    };
+
     /**
      * This method detects if the user has changed the configuration of an entity.
      *
@@ -123,43 +139,51 @@ public class UserConfigurationCompare {
      * @return returns boolean value indicating equality or not.
      */
     protected static boolean configEqualKubernetesDTO(@NotNull Object entity1, @NotNull Object entity2, @NotNull Class<?> clazz) {
-        // lets iterate through the objects making sure we've not
-        BeanInfo beanInfo = null;
-        try {
-            beanInfo = Introspector.getBeanInfo(clazz);
-        } catch (IntrospectionException e) {
-            LOG.warn("Failed to get beanInfo for " + clazz.getName() + ". " + e, e);
+        PropertyReader[] readers = PROPERTY_READERS.get(clazz);
+        if (readers == UNREADABLE) {
             return false;
         }
-        try {
-            PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-            for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-                String name = propertyDescriptor.getName();
-                if (ignoredProperties.contains(name)) {
-                    continue;
-                }
-                Method readMethod = propertyDescriptor.getReadMethod();
-                if (readMethod != null) {
-                    Object value1 = invokeMethod(entity1, readMethod);
-                    Object value2 = invokeMethod(entity2, readMethod);
-                    if (value1 != null && value2 != null && !configEqual(value1, value2)) {
-                        return false;
-                    }
-                }
+        for (PropertyReader reader : readers) {
+            Object value1;
+            Object value2;
+            try {
+                value1 = reader.read(entity1);
+                value2 = reader.read(entity2);
+            } catch (Exception e) {
+                LOG.warn("Failed to read property " + reader.name + " of " + clazz.getName() + ". " + e, e);
+                return false;
+            }
+            if (value1 != null && value2 != null && !configEqual(value1, value2)) {
+                return false;
             }
-            return true;
-        } catch (Exception e) {
-            return false;
         }
+        return true;
     }
 
-    protected static Object invokeMethod(@NotNull Object entity, Method readMethod) throws InvocationTargetException, IllegalAccessException {
+    private static PropertyReader[] createPropertyReaders(Class<?> clazz) {
+        BeanInfo beanInfo;
         try {
-            return readMethod.invoke(entity);
-        } catch (Exception e) {
-            LOG.warn("Failed to invoke method " + readMethod + " on " + entity + ". " + e, e);
-            throw e;
+            beanInfo = Introspector.getBeanInfo(clazz);
+        } catch (IntrospectionException e) {
+            LOG.warn("Failed to get beanInfo for " + clazz.getName() + ". " + e, e);
+            return UNREADABLE;
+        }
+        List<PropertyReader> ret = new ArrayList<>();
+        for (PropertyDescriptor propertyDescriptor : beanInfo.getPropertyDescriptors()) {
+            Method readMethod = propertyDescriptor.getReadMethod();
+            if (readMethod == null || ignoredProperties.contains(propertyDescriptor.getName())) {
+                continue;
+            }
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(readMethod)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                ret.add(new PropertyReader(propertyDescriptor.getName(), handle));
+            } catch (IllegalAccessException e) {
+                LOG.warn("Failed to access method " + readMethod + ". " + e, e);
+                return UNREADABLE;
+            }
         }
+        return ret.toArray(new PropertyReader[0]);
     }
 
     protected static boolean configEqualObjectMeta(ObjectMeta entity1, ObjectMeta entity2) {
@@ -234,4 +258,23 @@ public class UserConfigurationCompare {
         return (coll == null) ? 0 : coll.size();
     }
 
+    private static class PropertyReader {
+        private final String name;
+        private final MethodHandle handle;
+
+        private PropertyReader(String name, MethodHandle handle) {
+            this.name = name;
+            this.handle = handle;
+        }
+
+        private Object read(Object entity) throws Exception {
+            try {
+                return (Object) handle.invokeExact(entity);
+            } catch (Error | Exception e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
 }
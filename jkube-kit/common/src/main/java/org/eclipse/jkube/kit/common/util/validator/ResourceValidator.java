@@ -15,6 +15,7 @@ package org.eclipse.jkube.kit.common.util.validator;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
@@ -34,20 +35,37 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Validates Kubernetes/OpenShift resource descriptors using JSON schema validation method.
  * For Openshift it adds some some exceptions from JSON schema constraints and ignores some validation errors.
+ *
+ * The schema is loaded once and the schema for every kind is compiled once, both are shared by all validators
+ * within the JVM. The files of a directory are validated concurrently.
  */
 
 public class ResourceValidator {
 
     public static final String SCHEMA_JSON = "/schema/kube-validation-schema.json";
+
+    private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
+
+    private static final Map<String, JsonSchema> SCHEMAS = new ConcurrentHashMap<>();
+    private static final Map<String, Object> SCHEMA_LOCKS = new ConcurrentHashMap<>();
+    private static volatile JsonNode schemaRoot;
+
     private KitLogger log;
     private File resources[];
     private ResourceClassifier target = ResourceClassifier.KUBERNETES;
@@ -96,24 +114,63 @@ public class ResourceValidator {
      * @throws IOException IOException
      */
     public int validate() throws ConstraintViolationException, IOException {
-        for(File resource: resources) {
+        List<File> files = new ArrayList<>();
+        for (File resource : resources) {
             if (resource.isFile() && resource.exists()) {
-                try {
-                    log.info("validating %s resource", resource.toString());
-                    JsonNode inputSpecNode = geFileContent(resource);
-                    String kind = inputSpecNode.get("kind").toString();
-                    JsonSchema schema = getJsonSchema(prepareSchemaUrl(SCHEMA_JSON), kind);
-                    Set<ValidationMessage> errors = schema.validate(inputSpecNode);
-                    processErrors(errors, resource);
-                } catch (URISyntaxException e) {
-                    throw new IOException(e);
-                }
+                files.add(resource);
             }
         }
+        int threads = Math.max(1, Math.min(files.size(), Runtime.getRuntime().availableProcessors()));
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "jkube-validator-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Set<ValidationMessage>>> results = new ArrayList<>();
+            for (File file : files) {
+                results.add(executor.submit(() -> validate(file)));
+            }
+            // Results are processed in the order of the files, so that the first invalid file is reported
+            for (int i = 0; i < files.size(); i++) {
+                log.info("validating %s resource", files.get(i).toString());
+                processErrors(getResult(results.get(i)), files.get(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
 
         return resources.length;
     }
 
+    private static Set<ValidationMessage> validate(File resource) throws IOException {
+        JsonNode inputSpecNode = geFileContent(resource);
+        JsonNode kind = inputSpecNode.get("kind");
+        return getJsonSchema(kind != null ? kind.asText() : null).validate(inputSpecNode);
+    }
+
+    private static Set<ValidationMessage> getResult(Future<Set<ValidationMessage>> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while validating resources", exp);
+        } catch (ExecutionException exp) {
+            Throwable cause = exp.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
     private void processErrors(Set<ValidationMessage> errors, File resource) {
         Set<ConstraintViolationImpl> constraintViolations = new HashSet<>();
         for (ValidationMessage errorMsg: errors) {
@@ -149,35 +206,60 @@ public class ResourceValidator {
         return  validationError.toString();
     }
 
-    private JsonSchema getJsonSchema(URI schemaUrl, String kind) throws IOException {
+    private static JsonSchema getJsonSchema(String kind) throws IOException {
         checkIfKindPropertyExists(kind);
-        JsonSchemaFactory factory = new JsonSchemaFactory();
-        JsonObject jsonSchema = getSchemaJson(schemaUrl);
-        getResourceProperties(kind, jsonSchema);
+        String key = kind.toLowerCase();
+        JsonSchema ret = SCHEMAS.get(key);
+        if (ret == null) {
+            synchronized (SCHEMA_LOCKS.computeIfAbsent(key, k -> new Object())) {
+                ret = SCHEMAS.get(key);
+                if (ret == null) {
+                    ret = createJsonSchema(key);
+                    SCHEMAS.put(key, ret);
+                }
+            }
+        }
+        return ret;
+    }
 
-        return factory.getSchema(jsonSchema.toString());
+    // The schema of a kind is the complete schema with the properties of the kind as root properties
+    private static JsonSchema createJsonSchema(String kind) throws IOException {
+        JsonNode root = getSchemaRoot();
+        JsonNode resource = root.get("resources").get(kind);
+        if (resource == null) {
+            throw new JsonIOException("No schema found for resource kind " + kind);
+        }
+        ObjectNode jsonSchema = YAML_MAPPER.createObjectNode();
+        jsonSchema.setAll((ObjectNode) root);
+        jsonSchema.remove("id");
+        jsonSchema.set("properties", resource.get("properties"));
+        return new JsonSchemaFactory().getSchema(jsonSchema);
     }
 
-    private void getResourceProperties(String kind, JsonObject jsonSchema) {
-        jsonSchema.add("properties" , jsonSchema.get("resources").getAsJsonObject()
-                .getAsJsonObject(kind.replaceAll("\"", "").toLowerCase())
-                .getAsJsonObject("properties"));
+    private static JsonNode getSchemaRoot() throws IOException {
+        JsonNode ret = schemaRoot;
+        if (ret == null) {
+            synchronized (ResourceValidator.class) {
+                ret = schemaRoot;
+                if (ret == null) {
+                    URL schemaUrl = ResourceValidator.class.getResource(SCHEMA_JSON);
+                    ret = new ObjectMapper().readTree(schemaUrl);
+                    schemaRoot = ret;
+                }
+            }
+        }
+        return ret;
     }
 
-    private void checkIfKindPropertyExists(String kind) {
+    private static void checkIfKindPropertyExists(String kind) {
         if(kind == null) {
             throw new JsonIOException("Invalid kind of resource or 'kind' is missing from resource definition");
         }
     }
 
-    private URI prepareSchemaUrl(String schemaFile) throws URISyntaxException {
-        return getClass().getResource(schemaFile).toURI();
-    }
-
-    private JsonNode geFileContent(File file) throws IOException {
+    private static JsonNode geFileContent(File file) throws IOException {
         try (InputStream resourceStream = new FileInputStream(file)) {
-            ObjectMapper jsonMapper = new ObjectMapper(new YAMLFactory());
-            return jsonMapper.readTree(resourceStream);
+            return YAML_MAPPER.readTree(resourceStream);
         }
     }
 
@@ -62,4 +62,22 @@ public class EnvUtilTest {
         // Then
         assertThat(timestamp, equalTo(new Date(1445385600000L)));
     }
+
+    @Test
+    public void testGetReproducibleTimestampFromOutputTimestamp() throws IOException {
+        assertThat(EnvUtil.getReproducibleTimestamp("1580472000", null), equalTo(new Date(1580472000000L)));
+        assertThat(EnvUtil.getReproducibleTimestamp("2020-01-31T12:00:00Z", null), equalTo(new Date(1580472000000L)));
+        assertThat(EnvUtil.getReproducibleTimestamp("2020-01-31T13:00:00+01:00", null), equalTo(new Date(1580472000000L)));
+    }
+
+    @Test
+    public void testParseOutputTimestampWhenDisabled() {
+        assertThat(EnvUtil.parseOutputTimestamp(null), equalTo(null));
+        assertThat(EnvUtil.parseOutputTimestamp("x"), equalTo(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseOutputTimestampWithInvalidTimestamp() {
+        EnvUtil.parseOutputTimestamp("yesterday");
+    }
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.common.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileUtilTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLinkOrCopyReplacesExistingTarget() throws IOException {
+        // Given
+        File source = temporaryFolder.newFile("app.jar");
+        Files.write(source.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+        File target = new File(temporaryFolder.newFolder("staging"), "app.jar");
+        Files.write(target.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        FileUtil.linkOrCopy(source, target);
+
+        // Then
+        assertEquals("new", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+        // Replacing the source must not affect the staged file
+        Files.delete(source.toPath());
+        Files.write(source.toPath(), "newer".getBytes(StandardCharsets.UTF_8));
+        assertEquals("new", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+    }
+}
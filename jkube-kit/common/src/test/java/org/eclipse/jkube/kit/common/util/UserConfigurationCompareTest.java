@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.common.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UserConfigurationCompareTest {
+
+    @Test
+    public void testStatusIsIgnored() {
+        assertTrue(UserConfigurationCompare.configEqual(new Config("app", 1, "running"), new Config("app", 1, "pending")));
+    }
+
+    @Test
+    public void testChangedProperty() {
+        assertFalse(UserConfigurationCompare.configEqual(new Config("app", 1, null), new Config("app", 2, null)));
+        assertFalse(UserConfigurationCompare.configEqual(new Config("app", 1, null), new Config("other", 1, null)));
+    }
+
+    @Test
+    public void testMissingPropertyIsIgnored() {
+        assertTrue(UserConfigurationCompare.configEqual(new Config("app", 1, null), new Config(null, 1, null)));
+    }
+
+    @Test
+    public void testNestedValues() {
+        ObjectMeta metadata = new ObjectMetaBuilder().withName("app").addToLabels("app", "test").build();
+        ObjectMeta changedMetadata = new ObjectMetaBuilder().withName("app").addToLabels("app", "other").build();
+
+        assertTrue(UserConfigurationCompare.configEqual(
+                new Config("app", 1, null).withMetadata(metadata).withChildren(new Config("child", 1, null)),
+                new Config("app", 1, "running").withMetadata(metadata).withChildren(new Config("child", 1, "failed"))));
+        assertFalse(UserConfigurationCompare.configEqual(
+                new Config("app", 1, null).withMetadata(metadata),
+                new Config("app", 1, null).withMetadata(changedMetadata)));
+        assertFalse(UserConfigurationCompare.configEqual(
+                new Config("app", 1, null).withChildren(new Config("child", 1, null)),
+                new Config("app", 1, null).withChildren(new Config("child", 2, null))));
+    }
+
+    @Test
+    public void testFailingPropertyIsNotEqual() {
+        assertFalse(UserConfigurationCompare.configEqual(
+                new FailingConfig(new IllegalStateException("broken")), new FailingConfig(new IllegalStateException("broken"))));
+    }
+
+    @Test
+    public void testErrorOfPropertyIsPropagated() {
+        try {
+            UserConfigurationCompare.configEqual(new FailingConfig(new AssertionError("broken")), new FailingConfig(null));
+            fail("Error expected");
+        } catch (AssertionError e) {
+            assertEquals("broken", e.getMessage());
+        }
+    }
+
+    public static class Config {
+        private final String name;
+        private final int replicas;
+        private final String status;
+        private ObjectMeta metadata;
+        private List<Config> children;
+
+        Config(String name, int replicas, String status) {
+            this.name = name;
+            this.replicas = replicas;
+            this.status = status;
+        }
+
+        Config withMetadata(ObjectMeta metadata) {
+            this.metadata = metadata;
+            return this;
+        }
+
+        Config withChildren(Config... children) {
+            this.children = Arrays.asList(children);
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getReplicas() {
+            return replicas;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public ObjectMeta getMetadata() {
+            return metadata;
+        }
+
+        public List<Config> getChildren() {
+            return children;
+        }
+    }
+
+    public static class FailingConfig {
+        private final Throwable failure;
+
+        FailingConfig(Throwable failure) {
+            this.failure = failure;
+        }
+
+        public String getName() {
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            if (failure != null) {
+                throw (RuntimeException) failure;
+            }
+            return "app";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.common.util.validator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.validation.ConstraintViolationException;
+
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.common.util.ResourceClassifier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ResourceValidatorTest {
+
+    private static final String DEPLOYMENT = "apiVersion: apps/v1\n" +
+            "kind: Deployment\n" +
+            "metadata:\n" +
+            "  name: %s\n" +
+            "spec:\n" +
+            "  replicas: %s\n";
+
+    private static final String SERVICE = "apiVersion: v1\n" +
+            "kind: Service\n" +
+            "metadata:\n" +
+            "  name: app\n" +
+            "spec:\n" +
+            "  ports:\n" +
+            "  - port: 8080\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testValidateDirectory() throws IOException {
+        File dir = temporaryFolder.newFolder("kubernetes");
+        write(new File(dir, "app-deployment.yml"), String.format(DEPLOYMENT, "app", "1"));
+        write(new File(dir, "other-deployment.yml"), String.format(DEPLOYMENT, "other", "2"));
+        write(new File(dir, "app-service.yml"), SERVICE);
+
+        assertEquals(3, new ResourceValidator(dir, ResourceClassifier.KUBERNETES, new KitLogger.StdoutLogger()).validate());
+    }
+
+    @Test
+    public void testInvalidResource() throws IOException {
+        File dir = temporaryFolder.newFolder("kubernetes");
+        write(new File(dir, "app-deployment.yml"), String.format(DEPLOYMENT, "app", "1"));
+        write(new File(dir, "broken-deployment.yml"), String.format(DEPLOYMENT, "broken", "many"));
+
+        try {
+            new ResourceValidator(dir, ResourceClassifier.KUBERNETES, new KitLogger.StdoutLogger()).validate();
+            fail("Exception expected");
+        } catch (ConstraintViolationException exp) {
+            assertThat(exp.getMessage(), containsString("broken-deployment.yml"));
+            assertThat(exp.getMessage(), containsString("replicas"));
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
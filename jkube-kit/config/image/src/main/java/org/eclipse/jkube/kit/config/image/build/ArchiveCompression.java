@@ -32,7 +32,7 @@ public enum ArchiveCompression {
     gzip(TarCompressionMethod.gzip,"tar.gz") {
         @Override
         public OutputStream wrapOutputStream(OutputStream out) throws IOException {
-            return new ArchiveCompression.GZIPOutputStream(out);
+            return new ParallelGzipOutputStream(out, GZIP_COMPRESSION_LEVEL);
         }
     },
 
@@ -45,6 +45,9 @@ public enum ArchiveCompression {
 
     // ====================================================================
 
+    // According to https://bugs.openjdk.java.net/browse/JDK-8142920, 3 is a better default
+    private static final int GZIP_COMPRESSION_LEVEL = 3;
+
     private final TarCompressionMethod tarCompressionMethod;
     private final String fileSuffix;
 
@@ -87,12 +90,4 @@ public enum ArchiveCompression {
         return ArchiveCompression.none;
     }
 
-    private static class GZIPOutputStream extends java.util.zip.GZIPOutputStream {
-        private GZIPOutputStream(OutputStream out) throws IOException {
-            super(out, 65536);
-            // According to https://bugs.openjdk.java.net/browse/JDK-8142920, 3 is a better default
-            def.setLevel(3);
-        }
-    }
-
 }
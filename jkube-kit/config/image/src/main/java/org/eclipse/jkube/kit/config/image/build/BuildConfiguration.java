@@ -97,6 +97,12 @@ public class BuildConfiguration<A extends AssemblyConfiguration> implements Seri
 
     private List<String> tags;
 
+    /**
+     * Platforms (like <code>linux/amd64</code>) to build the image for. With more than one platform the image is
+     * built for each of them from the same build archive and pushed as a manifest list.
+     */
+    private List<String> platforms;
+
     private Map<String, String> env;
 
     private Map<String, String> labels;
@@ -224,6 +230,14 @@ public class BuildConfiguration<A extends AssemblyConfiguration> implements Seri
         return removeEmptyEntries(tags);
     }
 
+    public List<String> getPlatforms() {
+        return removeEmptyEntries(platforms);
+    }
+
+    public boolean isMultiPlatform() {
+        return getPlatforms().size() > 1;
+    }
+
     public Map<String, String> getEnv() {
         return env;
     }
@@ -399,6 +413,11 @@ public class BuildConfiguration<A extends AssemblyConfiguration> implements Seri
             return this;
         }
 
+        public TypedBuilder<A, B> platforms(List<String> platforms) {
+            config.platforms = platforms;
+            return this;
+        }
+
         public TypedBuilder<A, B> env(Map<String, String> env) {
             config.env = env;
             return this;
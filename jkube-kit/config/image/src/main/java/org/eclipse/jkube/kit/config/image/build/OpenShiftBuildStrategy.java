@@ -14,7 +14,8 @@
 package org.eclipse.jkube.kit.config.image.build;
 
 /**
- * OpenShift build mode. Only used when mode is "openshift"
+ * OpenShift build mode. Only used when mode is "openshift", except for {@link #oci} which can be used in
+ * both modes
  *
  * @author roland
  * @since 01/08/16
@@ -30,7 +31,12 @@ public enum OpenShiftBuildStrategy {
     /**
      * Docker build with a binary source
      */
-    docker("Docker");
+    docker("Docker"),
+
+    /**
+     * Build without Docker daemon, pushing the image straight to its registry
+     */
+    oci("OCI");
 
     // Source strategy elemens
     public enum SourceStrategy {
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.config.image.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip output stream compressing its input on several threads.
+ *
+ * The input is cut into blocks which are compressed independently, each one into a complete gzip member.
+ * The members are written in order, so that the result is a standard multi-member gzip file (RFC 1952) which
+ * can be read by any gzip implementation supporting concatenated members (like gunzip or the Docker daemon).
+ *
+ * All streams compress on one shared pool with a thread per processor, so that archives created at the same time
+ * (for several images or platforms) don't add up to more compression threads than processors.
+ */
+class ParallelGzipOutputStream extends FilterOutputStream {
+
+    // Large enough so that compressing blocks independently has no noticeable impact on the compression ratio
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    private static final ExecutorService SHARED_EXECUTOR = createExecutor(Runtime.getRuntime().availableProcessors());
+
+    private final int level;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final ExecutorService executor;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    private byte[] block;
+    private int blockLength;
+    private boolean membersWritten;
+    private boolean closed;
+
+    ParallelGzipOutputStream(OutputStream out, int level) {
+        this(out, level, Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param out stream to write the compressed data to
+     * @param level compression level
+     * @param threads number of threads of the shared pool this stream should keep busy
+     * @param blockSize size of the blocks compressed independently
+     */
+    ParallelGzipOutputStream(OutputStream out, int level, int threads, int blockSize) {
+        super(out);
+        this.level = level;
+        this.blockSize = blockSize;
+        // Limit the number of blocks kept in memory, but keep all threads busy
+        this.maxPendingBlocks = threads * 2;
+        this.executor = SHARED_EXECUTOR;
+        this.block = new byte[blockSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int chunk = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, chunk);
+            blockLength += chunk;
+            off += chunk;
+            len -= chunk;
+            if (blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compress and write all data written so far. The data is closed as an own gzip member, so
+     * calling this method often decreases the compression ratio.
+     *
+     * @throws IOException if compression or writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLength > 0) {
+            submitBlock();
+        }
+        writePendingBlocks(0);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+            if (!membersWritten) {
+                // An empty gzip file still consists of one (empty) member
+                out.write(compress(new byte[0], 0, level));
+            }
+        } finally {
+            closed = true;
+            // Blocks left after a failure, the pool itself is shared
+            for (Future<byte[]> pendingBlock : pendingBlocks) {
+                pendingBlock.cancel(true);
+            }
+            pendingBlocks.clear();
+            out.close();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = blockLength;
+        pendingBlocks.addLast(executor.submit(() -> compress(data, length, level)));
+        block = new byte[blockSize];
+        blockLength = 0;
+        writePendingBlocks(maxPendingBlocks);
+    }
+
+    // Write compressed blocks in order until at most maxPending blocks are left
+    private void writePendingBlocks(int maxPending) throws IOException {
+        while (pendingBlocks.size() > maxPending) {
+            out.write(getCompressedBlock(pendingBlocks.removeFirst()));
+            membersWritten = true;
+        }
+    }
+
+    private byte[] getCompressedBlock(Future<byte[]> compressedBlock) throws IOException {
+        try {
+            return compressedBlock.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Cannot compress data: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing data");
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    // Idle threads terminate, so that the pool doesn't keep threads of long-living JVMs
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor ret = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "parallel-gzip-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ret.allowCoreThreadTimeOut(true);
+        return ret;
+    }
+
+    private static byte[] compress(byte[] data, int length, int level) throws IOException {
+        ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(member, 65536) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(data, 0, length);
+        }
+        return member.toByteArray();
+    }
+}
@@ -14,6 +14,8 @@
 package org.eclipse.jkube.kit.config.image.build;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
 
 import org.eclipse.jkube.kit.common.KitLogger;
 import mockit.Mocked;
@@ -44,6 +46,15 @@ public class BuildConfigurationTest {
         assertFalse(config.isDockerFileMode());
     }
 
+    @Test
+    public void platforms() {
+        BuildConfiguration config = new BuildConfiguration.Builder()
+            .platforms(Arrays.asList("linux/amd64", " ", "linux/arm64")).build();
+        assertEquals(Arrays.asList("linux/amd64", "linux/arm64"), config.getPlatforms());
+        assertTrue(config.isMultiPlatform());
+        assertFalse(new BuildConfiguration.Builder().platforms(Collections.singletonList("linux/arm64")).build().isMultiPlatform());
+    }
+
     @Test
     public void simpleDockerfile() {
         BuildConfiguration config =
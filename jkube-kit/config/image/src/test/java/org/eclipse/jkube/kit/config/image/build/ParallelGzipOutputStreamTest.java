@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.config.image.build;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelGzipOutputStreamTest {
+
+    @Test
+    public void testCompressMultipleBlocks() throws IOException {
+        // Given
+        byte[] data = new byte[10 * 1024 + 13];
+        new Random(42).nextBytes(data);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream out = new ParallelGzipOutputStream(compressed, 3, 4, 1024)) {
+            out.write(data, 0, 100);
+            out.write(data[100]);
+            out.write(data, 101, data.length - 101);
+        }
+
+        // Then
+        byte[] result = compressed.toByteArray();
+        assertEquals(11, countGzipMembers(result));
+        assertArrayEquals(data, decompress(result));
+    }
+
+    @Test
+    public void testConcurrentStreams() throws Exception {
+        // Given
+        byte[] data1 = new byte[8 * 1024 + 7];
+        byte[] data2 = new byte[6 * 1024 + 3];
+        new Random(1).nextBytes(data1);
+        new Random(2).nextBytes(data2);
+        ByteArrayOutputStream compressed1 = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed2 = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream out1 = new ParallelGzipOutputStream(compressed1, 3, 2, 1024);
+             OutputStream out2 = new ParallelGzipOutputStream(compressed2, 3, 2, 1024)) {
+            for (int i = 0; i < data1.length; i += 512) {
+                out1.write(data1, i, Math.min(512, data1.length - i));
+                if (i < data2.length) {
+                    out2.write(data2, i, Math.min(512, data2.length - i));
+                }
+            }
+        }
+
+        // Then
+        assertArrayEquals(data1, decompress(compressed1.toByteArray()));
+        assertArrayEquals(data2, decompress(compressed2.toByteArray()));
+    }
+
+    @Test
+    public void testCompressEmptyStream() throws IOException {
+        // Given
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        // When
+        new ParallelGzipOutputStream(compressed, 3, 2, 1024).close();
+
+        // Then
+        assertEquals(1, countGzipMembers(compressed.toByteArray()));
+        assertArrayEquals(new byte[0], decompress(compressed.toByteArray()));
+    }
+
+    @Test
+    public void testWrapOutputStream() throws IOException {
+        // Given
+        byte[] data = "FROM busybox".getBytes();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        // When
+        try (OutputStream out = ArchiveCompression.gzip.wrapOutputStream(compressed)) {
+            out.write(data);
+        }
+
+        // Then
+        assertArrayEquals(data, decompress(compressed.toByteArray()));
+    }
+
+    private static byte[] decompress(byte[] compressed) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                result.write(buffer, 0, read);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    // Each member starts with the gzip magic number followed by the deflate method and (for java.util.zip) no flags
+    private static int countGzipMembers(byte[] compressed) {
+        int count = 0;
+        for (int i = 0; i + 3 < compressed.length; i++) {
+            if ((compressed[i] & 0xff) == 0x1f && (compressed[i + 1] & 0xff) == 0x8b
+                    && compressed[i + 2] == 8 && compressed[i + 3] == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
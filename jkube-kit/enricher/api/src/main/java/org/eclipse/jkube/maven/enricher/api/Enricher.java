@@ -44,4 +44,16 @@ public interface Enricher extends Named {
      * @param builder list to customer used to customize
      */
     void enrich(PlatformMode platformMode, KubernetesListBuilder builder);
+
+    /**
+     * Whether this enricher processes every resource on its own, in {@link #create(PlatformMode, KubernetesListBuilder)}
+     * as well as in {@link #enrich(PlatformMode, KubernetesListBuilder)}. Such an enricher neither adds nor removes
+     * resources, it only changes the resources it visits and doesn't look at any other resource. It can then be
+     * called with single resources, for several resources at the same time.
+     *
+     * @return true if resources can be processed independently from each other
+     */
+    default boolean processesResourcesIndependently() {
+        return false;
+    }
 }
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.maven.enricher.api.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
+import io.fabric8.kubernetes.api.builder.Visitor;
+
+/**
+ * Visitor which applies several typed visitors within a single traversal. Every element visited is passed
+ * to the visitors of a matching type, in the order the visitors are given.
+ *
+ * This is equivalent to accepting every visitor on its own as long as the visitors don't act on changes made
+ * by each other (like visitors for different resource kinds). Besides saving the traversals, the matching
+ * visitors are looked up only once per element type. The builders themselves resolve the type of a
+ * {@link TypedVisitor} again for every element visited.
+ */
+public class CompositeVisitor implements Visitor<Object> {
+
+    private final List<TypedVisitor<?>> visitors;
+    private final List<Class<?>> types;
+    private final Map<Class<?>, List<Visitor<Object>>> visitorsByType = new ConcurrentHashMap<>();
+
+    public CompositeVisitor(TypedVisitor<?>... visitors) {
+        this(Arrays.asList(visitors));
+    }
+
+    public CompositeVisitor(List<? extends TypedVisitor<?>> visitors) {
+        this.visitors = new ArrayList<>(visitors);
+        this.types = new ArrayList<>();
+        for (TypedVisitor<?> visitor : visitors) {
+            types.add(visitor.getType());
+        }
+    }
+
+    @Override
+    public void visit(Object element) {
+        for (Visitor<Object> visitor : visitorsByType.computeIfAbsent(element.getClass(), this::findVisitors)) {
+            visitor.visit(element);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Visitor<Object>> findVisitors(Class<?> elementType) {
+        List<Visitor<Object>> ret = new ArrayList<>();
+        for (int i = 0; i < visitors.size(); i++) {
+            if (types.get(i) != null && types.get(i).isAssignableFrom(elementType)) {
+                ret.add((Visitor<Object>) visitors.get(i));
+            }
+        }
+        return ret;
+    }
+}
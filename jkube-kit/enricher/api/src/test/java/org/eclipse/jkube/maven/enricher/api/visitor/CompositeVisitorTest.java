@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.maven.enricher.api.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
+import io.fabric8.kubernetes.api.model.KubernetesList;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompositeVisitorTest {
+
+    @Test
+    public void testVisitorsAppliedInSingleTraversal() {
+        KubernetesListBuilder builder = new KubernetesListBuilder()
+                .addNewServiceItem().withNewMetadata().withName("service").endMetadata().endServiceItem()
+                .addNewDeploymentItem().withNewMetadata().withName("deployment").endMetadata().endDeploymentItem();
+        List<String> visited = new ArrayList<>();
+
+        builder.accept(new CompositeVisitor(
+                new TypedVisitor<ServiceBuilder>() {
+                    @Override
+                    public void visit(ServiceBuilder element) {
+                        element.editMetadata().addToLabels("kind", "service").endMetadata();
+                    }
+                },
+                new TypedVisitor<DeploymentBuilder>() {
+                    @Override
+                    public void visit(DeploymentBuilder element) {
+                        element.editMetadata().addToLabels("kind", "deployment").endMetadata();
+                    }
+                },
+                new TypedVisitor<ObjectMetaBuilder>() {
+                    @Override
+                    public void visit(ObjectMetaBuilder element) {
+                        visited.add(element.getName() + "-1");
+                    }
+                },
+                new TypedVisitor<ObjectMetaBuilder>() {
+                    @Override
+                    public void visit(ObjectMetaBuilder element) {
+                        visited.add(element.getName() + "-2");
+                    }
+                }));
+
+        KubernetesList list = builder.build();
+        assertEquals("service", list.getItems().get(0).getMetadata().getLabels().get("kind"));
+        assertEquals("deployment", list.getItems().get(1).getMetadata().getLabels().get("kind"));
+        // Visitors of the same type are applied in the given order
+        assertEquals(Arrays.asList("service-1", "service-2", "deployment-1", "deployment-2"), visited);
+    }
+}
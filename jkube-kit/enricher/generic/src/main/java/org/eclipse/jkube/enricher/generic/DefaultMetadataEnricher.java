@@ -19,6 +19,7 @@ import org.eclipse.jkube.kit.config.resource.ProcessorConfig;
 import org.eclipse.jkube.kit.config.resource.ResourceConfig;
 import org.eclipse.jkube.maven.enricher.api.BaseEnricher;
 import org.eclipse.jkube.maven.enricher.api.JKubeEnricherContext;
+import org.eclipse.jkube.maven.enricher.api.visitor.CompositeVisitor;
 import org.eclipse.jkube.maven.enricher.api.visitor.MetadataVisitor;
 import org.eclipse.jkube.maven.enricher.api.visitor.SelectorVisitor;
 
@@ -78,9 +79,7 @@ public class DefaultMetadataEnricher extends BaseEnricher {
     private void visit(ProcessorConfig config, KubernetesListBuilder builder, MetadataVisitor<?>[] visitors) {
         MetadataVisitor.setProcessorConfig(config);
         try {
-            for (MetadataVisitor<?> visitor : visitors) {
-                builder.accept(visitor);
-            }
+            builder.accept(new CompositeVisitor(visitors));
         } finally {
             MetadataVisitor.clearProcessorConfig();
         }
@@ -44,6 +44,7 @@ import org.eclipse.jkube.kit.config.resource.PlatformMode;
 import org.eclipse.jkube.kit.config.resource.ResourceConfig;
 import org.eclipse.jkube.maven.enricher.api.BaseEnricher;
 import org.eclipse.jkube.maven.enricher.api.JKubeEnricherContext;
+import org.eclipse.jkube.maven.enricher.api.visitor.CompositeVisitor;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
@@ -101,16 +102,18 @@ public class ImageEnricher extends BaseEnricher {
     // ============================================================================================================
 
     private void ensureTemplateSpecs(KubernetesListBuilder builder) {
-        ensureTemplateSpecsInReplicationControllers(builder);
-        ensureTemplateSpecsInRelicaSet(builder);
-        ensureTemplateSpecsInDeployments(builder);
-        ensureTemplateSpecsInDaemonSet(builder);
-        ensureTemplateSpecsInStatefulSet(builder);
-        ensureTemplateSpecsInDeploymentConfig(builder);
+        // All controller kinds in a single traversal
+        builder.accept(new CompositeVisitor(
+                ensureTemplateSpecsInReplicationControllers(),
+                ensureTemplateSpecsInRelicaSet(),
+                ensureTemplateSpecsInDeployments(),
+                ensureTemplateSpecsInDaemonSet(),
+                ensureTemplateSpecsInStatefulSet(),
+                ensureTemplateSpecsInDeploymentConfig()));
     }
 
-    private void ensureTemplateSpecsInReplicationControllers(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<ReplicationControllerBuilder>() {
+    private TypedVisitor<ReplicationControllerBuilder> ensureTemplateSpecsInReplicationControllers() {
+        return new TypedVisitor<ReplicationControllerBuilder>() {
             @Override
             public void visit(ReplicationControllerBuilder item) {
                 ReplicationControllerFluent.SpecNested<ReplicationControllerBuilder> spec =
@@ -120,11 +123,11 @@ public class ImageEnricher extends BaseEnricher {
                     spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
-    private void ensureTemplateSpecsInRelicaSet(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<ReplicaSetBuilder>() {
+    private TypedVisitor<ReplicaSetBuilder> ensureTemplateSpecsInRelicaSet() {
+        return new TypedVisitor<ReplicaSetBuilder>() {
             @Override
             public void visit(ReplicaSetBuilder item) {
                 ReplicaSetFluent.SpecNested<ReplicaSetBuilder> spec =
@@ -133,11 +136,11 @@ public class ImageEnricher extends BaseEnricher {
                     spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
-    private void ensureTemplateSpecsInDeployments(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<DeploymentBuilder>() {
+    private TypedVisitor<DeploymentBuilder> ensureTemplateSpecsInDeployments() {
+        return new TypedVisitor<DeploymentBuilder>() {
             @Override
             public void visit(DeploymentBuilder item) {
                 DeploymentFluent.SpecNested<DeploymentBuilder> spec =
@@ -146,11 +149,11 @@ public class ImageEnricher extends BaseEnricher {
                     spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
-    private void ensureTemplateSpecsInDaemonSet(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<DaemonSetBuilder>() {
+    private TypedVisitor<DaemonSetBuilder> ensureTemplateSpecsInDaemonSet() {
+        return new TypedVisitor<DaemonSetBuilder>() {
             @Override
             public void visit(DaemonSetBuilder item) {
                 DaemonSetFluent.SpecNested<DaemonSetBuilder> spec =
@@ -159,11 +162,11 @@ public class ImageEnricher extends BaseEnricher {
                         spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
-    private void ensureTemplateSpecsInStatefulSet(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<StatefulSetBuilder>() {
+    private TypedVisitor<StatefulSetBuilder> ensureTemplateSpecsInStatefulSet() {
+        return new TypedVisitor<StatefulSetBuilder>() {
             @Override
             public void visit(StatefulSetBuilder item) {
                 StatefulSetFluent.SpecNested<StatefulSetBuilder> spec =
@@ -172,11 +175,11 @@ public class ImageEnricher extends BaseEnricher {
                         spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
-    private void ensureTemplateSpecsInDeploymentConfig(KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<DeploymentConfigBuilder>() {
+    private TypedVisitor<DeploymentConfigBuilder> ensureTemplateSpecsInDeploymentConfig() {
+        return new TypedVisitor<DeploymentConfigBuilder>() {
             @Override
             public void visit(DeploymentConfigBuilder item) {
                 DeploymentConfigFluent.SpecNested<DeploymentConfigBuilder> spec =
@@ -185,7 +188,7 @@ public class ImageEnricher extends BaseEnricher {
                         spec.getTemplate() == null ? spec.withNewTemplate() : spec.editTemplate();
                 template.endTemplate().endSpec();
             }
-        });
+        };
     }
 
 
@@ -28,6 +28,7 @@ import org.eclipse.jkube.kit.config.resource.JKubeAnnotations;
 import org.eclipse.jkube.kit.config.resource.PlatformMode;
 import org.eclipse.jkube.maven.enricher.api.BaseEnricher;
 import org.eclipse.jkube.maven.enricher.api.JKubeEnricherContext;
+import org.eclipse.jkube.maven.enricher.api.visitor.CompositeVisitor;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
@@ -51,62 +52,61 @@ public class MavenIssueManagementEnricher extends BaseEnricher {
     }
 
     @Override
-    public void create(PlatformMode platformMode, KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<ServiceBuilder>() {
-            @Override
-            public void visit(ServiceBuilder serviceBuilder) {
-                serviceBuilder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DeploymentBuilder>() {
-            @Override
-            public void visit(DeploymentBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DeploymentConfigBuilder>() {
-            @Override
-            public void visit(DeploymentConfigBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<ReplicaSetBuilder>() {
-            @Override
-            public void visit(ReplicaSetBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<ReplicationControllerBuilder>() {
-            @Override
-            public void visit(ReplicationControllerBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DaemonSetBuilder>() {
-            @Override
-            public void visit(DaemonSetBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
-
-        builder.accept(new TypedVisitor<StatefulSetBuilder>() {
-            @Override
-            public void visit(StatefulSetBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
 
-        builder.accept(new TypedVisitor<JobBuilder>() {
-            @Override
-            public void visit(JobBuilder builder) {
-                builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
-            }
-        });
+    @Override
+    public void create(PlatformMode platformMode, KubernetesListBuilder builder) {
+        builder.accept(new CompositeVisitor(
+                new TypedVisitor<ServiceBuilder>() {
+                    @Override
+                    public void visit(ServiceBuilder serviceBuilder) {
+                        serviceBuilder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<DeploymentBuilder>() {
+                    @Override
+                    public void visit(DeploymentBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<DeploymentConfigBuilder>() {
+                    @Override
+                    public void visit(DeploymentConfigBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<ReplicaSetBuilder>() {
+                    @Override
+                    public void visit(ReplicaSetBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<ReplicationControllerBuilder>() {
+                    @Override
+                    public void visit(ReplicationControllerBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<DaemonSetBuilder>() {
+                    @Override
+                    public void visit(DaemonSetBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<StatefulSetBuilder>() {
+                    @Override
+                    public void visit(StatefulSetBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                },
+                new TypedVisitor<JobBuilder>() {
+                    @Override
+                    public void visit(JobBuilder builder) {
+                        builder.editMetadata().addToAnnotations(getAnnotations()).endMetadata();
+                    }
+                }));
     }
 
     private Map<String, String> getAnnotations() {
@@ -37,6 +37,11 @@ public class PodAnnotationEnricher extends BaseEnricher {
         super(buildContext, "jkube-pod-annotations");
     }
 
+    @Override
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
+
     @Override
     public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
         super.enrich(platformMode, builder);
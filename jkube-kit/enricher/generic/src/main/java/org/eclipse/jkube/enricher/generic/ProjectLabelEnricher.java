@@ -27,6 +27,7 @@ import org.eclipse.jkube.kit.config.resource.GroupArtifactVersion;
 import org.eclipse.jkube.kit.config.resource.PlatformMode;
 import org.eclipse.jkube.maven.enricher.api.BaseEnricher;
 import org.eclipse.jkube.maven.enricher.api.JKubeEnricherContext;
+import org.eclipse.jkube.maven.enricher.api.visitor.CompositeVisitor;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -67,66 +68,68 @@ public class ProjectLabelEnricher extends BaseEnricher {
     }
 
     @Override
-    public void create(PlatformMode platformMode, KubernetesListBuilder builder) {
-        builder.accept(new TypedVisitor<ServiceBuilder>() {
-            @Override
-            public void visit(ServiceBuilder serviceBuilder) {
-                Map<String, String> selectors = new HashMap<>();
-                if(serviceBuilder.buildSpec() != null && serviceBuilder.buildSpec().getSelector() != null) {
-                    selectors.putAll(serviceBuilder.buildSpec().getSelector());
-                };
-                MapUtil.mergeIfAbsent(selectors, createLabels(true));
-                serviceBuilder.editOrNewSpec().addToSelector(selectors).endSpec();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DeploymentBuilder>() {
-            @Override
-            public void visit(DeploymentBuilder builder) {
-                Map<String, String> selectors = new HashMap<>();
-                if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
-                    selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
-                }
-                MapUtil.mergeIfAbsent(selectors, createLabels(true));
-                builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DeploymentConfigBuilder>() {
-            @Override
-            public void visit(DeploymentConfigBuilder builder) {
-                Map<String, String> selectors = new HashMap<>();
-                if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null) {
-                    selectors.putAll(builder.buildSpec().getSelector());
-                }
-                MapUtil.mergeIfAbsent(selectors, createLabels(true));
-                builder.editOrNewSpec().addToSelector(selectors).endSpec();
-            }
-        });
-
-        builder.accept(new TypedVisitor<DaemonSetBuilder>() {
-            @Override
-            public void visit(DaemonSetBuilder builder) {
-                Map<String, String> selectors = new HashMap<>();
-                if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
-                    selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
-                }
-                MapUtil.mergeIfAbsent(selectors, createLabels());
-                builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
-            }
-        });
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
 
-        builder.accept(new TypedVisitor<StatefulSetBuilder>() {
-            @Override
-            public void visit(StatefulSetBuilder builder) {
-                Map<String, String> selectors = new HashMap<>();
-                if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
-                    selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
-                }
-                MapUtil.mergeIfAbsent(selectors, createLabels());
-                builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
-            }
-        });
+    @Override
+    public void create(PlatformMode platformMode, KubernetesListBuilder builder) {
+        builder.accept(new CompositeVisitor(
+                new TypedVisitor<ServiceBuilder>() {
+                    @Override
+                    public void visit(ServiceBuilder serviceBuilder) {
+                        Map<String, String> selectors = new HashMap<>();
+                        if(serviceBuilder.buildSpec() != null && serviceBuilder.buildSpec().getSelector() != null) {
+                            selectors.putAll(serviceBuilder.buildSpec().getSelector());
+                        };
+                        MapUtil.mergeIfAbsent(selectors, createLabels(true));
+                        serviceBuilder.editOrNewSpec().addToSelector(selectors).endSpec();
+                    }
+                },
+                new TypedVisitor<DeploymentBuilder>() {
+                    @Override
+                    public void visit(DeploymentBuilder builder) {
+                        Map<String, String> selectors = new HashMap<>();
+                        if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
+                            selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
+                        }
+                        MapUtil.mergeIfAbsent(selectors, createLabels(true));
+                        builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
+                    }
+                },
+                new TypedVisitor<DeploymentConfigBuilder>() {
+                    @Override
+                    public void visit(DeploymentConfigBuilder builder) {
+                        Map<String, String> selectors = new HashMap<>();
+                        if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null) {
+                            selectors.putAll(builder.buildSpec().getSelector());
+                        }
+                        MapUtil.mergeIfAbsent(selectors, createLabels(true));
+                        builder.editOrNewSpec().addToSelector(selectors).endSpec();
+                    }
+                },
+                new TypedVisitor<DaemonSetBuilder>() {
+                    @Override
+                    public void visit(DaemonSetBuilder builder) {
+                        Map<String, String> selectors = new HashMap<>();
+                        if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
+                            selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
+                        }
+                        MapUtil.mergeIfAbsent(selectors, createLabels());
+                        builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
+                    }
+                },
+                new TypedVisitor<StatefulSetBuilder>() {
+                    @Override
+                    public void visit(StatefulSetBuilder builder) {
+                        Map<String, String> selectors = new HashMap<>();
+                        if(builder.buildSpec() != null && builder.buildSpec().getSelector() != null && builder.buildSpec().getSelector().getMatchLabels() != null) {
+                            selectors.putAll(builder.buildSpec().getSelector().getMatchLabels());
+                        }
+                        MapUtil.mergeIfAbsent(selectors, createLabels());
+                        builder.editOrNewSpec().editOrNewSelector().withMatchLabels(selectors).endSelector().endSpec();
+                    }
+                }));
 
     }
 
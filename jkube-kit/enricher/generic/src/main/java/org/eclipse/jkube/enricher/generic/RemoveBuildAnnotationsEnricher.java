@@ -35,6 +35,11 @@ public class RemoveBuildAnnotationsEnricher extends BaseEnricher {
         super(buildContext, "jkube-remove-build-annotations");
     }
 
+    @Override
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
+
     @Override
     public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
         List<HasMetadata> items = builder.buildItems();
@@ -36,6 +36,7 @@ import org.eclipse.jkube.kit.config.image.ImageName;
 import org.eclipse.jkube.kit.config.resource.PlatformMode;
 import org.eclipse.jkube.maven.enricher.api.BaseEnricher;
 import org.eclipse.jkube.maven.enricher.api.JKubeEnricherContext;
+import org.eclipse.jkube.maven.enricher.api.visitor.CompositeVisitor;
 import org.eclipse.jkube.kit.common.util.ResourceUtil;
 
 import java.util.ArrayList;
@@ -72,37 +73,41 @@ public class TriggersAnnotationEnricher extends BaseEnricher {
     }
 
     @Override
-    public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
-
-        builder.accept(new TypedVisitor<StatefulSetBuilder>() {
-            @Override
-            public void visit(StatefulSetBuilder o) {
-                StatefulSet s = o.build();
-                if (canWriteTriggers(s)) {
-                    o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
-                }
-            }
-        });
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
 
-        builder.accept(new TypedVisitor<ReplicaSetBuilder>() {
-            @Override
-            public void visit(ReplicaSetBuilder o) {
-                ReplicaSet s = o.build();
-                if (canWriteTriggers(s)) {
-                    o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
-                }
-            }
-        });
+    @Override
+    public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
 
-        builder.accept(new TypedVisitor<DaemonSetBuilder>() {
-            @Override
-            public void visit(DaemonSetBuilder o) {
-                DaemonSet s = o.build();
-                if (canWriteTriggers(s)) {
-                    o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
-                }
-            }
-        });
+        builder.accept(new CompositeVisitor(
+                new TypedVisitor<StatefulSetBuilder>() {
+                    @Override
+                    public void visit(StatefulSetBuilder o) {
+                        StatefulSet s = o.build();
+                        if (canWriteTriggers(s)) {
+                            o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
+                        }
+                    }
+                },
+                new TypedVisitor<ReplicaSetBuilder>() {
+                    @Override
+                    public void visit(ReplicaSetBuilder o) {
+                        ReplicaSet s = o.build();
+                        if (canWriteTriggers(s)) {
+                            o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
+                        }
+                    }
+                },
+                new TypedVisitor<DaemonSetBuilder>() {
+                    @Override
+                    public void visit(DaemonSetBuilder o) {
+                        DaemonSet s = o.build();
+                        if (canWriteTriggers(s)) {
+                            o.withMetadata(getMetaEnrichedWithTriggers(s.getMetadata(), o));
+                        }
+                    }
+                }));
 
     }
 
@@ -63,6 +63,11 @@ public class VolumePermissionEnricher extends BaseEnricher {
         initContainerHandler = new InitContainerHandler(buildContext.getLog());
     }
 
+    @Override
+    public boolean processesResourcesIndependently() {
+        return true;
+    }
+
     @Override
     public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
 
@@ -15,6 +15,7 @@ package org.eclipse.jkube.generator.api.support;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -67,6 +68,9 @@ abstract public class BaseGenerator implements Generator {
         // Base image mode (only relevant for OpenShift)
         fromMode,
 
+        // Platforms to build the image for, comma separated
+        platforms,
+
         // Optional registry
         registry;
 
@@ -220,6 +224,13 @@ abstract public class BaseGenerator implements Generator {
         }
     }
 
+    protected void addPlatforms(BuildConfiguration.TypedBuilder buildBuilder) {
+        String platforms = getConfigWithFallback(Config.platforms, "jkube.generator.platforms", null);
+        if (platforms != null) {
+            buildBuilder.platforms(Arrays.asList(platforms.split("\\s*,\\s*")));
+        }
+    }
+
     private boolean containsBuildConfiguration(List<ImageConfiguration> configs) {
         for (ImageConfiguration config : configs) {
             if (config.getBuildConfiguration() != null) {
@@ -44,9 +44,16 @@ import static org.eclipse.jkube.kit.common.util.FileUtil.getRelativePath;
 public class JavaExecGenerator extends BaseGenerator {
 
     // Environment variable used for specifying a main class
-    static final String JAVA_MAIN_CLASS_ENV_VAR = "JAVA_MAIN_CLASS";
+    public static final String JAVA_MAIN_CLASS_ENV_VAR = "JAVA_MAIN_CLASS";
     private static final String JAVA_OPTIONS = "JAVA_OPTIONS";
 
+    // Layers for the dependencies of a layered assembly. Released dependencies change less often than snapshots
+    public static final String DEPENDENCIES_LAYER = "dependencies";
+    public static final String SNAPSHOT_DEPENDENCIES_LAYER = "snapshot-dependencies";
+
+    // Layer for the additional files of src/main/jkube-includes, which change less often than the application
+    public static final String INCLUDES_LAYER = "includes";
+
     // Plugins indicating a plain java build
     private static final String[][] JAVA_EXEC_MAVEN_PLUGINS = new String[][] {
             new String[] { "org.codehaus.mojo", "exec-maven-plugin" },
@@ -86,7 +93,11 @@ public class JavaExecGenerator extends BaseGenerator {
         mainClass,
 
         // Reference to a predefined assembly descriptor to use. By default it is tried to be detected
-        assemblyRef;
+        assemblyRef,
+
+        // Whether to add the files of src/main/jkube-includes in an own layer below the application,
+        // so that they don't need to be pushed or pulled again when only the application changes
+        layered {{ d = "false"; }};
 
         public String def() { return d; } protected String d;
     }
@@ -126,6 +137,7 @@ public class JavaExecGenerator extends BaseGenerator {
         envMap.put("JAVA_APP_DIR", getConfig(Config.targetDir));
         buildBuilder.env(envMap);
         addLatestTagIfSnapshot(buildBuilder);
+        addPlatforms(buildBuilder);
         imageBuilder
                 .name(getImageName())
                 .registry(getRegistry())
@@ -181,8 +193,12 @@ public class JavaExecGenerator extends BaseGenerator {
         if (assemblyRef != null) {
             builder.descriptorRef(assemblyRef);
         } else {
+            List<JKubeAssemblyFileSet> additionalFiles = addAdditionalFiles(getProject());
+            if (Boolean.parseBoolean(getConfig(Config.layered))) {
+                additionalFiles.forEach(fileSet -> fileSet.setLayer(INCLUDES_LAYER));
+            }
             JKubeProjectAssembly.Builder assemblyBuilder = new JKubeProjectAssembly.Builder()
-                    .fileSets(addAdditionalFiles(getProject()));
+                    .fileSets(additionalFiles);
             if (isFatJar()) {
                 FatJarDetector.Result fatJar = detectFatJar();
                 JKubeProject project = getProject();
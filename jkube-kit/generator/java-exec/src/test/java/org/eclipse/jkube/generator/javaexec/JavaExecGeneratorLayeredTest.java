@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.generator.javaexec;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.jkube.generator.api.GeneratorContext;
+import org.eclipse.jkube.kit.build.core.config.JKubeAssemblyConfiguration;
+import org.eclipse.jkube.kit.common.JKubeAssemblyFileSet;
+import org.eclipse.jkube.kit.common.JKubeProject;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.config.resource.ProcessorConfig;
+
+import mockit.Mocked;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JavaExecGeneratorLayeredTest {
+
+    @Mocked
+    private KitLogger log;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testLayeredAssemblyHasSameContent() {
+        // Given
+        JKubeProject project = createProject();
+
+        // When
+        JKubeAssemblyConfiguration plain = createGenerator(project, false).createAssembly();
+        JKubeAssemblyConfiguration layered = createGenerator(project, true).createAssembly();
+
+        // Then
+        assertEquals("artifact-with-dependencies", layered.getDescriptorRef());
+        assertEquals(getContent(plain), getContent(layered));
+        assertEquals(2, layered.getInline().getFileSets().size());
+        for (JKubeAssemblyFileSet fileSet : layered.getInline().getFileSets()) {
+            assertEquals(JavaExecGenerator.INCLUDES_LAYER, fileSet.getLayer());
+        }
+        assertNull(layered.getInline().getFiles());
+    }
+
+    @Test
+    public void testLayeredFatJarAssemblyHasSameContent() throws IOException {
+        // Given
+        JKubeProject project = createProject();
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "org.example.Main");
+        new JarOutputStream(new FileOutputStream(new File(temporaryFolder.getRoot(), "app.jar")), manifest).close();
+
+        // When
+        JKubeAssemblyConfiguration plain = createGenerator(project, false).createAssembly();
+        JKubeAssemblyConfiguration layered = createGenerator(project, true).createAssembly();
+
+        // Then
+        assertEquals(getContent(plain), getContent(layered));
+        List<JKubeAssemblyFileSet> fileSets = layered.getInline().getFileSets();
+        assertEquals(3, fileSets.size());
+        assertEquals(JavaExecGenerator.INCLUDES_LAYER, fileSets.get(0).getLayer());
+        assertEquals(JavaExecGenerator.INCLUDES_LAYER, fileSets.get(1).getLayer());
+        // The application stays in the top layer
+        assertEquals(Collections.singletonList("app.jar"), fileSets.get(2).getIncludes());
+        assertNull(fileSets.get(2).getLayer());
+    }
+
+    private JKubeProject createProject() {
+        return new JKubeProject.Builder()
+                .properties(new Properties())
+                .plugins(Collections.emptyList())
+                .baseDirectory(temporaryFolder.getRoot())
+                .buildDirectory(temporaryFolder.getRoot().getAbsolutePath())
+                .outputDirectory(new File(temporaryFolder.getRoot(), "classes").getAbsolutePath())
+                .build();
+    }
+
+    private JavaExecGenerator createGenerator(JKubeProject project, boolean layered) {
+        TreeMap<String, String> config = new TreeMap<>();
+        config.put("layered", String.valueOf(layered));
+        return new JavaExecGenerator(new GeneratorContext.Builder()
+                .project(project)
+                .config(new ProcessorConfig(null, null, Collections.singletonMap("java-exec", config)))
+                .logger(log)
+                .build());
+    }
+
+    // Everything that ends up in the image, without the layer
+    private static List<String> getContent(JKubeAssemblyConfiguration assembly) {
+        List<String> ret = new ArrayList<>();
+        ret.add(assembly.getDescriptorRef());
+        for (JKubeAssemblyFileSet fileSet : assembly.getInline().getFileSets()) {
+            ret.add(fileSet.getDirectory() + ":" + fileSet.getIncludes() + ":" + fileSet.getExludes() + ":" +
+                    fileSet.getOutputDirectory() + ":" + fileSet.getFileMode());
+        }
+        ret.add(String.valueOf(assembly.getInline().getFiles()));
+        return ret;
+    }
+}
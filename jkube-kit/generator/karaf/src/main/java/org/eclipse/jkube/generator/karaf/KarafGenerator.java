@@ -58,6 +58,7 @@ public class KarafGenerator extends BaseGenerator {
             buildBuilder.assembly(createAssembly());
         }
         addLatestTagIfSnapshot(buildBuilder);
+        addPlatforms(buildBuilder);
         imageBuilder
             .name(getImageName())
             .alias(getAlias())
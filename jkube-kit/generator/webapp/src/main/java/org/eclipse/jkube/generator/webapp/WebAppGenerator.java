@@ -100,6 +100,7 @@ public class WebAppGenerator extends BaseGenerator {
             buildBuilder.assembly(createAssembly(handler));
         }
         addLatestTagIfSnapshot(buildBuilder);
+        addPlatforms(buildBuilder);
         imageBuilder
             .name(getImageName())
             .alias(getAlias())
@@ -24,9 +24,11 @@ import org.eclipse.jkube.kit.common.util.JKubeProjectUtil;
 import org.eclipse.jkube.kit.config.image.build.Arguments;
 import org.eclipse.jkube.generator.api.GeneratorContext;
 import org.eclipse.jkube.generator.api.support.BaseGenerator;
+import org.eclipse.jkube.generator.javaexec.JavaExecGenerator;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -47,6 +49,11 @@ public class QuarkusGenerator extends BaseGenerator {
         // Whether to add native image or plain java image
         nativeImage {{
             d = "false";
+        }},
+
+        // Whether to add the dependencies in lib/ in own layers below the runner jar
+        layered {{
+            d = "false";
         }};
 
         public String def() {
@@ -105,11 +112,16 @@ public class QuarkusGenerator extends BaseGenerator {
                         .workdir("/opt");
 
             if (!prePackagePhase) {
-                buildBuilder.assembly(
-                    createAssemblyConfiguration("/opt", getJvmFilesToInclude()));
+                if (Boolean.parseBoolean(getConfig(Config.layered))) {
+                    buildBuilder.assembly(createLayeredAssemblyConfiguration("/opt"));
+                } else {
+                    buildBuilder.assembly(
+                        createAssemblyConfiguration("/opt", getJvmFilesToInclude()));
+                }
             }
         }
         addLatestTagIfSnapshot(buildBuilder);
+        addPlatforms(buildBuilder);
         return buildBuilder.build();
     }
 
@@ -128,6 +140,48 @@ public class QuarkusGenerator extends BaseGenerator {
         return builder.build();
     }
 
+    // Released dependencies, snapshot dependencies and the runner jar, each one copied on its own
+    private JKubeAssemblyConfiguration createLayeredAssemblyConfiguration(String targetDir) {
+        JKubeProjectAssembly.Builder assemblyBuilder = new JKubeProjectAssembly.Builder();
+        File libDir = new File(getBuildDir(), "lib");
+        String[] libs = libDir.list((dir, name) -> name.endsWith(".jar"));
+        if (libs != null) {
+            Arrays.sort(libs);
+            List<String> dependencies = new ArrayList<>();
+            List<String> snapshotDependencies = new ArrayList<>();
+            for (String lib : libs) {
+                if (lib.contains("SNAPSHOT")) {
+                    snapshotDependencies.add(lib);
+                } else {
+                    dependencies.add(lib);
+                }
+            }
+            addLibFileSet(assemblyBuilder, libDir, dependencies, JavaExecGenerator.DEPENDENCIES_LAYER);
+            addLibFileSet(assemblyBuilder, libDir, snapshotDependencies, JavaExecGenerator.SNAPSHOT_DEPENDENCIES_LAYER);
+        }
+        JKubeAssemblyFileSet runnerFileSet = getFileSetWithFileFromBuildThatEndsWith("-runner.jar");
+        runnerFileSet.setOutputDirectory(".");
+        runnerFileSet.setFileMode("0640");
+        assemblyBuilder.fileSet(runnerFileSet);
+
+        return new JKubeAssemblyConfiguration.Builder()
+                .assemblyDef(assemblyBuilder.build())
+                .targetDir(targetDir)
+                .build();
+    }
+
+    private void addLibFileSet(JKubeProjectAssembly.Builder assemblyBuilder, File libDir, List<String> libs, String layer) {
+        if (!libs.isEmpty()) {
+            assemblyBuilder.fileSet(new JKubeAssemblyFileSet.Builder()
+                    .directory(FileUtil.getRelativePath(getProject().getBaseDirectory(), libDir).getPath())
+                    .includes(libs)
+                    .outputDirectory("lib")
+                    .fileMode("0640")
+                    .layer(layer)
+                    .build());
+        }
+    }
+
     private JKubeAssemblyFileSet getJvmFilesToInclude() {
         JKubeAssemblyFileSet fileSet = getFileSetWithFileFromBuildThatEndsWith("-runner.jar");
         fileSet.addInclude("lib/**");
@@ -14,10 +14,12 @@
 package org.eclipse.jkube.quarkus.generator;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNotNull;
 import java.io.File;
 import java.io.IOException;
@@ -30,6 +32,7 @@ import java.util.Properties;
 
 import org.eclipse.jkube.generator.api.GeneratorContext;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
+import org.eclipse.jkube.kit.common.JKubeAssemblyFileSet;
 import org.eclipse.jkube.kit.common.JKubeProject;
 import org.eclipse.jkube.kit.common.JKubeProjectPlugin;
 import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
@@ -165,6 +168,34 @@ public class QuarkusGeneratorTest {
         assertBuildFrom(resultImages, BASE_NATIVE_IMAGE);
     }
 
+    @Test
+    public void testCustomizeWithLayeredAssembly () throws IOException {
+        File libDir = new File(createBaseDir(), "lib");
+        libDir.mkdir();
+        new File(libDir, "io.quarkus.quarkus-core-1.3.0.jar").createNewFile();
+        new File(libDir, "org.example.common-1.0-SNAPSHOT.jar").createNewFile();
+        projectProps.put("jkube.generator.quarkus.layered", "true");
+        // @formatter:off
+        new Expectations() {{
+            project.getBaseDirectory(); result = new File(".").getAbsoluteFile();
+        }};
+        // @formatter:on
+
+        QuarkusGenerator generator = new QuarkusGenerator(ctx);
+        List<ImageConfiguration> resultImages = generator.customize(new ArrayList<>(), false);
+
+        List<JKubeAssemblyFileSet> fileSets = resultImages.get(0).getBuildConfiguration()
+                .getAssemblyConfiguration().getInline().getFileSets();
+        assertThat(fileSets, hasSize(3));
+        assertThat(fileSets.get(0).getLayer(), equalTo("dependencies"));
+        assertThat(fileSets.get(0).getIncludes(), contains("io.quarkus.quarkus-core-1.3.0.jar"));
+        assertThat(fileSets.get(0).getOutputDirectory(), equalTo("lib"));
+        assertThat(fileSets.get(1).getLayer(), equalTo("snapshot-dependencies"));
+        assertThat(fileSets.get(1).getIncludes(), contains("org.example.common-1.0-SNAPSHOT.jar"));
+        assertThat(fileSets.get(2).getLayer(), nullValue());
+        assertThat(fileSets.get(2).getIncludes(), contains("sample-runner.jar"));
+    }
+
     private void assertBuildFrom (List<ImageConfiguration> resultImages, String baseImage) {
         assertNotNull(resultImages);
         assertThat(resultImages, hasSize(1));
@@ -35,9 +35,12 @@ import org.eclipse.jkube.generator.api.GeneratorContext;
 import org.eclipse.jkube.generator.api.GeneratorMode;
 import org.eclipse.jkube.generator.javaexec.FatJarDetector;
 import org.eclipse.jkube.generator.javaexec.JavaExecGenerator;
+import org.eclipse.jkube.kit.build.core.config.JKubeAssemblyConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
 import org.eclipse.jkube.kit.common.Configs;
+import org.eclipse.jkube.kit.common.JKubeAssemblyFileSet;
 import org.eclipse.jkube.kit.common.JKubeProject;
+import org.eclipse.jkube.kit.common.JKubeProjectAssembly;
 import org.eclipse.jkube.kit.common.JKubeProjectPlugin;
 import org.eclipse.jkube.kit.common.util.ClassUtil;
 import org.eclipse.jkube.kit.common.util.JKubeProjectUtil;
@@ -55,6 +58,7 @@ import static org.eclipse.jkube.springboot.generator.SpringBootGenerator.Config.
 public class SpringBootGenerator extends JavaExecGenerator {
 
     private static final String DEFAULT_SERVER_PORT = "8080";
+    private static final String SPRING_BOOT_LAUNCHER = "org.springframework.boot.loader.JarLauncher";
 
     public enum Config implements Configs.Key {
         color {{ d = ""; }};
@@ -95,6 +99,10 @@ public class SpringBootGenerator extends JavaExecGenerator {
                 res.put(SpringBootConfigurationHelper.DEV_TOOLS_REMOTE_SECRET_ENV, secret);
             }
         }
+        if (isLayeredFatJar()) {
+            // The exploded jar is started from the application directory, which is on the classpath
+            res.put(JAVA_MAIN_CLASS_ENV_VAR, SPRING_BOOT_LAUNCHER);
+        }
         return res;
     }
 
@@ -108,6 +116,19 @@ public class SpringBootGenerator extends JavaExecGenerator {
         return opts;
     }
 
+    @Override
+    protected void addAssembly(JKubeAssemblyConfiguration.Builder builder) {
+        if (getConfig(JavaExecGenerator.Config.assemblyRef) == null && isLayeredFatJar()) {
+            List<JKubeAssemblyFileSet> fileSets = new ArrayList<>(addAdditionalFiles(getProject()));
+            fileSets.addAll(getLayerFileSets(getFatJarFile()));
+            builder.assemblyDef(new JKubeProjectAssembly.Builder()
+                    .fileSets(fileSets)
+                    .build());
+        } else {
+            super.addAssembly(builder);
+        }
+    }
+
     @Override
     protected boolean isFatJar() {
         if (!hasMainClass() && isSpringBootRepackage()) {
@@ -156,6 +177,33 @@ public class SpringBootGenerator extends JavaExecGenerator {
         }
     }
 
+    private boolean isLayeredFatJar() {
+        return Boolean.parseBoolean(getConfig(JavaExecGenerator.Config.layered)) && isFatJar();
+    }
+
+    // Add one file set per layer, which is unpacked from the fat jar when the image is assembled. The most often
+    // changed layer is copied together with the additional files as the last one.
+    private List<JKubeAssemblyFileSet> getLayerFileSets(File fatJar) {
+        try {
+            Map<String, List<String>> layers = new SpringBootLayeredJar(fatJar).getLayerEntries();
+            log.verbose("Split %s into layers %s", fatJar.getName(), layers.keySet());
+            List<String> layerNames = new ArrayList<>(layers.keySet());
+            List<JKubeAssemblyFileSet> fileSets = new ArrayList<>();
+            for (int i = 0; i < layerNames.size(); i++) {
+                fileSets.add(new JKubeAssemblyFileSet.Builder()
+                        .archive(fatJar.getAbsolutePath())
+                        .includes(layers.get(layerNames.get(i)))
+                        .outputDirectory(".")
+                        .fileMode("0640")
+                        .layer(i < layerNames.size() - 1 ? layerNames.get(i) : null)
+                        .build());
+            }
+            return fileSets;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read the layers of fat jar " + fatJar + ". " + e, e);
+        }
+    }
+
     private File getFatJarFile() {
         FatJarDetector.Result fatJarDetectResult = detectFatJar();
         if (fatJarDetectResult == null) {
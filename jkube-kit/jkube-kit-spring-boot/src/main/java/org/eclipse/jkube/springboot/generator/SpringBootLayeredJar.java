@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.springboot.generator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jkube.generator.javaexec.JavaExecGenerator;
+
+/**
+ * A Spring Boot fat jar whose entries are split into layers, so that every layer can be copied into the image
+ * on its own.
+ *
+ * The layers are taken from the <code>BOOT-INF/layers.idx</code> index written by the Spring Boot Maven plugin.
+ * If the jar has no such index, the default layers of Spring Boot are used. In this case only the jars listed
+ * in <code>BOOT-INF/classpath.idx</code> (if present) are considered as dependencies, jars added to the fat jar
+ * afterwards (like the devtools in watch mode) belong to the application.
+ */
+class SpringBootLayeredJar {
+
+    static final String LAYERS_INDEX = "BOOT-INF/layers.idx";
+    static final String CLASSPATH_INDEX = "BOOT-INF/classpath.idx";
+
+    static final String SPRING_BOOT_LOADER_LAYER = "spring-boot-loader";
+    static final String APPLICATION_LAYER = "application";
+
+    private static final String LIB_DIRECTORY = "BOOT-INF/lib/";
+    private static final String LOADER_DIRECTORY = "org/springframework/boot/loader/";
+
+    // Default layers of Spring Boot, from the least to the most often changed one
+    private static final List<String> DEFAULT_LAYERS = Arrays.asList(
+            JavaExecGenerator.DEPENDENCIES_LAYER,
+            SPRING_BOOT_LOADER_LAYER,
+            JavaExecGenerator.SNAPSHOT_DEPENDENCIES_LAYER,
+            APPLICATION_LAYER);
+
+    private final File jarFile;
+
+    SpringBootLayeredJar(File jarFile) {
+        this.jarFile = jarFile;
+    }
+
+    /**
+     * Assign the entries of the jar to layers. The jar is only read, it is unpacked when the image is assembled.
+     *
+     * @return entries per layer, for the layers with any content only, ordered from the least to the most
+     * often changed layer
+     * @throws IOException if the jar cannot be read
+     */
+    Map<String, List<String>> getLayerEntries() throws IOException {
+        try (ZipFile zip = new ZipFile(jarFile)) {
+            Map<String, List<String>> layersIndex = readLayersIndex(zip);
+            Set<String> classpathIndex = layersIndex == null ? readClasspathIndex(zip) : null;
+            List<String> layers = layersIndex != null ? new ArrayList<>(layersIndex.keySet()) : DEFAULT_LAYERS;
+
+            Map<String, List<String>> entriesPerLayer = new HashMap<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String layer = layersIndex != null ?
+                        getIndexedLayer(layersIndex, layers, entry.getName()) :
+                        getDefaultLayer(classpathIndex, entry.getName());
+                entriesPerLayer.computeIfAbsent(layer, l -> new ArrayList<>()).add(entry.getName());
+            }
+
+            Map<String, List<String>> ret = new LinkedHashMap<>();
+            for (String layer : layers) {
+                if (entriesPerLayer.containsKey(layer)) {
+                    ret.put(layer, entriesPerLayer.get(layer));
+                }
+            }
+            return ret;
+        }
+    }
+
+    private static String getIndexedLayer(Map<String, List<String>> layersIndex, List<String> layers, String name) {
+        for (Map.Entry<String, List<String>> layer : layersIndex.entrySet()) {
+            for (String location : layer.getValue()) {
+                if (location.endsWith("/") ? name.startsWith(location) : name.equals(location)) {
+                    return layer.getKey();
+                }
+            }
+        }
+        // Not indexed, so treat it as part of the most often changed layer
+        return layers.get(layers.size() - 1);
+    }
+
+    private static String getDefaultLayer(Set<String> classpathIndex, String name) {
+        if (name.startsWith(LIB_DIRECTORY) && (classpathIndex == null || classpathIndex.contains(name))) {
+            return name.contains("SNAPSHOT") ?
+                    JavaExecGenerator.SNAPSHOT_DEPENDENCIES_LAYER : JavaExecGenerator.DEPENDENCIES_LAYER;
+        }
+        if (name.startsWith(LOADER_DIRECTORY)) {
+            return SPRING_BOOT_LOADER_LAYER;
+        }
+        return APPLICATION_LAYER;
+    }
+
+    /**
+     * Read the layers index. Lines starting with <code>- </code> introduce a layer, the indented lines following
+     * it are the locations belonging to this layer. Locations ending with a slash are directories.
+     *
+     * @return locations per layer in the order of the index or <code>null</code> if the jar has no layers index
+     */
+    private static Map<String, List<String>> readLayersIndex(ZipFile zip) throws IOException {
+        List<String> lines = readIndex(zip, LAYERS_INDEX);
+        if (lines == null) {
+            return null;
+        }
+        Map<String, List<String>> ret = new LinkedHashMap<>();
+        List<String> locations = null;
+        for (String line : lines) {
+            if (line.startsWith("- ") && line.endsWith(":")) {
+                locations = new ArrayList<>();
+                ret.put(unquote(line.substring(2, line.length() - 1)), locations);
+            } else if (locations != null) {
+                locations.add(unquoteLocation(line));
+            } else {
+                throw new IOException("Invalid " + LAYERS_INDEX + " in " + zip.getName() + ": Location '" + line.trim() + "' outside of a layer");
+            }
+        }
+        return ret.isEmpty() ? null : ret;
+    }
+
+    private static Set<String> readClasspathIndex(ZipFile zip) throws IOException {
+        List<String> lines = readIndex(zip, CLASSPATH_INDEX);
+        if (lines == null) {
+            return null;
+        }
+        Set<String> ret = new HashSet<>();
+        for (String line : lines) {
+            ret.add(unquoteLocation(line));
+        }
+        return ret;
+    }
+
+    // Non empty lines of the given index or null if the index does not exist
+    private static List<String> readIndex(ZipFile zip, String indexName) throws IOException {
+        ZipEntry indexEntry = zip.getEntry(indexName);
+        if (indexEntry == null) {
+            return null;
+        }
+        List<String> ret = new ArrayList<>();
+        try (BufferedReader reader =
+                     new BufferedReader(new InputStreamReader(zip.getInputStream(indexEntry), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    ret.add(line);
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static String unquoteLocation(String line) {
+        String location = line.trim();
+        return unquote(location.startsWith("- ") ? location.substring(2) : location);
+    }
+
+    private static String unquote(String value) {
+        String ret = value.trim();
+        if (ret.length() >= 2 && ret.startsWith("\"") && ret.endsWith("\"")) {
+            ret = ret.substring(1, ret.length() - 1);
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.springboot.generator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpringBootLayeredJarTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testGetLayerEntriesWithLayersIndex() throws IOException {
+        // Given
+        File jar = createJar(
+                "BOOT-INF/layers.idx", "- \"dependencies\":\n  - \"BOOT-INF/lib/\"\n" +
+                        "- \"spring-boot-loader\":\n  - \"org/\"\n" +
+                        "- \"snapshot-dependencies\":\n" +
+                        "- \"application\":\n  - \"BOOT-INF/classes/\"\n  - \"BOOT-INF/layers.idx\"\n  - \"META-INF/\"\n",
+                "BOOT-INF/lib/common-1.0-SNAPSHOT.jar", "jar",
+                "org/springframework/boot/loader/JarLauncher.class", "class",
+                "BOOT-INF/classes/application.properties", "server.port=8080",
+                "META-INF/MANIFEST.MF", "Manifest-Version: 1.0");
+
+        // When
+        Map<String, List<String>> layers = new SpringBootLayeredJar(jar).getLayerEntries();
+
+        // Then
+        assertEquals(Arrays.asList("dependencies", "spring-boot-loader", "application"), new ArrayList<>(layers.keySet()));
+        assertEquals(Collections.singletonList("BOOT-INF/lib/common-1.0-SNAPSHOT.jar"), layers.get("dependencies"));
+        assertEquals(Collections.singletonList("org/springframework/boot/loader/JarLauncher.class"), layers.get("spring-boot-loader"));
+        assertEquals(Arrays.asList("BOOT-INF/layers.idx", "BOOT-INF/classes/application.properties", "META-INF/MANIFEST.MF"),
+                layers.get("application"));
+    }
+
+    @Test
+    public void testGetLayerEntriesWithDefaultLayers() throws IOException {
+        // Given
+        File jar = createJar(
+                "BOOT-INF/classpath.idx", "- \"BOOT-INF/lib/spring-core-5.2.6.jar\"\n- \"BOOT-INF/lib/common-1.0-SNAPSHOT.jar\"\n",
+                "BOOT-INF/lib/spring-core-5.2.6.jar", "jar",
+                "BOOT-INF/lib/common-1.0-SNAPSHOT.jar", "jar",
+                "BOOT-INF/lib/spring-boot-devtools-2.3.0.jar", "jar",
+                "org/springframework/boot/loader/JarLauncher.class", "class",
+                "BOOT-INF/classes/application.properties", "server.port=8080");
+
+        // When
+        Map<String, List<String>> layers = new SpringBootLayeredJar(jar).getLayerEntries();
+
+        // Then
+        assertEquals(Arrays.asList("dependencies", "spring-boot-loader", "snapshot-dependencies", "application"),
+                new ArrayList<>(layers.keySet()));
+        assertEquals(Collections.singletonList("BOOT-INF/lib/spring-core-5.2.6.jar"), layers.get("dependencies"));
+        assertEquals(Collections.singletonList("BOOT-INF/lib/common-1.0-SNAPSHOT.jar"), layers.get("snapshot-dependencies"));
+        assertEquals(Arrays.asList("BOOT-INF/classpath.idx", "BOOT-INF/lib/spring-boot-devtools-2.3.0.jar",
+                "BOOT-INF/classes/application.properties"), layers.get("application"));
+    }
+
+    private File createJar(String... entries) throws IOException {
+        File jar = new File(temporaryFolder.getRoot(), "app.jar");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                out.putNextEntry(new ZipEntry(entries[i]));
+                out.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -17,11 +17,14 @@ import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import org.eclipse.jkube.kit.build.core.JKubeBuildContext;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.ImagePullManager;
+import org.eclipse.jkube.kit.build.service.docker.RegistryService;
 import org.eclipse.jkube.kit.build.service.docker.helper.Task;
+import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
 import org.eclipse.jkube.kit.config.resource.BuildRecreateMode;
 
 import java.io.File;
+import java.util.List;
 
 /**
  * @author nicola
@@ -29,6 +32,15 @@ import java.io.File;
  */
 public interface BuildService {
 
+    /**
+     * Preparation step called before any of the given images is built, e.g. to fetch what all builds need
+     * at once. Does nothing by default.
+     *
+     * @param imageConfigs the images to build
+     */
+    default void prepare(List<ImageConfiguration> imageConfigs) throws JKubeServiceException {
+    }
+
     /**
      * Builds the given image using the specified configuration.
      *
@@ -36,6 +48,17 @@ public interface BuildService {
      */
     void build(ImageConfiguration imageConfig) throws JKubeServiceException;
 
+    /**
+     * Builds the given image using the specified configuration, logging with the given logger where supported.
+     * By default the logger is ignored.
+     *
+     * @param imageConfig the image to build
+     * @param imageLog the logger for the build of this image
+     */
+    default void build(ImageConfiguration imageConfig, KitLogger imageLog) throws JKubeServiceException {
+        build(imageConfig);
+    }
+
     /**
      * Post processing step called after all images has been build
      * @param config build configuration
@@ -71,6 +94,8 @@ public interface BuildService {
 
         private boolean s2iImageStreamLookupPolicyLocal;
 
+        private RegistryService.RegistryConfig pushRegistryConfig;
+
         public BuildServiceConfig() {
         }
 
@@ -120,6 +145,10 @@ public interface BuildService {
             return forcePull;
         }
 
+        public RegistryService.RegistryConfig getPushRegistryConfig() {
+            return pushRegistryConfig;
+        }
+
         public void attachArtifact(String classifier, File destFile) {
             if (attacher != null) {
                 attacher.attach(classifier, destFile);
@@ -197,6 +226,11 @@ public interface BuildService {
                 return this;
             }
 
+            public Builder pushRegistryConfig(RegistryService.RegistryConfig pushRegistryConfig) {
+                config.pushRegistryConfig = pushRegistryConfig;
+                return this;
+            }
+
             public BuildServiceConfig build() {
                 return config;
             }
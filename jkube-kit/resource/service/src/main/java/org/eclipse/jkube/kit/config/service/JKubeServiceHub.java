@@ -24,8 +24,10 @@ import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.service.ArtifactResolverService;
 import org.eclipse.jkube.kit.common.util.LazyBuilder;
 import org.eclipse.jkube.kit.config.access.ClusterAccess;
+import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
 import org.eclipse.jkube.kit.config.resource.RuntimeMode;
 import org.eclipse.jkube.kit.config.service.kubernetes.DockerBuildService;
+import org.eclipse.jkube.kit.config.service.oci.DaemonlessBuildService;
 import org.eclipse.jkube.kit.config.service.openshift.OpenshiftBuildService;
 
 /**
@@ -86,7 +88,10 @@ public class JKubeServiceHub {
             protected BuildService build() {
                 BuildService buildService;
                 // Creating platform-dependent services
-                if (resolvedMode == RuntimeMode.openshift) {
+                if (buildServiceConfig != null && buildServiceConfig.getOpenshiftBuildStrategy() == OpenShiftBuildStrategy.oci) {
+                    // Daemonless build, the same for both platforms
+                    buildService = new DaemonlessBuildService(dockerServiceHub, buildServiceConfig, log);
+                } else if (resolvedMode == RuntimeMode.openshift) {
                     if (!(client instanceof OpenShiftClient)) {
                         throw new IllegalStateException("Openshift platform has been specified but Openshift has not been detected!");
                     }
@@ -94,7 +99,7 @@ public class JKubeServiceHub {
                     buildService = new OpenshiftBuildService((OpenShiftClient) client, log, dockerServiceHub, buildServiceConfig);
                 } else {
                     // Kubernetes services
-                    buildService = new DockerBuildService(dockerServiceHub, buildServiceConfig);
+                    buildService = new DockerBuildService(dockerServiceHub, buildServiceConfig, log);
                 }
                 return buildService;
             }
@@ -16,9 +16,11 @@ package org.eclipse.jkube.kit.config.service.kubernetes;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.ImagePullManager;
 import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
+import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.config.service.BuildService;
 import org.eclipse.jkube.kit.config.service.JKubeServiceException;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -31,25 +33,46 @@ public class DockerBuildService implements BuildService {
 
     private BuildServiceConfig config;
 
-    public DockerBuildService(ServiceHub dockerServiceHub, BuildServiceConfig config) {
+    private KitLogger log;
+
+    public DockerBuildService(ServiceHub dockerServiceHub, BuildServiceConfig config, KitLogger log) {
         Objects.requireNonNull(dockerServiceHub, "dockerServiceHub");
         Objects.requireNonNull(config, "config");
 
         this.dockerServiceHub = dockerServiceHub;
         this.config = config;
+        this.log = log;
+    }
+
+    @Override
+    public void prepare(List<ImageConfiguration> imageConfigs) throws JKubeServiceException {
+        ImagePullManager imagePullManager = config.getImagePullManager();
+        if (imagePullManager == null) {
+            return;
+        }
+        try {
+            dockerServiceHub.getBuildService().pullBaseImages(imageConfigs, imagePullManager, config.getDockerBuildContext());
+        } catch (Exception ex) {
+            throw new JKubeServiceException("Error while trying to pull the base images", ex);
+        }
     }
 
     @Override
     public void build(ImageConfiguration imageConfig) throws JKubeServiceException {
+        build(imageConfig, log);
+    }
+
+    @Override
+    public void build(ImageConfiguration imageConfig, KitLogger imageLog) throws JKubeServiceException {
 
         org.eclipse.jkube.kit.build.service.docker.BuildService dockerBuildService = dockerServiceHub.getBuildService();
         org.eclipse.jkube.kit.build.service.docker.BuildService.BuildContext dockerBuildContext = config.getDockerBuildContext();
         ImagePullManager imagePullManager = config.getImagePullManager();
         try {
-            dockerBuildService.buildImage(imageConfig, imagePullManager, dockerBuildContext);
+            dockerBuildService.buildImage(imageConfig, imagePullManager, dockerBuildContext, imageLog);
 
             // Assume we always want to tag
-            dockerBuildService.tagImage(imageConfig.getName(), imageConfig);
+            dockerBuildService.tagImage(imageConfig.getName(), imageConfig, imageLog);
         } catch (Exception ex) {
             throw new JKubeServiceException("Error while trying to build the image", ex);
         }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.config.service.oci;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jkube.kit.build.api.RegistryContext;
+import org.eclipse.jkube.kit.build.api.auth.AuthConfig;
+import org.eclipse.jkube.kit.build.api.auth.RegistryAuthConfig;
+import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.RegistryService;
+import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
+import org.eclipse.jkube.kit.build.service.oci.OciBuildService;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.config.image.build.ImagePullPolicy;
+import org.eclipse.jkube.kit.config.service.BuildService;
+import org.eclipse.jkube.kit.config.service.JKubeServiceException;
+
+/**
+ * Build service used with the <code>oci</code> build strategy. The build archive is turned into an image without
+ * a Docker daemon, which is pushed to its registry right away.
+ */
+public class DaemonlessBuildService implements BuildService {
+
+    private static final String DOCKERFILE_NAME = "Dockerfile";
+
+    private final ServiceHub dockerServiceHub;
+
+    private final BuildServiceConfig config;
+
+    private final KitLogger log;
+
+    public DaemonlessBuildService(ServiceHub dockerServiceHub, BuildServiceConfig config, KitLogger log) {
+        Objects.requireNonNull(dockerServiceHub, "dockerServiceHub");
+        Objects.requireNonNull(config, "config");
+
+        this.dockerServiceHub = dockerServiceHub;
+        this.config = config;
+        this.log = log;
+    }
+
+    @Override
+    public void build(ImageConfiguration imageConfig) throws JKubeServiceException {
+        build(imageConfig, log);
+    }
+
+    @Override
+    public void build(ImageConfiguration imageConfig, KitLogger imageLog) throws JKubeServiceException {
+        JKubeBuildConfiguration buildConfig = imageConfig.getBuildConfiguration();
+        try {
+            File archive = dockerServiceHub.getArchiveService().createDockerBuildArchive(imageConfig, config.getDockerMavenContext());
+
+            OciBuildService ociBuildService = new OciBuildService(createRegistryContext(), imageLog);
+            ociBuildService.setReproducibleTimestamp(config.getDockerMavenContext().getReproducibleTimestamp());
+            ociBuildService.setPlatform(OciBuildService.getPlatform(buildConfig));
+            ociBuildService.buildImage(imageConfig.getName(), imageConfig.getRegistry(), buildConfig.getTags(), archive,
+                buildConfig.isDockerFileMode() ? buildConfig.getDockerFile().getName() : DOCKERFILE_NAME, getBuildArgs(buildConfig));
+        } catch (IOException ex) {
+            throw new JKubeServiceException("Error while trying to build the image without Docker daemon", ex);
+        }
+    }
+
+    @Override
+    public void postProcess(BuildServiceConfig config) {
+        // No post processing required, the images have been pushed already
+    }
+
+    private Map<String, String> getBuildArgs(JKubeBuildConfiguration buildConfig) {
+        Map<String, String> ret = new HashMap<>();
+        if (config.getDockerBuildContext() != null && config.getDockerBuildContext().getBuildArgs() != null) {
+            ret.putAll(config.getDockerBuildContext().getBuildArgs());
+        }
+        if (buildConfig.getArgs() != null) {
+            ret.putAll(buildConfig.getArgs());
+        }
+        return ret;
+    }
+
+    // Base images are pulled with the registry configuration of the build, images are pushed with the one for pushes
+    private RegistryContext createRegistryContext() {
+        RegistryService.RegistryConfig pullRegistryConfig =
+            config.getDockerBuildContext() != null ? config.getDockerBuildContext().getRegistryConfig() : null;
+        RegistryService.RegistryConfig pushRegistryConfig = config.getPushRegistryConfig();
+        return new RegistryContext() {
+            @Override
+            public ImagePullPolicy getDefaultImagePullPolicy() {
+                return null;
+            }
+
+            @Override
+            public String getRegistry(RegistryAuthConfig.Kind kind) {
+                RegistryService.RegistryConfig registryConfig = getRegistryConfig(kind);
+                return registryConfig != null ? registryConfig.getRegistry() : null;
+            }
+
+            @Override
+            public AuthConfig getAuthConfig(RegistryAuthConfig.Kind kind, String user, String registry) throws IOException {
+                RegistryService.RegistryConfig registryConfig = getRegistryConfig(kind);
+                if (registryConfig == null || registryConfig.getAuthConfigFactory() == null) {
+                    return null;
+                }
+                try {
+                    return registryConfig.getAuthConfigFactory().createAuthConfig(kind == RegistryAuthConfig.Kind.PUSH,
+                        registryConfig.isSkipExtendedAuth(), registryConfig.getAuthConfig(), registryConfig.getSettings(),
+                        user, registry, registryConfig.getPasswordDecryptionMethod());
+                } catch (IOException exp) {
+                    throw exp;
+                } catch (Exception exp) {
+                    throw new IOException("Cannot get credentials for registry " + registry + ": " + exp.getMessage(), exp);
+                }
+            }
+
+            private RegistryService.RegistryConfig getRegistryConfig(RegistryAuthConfig.Kind kind) {
+                return kind == RegistryAuthConfig.Kind.PUSH ? pushRegistryConfig : pullRegistryConfig;
+            }
+        };
+    }
+}
@@ -18,8 +18,10 @@ import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
 import org.eclipse.jkube.kit.common.JKubeProject;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.config.access.ClusterAccess;
+import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
 import org.eclipse.jkube.kit.config.resource.RuntimeMode;
 import org.eclipse.jkube.kit.config.service.kubernetes.DockerBuildService;
+import org.eclipse.jkube.kit.config.service.oci.DaemonlessBuildService;
 import org.eclipse.jkube.kit.config.service.openshift.OpenshiftBuildService;
 import mockit.Expectations;
 import mockit.Mocked;
@@ -125,6 +127,26 @@ public class JKubeServiceHubTest {
         assertTrue(buildService instanceof OpenshiftBuildService);
     }
 
+    @Test
+    public void testObtainDaemonlessBuildService() {
+        new Expectations() {{
+            buildServiceConfig.getOpenshiftBuildStrategy();
+            result = OpenShiftBuildStrategy.oci;
+        }};
+        JKubeServiceHub hub = new JKubeServiceHub.Builder()
+                .clusterAccess(clusterAccess)
+                .log(logger)
+                .platformMode(RuntimeMode.openshift)
+                .dockerServiceHub(dockerServiceHub)
+                .buildServiceConfig(buildServiceConfig)
+                .build();
+
+        BuildService buildService = hub.getBuildService();
+
+        assertNotNull(buildService);
+        assertTrue(buildService instanceof DaemonlessBuildService);
+    }
+
     @Test
     public void testObtainArtifactResolverService() {
         JKubeServiceHub hub = new JKubeServiceHub.Builder()
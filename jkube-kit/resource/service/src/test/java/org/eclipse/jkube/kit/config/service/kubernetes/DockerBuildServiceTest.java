@@ -19,11 +19,16 @@ import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.ImagePullManager;
 import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
 import org.eclipse.jkube.kit.build.service.docker.helper.AutoPullMode;
+import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.config.image.build.ImagePullPolicy;
 import mockit.Mocked;
+import mockit.Verifications;
 import mockit.VerificationsInOrder;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
+
 public class DockerBuildServiceTest {
 
     @Mocked
@@ -32,6 +37,9 @@ public class DockerBuildServiceTest {
     @Mocked
     private BuildService buildService;
 
+    @Mocked
+    private KitLogger log;
+
     @Test
     public void testSuccessfulBuild() throws Exception {
 
@@ -51,12 +59,65 @@ public class DockerBuildServiceTest {
                         .build()
                 ).build();
 
-        DockerBuildService service = new DockerBuildService(hub, config);
+        DockerBuildService service = new DockerBuildService(hub, config, log);
         service.build(image);
 
         new VerificationsInOrder() {{
-            buildService.buildImage(image, config.getImagePullManager(), context);
-            buildService.tagImage(imageName, image);
+            buildService.buildImage(image, config.getImagePullManager(), context, log);
+            buildService.tagImage(imageName, image, log);
+        }};
+    }
+
+    @Test
+    public void testBuildWithImageLogger(@Mocked KitLogger imageLog) throws Exception {
+
+        final BuildService.BuildContext context = new BuildService.BuildContext.Builder()
+                .build();
+
+        final org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig config = new org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig.Builder()
+                .dockerBuildContext(context)
+                .imagePullManager(new ImagePullManager(new TestCacheStore(), ImagePullPolicy.Always.name(), AutoPullMode.ALWAYS.name()))
+                .build();
+
+        final String imageName = "image-name";
+        final ImageConfiguration image = new ImageConfiguration.Builder()
+                .name(imageName)
+                .buildConfig(new JKubeBuildConfiguration.Builder()
+                        .from("from")
+                        .build()
+                ).build();
+
+        new DockerBuildService(hub, config, log).build(image, imageLog);
+
+        new VerificationsInOrder() {{
+            buildService.buildImage(image, config.getImagePullManager(), context, imageLog);
+            buildService.tagImage(imageName, image, imageLog);
+        }};
+    }
+
+    @Test
+    public void testPreparePullsAllBaseImages() throws Exception {
+
+        final BuildService.BuildContext context = new BuildService.BuildContext.Builder()
+                .build();
+
+        final org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig config = new org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig.Builder()
+                .dockerBuildContext(context)
+                .imagePullManager(new ImagePullManager(new TestCacheStore(), ImagePullPolicy.IfNotPresent.name(), AutoPullMode.ON.name()))
+                .build();
+
+        final List<ImageConfiguration> images = Collections.singletonList(new ImageConfiguration.Builder()
+                .name("image-name")
+                .buildConfig(new JKubeBuildConfiguration.Builder()
+                        .from("from")
+                        .build()
+                ).build());
+
+        new DockerBuildService(hub, config, log).prepare(images);
+
+        new Verifications() {{
+            buildService.pullBaseImages(images, config.getImagePullManager(), context);
+            times = 1;
         }};
     }
 
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.kit.config.service.oci;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.jkube.kit.build.api.RegistryContext;
+import org.eclipse.jkube.kit.build.core.JKubeBuildContext;
+import org.eclipse.jkube.kit.build.core.config.JKubeBuildConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.ArchiveService;
+import org.eclipse.jkube.kit.build.service.docker.BuildService;
+import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
+import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
+import org.eclipse.jkube.kit.build.service.oci.OciBuildService;
+import org.eclipse.jkube.kit.common.KitLogger;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.Verifications;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DaemonlessBuildServiceTest {
+
+    @Mocked
+    private ServiceHub hub;
+
+    @Mocked
+    private ArchiveService archiveService;
+
+    @Mocked
+    private OciBuildService ociBuildService;
+
+    @Mocked
+    private JKubeBuildContext buildContext;
+
+    @Mocked
+    private KitLogger log;
+
+    @Test
+    public void testBuildPushesImageCreatedFromBuildArchive() throws Exception {
+        // Given
+        File archive = new File("docker-build.tar");
+        ImageConfiguration image = new ImageConfiguration.Builder()
+                .name("registry.example.com/jkube/app:1.0")
+                .buildConfig(new JKubeBuildConfiguration.Builder()
+                        .from("openjdk:11")
+                        .tags(Collections.singletonList("latest"))
+                        .args(Collections.singletonMap("VERSION", "1.0"))
+                        .build())
+                .build();
+        org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig config =
+                new org.eclipse.jkube.kit.config.service.BuildService.BuildServiceConfig.Builder()
+                        .dockerBuildContext(new BuildService.BuildContext.Builder()
+                                .buildArgs(Collections.singletonMap("PROXY", "proxy"))
+                                .build())
+                        .dockerMavenBuildContext(buildContext)
+                        .build();
+        new Expectations() {{
+            hub.getArchiveService();
+            result = archiveService;
+            archiveService.createDockerBuildArchive(image, buildContext);
+            result = archive;
+        }};
+
+        // When
+        new DaemonlessBuildService(hub, config, log).build(image);
+
+        // Then
+        new Verifications() {{
+            new OciBuildService(withInstanceOf(RegistryContext.class), log);
+            Map<String, String> buildArgs;
+            ociBuildService.buildImage("registry.example.com/jkube/app:1.0", null, Collections.singletonList("latest"),
+                    archive, "Dockerfile", buildArgs = withCapture());
+            assertEquals("1.0", buildArgs.get("VERSION"));
+            assertEquals("proxy", buildArgs.get("PROXY"));
+        }};
+    }
+}
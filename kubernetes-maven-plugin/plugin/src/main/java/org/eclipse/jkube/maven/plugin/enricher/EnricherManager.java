@@ -13,6 +13,7 @@
  */
 package org.eclipse.jkube.maven.plugin.enricher;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.util.ClassUtil;
@@ -23,9 +24,17 @@ import org.eclipse.jkube.kit.config.resource.ResourceConfig;
 import org.eclipse.jkube.maven.enricher.api.Enricher;
 import org.eclipse.jkube.maven.enricher.api.EnricherContext;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import static org.eclipse.jkube.maven.enricher.api.util.Misc.filterEnrichers;
 
@@ -43,6 +52,12 @@ public class EnricherManager {
 
     private KitLogger log;
 
+    // Maximum number of resources enriched at the same time
+    private final int parallelism;
+
+    // Threads for enriching resources at the same time, shared by all calls. Idle threads end after a while.
+    private ExecutorService executor;
+
     public EnricherManager(ResourceConfig resourceConfig, EnricherContext enricherContext, Optional<List<String>> extraClasspathElements) {
         PluginServiceFactory<EnricherContext> pluginFactory = new PluginServiceFactory<>(enricherContext);
 
@@ -51,6 +66,7 @@ public class EnricherManager {
 
         this.log = enricherContext.getLog();
         this.defaultEnricherConfig = enricherContext.getConfiguration().getProcessorConfig().orElse(ProcessorConfig.EMPTY);
+        this.parallelism = Runtime.getRuntime().availableProcessors();
 
         this.enrichers = pluginFactory.createServiceObjects("META-INF/jkube-enricher-default",
                 "META-INF/jkube/enricher-default",
@@ -61,16 +77,20 @@ public class EnricherManager {
 
     }
 
+    EnricherManager(ProcessorConfig defaultEnricherConfig, List<Enricher> enrichers, KitLogger log, int parallelism) {
+        this.defaultEnricherConfig = defaultEnricherConfig;
+        this.enrichers = enrichers;
+        this.log = log;
+        this.parallelism = parallelism;
+    }
+
     public void createDefaultResources(PlatformMode platformMode, final KubernetesListBuilder builder) {
         createDefaultResources(platformMode, defaultEnricherConfig, builder);
     }
 
     public void createDefaultResources(PlatformMode platformMode, ProcessorConfig enricherConfig, final KubernetesListBuilder builder) {
         // Add default resources
-        loop(enricherConfig, enricher -> {
-            enricher.create(platformMode, builder);
-            return null;
-        });
+        loop(enricherConfig, builder, (enricher, listBuilder) -> enricher.create(platformMode, listBuilder));
     }
 
     public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
@@ -88,10 +108,7 @@ public class EnricherManager {
      * @param enricherList list of enrichers
      */
     private void enrich(PlatformMode platformMode, final ProcessorConfig enricherConfig, final KubernetesListBuilder builder, final List<Enricher> enricherList) {
-        loop(enricherConfig, enricher -> {
-                enricher.enrich(platformMode, builder);
-                return null;
-            });
+        loop(enricherConfig, builder, (enricher, listBuilder) -> enricher.enrich(platformMode, listBuilder));
     }
 
     // =============================================================================================
@@ -102,9 +119,79 @@ public class EnricherManager {
         }
     }
 
-    private void loop(ProcessorConfig config, Function<Enricher, Void> function) {
+    private void loop(ProcessorConfig config, KubernetesListBuilder builder, BiConsumer<Enricher, KubernetesListBuilder> function) {
+        List<Enricher> independentEnrichers = new ArrayList<>();
         for (Enricher enricher : filterEnrichers(config, enrichers)) {
-            function.apply(enricher);
+            if (enricher.processesResourcesIndependently()) {
+                independentEnrichers.add(enricher);
+            } else {
+                applyPerResource(independentEnrichers, builder, function);
+                independentEnrichers.clear();
+                function.accept(enricher, builder);
+            }
+        }
+        applyPerResource(independentEnrichers, builder, function);
+    }
+
+    // Consecutive enrichers which process every resource on its own are applied to all resources concurrently.
+    // For each resource they are still applied in their configured order.
+    private void applyPerResource(List<Enricher> enricherList, KubernetesListBuilder builder, BiConsumer<Enricher, KubernetesListBuilder> function) {
+        if (enricherList.isEmpty()) {
+            return;
+        }
+        List<HasMetadata> items = builder.buildItems();
+        if (Math.min(items.size(), parallelism) < 2) {
+            for (Enricher enricher : enricherList) {
+                function.accept(enricher, builder);
+            }
+            return;
+        }
+        List<Future<List<HasMetadata>>> results = new ArrayList<>();
+        try {
+            for (HasMetadata item : items) {
+                results.add(getExecutor().submit(() -> {
+                    KubernetesListBuilder itemBuilder = new KubernetesListBuilder().addToItems(item);
+                    for (Enricher enricher : enricherList) {
+                        function.accept(enricher, itemBuilder);
+                    }
+                    return itemBuilder.buildItems();
+                }));
+            }
+            List<HasMetadata> enrichedItems = new ArrayList<>();
+            for (Future<List<HasMetadata>> result : results) {
+                enrichedItems.addAll(result.get());
+            }
+            builder.withItems(enrichedItems);
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while enriching resources", exp);
+        } catch (ExecutionException exp) {
+            Throwable cause = exp.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause.getMessage(), cause);
+        } finally {
+            // Don't let the remaining items of a failed group run
+            results.forEach(result -> result.cancel(true));
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, 10, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "jkube-enricher-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
         }
+        return executor;
     }
-}
\ No newline at end of file
+}
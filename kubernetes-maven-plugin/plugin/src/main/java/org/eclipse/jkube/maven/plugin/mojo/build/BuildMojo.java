@@ -23,6 +23,7 @@ import org.eclipse.jkube.kit.build.service.docker.config.ConfigHelper;
 import org.eclipse.jkube.kit.common.util.AnsiLogger;
 import org.eclipse.jkube.kit.common.util.MavenUtil;
 import org.eclipse.jkube.kit.config.access.ClusterAccess;
+import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
 import org.eclipse.jkube.kit.config.service.JKubeServiceHub;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -52,6 +53,11 @@ public class BuildMojo extends AbstractDockerMojo implements Contextualizable {
         executeDockerBuild();
     }
 
+    @Override
+    protected boolean isDockerAccessRequired() {
+        return buildStrategy != OpenShiftBuildStrategy.oci;
+    }
+
     @Override
     public void executeInternal(ServiceHub hub) throws MojoExecutionException {
         if (skipBuild) {
@@ -86,8 +92,8 @@ public class BuildMojo extends AbstractDockerMojo implements Contextualizable {
 
     public void executeDockerBuild() throws MojoExecutionException, MojoFailureException {
         if (!skip) {
-            log = new AnsiLogger(getLog(), useColor, verbose, !settings.getInteractiveMode(), getLogPrefix());
-            authConfigFactory = new AuthConfigFactory(log);
+            log = new AnsiLogger(getLog(), useColor, verbose, useBatchModeForLogging(), getLogPrefix());
+            authConfigFactory = new AuthConfigFactory(log, getAuthConfigCache());
             imageConfigResolver.setLog(log);
 
             LogOutputSpecFactory logSpecFactory = new LogOutputSpecFactory(useColor, logStdout, logDate);
@@ -17,6 +17,7 @@ package org.eclipse.jkube.maven.plugin.mojo.build;
 import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
 import org.eclipse.jkube.kit.build.service.docker.auth.AuthConfigFactory;
 import org.eclipse.jkube.kit.config.access.ClusterAccess;
+import org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -38,10 +39,6 @@ public class PushMojo extends AbstractDockerMojo {
     @Parameter(property = "docker.skip.push", defaultValue = "false")
     protected boolean skipPush;
 
-    // Registry to use for push operations if no registry is specified
-    @Parameter(property = "docker.push.registry")
-    private String pushRegistry;
-
     /**
      * Skip building tags
      */
@@ -60,14 +57,23 @@ public class PushMojo extends AbstractDockerMojo {
         super.execute();
     }
 
+    @Override
+    protected boolean isDockerAccessRequired() {
+        return buildStrategy != OpenShiftBuildStrategy.oci;
+    }
+
     @Override
     public void executeInternal(ServiceHub serviceHub) throws MojoExecutionException {
         if (skipPush) {
             return;
         }
+        if (buildStrategy == OpenShiftBuildStrategy.oci) {
+            log.info("Images have been pushed by the build already");
+            return;
+        }
 
         try {
-            serviceHub.getRegistryService().pushImages(getResolvedImages(), retries, getRegistryConfig(pushRegistry), skipTag);
+            serviceHub.getRegistryService().pushImages(getResolvedImages(), retries, getRegistryConfig(pushRegistry), skipTag, parallelism);
         } catch (Exception exp) {
             throw new MojoExecutionException(exp.getMessage());
         }
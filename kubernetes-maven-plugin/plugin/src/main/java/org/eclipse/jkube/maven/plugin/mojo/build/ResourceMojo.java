@@ -18,6 +18,8 @@ import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.openshift.api.model.Template;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.eclipse.jkube.generator.api.GeneratorContext;
 import org.eclipse.jkube.kit.common.JKubeProject;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
@@ -31,6 +33,7 @@ import org.eclipse.jkube.kit.common.util.JKubeProjectUtil;
 import org.eclipse.jkube.kit.common.util.KubernetesHelper;
 import org.eclipse.jkube.kit.common.util.MavenUtil;
 import org.eclipse.jkube.kit.common.util.ResourceClassifier;
+import org.eclipse.jkube.kit.common.util.ResourceFingerprint;
 import org.eclipse.jkube.kit.common.util.ResourceUtil;
 import org.eclipse.jkube.kit.common.util.ValidationUtil;
 import org.eclipse.jkube.kit.common.util.validator.ResourceValidator;
@@ -84,6 +87,8 @@ import static org.eclipse.jkube.maven.plugin.mojo.build.BuildMojo.CONTEXT_KEY_BU
 @Mojo(name = "resource", defaultPhase = LifecyclePhase.PROCESS_RESOURCES, requiresDependencyResolution = ResolutionScope.COMPILE)
 public class ResourceMojo extends AbstractJKubeMojo {
 
+    private static final String RESOURCE_FINGERPRINT_FILE = "resource.fingerprint";
+
     // Filename for holding the build timestamp
     public static final String DOCKER_BUILD_TIMESTAMP = "docker/build.timestamp";
 
@@ -152,6 +157,13 @@ public class ResourceMojo extends AbstractJKubeMojo {
     @Parameter(property = "jkube.failOnValidationError", defaultValue = "false")
     private Boolean failOnValidationError;
 
+    // Reuse the resources generated before if none of their input has changed
+    @Parameter(property = "jkube.resourceCache", defaultValue = "true")
+    private boolean resourceCache;
+
+    @Parameter(defaultValue = "${plugin}", readonly = true)
+    private PluginDescriptor pluginDescriptor;
+
     // Reusing image configuration from d-m-p
     @Parameter
     private List<ImageConfiguration> images;
@@ -356,9 +368,21 @@ public class ResourceMojo extends AbstractJKubeMojo {
         updateKindFilenameMappings();
         try {
             lateInit();
+            boolean generate = !skip && (!isPomProject() || hasJKubeDir());
+            String fingerprint = generate ? createResourceFingerprint() : null;
+            File fingerprintFile = new File(workDir, RESOURCE_FINGERPRINT_FILE);
+            File cachedResourceFile = fingerprint != null ? ResourceFingerprint.getStoredFile(fingerprintFile, fingerprint) : null;
+            if (cachedResourceFile != null) {
+                log.info("Resource input unchanged, reusing %s", cachedResourceFile);
+                storeReferenceDateInPluginContext(getBuildReferenceDate());
+                projectHelper.attachArtifact(project, this.resourceFileType.getArtifactType(),
+                        getResourceClassifier().getValue(), cachedResourceFile);
+                return;
+            }
+            ResourceFingerprint.clear(fingerprintFile);
             // Resolve the Docker image build configuration
             resolvedImages = getResolvedImages(images, log);
-            if (!skip && (!isPomProject() || hasJKubeDir())) {
+            if (generate) {
                 // Extract and generate resources which can be a mix of Kubernetes and OpenShift resources
                 KubernetesList resources;
                 for(PlatformMode platformMode : new PlatformMode[] { PlatformMode.kubernetes }) {
@@ -366,9 +390,12 @@ public class ResourceMojo extends AbstractJKubeMojo {
                             : ResourceClassifier.OPENSHIFT;
 
                     resources = generateResources(platformMode, resolvedImages);
-                    writeResources(resources, resourceClassifier);
+                    File resourceFile = writeResources(resources, resourceClassifier);
                     File resourceDir = new File(this.targetDir, resourceClassifier.getValue());
                     validateIfRequired(resourceDir, resourceClassifier);
+                    if (fingerprint != null) {
+                        ResourceFingerprint.store(fingerprintFile, fingerprint, resourceFile);
+                    }
                 }
             }
         } catch (IOException | DependencyResolutionRequiredException e) {
@@ -376,6 +403,65 @@ public class ResourceMojo extends AbstractJKubeMojo {
         }
     }
 
+    private ResourceClassifier getResourceClassifier() {
+        return ResourceClassifier.KUBERNETES;
+    }
+
+    // Fingerprint of all input of the resource generation, null if the resources must be generated anyway
+    private String createResourceFingerprint() throws IOException {
+        if (!resourceCache || (resources != null && resources.getRemotes() != null && !resources.getRemotes().isEmpty())) {
+            // Remote fragments can change anytime
+            return null;
+        }
+        File timestampFile = new File(project.getBuild().getDirectory(), DOCKER_BUILD_TIMESTAMP);
+        // Image names with a timestamp change with every build, unless the timestamp of a previous build is used
+        if (!timestampFile.exists() && usesTimestampPattern()) {
+            return null;
+        }
+        ResourceFingerprint fingerprint = new ResourceFingerprint()
+                .add("plugin", pluginDescriptor != null ? pluginDescriptor.getId() : null)
+                .add("runtimeMode", runtimeMode)
+                .add("resourceFileType", resourceFileType)
+                .addProject(project, session)
+                .addAll("systemProperties", getJKubeSystemProperties())
+                .addContent(realResourceDir)
+                .addContent(timestampFile)
+                .addGitHead(project.getBasedir());
+        if (pluginDescriptor != null && pluginDescriptor.getPluginArtifact() != null && pluginDescriptor.getPluginArtifact().getFile() != null) {
+            fingerprint.addState(pluginDescriptor.getPluginArtifact().getFile());
+        }
+        // Compiled classes and configuration files read by enrichers, apart from the resources generated
+        fingerprint.addOutputDirectory(new File(project.getBuild().getOutputDirectory()), this.targetDir);
+        // Archives looked up by generators
+        File[] buildFiles = new File(project.getBuild().getDirectory()).listFiles(File::isFile);
+        if (buildFiles != null) {
+            Arrays.sort(buildFiles);
+            for (File buildFile : buildFiles) {
+                fingerprint.addState(buildFile);
+            }
+        }
+        return fingerprint.get();
+    }
+
+    private Map<String, String> getJKubeSystemProperties() {
+        Map<String, String> ret = new HashMap<>();
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("jkube.") || key.startsWith("docker.")) {
+                ret.put(key, System.getProperty(key));
+            }
+        }
+        return ret;
+    }
+
+    private boolean usesTimestampPattern() {
+        Plugin plugin = pluginDescriptor != null ? project.getPlugin(pluginDescriptor.getPluginLookupKey()) : null;
+        if (plugin != null && ResourceFingerprint.getConfiguration(plugin).contains("%t")) {
+            return true;
+        }
+        return project.getProperties().values().stream().anyMatch(value -> String.valueOf(value).contains("%t")) ||
+                session.getUserProperties().values().stream().anyMatch(value -> String.valueOf(value).contains("%t"));
+    }
+
     private void updateKindFilenameMappings() {
         if (mappings != null) {
             final Map<String, List<String>> mappingKindFilename = new HashMap<>();
@@ -622,7 +708,7 @@ public class ResourceMojo extends AbstractJKubeMojo {
         return "pom".equals(project.getPackaging());
     }
 
-    protected void writeResources(KubernetesList resources, ResourceClassifier classifier)
+    protected File writeResources(KubernetesList resources, ResourceClassifier classifier)
         throws MojoExecutionException {
         // write kubernetes.yml / openshift.yml
         File resourceFileBase = new File(this.targetDir, classifier.getValue());
@@ -634,6 +720,7 @@ public class ResourceMojo extends AbstractJKubeMojo {
 
         // Attach it to the Maven reactor so that it will also get deployed
         projectHelper.attachArtifact(project, this.resourceFileType.getArtifactType(), classifier.getValue(), file);
+        return file;
     }
 
     protected ClusterConfiguration getClusterConfiguration() {
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+import static org.junit.Assert.assertEquals
+import static org.junit.Assert.assertTrue
+
+String buildLog = new File(basedir, "build.log").text
+assertEquals("Resources of the second invocation must be reused",
+        1, buildLog.count("Resource input unchanged"))
+
+String resources = new File(basedir, "/target/classes/META-INF/jkube/openshift.yml").text
+assertTrue("Resources must be generated again after a configuration change",
+        resources.contains("cacheTest: changed"))
+
+true
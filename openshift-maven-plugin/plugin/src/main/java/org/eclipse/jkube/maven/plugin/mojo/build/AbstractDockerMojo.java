@@ -30,6 +30,7 @@ import org.eclipse.jkube.kit.build.service.docker.BuildService;
 import org.eclipse.jkube.kit.build.service.docker.DockerAccessFactory;
 import org.eclipse.jkube.kit.build.service.docker.ImageConfiguration;
 import org.eclipse.jkube.kit.build.service.docker.ImagePullManager;
+import org.eclipse.jkube.kit.build.service.docker.PersistentImagePullCache;
 import org.eclipse.jkube.kit.build.service.docker.RegistryService;
 import org.eclipse.jkube.kit.build.service.docker.ServiceHub;
 import org.eclipse.jkube.kit.build.service.docker.ServiceHubFactory;
@@ -37,6 +38,7 @@ import org.eclipse.jkube.kit.build.service.docker.access.DockerAccess;
 import org.eclipse.jkube.kit.build.service.docker.access.DockerAccessException;
 import org.eclipse.jkube.kit.build.service.docker.access.log.LogDispatcher;
 import org.eclipse.jkube.kit.build.service.docker.access.log.LogOutputSpecFactory;
+import org.eclipse.jkube.kit.build.service.docker.auth.AuthConfigCache;
 import org.eclipse.jkube.kit.build.service.docker.auth.AuthConfigFactory;
 import org.eclipse.jkube.kit.build.service.docker.config.ConfigHelper;
 import org.eclipse.jkube.kit.build.service.docker.config.DockerMachineConfiguration;
@@ -46,6 +48,7 @@ import org.eclipse.jkube.kit.common.JKubeProject;
 import org.eclipse.jkube.kit.common.util.AnsiLogger;
 import org.eclipse.jkube.kit.build.service.docker.helper.ContainerNamingUtil;
 import org.eclipse.jkube.kit.build.service.docker.helper.ImageNameFormatter;
+import org.eclipse.jkube.kit.build.service.docker.helper.ImageTaskScheduler;
 import org.eclipse.jkube.kit.common.KitLogger;
 import org.eclipse.jkube.kit.common.util.EnvUtil;
 import org.eclipse.jkube.kit.common.util.MavenUtil;
@@ -109,6 +112,12 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     // Key under which the build timestamp is stored so that other mojos can reuse it
     public static final String CONTEXT_KEY_BUILD_TIMESTAMP = "CONTEXT_KEY_BUILD_TIMESTAMP";
 
+    // Key under which the timestamp of reproducible archives is stored, so that the git history is read only once
+    public static final String CONTEXT_KEY_REPRODUCIBLE_TIMESTAMP = "CONTEXT_KEY_REPRODUCIBLE_TIMESTAMP";
+
+    // Key holding the cache of resolved registry credentials, so that all goals of a build share it
+    public static final String CONTEXT_KEY_AUTH_CONFIG_CACHE = "CONTEXT_KEY_AUTH_CONFIG_CACHE";
+
     // Filename for holding the build timestamp
     public static final String DOCKER_BUILD_TIMESTAMP = "docker/build.timestamp";
 
@@ -195,9 +204,26 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     @Parameter(property = "docker.imagePullPolicy")
     protected String imagePullPolicy;
 
+    /**
+     * Minutes a pulled image is regarded as up to date by all builds sharing the pull cache file.
+     * With 0 pulls are only remembered for the current build.
+     */
+    @Parameter(property = "docker.pullCacheTtl", defaultValue = "0")
+    protected int pullCacheTtl;
+
+    /**
+     * File in which pulled images are remembered when a <code>pullCacheTtl</code> is set
+     */
+    @Parameter(property = "docker.pullCacheFile", defaultValue = "${user.home}/.jkube/image-pull-cache.json")
+    protected File pullCacheFile;
+
     @Parameter(property = "docker.pull.registry")
     protected String pullRegistry;
 
+    // Registry to use for push operations if no registry is specified
+    @Parameter(property = "docker.push.registry")
+    protected String pushRegistry;
+
     /**
      * Profile to use. A profile contains the enrichers and generators to
      * use as well as their configuration. Profiles are looked up
@@ -280,6 +306,41 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     @Parameter(property = "docker.skip.build", defaultValue = "false")
     protected boolean skipBuild;
 
+    /**
+     * Whether to send the build archive to the Docker daemon while it is created instead of
+     * creating a docker-build.tar first.
+     */
+    @Parameter(property = "docker.streamBuildArchive", defaultValue = "false")
+    protected boolean streamBuildArchive;
+
+    /**
+     * Whether to skip the build of an image when it has already been built from the
+     * same build context before.
+     */
+    @Parameter(property = "docker.buildCache", defaultValue = "false")
+    protected boolean buildCache;
+
+    /**
+     * Whether to create build archives which only depend on the content of the archived files,
+     * so that repeated builds of the same sources result in the same image layers.
+     */
+    @Parameter(property = "docker.reproducible", defaultValue = "false")
+    protected boolean reproducible;
+
+    /**
+     * Latest modification time of files in reproducible build archives. Defaults to the time
+     * of the latest git commit.
+     */
+    @Parameter(property = "docker.outputTimestamp", defaultValue = "${project.build.outputTimestamp}")
+    protected String outputTimestamp;
+
+    /**
+     * Number of images which are built or pushed at the same time. Images depending on
+     * each other are still processed one after the other.
+     */
+    @Parameter(property = "docker.parallelism", defaultValue = "1")
+    protected int parallelism;
+
     /**
      * OpenShift build mode when an OpenShift build is performed.
      * Can be either "s2i" for an s2i binary build mode or "docker" for a binary
@@ -435,8 +496,8 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     public void execute() throws MojoExecutionException, MojoFailureException {
         if (!skip) {
             boolean ansiRestore = Ansi.isEnabled();
-            log = new AnsiLogger(getLog(), useColorForLogging(), verbose, !settings.getInteractiveMode(), getLogPrefix());
-            authConfigFactory = new AuthConfigFactory(log);
+            log = new AnsiLogger(getLog(), useColorForLogging(), verbose, useBatchModeForLogging(), getLogPrefix());
+            authConfigFactory = new AuthConfigFactory(log, getAuthConfigCache());
             imageConfigResolver.setLog(log);
 
             try {
@@ -483,6 +544,8 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                 .buildArgs(buildArgs)
                 .mojoParameters(createMojoParameters())
                 .registryConfig(getRegistryConfig(pullRegistry))
+                .streamBuildArchive(streamBuildArchive)
+                .buildCache(buildCache)
                 .build();
     }
 
@@ -493,9 +556,26 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                 .sourceDirectory(sourceDirectory)
                 .outputDirectory(outputDirectory)
                 .reactorProjects(Arrays.asList(jkubeProject))
+                .reproducibleTimestamp(getReproducibleTimestamp())
                 .build();
     }
 
+    protected synchronized Date getReproducibleTimestamp() {
+        if (!reproducible) {
+            return null;
+        }
+        Date timestamp = (Date) getPluginContext().get(CONTEXT_KEY_REPRODUCIBLE_TIMESTAMP);
+        if (timestamp == null) {
+            try {
+                timestamp = EnvUtil.getReproducibleTimestamp(outputTimestamp, project.getBasedir());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot determine the timestamp for reproducible builds: " + e.getMessage(), e);
+            }
+            getPluginContext().put(CONTEXT_KEY_REPRODUCIBLE_TIMESTAMP, timestamp);
+        }
+        return timestamp;
+    }
+
     // Get the reference date for the build. By default this is picked up
     // from an existing build date file. If this does not exist, the current date is used.
     protected Date getReferenceDate() throws IOException {
@@ -513,17 +593,18 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
      *
      * @param hub          ServiceHub
      * @param aImageConfig ImageConfiguration that would be forwarded to build and tag
+     * @param imageLog     logger for the build of this image
      * @throws DockerAccessException
      * @throws MojoExecutionException
      */
-    protected void processImageConfig(ServiceHub hub, ImageConfiguration aImageConfig) throws IOException, MojoExecutionException {
+    protected void processImageConfig(ServiceHub hub, ImageConfiguration aImageConfig, KitLogger imageLog) throws IOException, MojoExecutionException {
         BuildConfiguration buildConfig = aImageConfig.getBuildConfiguration();
 
         if (buildConfig != null) {
             if (buildConfig.getSkip()) {
-                log.info("%s : Skipped building", aImageConfig.getDescription());
+                imageLog.info("%s : Skipped building", aImageConfig.getDescription());
             } else {
-                buildAndTag(hub, aImageConfig);
+                buildAndTag(hub, aImageConfig, imageLog);
             }
         }
     }
@@ -550,6 +631,11 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
         return now;
     }
 
+    // Images might be built at the same time, so the timestamp must not be written concurrently
+    protected synchronized void storeBuildTimestamp() throws IOException {
+        EnvUtil.storeTimestamp(getBuildTimestampFile(), getBuildTimestamp());
+    }
+
     protected void processDmpPluginDescription(URL pluginDesc, File outputDir) throws IOException {
         String line = null;
         try (LineNumberReader reader =
@@ -680,9 +766,16 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
         // Check for build plugins
         executeBuildPlugins();
 
-        // Iterate over all the ImageConfigurations and process one by one
-        for (ImageConfiguration imageConfig : getResolvedImages()) {
-            processImageConfig(hub, imageConfig);
+        // Process all the ImageConfigurations, independent ones at the same time if configured
+        try {
+            // Fetch the base images of all builds at once before the first build starts
+            jkubeServiceHub.getBuildService().prepare(getResolvedImages());
+            new ImageTaskScheduler(log, parallelism).run(getResolvedImages(),
+                    (imageConfig, imageLog) -> processImageConfig(hub, imageConfig, imageLog));
+        } catch (IOException | MojoExecutionException | RuntimeException exp) {
+            throw exp;
+        } catch (Exception exp) {
+            throw new MojoExecutionException(exp.getMessage(), exp);
         }
     }
 
@@ -705,14 +798,14 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
         return true;
     }
 
-    protected void buildAndTag(ServiceHub hub, ImageConfiguration imageConfig)
+    protected void buildAndTag(ServiceHub hub, ImageConfiguration imageConfig, KitLogger imageLog)
             throws MojoExecutionException, DockerAccessException {
 
         try {
             // TODO need to refactor d-m-p to avoid this call
-            EnvUtil.storeTimestamp(getBuildTimestampFile(), getBuildTimestamp());
+            storeBuildTimestamp();
 
-            jkubeServiceHub.getBuildService().build(imageConfig);
+            jkubeServiceHub.getBuildService().build(imageConfig, imageLog);
 
         } catch (Exception ex) {
             throw new MojoExecutionException("Failed to execute the build", ex);
@@ -730,6 +823,7 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                 .s2iImageStreamLookupPolicyLocal(s2iImageStreamLookupPolicyLocal)
                 .forcePullEnabled(forcePull)
                 .imagePullManager(getImagePullManager(imagePullPolicy, autoPull))
+                .pushRegistryConfig(getRegistryConfig(pushRegistry))
                 .buildDirectory(project.getBuild().getDirectory())
                 .attacher((classifier, destFile) -> {
                     if (destFile.exists()) {
@@ -748,7 +842,9 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     public List<ImageConfiguration> customizeConfig(List<ImageConfiguration> configs) {
         runtimeMode = clusterAccess.resolveRuntimeMode(mode, log);
         log.info("Running in [[B]]%s[[B]] mode", runtimeMode.getLabel());
-        if (runtimeMode == RuntimeMode.openshift) {
+        if (buildStrategy == OpenShiftBuildStrategy.oci) {
+            log.info("Building image without Docker daemon, pushing it to the registry");
+        } else if (runtimeMode == RuntimeMode.openshift) {
             log.info("Using [[B]]OpenShift[[B]] build with strategy [[B]]%s[[B]]", buildStrategy.getLabel());
         } else {
             log.info("Building Docker image in [[B]]Kubernetes[[B]] mode");
@@ -808,7 +904,8 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
     }
 
     public ImagePullManager getImagePullManager(String imagePullPolicy, String autoPull) {
-        return new ImagePullManager(getSessionCacheStore(), imagePullPolicy, autoPull);
+        return new ImagePullManager(getSessionCacheStore(), imagePullPolicy, autoPull,
+            pullCacheTtl > 0 ? new PersistentImagePullCache(pullCacheFile, pullCacheTtl) : null);
     }
 
     protected ImagePullManager.CacheStore getSessionCacheStore() {
@@ -882,6 +979,15 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
                 && !(EnvUtil.isWindows() && !MavenUtil.isMaven350OrLater(session));
     }
 
+    /**
+     * Determine whether to log in batch mode, without progress bars. Progress bars can't be shown
+     * for several images at the same time.
+     * @return true if no progress bars should be shown
+     */
+    protected boolean useBatchModeForLogging() {
+        return !settings.getInteractiveMode() || parallelism > 1;
+    }
+
     protected ClusterConfiguration getClusterConfiguration() {
         final ClusterConfiguration.Builder clusterConfigurationBuilder = new ClusterConfiguration.Builder(access);
 
@@ -902,6 +1008,15 @@ public abstract class AbstractDockerMojo extends AbstractMojo implements ConfigH
         return Boolean.valueOf(System.getProperty("docker.follow", "false"));
     }
 
+    protected synchronized AuthConfigCache getAuthConfigCache() {
+        AuthConfigCache cache = (AuthConfigCache) getPluginContext().get(CONTEXT_KEY_AUTH_CONFIG_CACHE);
+        if (cache == null) {
+            cache = new AuthConfigCache();
+            getPluginContext().put(CONTEXT_KEY_AUTH_CONFIG_CACHE, cache);
+        }
+        return cache;
+    }
+
     protected LogDispatcher getLogDispatcher(ServiceHub hub) {
         LogDispatcher dispatcher = (LogDispatcher) getPluginContext().get(CONTEXT_KEY_LOG_DISPATCHER);
         if (dispatcher == null) {
@@ -38,6 +38,7 @@ import org.codehaus.plexus.personality.plexus.lifecycle.phase.Contextualizable;
 import java.io.IOException;
 
 import static org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy.docker;
+import static org.eclipse.jkube.kit.config.image.build.OpenShiftBuildStrategy.oci;
 import static org.eclipse.jkube.kit.config.resource.RuntimeMode.kubernetes;
 
 /**
@@ -51,6 +52,9 @@ public class BuildMojo extends AbstractDockerMojo implements Contextualizable {
 
     @Override
     protected boolean isDockerAccessRequired() {
+        if (buildStrategy == oci) {
+            return false;
+        }
         boolean ret = false;
         if (runtimeMode == kubernetes) {
              ret = true;
@@ -105,8 +109,8 @@ public class BuildMojo extends AbstractDockerMojo implements Contextualizable {
 
     public void executeDockerBuild() throws MojoExecutionException, MojoFailureException {
         if (!skip) {
-            log = new AnsiLogger(getLog(), useColor, verbose, !settings.getInteractiveMode(), getLogPrefix());
-            authConfigFactory = new AuthConfigFactory(log);
+            log = new AnsiLogger(getLog(), useColor, verbose, useBatchModeForLogging(), getLogPrefix());
+            authConfigFactory = new AuthConfigFactory(log, getAuthConfigCache());
             imageConfigResolver.setLog(log);
 
             LogOutputSpecFactory logSpecFactory = new LogOutputSpecFactory(useColor, logStdout, logDate);
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2019 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at:
+ *
+ *     https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.jkube.maven.plugin.enricher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import org.eclipse.jkube.kit.common.KitLogger;
+import org.eclipse.jkube.kit.config.resource.PlatformMode;
+import org.eclipse.jkube.kit.config.resource.ProcessorConfig;
+import org.eclipse.jkube.maven.enricher.api.Enricher;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EnricherManagerTest {
+
+    private static final int ITEMS = 8;
+
+    @Test
+    public void testOrderIsKept() {
+        // Given
+        FakeEnricher first = new FakeEnricher("first", true);
+        FakeEnricher second = new FakeEnricher("second", true);
+        FakeEnricher third = new FakeEnricher("third", false);
+        FakeEnricher fourth = new FakeEnricher("fourth", true);
+        EnricherManager manager = createManager(4, first, second, third, fourth);
+        KubernetesListBuilder builder = createItems(ITEMS);
+
+        // When
+        manager.createDefaultResources(PlatformMode.kubernetes, builder);
+        manager.enrich(PlatformMode.kubernetes, builder);
+
+        // Then
+        List<HasMetadata> items = builder.buildItems();
+        assertEquals(createNames(ITEMS), items.stream().map(item -> item.getMetadata().getName()).collect(Collectors.toList()));
+        for (HasMetadata item : items) {
+            assertEquals("first,second,third,fourth,first,second,third,fourth,", item.getMetadata().getAnnotations().get("trace"));
+        }
+        assertTrue(first.threads.stream().allMatch(thread -> thread.startsWith("jkube-enricher-")));
+        // Enrichers depending on other resources get all of them, in the calling thread
+        assertEquals(Arrays.asList(Thread.currentThread().getName(), Thread.currentThread().getName()), third.threads);
+        assertEquals(Arrays.asList(ITEMS, ITEMS), third.itemCounts);
+    }
+
+    @Test
+    public void testSequentialWithSingleThread() {
+        // Given
+        FakeEnricher enricher = new FakeEnricher("first", true);
+        KubernetesListBuilder builder = createItems(ITEMS);
+
+        // When
+        createManager(1, enricher).enrich(PlatformMode.kubernetes, builder);
+
+        // Then
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), enricher.threads);
+        assertEquals(createNames(ITEMS), builder.buildItems().stream().map(item -> item.getMetadata().getName()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testSequentialWithSingleItem() {
+        // Given
+        FakeEnricher enricher = new FakeEnricher("first", true);
+        KubernetesListBuilder builder = createItems(1);
+
+        // When
+        createManager(4, enricher).enrich(PlatformMode.kubernetes, builder);
+
+        // Then
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), enricher.threads);
+        assertEquals("first,", builder.buildItems().get(0).getMetadata().getAnnotations().get("trace"));
+    }
+
+    @Test
+    public void testExceptionOfWorkerIsUnwrapped() {
+        // Given
+        FakeEnricher enricher = new FakeEnricher("first", true);
+        enricher.failure = new IllegalArgumentException("Invalid resource");
+
+        try {
+            // When
+            createManager(4, enricher).enrich(PlatformMode.kubernetes, createItems(ITEMS));
+            fail("Exception expected");
+        } catch (IllegalArgumentException exp) {
+            // Then
+            assertEquals("Invalid resource", exp.getMessage());
+        }
+    }
+
+    private static EnricherManager createManager(int parallelism, FakeEnricher... enrichers) {
+        List<String> names = Arrays.stream(enrichers).map(FakeEnricher::getName).collect(Collectors.toList());
+        return new EnricherManager(new ProcessorConfig(names, null, null), Arrays.asList(enrichers),
+                new KitLogger.StdoutLogger(), parallelism);
+    }
+
+    private static KubernetesListBuilder createItems(int count) {
+        KubernetesListBuilder ret = new KubernetesListBuilder();
+        for (String name : createNames(count)) {
+            ret.addToItems(new ConfigMapBuilder().withNewMetadata().withName(name).endMetadata().build());
+        }
+        return ret;
+    }
+
+    private static List<String> createNames(int count) {
+        List<String> ret = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ret.add("item-" + i);
+        }
+        return ret;
+    }
+
+    // Appends its name to the "trace" annotation of every resource
+    private static class FakeEnricher implements Enricher {
+
+        private final String name;
+        private final boolean independent;
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> itemCounts = Collections.synchronizedList(new ArrayList<>());
+        private RuntimeException failure;
+
+        FakeEnricher(String name, boolean independent) {
+            this.name = name;
+            this.independent = independent;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean processesResourcesIndependently() {
+            return independent;
+        }
+
+        @Override
+        public void create(PlatformMode platformMode, KubernetesListBuilder builder) {
+            apply(builder);
+        }
+
+        @Override
+        public void enrich(PlatformMode platformMode, KubernetesListBuilder builder) {
+            apply(builder);
+        }
+
+        private void apply(KubernetesListBuilder builder) {
+            threads.add(Thread.currentThread().getName());
+            if (failure != null) {
+                throw failure;
+            }
+            List<HasMetadata> items = builder.buildItems();
+            itemCounts.add(items.size());
+            for (HasMetadata item : items) {
+                // Earlier items take longer, so that later ones are completed first
+                sleep(ITEMS - Integer.parseInt(item.getMetadata().getName().substring("item-".length())));
+                Map<String, String> annotations = item.getMetadata().getAnnotations() != null ?
+                        new HashMap<>(item.getMetadata().getAnnotations()) : new HashMap<>();
+                annotations.merge("trace", name + ",", String::concat);
+                item.getMetadata().setAnnotations(annotations);
+            }
+            builder.withItems(items);
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException exp) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}